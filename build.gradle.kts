@@ -53,6 +53,7 @@ val springdocOpenapiVersion: String by project
 val jsonwebtokenVersion: String by project
 val mapstructVersion: String by project
 val lombokMapstructBindingVersion: String by project
+val jmhVersion: String by project
 
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
@@ -61,6 +62,7 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.boot:spring-boot-starter-logging")
     implementation("org.springframework.boot:spring-boot-starter-cache")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:$springdocOpenapiVersion")
     implementation("org.mapstruct:mapstruct:$mapstructVersion")
     implementation("com.github.ben-manes.caffeine:caffeine")
@@ -70,7 +72,7 @@ dependencies {
     implementation("org.flywaydb:flyway-database-postgresql")
 
     compileOnly("org.projectlombok:lombok")
-    runtimeOnly("org.postgresql:postgresql")
+    implementation("org.postgresql:postgresql")
     annotationProcessor("org.mapstruct:mapstruct-processor:$mapstructVersion")
     annotationProcessor("org.projectlombok:lombok")
     annotationProcessor("org.projectlombok:lombok-mapstruct-binding:$lombokMapstructBindingVersion")
@@ -81,9 +83,18 @@ dependencies {
 
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.springframework.security:spring-security-test")
+    testImplementation("org.springframework.boot:spring-boot-testcontainers")
+    testImplementation("org.testcontainers:junit-jupiter")
+    testImplementation("org.testcontainers:postgresql")
+    testImplementation("org.openjdk.jmh:jmh-core:$jmhVersion")
+    testAnnotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
+springBoot {
+    mainClass = "ru.kretsev.TaskManagementApp"
+}
+
 tasks.withType<JavaCompile> {
     options.encoding = "UTF-8"
     options.compilerArgs.addAll(listOf("-Xlint:all,-serial,-processing"))
@@ -115,7 +126,34 @@ tasks.withType<Test> {
     }
 }
 
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+}
+
 tasks {
+    val benchmark by registering(Test::class) {
+        description = "Runs the benchmark tests against a PostgreSQL container."
+        group = "verification"
+        testClassesDirs = sourceSets.test.get().output.classesDirs
+        classpath = sourceSets.test.get().runtimeClasspath
+        useJUnitPlatform {
+            includeTags("benchmark")
+        }
+        shouldRunAfter(test)
+    }
+
+    val importTasks by registering(JavaExec::class) {
+        description = "Imports tasks from a file: -Pfile=<path> [-Pformat=NDJSON|CSV]."
+        group = "application"
+        classpath = sourceSets.main.get().runtimeClasspath
+        mainClass = "ru.kretsev.TaskImportCli"
+        args = listOfNotNull(
+                project.findProperty("file")?.toString(),
+                project.findProperty("format")?.toString())
+    }
+
     val managedVersions by registering {
         doLast {
             project.extensions.getByType<DependencyManagementExtension>()
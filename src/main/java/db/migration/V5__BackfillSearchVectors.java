@@ -0,0 +1,69 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Fills the search vectors of rows created before V4 in short, separately committed batches.
+ * Batches walk the primary key in ranges, so only the rows of the current range are locked.
+ */
+public class V5__BackfillSearchVectors extends BaseJavaMigration {
+    private static final int BATCH_SIZE = 5_000;
+
+    private static final String TASKS_UPDATE =
+            """
+            UPDATE tasks
+            SET search_vector = setweight(to_tsvector('russian', coalesce(title, '')), 'A') ||
+                                setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+            WHERE id > ? AND id <= ? AND search_vector IS NULL
+            """;
+
+    private static final String COMMENTS_UPDATE =
+            """
+            UPDATE comments
+            SET search_vector = setweight(to_tsvector('russian', coalesce(content, '')), 'C')
+            WHERE id > ? AND id <= ? AND search_vector IS NULL
+            """;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+        try {
+            backfill(connection, "tasks", TASKS_UPDATE);
+            backfill(connection, "comments", COMMENTS_UPDATE);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void backfill(Connection connection, String table, String update) throws SQLException {
+        long maxId = maxId(connection, table);
+        try (PreparedStatement statement = connection.prepareStatement(update)) {
+            for (long from = 0; from < maxId; from += BATCH_SIZE) {
+                statement.setLong(1, from);
+                statement.setLong(2, from + BATCH_SIZE);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT coalesce(max(id), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ru.kretsev;
+
+import java.nio.file.Path;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.kretsev.dto.task.ImportErrorDto;
+import ru.kretsev.dto.task.ImportJobDto;
+import ru.kretsev.dto.task.ImportJobState;
+import ru.kretsev.dto.task.TaskFileFormat;
+import ru.kretsev.service.LoggingService;
+import ru.kretsev.service.TaskImportService;
+
+/**
+ * Command-line entry point importing a task file into the configured database without starting the web server.
+ * Usage: {@code TaskImportCli <file> [NDJSON|CSV]}; the format defaults to the file extension.
+ * Exits with 1 if the import failed or some rows were rejected, and with 2 on wrong arguments.
+ */
+public class TaskImportCli {
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Использование: TaskImportCli <файл> [NDJSON|CSV]");
+            System.exit(2);
+        }
+        Path file = Path.of(args[0]);
+        String formatName = args.length == 2 ? args[1] : extensionOf(file);
+        TaskFileFormat format;
+        try {
+            format = TaskFileFormat.valueOf(formatName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Неизвестный формат файла: " + formatName);
+            System.exit(2);
+            return;
+        }
+
+        int exitCode;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskManagementApp.class)
+                .web(WebApplicationType.NONE)
+                .run()) {
+            LoggingService loggingService = context.getBean(LoggingService.class);
+            ImportJobDto job = context.getBean(TaskImportService.class).importFile(format, file);
+            for (ImportErrorDto error : job.errors()) {
+                loggingService.logWarn("Строка {} отклонена: {}", error.line(), error.message());
+            }
+            loggingService.logInfo(
+                    "Импорт {}: state={}, tasks={}, comments={}, rejected={}",
+                    file,
+                    job.state(),
+                    job.tasksImported(),
+                    job.commentsImported(),
+                    job.errorCount());
+            exitCode = job.state() == ImportJobState.COMPLETED && job.errorCount() == 0 ? 0 : 1;
+        }
+        System.exit(exitCode);
+    }
+
+    private static String extensionOf(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+}
@@ -1,6 +1,7 @@
 package ru.kretsev.auth;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.SignatureException;
@@ -14,23 +15,28 @@ import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import ru.kretsev.dto.error.ErrorResponse;
+import ru.kretsev.model.user.User;
 import ru.kretsev.service.LoggingService;
+import ru.kretsev.service.TokenEpochService;
+import ru.kretsev.service.TokenRevocationService;
 
 /**
  * Filter for processing JWT-based authentication in incoming requests.
- * Extracts and validates JWT tokens from the Authorization header.
+ * Extracts JWT tokens from the Authorization header and verifies each of them once, so the signature, expiration
+ * and subject all come from a single parse. The principal is built from the claims of the token, and the token epoch
+ * is checked against the epochs kept in memory, so an authenticated request needs no query for its user. Revoked token
+ * IDs and sessions are kept in memory as well. The verified claims are kept as the credentials of the authentication.
  */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final TokenEpochService tokenEpochService;
+    private final TokenRevocationService tokenRevocationService;
     private final LoggingService loggingService;
     private final ObjectMapper objectMapper;
 
@@ -56,20 +62,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         loggingService.logDebug("JWT token extracted from the request");
 
         try {
-            final String userEmail = jwtService.getUsername(jwt);
-            loggingService.logDebug("Extracted user email from JWT");
+            final Claims claims = jwtService.verify(jwt);
+            loggingService.logDebug("JWT token verified");
 
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-                loggingService.logDebug("Loaded user details for: {}", userEmail);
-
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    loggingService.logDebug("Authentication set for user: {}", userEmail);
+            if (claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                User user = jwtService.principalOf(claims);
+                if (!tokenEpochService.isCurrent(user.getId(), user.getTokenEpoch())
+                        || tokenRevocationService.isRevoked(claims.getId())
+                        || tokenRevocationService.isSessionRevoked(claims.get(JwtService.SESSION_ID, String.class))) {
+                    loggingService.logWarn("Revoked JWT token: userId={}", user.getId());
+                    sendErrorResponse(response, "Токен отозван");
+                    return;
                 }
+
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(user, claims, user.getAuthorities());
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                loggingService.logDebug("Authentication set for user: {}", user.getEmail());
             }
             filterChain.doFilter(request, response);
         } catch (ExpiredJwtException e) {
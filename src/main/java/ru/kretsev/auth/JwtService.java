@@ -1,62 +1,149 @@
 package ru.kretsev.auth;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
 
 /**
  * Service for handling JWT token generation, validation, and extraction of claims.
+ * Tokens carry the user ID, name, role and token epoch, so the principal of a request is built from the token without
+ * loading the user, and a unique ID ({@code jti}) by which a single token is revoked. The signing key and the parser
+ * are built once. Verified tokens are cached by their SHA-256 digest until they expire, so a client repeating its
+ * token is not verified again on every request.
  */
 @Service
 public class JwtService {
+    private static final String USER_ID = "uid";
+    private static final String GIVEN_NAME = "given_name";
+    private static final String FAMILY_NAME = "family_name";
+    private static final String ROLE = "role";
+    private static final String TOKEN_EPOCH = "epoch";
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    /**
+     * The claim carrying the ID of the login session a token was issued in.
+     */
+    public static final String SESSION_ID = "sid";
 
-    @Value("${jwt.expiration}")
-    private Integer expirationInSeconds;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Integer expirationInSeconds;
+    private final Cache<String, Claims> verifiedTokens;
 
     /**
-     * Extracts the username (email) from the JWT token.
+     * Creates the service.
      *
-     * @param token the JWT token
-     * @return the username, or null if token is invalid
+     * @param secretKey the Base64-encoded HMAC key
+     * @param expirationInSeconds the lifetime of generated tokens
+     * @param verifiedTokensSize the maximum number of verified tokens kept
      */
-    public String getUsername(String token) {
-        return getClaim(token, Claims::getSubject);
+    public JwtService(
+            @Value("${jwt.secret}") String secretKey,
+            @Value("${jwt.expiration}") Integer expirationInSeconds,
+            @Value("${jwt.verified-tokens:10000}") long verifiedTokensSize) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.expirationInSeconds = expirationInSeconds;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedTokensSize)
+                .expireAfter(new UntilTokenExpiration())
+                .build();
     }
 
     /**
-     * Extracts a specific claim from the JWT token.
+     * Verifies the signature and expiration of a token and returns its claims.
+     * A token verified before is answered from the cache until its expiration.
      *
      * @param token the JWT token
-     * @param claimsResolver the function to extract the claim
-     * @param <T> the type of the claim
-     * @return the extracted claim value
+     * @return the claims of the token
+     * @throws JwtException if the token is malformed, not signed with the key or expired
+     * @throws IllegalArgumentException if the token is empty
      */
-    public <T> T getClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
+    public Claims verify(String token) {
+        String digest = digest(token);
+        Claims claims = verifiedTokens.getIfPresent(digest);
+        if (claims == null) {
+            claims = parser.parseSignedClaims(token).getPayload();
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(digest, claims);
+            }
+        }
+        return claims;
+    }
 
-        return claimsResolver.apply(claims);
+    /**
+     * Builds the principal of a request from the claims of its verified token.
+     *
+     * @param claims the claims returned by {@link #verify}
+     * @return the user, with everything but the password
+     * @throws MalformedJwtException if the token does not carry the user data or an ID, like tokens of earlier versions
+     */
+    public User principalOf(Claims claims) {
+        Long userId = claims.get(USER_ID, Long.class);
+        String role = claims.get(ROLE, String.class);
+        Long tokenEpoch = claims.get(TOKEN_EPOCH, Long.class);
+        if (userId == null || role == null || tokenEpoch == null || claims.getId() == null) {
+            throw new MalformedJwtException("Токен не содержит данных пользователя");
+        }
+        return User.builder()
+                .id(userId)
+                .email(claims.getSubject())
+                .firstname(claims.get(GIVEN_NAME, String.class))
+                .lastname(claims.get(FAMILY_NAME, String.class))
+                .role(Role.valueOf(role))
+                .tokenEpoch(tokenEpoch)
+                .build();
     }
 
     /**
-     * Generates a JWT token for the given user details.
+     * Generates a JWT token for the given user, carrying the claims its principal is built from.
      *
-     * @param userDetails the user details
+     * @param user the user
      * @return the generated JWT token
      */
-    public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+    public String generateToken(User user) {
+        return generateToken(user, null);
+    }
+
+    /**
+     * Generates a JWT token for the given user in a login session, so that revoking the session revokes the token.
+     *
+     * @param user the user
+     * @param sessionId the session ID, or null for a token outside a session
+     * @return the generated JWT token
+     */
+    public String generateToken(User user, UUID sessionId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID, user.getId());
+        claims.put(GIVEN_NAME, user.getFirstname());
+        claims.put(FAMILY_NAME, user.getLastname());
+        claims.put(ROLE, user.getRole().name());
+        claims.put(TOKEN_EPOCH, user.getTokenEpoch());
+        if (sessionId != null) {
+            claims.put(SESSION_ID, sessionId.toString());
+        }
+        return generateToken(claims, user);
     }
 
     /**
@@ -69,49 +156,41 @@ public class JwtService {
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
         return Jwts.builder()
                 .claims(extraClaims)
+                .id(UUID.randomUUID().toString())
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expirationInSeconds * 1000))
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
-    /**
-     * Validates the JWT token against the user details.
-     *
-     * @param token the JWT token
-     * @param userDetails the user details
-     * @return true if the token is valid, false otherwise
-     */
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = getUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    private static String digest(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
     }
 
     /**
-     * Checks if the JWT token has expired.
-     *
-     * @param token the JWT token
-     * @return true if the token is expired, false otherwise
+     * Expires a verified token at its {@code exp} claim.
      */
-    public boolean isTokenExpired(String token) {
-        return getExpiration(token).before(new Date());
-    }
+    private static final class UntilTokenExpiration implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
 
-    private Date getExpiration(String token) {
-        return getClaim(token, Claims::getExpiration);
-    }
-
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
+        @Override
+        public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        @Override
+        public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,61 @@
+package ru.kretsev.cache;
+
+/**
+ * Data a cached value is built from besides the entity it is cached under, so the value goes stale when that data
+ * changes.
+ *
+ * @param type the kind of data
+ * @param id the ID of the entity owning the data
+ */
+public record CacheDependency(Type type, Long id) {
+
+    /**
+     * The kinds of data cached values depend on.
+     */
+    public enum Type {
+        /**
+         * The own fields of a task, such as the title embedded in its comments.
+         */
+        TASK,
+
+        /**
+         * The comments of a task, embedded in the task.
+         */
+        TASK_COMMENTS,
+
+        /**
+         * The profile of a user, such as the role embedded in the tasks and comments of the user.
+         */
+        USER
+    }
+
+    /**
+     * Creates a dependency on the own fields of a task.
+     *
+     * @param taskId the task ID
+     * @return the dependency
+     */
+    public static CacheDependency task(Long taskId) {
+        return new CacheDependency(Type.TASK, taskId);
+    }
+
+    /**
+     * Creates a dependency on the comments of a task.
+     *
+     * @param taskId the task ID
+     * @return the dependency
+     */
+    public static CacheDependency taskComments(Long taskId) {
+        return new CacheDependency(Type.TASK_COMMENTS, taskId);
+    }
+
+    /**
+     * Creates a dependency on the profile of a user.
+     *
+     * @param userId the user ID
+     * @return the dependency
+     */
+    public static CacheDependency user(Long userId) {
+        return new CacheDependency(Type.USER, userId);
+    }
+}
@@ -0,0 +1,134 @@
+package ru.kretsev.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.springframework.cache.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Records which data every cached value is built from, so a change evicts exactly the entries embedding that data.
+ * The record of an entry is kept for the lifetime of the entry plus a margin and is not removed when the entry is,
+ * since evicting an absent entry is harmless while a lost record would leave a stale one. With invalidation across
+ * nodes enabled, changes are broadcast as well, since the other nodes cache different entries.
+ */
+public class CacheDependencyTracker {
+    private static final Duration RECORD_TTL_MARGIN = Duration.ofMinutes(1);
+
+    private final com.github.benmanes.caffeine.cache.Cache<CacheDependency, Set<CachedEntry>> dependents;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+    private final Map<String, Function<Object, Collection<CacheDependency>>> dependencies = new ConcurrentHashMap<>();
+    private final CacheInvalidationBroadcaster broadcaster;
+
+    private record CachedEntry(String cacheName, Object key) {}
+
+    /**
+     * Creates a tracker.
+     *
+     * @param entryTtl the time after which cached entries expire
+     * @param broadcaster the broadcaster of changes to the other nodes, or null when there are none
+     */
+    public CacheDependencyTracker(Duration entryTtl, CacheInvalidationBroadcaster broadcaster) {
+        this.dependents = Caffeine.newBuilder()
+                .expireAfterWrite(entryTtl.plus(RECORD_TTL_MARGIN))
+                .build();
+        this.broadcaster = broadcaster;
+        if (broadcaster != null) {
+            for (CacheDependency.Type type : CacheDependency.Type.values()) {
+                broadcaster.register(targetName(type), new InvalidationTarget() {
+                    @Override
+                    public void evictLocally(Object key) {
+                        invalidateLocally(new CacheDependency(type, (Long) key));
+                    }
+
+                    @Override
+                    public void clearLocally() {
+                        invalidateAllLocally();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Wraps a local cache so that the dependencies of its values are recorded.
+     *
+     * @param cache the local cache
+     * @param dependenciesOf the function returning the dependencies of a cached value
+     * @return the wrapped cache
+     */
+    public Cache track(Cache cache, Function<Object, Collection<CacheDependency>> dependenciesOf) {
+        DependencyTrackingCache trackingCache = new DependencyTrackingCache(cache, this);
+        caches.put(cache.getName(), trackingCache);
+        dependencies.put(cache.getName(), dependenciesOf);
+        return trackingCache;
+    }
+
+    /**
+     * Evicts the entries depending on changed data on this node and the other nodes.
+     *
+     * @param dependency the changed data
+     */
+    public void invalidate(CacheDependency dependency) {
+        invalidateLocally(dependency);
+        if (broadcaster != null) {
+            broadcaster.keyChanged(targetName(dependency.type()), dependency.id());
+        }
+    }
+
+    /**
+     * Evicts the entries depending on data changed in the current transaction once it commits, so a concurrent read
+     * does not cache the previous state again.
+     *
+     * @param dependency the changed data
+     */
+    public void invalidateAfterCommit(CacheDependency dependency) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(dependency);
+                }
+            });
+        } else {
+            invalidate(dependency);
+        }
+    }
+
+    void record(String cacheName, Object key, Object value) {
+        Function<Object, Collection<CacheDependency>> dependenciesOf = dependencies.get(cacheName);
+        if (dependenciesOf == null || value == null) {
+            return;
+        }
+        CachedEntry entry = new CachedEntry(cacheName, key);
+        for (CacheDependency dependency : dependenciesOf.apply(value)) {
+            dependents.asMap().compute(dependency, (ignored, entries) -> {
+                Set<CachedEntry> updated = entries == null ? ConcurrentHashMap.newKeySet() : entries;
+                updated.add(entry);
+                return updated;
+            });
+        }
+    }
+
+    private void invalidateLocally(CacheDependency dependency) {
+        Set<CachedEntry> entries = dependents.asMap().remove(dependency);
+        if (entries != null) {
+            entries.forEach(entry -> caches.get(entry.cacheName()).evict(entry.key()));
+        }
+    }
+
+    private void invalidateAllLocally() {
+        dependents.invalidateAll();
+        caches.values().forEach(Cache::invalidate);
+    }
+
+    private static String targetName(CacheDependency.Type type) {
+        return "depends-on-" + type.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
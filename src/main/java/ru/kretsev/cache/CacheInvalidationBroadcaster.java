@@ -0,0 +1,212 @@
+package ru.kretsev.cache;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.context.event.EventListener;
+import ru.kretsev.service.LoggingService;
+
+/**
+ * Keeps the local caches of several nodes consistent by broadcasting the keys changed on each node.
+ * Changed keys are collected and sent in batches every {@code batchDelay}, one message per cache holding as many keys
+ * as fit; a changed key that is not a {@link Long} ID clears the whole cache on the other nodes. Received messages
+ * evict the keys from the local caches, and a node that (re)subscribes clears its caches, since it may have missed
+ * messages while it was not subscribed. A stale entry therefore outlives the change on another node by about one batch
+ * delay plus the delivery time.
+ */
+public class CacheInvalidationBroadcaster {
+    /**
+     * Stays below the 8000 byte payload limit of {@code NOTIFY}.
+     */
+    static final int MAX_MESSAGE_LENGTH = 7000;
+
+    private static final String ALL_KEYS = "*";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final CacheInvalidationTransport transport;
+    private final Duration batchDelay;
+    private final LoggingService loggingService;
+    private final Map<String, InvalidationTarget> targets = new ConcurrentHashMap<>();
+    private final Queue<Invalidation> pending = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService flushExecutor =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("cache-invalidation").factory());
+
+    /**
+     * A changed key, or a cleared cache when the key is null.
+     */
+    private record Invalidation(String cacheName, Long key) {}
+
+    /**
+     * Creates a broadcaster.
+     *
+     * @param transport the transport carrying messages between the nodes
+     * @param batchDelay the delay between sending batches of changed keys
+     * @param loggingService the logging service
+     */
+    public CacheInvalidationBroadcaster(
+            CacheInvalidationTransport transport, Duration batchDelay, LoggingService loggingService) {
+        this.transport = transport;
+        this.batchDelay = batchDelay;
+        this.loggingService = loggingService;
+    }
+
+    /**
+     * Wraps a local cache so that its changes are broadcast and changes of other nodes evict its entries.
+     *
+     * @param cache the local cache
+     * @return the wrapped cache
+     */
+    public Cache decorate(Cache cache) {
+        InvalidatingCache invalidatingCache = new InvalidatingCache(cache, this);
+        register(cache.getName(), invalidatingCache);
+        return invalidatingCache;
+    }
+
+    /**
+     * Registers local state dropped by the changes other nodes report under a name.
+     *
+     * @param name the name the changes are reported under, without spaces
+     * @param target the local state
+     */
+    public void register(String name, InvalidationTarget target) {
+        targets.put(name, target);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        transport.subscribe(this::receive, this::clearLocalCaches);
+        long delay = batchDelay.toMillis();
+        flushExecutor.scheduleWithFixedDelay(this::flushSafely, delay, delay, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushExecutor.shutdownNow();
+        flushSafely();
+        transport.close();
+    }
+
+    /**
+     * Reports a changed key to the other nodes with the next batch; a key that is not a {@link Long} ID is reported as
+     * a change of every key.
+     *
+     * @param name the name of the cache or other registered state
+     * @param key the changed key
+     */
+    public void keyChanged(String name, Object key) {
+        pending.add(new Invalidation(name, key instanceof Long id ? id : null));
+    }
+
+    void cacheCleared(String cacheName) {
+        pending.add(new Invalidation(cacheName, null));
+    }
+
+    /**
+     * Sends the keys changed since the previous batch. If sending fails, the affected caches are cleared on the other
+     * nodes with the next batch instead, so pending keys never pile up while the transport is down.
+     */
+    void flush() {
+        Map<String, Set<Long>> keysByCache = new LinkedHashMap<>();
+        Set<String> clearedCaches = new LinkedHashSet<>();
+        Invalidation invalidation;
+        while ((invalidation = pending.poll()) != null) {
+            if (invalidation.key() == null) {
+                clearedCaches.add(invalidation.cacheName());
+            } else {
+                keysByCache
+                        .computeIfAbsent(invalidation.cacheName(), name -> new LinkedHashSet<>())
+                        .add(invalidation.key());
+            }
+        }
+        keysByCache.keySet().removeAll(clearedCaches);
+        if (clearedCaches.isEmpty() && keysByCache.isEmpty()) {
+            return;
+        }
+
+        List<String> messages = new ArrayList<>();
+        clearedCaches.forEach(cacheName -> messages.add(header(cacheName) + ALL_KEYS));
+        keysByCache.forEach((cacheName, keys) -> addKeyMessages(messages, cacheName, keys));
+        try {
+            transport.send(messages);
+        } catch (RuntimeException e) {
+            loggingService.logWarn("Не удалось разослать инвалидацию кэшей: {}", e.getMessage());
+            clearedCaches.forEach(this::cacheCleared);
+            keysByCache.keySet().forEach(this::cacheCleared);
+        }
+    }
+
+    /**
+     * Applies a message of another node; messages of this node and of unknown names are ignored.
+     */
+    void receive(String message) {
+        String[] parts = message.split(" ", 3);
+        if (parts.length < 3 || parts[0].equals(nodeId)) {
+            return;
+        }
+        InvalidationTarget target = targets.get(parts[1]);
+        if (target == null) {
+            return;
+        }
+        if (parts[2].equals(ALL_KEYS)) {
+            target.clearLocally();
+            return;
+        }
+        try {
+            for (String key : parts[2].split(",")) {
+                target.evictLocally(Long.valueOf(key));
+            }
+        } catch (NumberFormatException e) {
+            loggingService.logWarn("Некорректное сообщение инвалидации кэша {}, кэш очищен", parts[1]);
+            target.clearLocally();
+        }
+    }
+
+    void clearLocalCaches() {
+        targets.values().forEach(InvalidationTarget::clearLocally);
+        loggingService.logInfo("Подписка на инвалидацию кэшей установлена, локальные кэши очищены: node={}", nodeId);
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            loggingService.logError("Ошибка рассылки инвалидации кэшей: {}", e.getMessage());
+        }
+    }
+
+    private void addKeyMessages(List<String> messages, String cacheName, Set<Long> keys) {
+        String header = header(cacheName);
+        StringBuilder message = new StringBuilder(header);
+        for (Long key : keys) {
+            String value = key.toString();
+            if (message.length() > header.length() && message.length() + 1 + value.length() > MAX_MESSAGE_LENGTH) {
+                messages.add(message.toString());
+                message.setLength(0);
+                message.append(header);
+            }
+            if (message.length() > header.length()) {
+                message.append(',');
+            }
+            message.append(value);
+        }
+        messages.add(message.toString());
+    }
+
+    private String header(String cacheName) {
+        return nodeId + ' ' + cacheName + ' ';
+    }
+}
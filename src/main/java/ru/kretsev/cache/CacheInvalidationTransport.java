@@ -0,0 +1,31 @@
+package ru.kretsev.cache;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries cache invalidation messages between the nodes of the application.
+ * A node only receives messages sent while it is subscribed; the subscription callback runs each time the node
+ * (re)subscribes, so it can drop whatever it may have missed in between.
+ */
+public interface CacheInvalidationTransport {
+    /**
+     * Sends messages to every subscribed node, including the sender.
+     *
+     * @param messages the messages in the order they should be delivered
+     */
+    void send(List<String> messages);
+
+    /**
+     * Starts receiving messages on a background thread, reconnecting after failures until the transport is closed.
+     *
+     * @param onMessage the consumer of received messages
+     * @param onSubscribed the callback run after every successful (re)subscription
+     */
+    void subscribe(Consumer<String> onMessage, Runnable onSubscribed);
+
+    /**
+     * Stops receiving messages.
+     */
+    void close();
+}
@@ -0,0 +1,101 @@
+package ru.kretsev.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.springframework.cache.Cache;
+
+/**
+ * Local cache recording the dependencies of every value in the {@link CacheDependencyTracker} before the value is
+ * stored, so a change of a dependency racing with the store still finds the entry. Removals are not recorded; the
+ * tracker forgets entries once they can no longer be cached.
+ */
+public class DependencyTrackingCache implements Cache {
+    private final Cache delegate;
+    private final CacheDependencyTracker tracker;
+
+    /**
+     * Creates a cache.
+     *
+     * @param delegate the local cache
+     * @param tracker the tracker of dependencies
+     */
+    public DependencyTrackingCache(Cache delegate, CacheDependencyTracker tracker) {
+        this.delegate = delegate;
+        this.tracker = tracker;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(key, () -> {
+            T value = valueLoader.call();
+            tracker.record(getName(), key, value);
+            return value;
+        });
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, () -> valueLoader.get().thenApply(value -> {
+            tracker.record(getName(), key, value);
+            return value;
+        }));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        tracker.record(getName(), key, value);
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        tracker.record(getName(), key, value);
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+}
@@ -0,0 +1,110 @@
+package ru.kretsev.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.springframework.cache.Cache;
+
+/**
+ * Local near-cache reporting every change of an entry to the {@link CacheInvalidationBroadcaster}, so the other nodes
+ * drop their copies. Loading a missing entry through {@link #get(Object, Callable)} or {@link #putIfAbsent} is not a
+ * change and is not reported; {@code @Cacheable} methods therefore use {@code sync = true}, since a plain
+ * {@code @Cacheable} stores loaded values with {@link #put}.
+ */
+public class InvalidatingCache implements Cache, InvalidationTarget {
+    private final Cache delegate;
+    private final CacheInvalidationBroadcaster broadcaster;
+
+    /**
+     * Creates a cache.
+     *
+     * @param delegate the local cache
+     * @param broadcaster the broadcaster of changed keys
+     */
+    public InvalidatingCache(Cache delegate, CacheInvalidationBroadcaster broadcaster) {
+        this.delegate = delegate;
+        this.broadcaster = broadcaster;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        broadcaster.keyChanged(getName(), key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        broadcaster.keyChanged(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = delegate.evictIfPresent(key);
+        broadcaster.keyChanged(getName(), key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        broadcaster.cacheCleared(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = delegate.invalidate();
+        broadcaster.cacheCleared(getName());
+        return invalidated;
+    }
+
+    @Override
+    public void evictLocally(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public void clearLocally() {
+        delegate.invalidate();
+    }
+}
@@ -0,0 +1,18 @@
+package ru.kretsev.cache;
+
+/**
+ * Local state dropped when another node reports a change, such as the entries of a cache.
+ */
+public interface InvalidationTarget {
+    /**
+     * Drops the state of a key changed on another node without reporting it.
+     *
+     * @param key the key
+     */
+    void evictLocally(Object key);
+
+    /**
+     * Drops all state without reporting it.
+     */
+    void clearLocally();
+}
@@ -0,0 +1,129 @@
+package ru.kretsev.cache;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.kretsev.service.LoggingService;
+
+/**
+ * Cache invalidation transport over PostgreSQL {@code LISTEN/NOTIFY}, so no infrastructure beyond the database
+ * is needed. Messages are sent with one {@code pg_notify} statement per batch through the primary; the listener holds
+ * a dedicated connection outside the pool and reconnects after it fails. A connection is checked with a query every
+ * keep-alive interval, since a broken connection does not always fail while waiting for notifications.
+ */
+public class PostgresCacheInvalidationTransport implements CacheInvalidationTransport {
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+    private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String channel;
+    private final Duration keepAliveInterval;
+    private final LoggingService loggingService;
+    private final ExecutorService listenerExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("cache-invalidation-listener").factory());
+
+    /**
+     * Creates a transport.
+     *
+     * @param jdbcTemplate the template bound to the primary, used to send messages
+     * @param url the JDBC URL of the primary
+     * @param username the database user
+     * @param password the database password
+     * @param channel the notification channel, a lowercase SQL identifier
+     * @param keepAliveInterval how often the listener connection is checked
+     * @param loggingService the logging service
+     */
+    public PostgresCacheInvalidationTransport(
+            JdbcTemplate jdbcTemplate,
+            String url,
+            String username,
+            String password,
+            String channel,
+            Duration keepAliveInterval,
+            LoggingService loggingService) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Некорректное имя канала инвалидации кэшей: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.channel = channel;
+        this.keepAliveInterval = keepAliveInterval;
+        this.loggingService = loggingService;
+    }
+
+    @Override
+    public void send(List<String> messages) {
+        if (!messages.isEmpty()) {
+            jdbcTemplate.queryForObject(
+                    "SELECT count(pg_notify(?, m)) FROM unnest(CAST(? AS text[])) AS m",
+                    Long.class,
+                    channel,
+                    messages.toArray(String[]::new));
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<String> onMessage, Runnable onSubscribed) {
+        listenerExecutor.execute(() -> listen(onMessage, onSubscribed));
+    }
+
+    @Override
+    public void close() {
+        listenerExecutor.shutdownNow();
+    }
+
+    private void listen(Consumer<String> onMessage, Runnable onSubscribed) {
+        while (!Thread.currentThread().isInterrupted()) {
+            try (Connection connection = DriverManager.getConnection(url, username, password);
+                    Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + channel);
+                onSubscribed.run();
+                receive(connection.unwrap(PGConnection.class), statement, onMessage);
+            } catch (SQLException e) {
+                loggingService.logWarn("Соединение для инвалидации кэшей потеряно: {}", e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void receive(PGConnection connection, Statement statement, Consumer<String> onMessage)
+            throws SQLException {
+        long nextKeepAlive = System.nanoTime() + keepAliveInterval.toNanos();
+        while (!Thread.currentThread().isInterrupted()) {
+            PGNotification[] notifications = connection.getNotifications(POLL_TIMEOUT_MILLIS);
+            if (notifications != null) {
+                for (PGNotification notification : notifications) {
+                    try {
+                        onMessage.accept(notification.getParameter());
+                    } catch (RuntimeException e) {
+                        loggingService.logError("Ошибка обработки инвалидации кэша: {}", e.getMessage());
+                    }
+                }
+            }
+            if (System.nanoTime() - nextKeepAlive >= 0) {
+                statement.execute("SELECT 1");
+                nextKeepAlive = System.nanoTime() + keepAliveInterval.toNanos();
+            }
+        }
+    }
+}
@@ -1,16 +1,19 @@
 package ru.kretsev.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.kretsev.auth.BoundedPasswordEncoder;
 import ru.kretsev.repository.UserRepository;
 
 /**
@@ -18,6 +21,7 @@ import ru.kretsev.repository.UserRepository;
  */
 @RequiredArgsConstructor
 @Configuration
+@EnableConfigurationProperties(PasswordHashingProperties.class)
 public class ApplicationConfig {
     private final UserRepository userRepository;
 
@@ -33,16 +37,31 @@ public class ApplicationConfig {
                 .orElseThrow(() -> new UsernameNotFoundException("User " + username + " not found"));
     }
 
+    /**
+     * Provides the service storing a new hash of a password after a login with a hash of another cost factor.
+     *
+     * @return the {@link UserDetailsPasswordService} implementation
+     */
+    @Bean
+    public UserDetailsPasswordService userDetailsPasswordService() {
+        return (user, newPassword) -> {
+            userRepository.updatePasswordByEmail(user.getUsername(), newPassword);
+            return user;
+        };
+    }
+
     /**
      * Configures the authentication provider with user details and password encoder.
      *
+     * @param passwordEncoder the password encoder
      * @return the {@link AuthenticationProvider} implementation
      */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -59,12 +78,15 @@ public class ApplicationConfig {
     }
 
     /**
-     * Provides a password encoder for hashing passwords.
+     * Provides a password encoder hashing passwords with BCrypt on a bounded pool of threads.
      *
+     * @param properties the settings of the pool
+     * @param meterRegistry the registry of the pool metrics
      * @return the {@link PasswordEncoder} implementation
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        int threads = properties.threads() > 0 ? properties.threads() : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(properties.strength(), threads, properties.queueCapacity(), meterRegistry);
     }
 }
@@ -1,12 +1,27 @@
 package ru.kretsev.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import ru.kretsev.cache.CacheDependency;
+import ru.kretsev.cache.CacheDependencyTracker;
+import ru.kretsev.cache.CacheInvalidationBroadcaster;
+import ru.kretsev.datasource.ReplicaEvictionLog;
+import ru.kretsev.dto.TaggedDto;
+import ru.kretsev.dto.comment.CommentDto;
+import ru.kretsev.dto.task.TaskDto;
+import ru.kretsev.dto.user.UserShortDto;
 
 /**
  * Configuration class for enabling and setting up caching.
@@ -14,17 +29,87 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 @EnableCaching
 public class CacheConfig {
+    private static final Duration ENTRY_TTL = Duration.ofMinutes(10);
 
     /**
-     * Configures the cache manager with Caffeine settings.
+     * The data embedded in the cached DTOs besides the entity they are cached under: a task embeds its comments, and
+     * a comment embeds the title of its task. Both embed the profiles of the users they show.
+     */
+    private static final Map<String, Function<Object, Collection<CacheDependency>>> DEPENDENCIES = Map.of(
+            "tasks", value -> taskDependencies((TaskDto) body(value)),
+            "comments", value -> commentDependencies((CommentDto) body(value)));
+
+    /**
+     * Creates the tracker of the data cached values depend on.
+     *
+     * @param broadcaster the broadcaster of cache changes, if enabled
+     * @return the tracker
+     */
+    @Bean
+    public CacheDependencyTracker cacheDependencyTracker(ObjectProvider<CacheInvalidationBroadcaster> broadcaster) {
+        return new CacheDependencyTracker(ENTRY_TTL, broadcaster.getIfAvailable());
+    }
+
+    /**
+     * Configures the cache manager with Caffeine settings. The dependencies of cached values are tracked, and when
+     * cache invalidation across nodes is enabled, the local caches are wrapped so that their changes evict the
+     * entries of the other nodes. When a read replica is enabled, the evictions of the local caches are recorded so
+     * that they are repeated once the replica has replayed the writes behind them.
      *
+     * @param dependencyTracker the tracker of the data cached values depend on
+     * @param broadcaster the broadcaster of cache changes, if enabled
+     * @param replicaEvictionLog the log of evictions to repeat after replica catch-up, if a replica is enabled
      * @return the {@link CacheManager} instance
      */
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("tasks", "comments");
-        cacheManager.setCaffeine(
-                Caffeine.newBuilder().expireAfterWrite(10, TimeUnit.MINUTES).maximumSize(100));
+    public CacheManager cacheManager(
+            CacheDependencyTracker dependencyTracker,
+            ObjectProvider<CacheInvalidationBroadcaster> broadcaster,
+            ObjectProvider<ReplicaEvictionLog> replicaEvictionLog) {
+        CacheInvalidationBroadcaster invalidationBroadcaster = broadcaster.getIfAvailable();
+        ReplicaEvictionLog evictionLog = replicaEvictionLog.getIfAvailable();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(
+                    String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                Cache caffeineCache = super.adaptCaffeineCache(name, cache);
+                if (evictionLog != null) {
+                    caffeineCache = evictionLog.decorate(caffeineCache);
+                }
+                Cache localCache = dependencyTracker.track(caffeineCache, DEPENDENCIES.get(name));
+                return invalidationBroadcaster != null ? invalidationBroadcaster.decorate(localCache) : localCache;
+            }
+        };
+        cacheManager.setCaffeine(Caffeine.newBuilder().expireAfterWrite(ENTRY_TTL).maximumSize(100));
+        cacheManager.setCacheNames(DEPENDENCIES.keySet());
         return cacheManager;
     }
+
+    private static Collection<CacheDependency> taskDependencies(TaskDto task) {
+        List<CacheDependency> dependencies = new ArrayList<>();
+        dependencies.add(CacheDependency.taskComments(task.id()));
+        addUser(dependencies, task.author());
+        addUser(dependencies, task.assignee());
+        if (task.comments() != null) {
+            task.comments().forEach(comment -> addUser(dependencies, comment.userShortDto()));
+        }
+        return dependencies;
+    }
+
+    private static Collection<CacheDependency> commentDependencies(CommentDto comment) {
+        List<CacheDependency> dependencies = new ArrayList<>();
+        dependencies.add(CacheDependency.task(comment.taskShortDto().id()));
+        addUser(dependencies, comment.userShortDto());
+        return dependencies;
+    }
+
+    private static void addUser(List<CacheDependency> dependencies, UserShortDto user) {
+        if (user != null) {
+            dependencies.add(CacheDependency.user(user.id()));
+        }
+    }
+
+    private static Object body(Object value) {
+        return ((TaggedDto<?>) value).body();
+    }
 }
@@ -0,0 +1,53 @@
+package ru.kretsev.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.kretsev.cache.CacheInvalidationBroadcaster;
+import ru.kretsev.cache.PostgresCacheInvalidationTransport;
+import ru.kretsev.service.LoggingService;
+
+/**
+ * Configuration of the invalidation of the local caches across nodes, enabled by the
+ * {@code cache-invalidation.enabled} property. Changes are broadcast over PostgreSQL {@code LISTEN/NOTIFY}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "cache-invalidation", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(CacheInvalidationProperties.class)
+public class CacheInvalidationConfig {
+
+    /**
+     * Creates the broadcaster of cache changes. The listener connects with the primary connection settings, since
+     * notifications are only delivered on the server they are sent to.
+     *
+     * @param properties the cache invalidation properties
+     * @param jdbcTemplate the template used to send messages
+     * @param dataSourceProperties the primary data source properties
+     * @param connectionDetails the connection details provided by a service connection, if any
+     * @param loggingService the logging service
+     * @return the broadcaster
+     */
+    @Bean
+    public CacheInvalidationBroadcaster cacheInvalidationBroadcaster(
+            CacheInvalidationProperties properties,
+            JdbcTemplate jdbcTemplate,
+            DataSourceProperties dataSourceProperties,
+            ObjectProvider<JdbcConnectionDetails> connectionDetails,
+            LoggingService loggingService) {
+        JdbcConnectionDetails details = connectionDetails.getIfAvailable();
+        PostgresCacheInvalidationTransport transport = new PostgresCacheInvalidationTransport(
+                jdbcTemplate,
+                details != null ? details.getJdbcUrl() : dataSourceProperties.determineUrl(),
+                details != null ? details.getUsername() : dataSourceProperties.determineUsername(),
+                details != null ? details.getPassword() : dataSourceProperties.determinePassword(),
+                properties.channel(),
+                properties.keepAliveInterval(),
+                loggingService);
+        return new CacheInvalidationBroadcaster(transport, properties.batchDelay(), loggingService);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.kretsev.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the invalidation of the local caches across nodes.
+ *
+ * @param enabled whether changes are broadcast to the other nodes
+ * @param channel the PostgreSQL notification channel shared by the nodes
+ * @param batchDelay the delay between sending batches of changed keys
+ * @param keepAliveInterval how often the listener connection is checked
+ */
+@ConfigurationProperties(prefix = "cache-invalidation")
+public record CacheInvalidationProperties(
+        boolean enabled,
+        @DefaultValue("cache_invalidation") String channel,
+        @DefaultValue("50ms") Duration batchDelay,
+        @DefaultValue("30s") Duration keepAliveInterval) {}
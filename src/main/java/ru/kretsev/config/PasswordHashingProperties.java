@@ -0,0 +1,17 @@
+package ru.kretsev.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the password hashing pool.
+ *
+ * @param strength the BCrypt cost factor of new hashes; stored hashes of another cost are re-hashed on login
+ * @param threads the number of hashing threads, zero for one per available core
+ * @param queueCapacity the number of hashing requests that may wait for a thread before requests are rejected
+ */
+@ConfigurationProperties(prefix = "password-hashing")
+public record PasswordHashingProperties(
+        @DefaultValue("10") int strength,
+        @DefaultValue("0") int threads,
+        @DefaultValue("64") int queueCapacity) {}
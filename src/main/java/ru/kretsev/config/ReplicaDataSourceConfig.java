@@ -0,0 +1,152 @@
+package ru.kretsev.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Clock;
+import java.util.Objects;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import ru.kretsev.auth.AuthenticationFacade;
+import ru.kretsev.datasource.ReplicaEvictionLog;
+import ru.kretsev.datasource.ReplicaLagMonitor;
+import ru.kretsev.datasource.ReplicaReadGuard;
+import ru.kretsev.datasource.ReplicaRoutingDataSource;
+import ru.kretsev.service.ListGenerationService;
+import ru.kretsev.service.LoggingService;
+
+/**
+ * Configuration of the optional read replica, enabled by the {@code replica.url} property.
+ * Read-only transactions go to the replica and all other work, including Flyway migrations, to the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "replica", name = "url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaDataSourceConfig {
+
+    /**
+     * Creates the primary connection pool from the regular {@code spring.datasource} settings.
+     *
+     * @param properties the primary data source properties
+     * @param connectionDetails the connection details provided by a service connection, if any
+     * @return the primary data source
+     */
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(
+            DataSourceProperties properties, ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+        DataSourceBuilder<HikariDataSource> builder =
+                properties.initializeDataSourceBuilder().type(HikariDataSource.class);
+        JdbcConnectionDetails details = connectionDetails.getIfAvailable();
+        if (details != null) {
+            builder.url(details.getJdbcUrl()).username(details.getUsername()).password(details.getPassword());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates the read-only replica connection pool.
+     *
+     * @param replicaProperties the replica properties
+     * @param primaryDataSource the primary data source providing default credentials
+     * @return the replica data source
+     */
+    @Bean
+    public HikariDataSource replicaDataSource(
+            ReplicaProperties replicaProperties, @Qualifier("primaryDataSource") HikariDataSource primaryDataSource) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(primaryDataSource.getDriverClassName())
+                .url(replicaProperties.url())
+                .username(Objects.requireNonNullElse(replicaProperties.username(), primaryDataSource.getUsername()))
+                .password(Objects.requireNonNullElse(replicaProperties.password(), primaryDataSource.getPassword()))
+                .build();
+        dataSource.setPoolName("ReplicaPool");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * Creates the read-your-writes guard.
+     *
+     * @param replicaProperties the replica properties
+     * @return the guard
+     */
+    @Bean
+    public ReplicaReadGuard replicaReadGuard(ReplicaProperties replicaProperties) {
+        return new ReplicaReadGuard(Clock.systemUTC(), replicaProperties.stickyWindow());
+    }
+
+    /**
+     * Creates the log of entity cache evictions to repeat once the replica catches up.
+     *
+     * @return the log
+     */
+    @Bean
+    public ReplicaEvictionLog replicaEvictionLog() {
+        return new ReplicaEvictionLog(Clock.systemUTC());
+    }
+
+    /**
+     * Creates the data source used by JPA and JDBC templates, routing by the transaction read-only flag.
+     *
+     * @param primaryDataSource the primary data source
+     * @param replicaDataSource the replica data source
+     * @param readGuard the read-your-writes guard
+     * @param authenticationFacade the facade resolving the current user
+     * @return the routing data source
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaReadGuard readGuard,
+            AuthenticationFacade authenticationFacade) {
+        ReplicaRoutingDataSource routingDataSource =
+                new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, readGuard, authenticationFacade);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Creates the monitor releasing the read-your-writes guard once the replica catches up.
+     *
+     * @param primaryDataSource the primary data source
+     * @param replicaDataSource the replica data source
+     * @param readGuard the read-your-writes guard
+     * @param evictionLog the log of cache evictions to repeat
+     * @param loggingService the logging service
+     * @param listGenerationService the generation of list tags
+     * @return the monitor
+     */
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaReadGuard readGuard,
+            ReplicaEvictionLog evictionLog,
+            LoggingService loggingService,
+            ListGenerationService listGenerationService) {
+        return new ReplicaLagMonitor(
+                new JdbcTemplate(primaryDataSource),
+                new JdbcTemplate(replicaDataSource),
+                readGuard,
+                evictionLog,
+                Clock.systemUTC(),
+                loggingService,
+                listGenerationService);
+    }
+}
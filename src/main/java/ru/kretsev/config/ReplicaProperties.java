@@ -0,0 +1,17 @@
+package ru.kretsev.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Connection and consistency settings of the optional read replica.
+ *
+ * @param url the JDBC URL of the replica; the replica is disabled when it is not set
+ * @param username the replica user, defaults to the primary user
+ * @param password the replica password, defaults to the primary password
+ * @param stickyWindow how long the reads of a user stay on the primary after the user writes
+ */
+@ConfigurationProperties(prefix = "replica")
+public record ReplicaProperties(
+        String url, String username, String password, @DefaultValue("5s") Duration stickyWindow) {}
@@ -0,0 +1,11 @@
+package ru.kretsev.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration class enabling scheduled background jobs, such as purging expired task changes.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
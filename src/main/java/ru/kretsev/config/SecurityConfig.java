@@ -2,6 +2,7 @@ package ru.kretsev.config;
 
 import static ru.kretsev.model.user.Role.*;
 
+import jakarta.servlet.DispatcherType;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -51,7 +52,9 @@ public class SecurityConfig {
                     config.setAllowCredentials(true);
                     return config;
                 }))
-                .authorizeHttpRequests(auth -> auth.requestMatchers(
+                .authorizeHttpRequests(auth -> auth.dispatcherTypeMatchers(DispatcherType.ASYNC)
+                        .permitAll()
+                        .requestMatchers(
                                 "/api/v1/auth/**",
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
@@ -62,7 +65,7 @@ public class SecurityConfig {
                         .permitAll()
                         .requestMatchers("/api/v1/tasks/**")
                         .hasAnyAuthority(ROLE_ADMIN.name(), ROLE_USER.name())
-                        .requestMatchers("/api/v1/admin/**")
+                        .requestMatchers("/api/v1/admin/**", "/actuator/**")
                         .hasAuthority(ROLE_ADMIN.name())
                         .requestMatchers("/api/**")
                         .authenticated()
@@ -1,5 +1,6 @@
 package ru.kretsev.controller;
 
+import io.jsonwebtoken.Claims;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -9,11 +10,16 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import ru.kretsev.auth.JwtService;
 import ru.kretsev.dto.user.AuthenticationRequest;
 import ru.kretsev.dto.user.AuthenticationResponse;
+import ru.kretsev.dto.user.RefreshRequest;
 import ru.kretsev.dto.user.RegisterRequest;
+import ru.kretsev.dto.user.RoleChangeRequest;
 import ru.kretsev.dto.user.UserShortDto;
+import ru.kretsev.model.user.User;
 import ru.kretsev.service.AuthenticationService;
 
 /**
@@ -37,7 +43,8 @@ public class AuthenticationController {
             value = {
                 @ApiResponse(responseCode = "200", description = "Пользователь успешно зарегистрирован"),
                 @ApiResponse(responseCode = "400", description = "Ошибка валидации входных данных"),
-                @ApiResponse(responseCode = "409", description = "Email уже используется другим пользователем")
+                @ApiResponse(responseCode = "409", description = "Email уже используется другим пользователем"),
+                @ApiResponse(responseCode = "503", description = "Сервер перегружен, повторите попытку позже")
             })
     @PostMapping("/register")
     public ResponseEntity<AuthenticationResponse> register(@RequestBody @Valid RegisterRequest request) {
@@ -55,13 +62,36 @@ public class AuthenticationController {
             value = {
                 @ApiResponse(responseCode = "200", description = "Успешная аутентификация"),
                 @ApiResponse(responseCode = "400", description = "Ошибка валидации входных данных"),
-                @ApiResponse(responseCode = "403", description = "Неверные учетные данные")
+                @ApiResponse(responseCode = "403", description = "Неверные учетные данные"),
+                @ApiResponse(responseCode = "503", description = "Сервер перегружен, повторите попытку позже")
             })
     @PostMapping("/authenticate")
     public ResponseEntity<AuthenticationResponse> authenticate(@RequestBody @Valid AuthenticationRequest request) {
         return ResponseEntity.ok(authenticationService.authenticate(request));
     }
 
+    /**
+     * Renews the access token with a refresh token; the refresh token is replaced by a new one.
+     *
+     * @param request the request containing the refresh token
+     * @return ResponseEntity containing the AuthenticationResponse with new tokens
+     */
+    @Operation(
+            summary = "Обновление токена доступа",
+            description = "Возвращает новый JWT-токен и новый токен обновления без проверки пароля")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Токены обновлены"),
+                @ApiResponse(responseCode = "400", description = "Ошибка валидации входных данных"),
+                @ApiResponse(
+                        responseCode = "401",
+                        description = "Токен обновления недействителен, истёк или уже использован")
+            })
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthenticationResponse> refresh(@RequestBody @Valid RefreshRequest request) {
+        return ResponseEntity.ok(authenticationService.refresh(request.refreshToken()));
+    }
+
     /**
      * Retrieves information about the currently authenticated user.
      *
@@ -80,4 +110,93 @@ public class AuthenticationController {
         UserShortDto userDto = authenticationService.getUserByUsername(authentication.getName());
         return ResponseEntity.ok(userDto);
     }
+
+    /**
+     * Revokes the token of the current request and the other tokens of its session, signing the user out on this
+     * device.
+     *
+     * @param user the authenticated user
+     * @param authentication the current authentication holding the claims of the token
+     * @return ResponseEntity with no content
+     */
+    @Operation(
+            summary = "Выход из системы",
+            description = "Отзывает токен, с которым выполнен запрос, и все токены его сессии")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "204", description = "Токен отозван"),
+                @ApiResponse(responseCode = "401", description = "Пользователь не аутентифицирован")
+            })
+    @PostMapping("/logout")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Void> logout(@AuthenticationPrincipal User user, Authentication authentication) {
+        Claims claims = (Claims) authentication.getCredentials();
+        authenticationService.logout(
+                claims.getId(),
+                claims.get(JwtService.SESSION_ID, String.class),
+                user.getId(),
+                claims.getExpiration().toInstant());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Revokes a single token by its ID (the {@code jti} claim).
+     *
+     * @param tokenId the token ID
+     * @return ResponseEntity with no content
+     */
+    @Operation(summary = "Отзыв токена", description = "Доступно администратору; токен отклоняется на всех узлах")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "204", description = "Токен отозван"),
+                @ApiResponse(responseCode = "403", description = "Недостаточно прав")
+            })
+    @PostMapping("/tokens/{tokenId}/revoke")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Void> revokeToken(@PathVariable String tokenId) {
+        authenticationService.revokeToken(tokenId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Revokes all tokens of the current user, signing them out on every device.
+     *
+     * @param user the authenticated user
+     * @return ResponseEntity with no content
+     */
+    @Operation(summary = "Выход на всех устройствах", description = "Отзывает все выданные пользователю токены")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "204", description = "Токены отозваны"),
+                @ApiResponse(responseCode = "401", description = "Пользователь не аутентифицирован")
+            })
+    @PostMapping("/logout-all")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Void> logoutEverywhere(@AuthenticationPrincipal User user) {
+        authenticationService.logoutEverywhere(user.getId());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Changes the role of a user; the tokens the user holds are revoked, so the new role applies from the next login.
+     *
+     * @param userId the ID of the user
+     * @param request the request with the new role
+     * @return ResponseEntity containing a UserShortDto with user details
+     */
+    @Operation(
+            summary = "Изменение роли пользователя",
+            description = "Доступно администратору; выданные пользователю токены отзываются")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Роль изменена"),
+                @ApiResponse(responseCode = "403", description = "Недостаточно прав"),
+                @ApiResponse(responseCode = "404", description = "Пользователь не найден")
+            })
+    @PutMapping("/users/{userId}/role")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<UserShortDto> changeRole(
+            @PathVariable Long userId, @RequestBody @Valid RoleChangeRequest request) {
+        return ResponseEntity.ok(authenticationService.changeRole(userId, request.role()));
+    }
 }
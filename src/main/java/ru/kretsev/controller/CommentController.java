@@ -6,14 +6,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.kretsev.dto.TaggedDto;
 import ru.kretsev.dto.comment.CommentDto;
+import ru.kretsev.dto.page.CursorPage;
+import ru.kretsev.dto.page.ListScope;
+import ru.kretsev.dto.page.PageMode;
 import ru.kretsev.model.user.User;
 import ru.kretsev.service.CommentService;
+import ru.kretsev.service.ListCacheService;
+import ru.kretsev.service.ListGenerationService;
 
 /**
  * REST controller for managing comments in the Task Management System.
@@ -24,6 +31,8 @@ import ru.kretsev.service.CommentService;
 @Tag(name = "Комментарии", description = "Методы для работы с комментариями")
 public class CommentController {
     private final CommentService commentService;
+    private final ListGenerationService listGenerationService;
+    private final ListCacheService listCacheService;
 
     /**
      * Adds a new comment to a task.
@@ -52,19 +61,22 @@ public class CommentController {
      * Retrieves a comment by its ID (admin only).
      *
      * @param commentId the ID of the comment
+     * @param request the current request, answered with 304 if its If-None-Match holds the current tag
      * @return the comment DTO
      */
     @Operation(summary = "Получить комментарий по id")
     @ApiResponses(
             value = {
                 @ApiResponse(responseCode = "200", description = "Комментарий успешно получен"),
+                @ApiResponse(responseCode = "304", description = "Комментарий не изменился (If-None-Match)"),
                 @ApiResponse(responseCode = "403", description = "Доступ запрещён (не администратор)"),
                 @ApiResponse(responseCode = "404", description = "Комментарий не найден")
             })
     @GetMapping("/{commentId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<CommentDto> getCommentsByTaskId(@PathVariable Long commentId) {
-        return ResponseEntity.ok(commentService.getCommentById(commentId));
+    public ResponseEntity<CommentDto> getCommentsByTaskId(@PathVariable Long commentId, WebRequest request) {
+        TaggedDto<CommentDto> comment = commentService.getCommentById(commentId);
+        return ETags.conditional(request, comment.eTag(), comment::body);
     }
 
     /**
@@ -73,22 +85,65 @@ public class CommentController {
      * @param taskId the ID of the task
      * @param page the page number (default 0)
      * @param size the page size (default 10)
+     * @param mode how the total is reported: EXACT count, SLICE without a total or APPROXIMATE estimate
+     * @param request the current request, answered with 304 if no comment has changed since its If-None-Match tag
      * @return a paginated list of comment DTOs
      */
     @Operation(summary = "Получить все комментарии к задаче (с пагинацией)")
     @ApiResponses(
             value = {
                 @ApiResponse(responseCode = "200", description = "Список комментариев успешно получен"),
+                @ApiResponse(responseCode = "304", description = "Список комментариев не изменился (If-None-Match)"),
                 @ApiResponse(responseCode = "401", description = "Пользователь не аутентифицирован"),
                 @ApiResponse(responseCode = "404", description = "Задача не найдена")
             })
     @GetMapping("/task/{taskId}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<Page<CommentDto>> getCommentsByTaskId(
+    public ResponseEntity<Slice<CommentDto>> getCommentsByTaskId(
             @PathVariable Long taskId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        return ResponseEntity.ok(commentService.getCommentsByTaskId(taskId, page, size));
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "EXACT") PageMode mode,
+            WebRequest request) {
+        return ETags.conditionalList(
+                listGenerationService,
+                listCacheService,
+                request,
+                ListScope.task(taskId),
+                () -> commentService.getCommentsByTaskId(taskId, page, size, mode));
+    }
+
+    /**
+     * Retrieves comments for a task using keyset pagination.
+     * Selected when the {@code after} parameter is present; pass it empty to get the first page.
+     *
+     * @param taskId the ID of the task
+     * @param after the cursor returned with the previous page
+     * @param size the page size (default 10)
+     * @param request the current request, answered with 304 if no comment has changed since its If-None-Match tag
+     * @return a page of comment DTOs with the cursor of the next page
+     */
+    @Operation(summary = "Получить комментарии к задаче (постраничная навигация по курсору)")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Список комментариев успешно получен"),
+                @ApiResponse(responseCode = "304", description = "Список комментариев не изменился (If-None-Match)"),
+                @ApiResponse(responseCode = "400", description = "Некорректный курсор"),
+                @ApiResponse(responseCode = "401", description = "Пользователь не аутентифицирован")
+            })
+    @GetMapping(value = "/task/{taskId}", params = "after")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<CursorPage<CommentDto>> getCommentsByTaskIdAfter(
+            @PathVariable Long taskId,
+            @RequestParam(defaultValue = "") String after,
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
+        return ETags.conditionalList(
+                listGenerationService,
+                listCacheService,
+                request,
+                ListScope.task(taskId),
+                () -> commentService.getCommentsByTaskId(taskId, after, size));
     }
 
     /**
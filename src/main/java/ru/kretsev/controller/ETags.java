@@ -0,0 +1,117 @@
+package ru.kretsev.controller;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import ru.kretsev.dto.page.ListScope;
+import ru.kretsev.service.ListCacheService;
+import ru.kretsev.service.ListGenerationService;
+
+/**
+ * Strong entity tags of entities and list queries, and conditional responses built from them.
+ * Entity tags have the form {@code version} or {@code version-hash}; only the version takes part in {@code If-Match}.
+ */
+final class ETags {
+    private static final String ANY = "*";
+    private static final char HASH_SEPARATOR = '-';
+
+    /**
+     * Lets clients store responses but makes them revalidate with {@code If-None-Match} before every reuse.
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ETags() {}
+
+    /**
+     * Parses the version expected by an {@code If-Match} header.
+     *
+     * @param ifMatch the header value, may be null
+     * @return the expected version, or null if the header is absent or {@code *}
+     * @throws IllegalArgumentException if the header is not a single strong entity tag of a version
+     */
+    static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ANY.equals(ifMatch.strip())) {
+            return null;
+        }
+        String tag = ifMatch.strip();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("Некорректный заголовок If-Match: " + ifMatch);
+        }
+        String value = tag.substring(1, tag.length() - 1);
+        int separator = value.indexOf(HASH_SEPARATOR);
+        try {
+            return Long.parseLong(separator < 0 ? value : value.substring(0, separator));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректный заголовок If-Match: " + ifMatch, e);
+        }
+    }
+
+    /**
+     * Answers a GET with 304 if {@code If-None-Match} holds the entity tag, otherwise with the body.
+     *
+     * @param request the current request
+     * @param eTag the unquoted entity tag of the response
+     * @param body the supplier of the body, not called for 304
+     * @param <T> the body type
+     * @return the response with the entity tag
+     */
+    static <T> ResponseEntity<T> conditional(WebRequest request, String eTag, Supplier<T> body) {
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(body.get());
+    }
+
+    /**
+     * Answers a list GET with 304 if nothing has changed in its scope since the client got its tag, without running
+     * the query, and otherwise with the result cached under the tag.
+     *
+     * @param listGenerationService the service tagging list queries
+     * @param listCacheService the cache of list results
+     * @param request the current request, its path and parameters identify the query
+     * @param scope the data the result depends on, such as the tasks of the current user, or null for all tasks
+     * @param query the supplier running the query, not called for 304 or a cached result
+     * @param <T> the body type
+     * @return the response with the entity tag
+     */
+    static <T> ResponseEntity<T> conditionalList(
+            ListGenerationService listGenerationService,
+            ListCacheService listCacheService,
+            WebRequest request,
+            ListScope scope,
+            Supplier<T> query) {
+        return conditionalList(listGenerationService, listCacheService, request, scope, null, query);
+    }
+
+    /**
+     * Answers a list GET whose result also depends on the caller, such as a query returning only the tasks visible
+     * to the current user; callers with different viewers never share a tag or a cached result.
+     *
+     * @param listGenerationService the service tagging list queries
+     * @param listCacheService the cache of list results
+     * @param request the current request, its path and parameters identify the query
+     * @param scope the data the result depends on, or null for all tasks
+     * @param viewerId the ID of the user the result is computed for, or null if it is the same for every user
+     * @param query the supplier running the query, not called for 304 or a cached result
+     * @param <T> the body type
+     * @return the response with the entity tag
+     */
+    static <T> ResponseEntity<T> conditionalList(
+            ListGenerationService listGenerationService,
+            ListCacheService listCacheService,
+            WebRequest request,
+            ListScope scope,
+            Long viewerId,
+            Supplier<T> query) {
+        Map<String, String> parameters = new TreeMap<>();
+        request.getParameterMap().forEach((name, values) -> parameters.put(name, Arrays.toString(values)));
+        String key = request.getDescription(false) + parameters + (viewerId == null ? "" : "|viewer=" + viewerId);
+        String eTag = listGenerationService.tagOf(key, scope);
+        return conditional(request, eTag, () -> listCacheService.get(eTag, query));
+    }
+}
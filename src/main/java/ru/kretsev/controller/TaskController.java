@@ -1,19 +1,55 @@
 package ru.kretsev.controller;
 
+import io.jsonwebtoken.Claims;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.kretsev.dto.TaggedDto;
+import ru.kretsev.dto.page.CursorPage;
+import ru.kretsev.dto.page.ListScope;
+import ru.kretsev.dto.page.PageMode;
+import ru.kretsev.dto.task.ImportJobDto;
+import ru.kretsev.dto.task.TaskBulkUpdateRequest;
+import ru.kretsev.dto.task.TaskChangesDto;
 import ru.kretsev.dto.task.TaskDto;
+import ru.kretsev.dto.task.TaskFileFormat;
+import ru.kretsev.dto.task.TaskFilter;
+import ru.kretsev.dto.task.TaskSort;
+import ru.kretsev.dto.task.TaskSummaryDto;
+import ru.kretsev.model.task.Priority;
+import ru.kretsev.model.task.TaskSortKey;
+import ru.kretsev.model.task.TaskStatus;
 import ru.kretsev.model.user.User;
+import ru.kretsev.service.ListCacheService;
+import ru.kretsev.service.ListGenerationService;
+import ru.kretsev.service.TaskChangeService;
+import ru.kretsev.service.TaskEventService;
+import ru.kretsev.service.TaskExportService;
+import ru.kretsev.service.TaskImportService;
 import ru.kretsev.service.TaskService;
 
 /**
@@ -25,6 +61,15 @@ import ru.kretsev.service.TaskService;
 @Tag(name = "Задачи", description = "Методы для работы с задачами")
 public class TaskController {
     private final TaskService taskService;
+    private final TaskExportService taskExportService;
+    private final TaskImportService taskImportService;
+    private final ListGenerationService listGenerationService;
+    private final ListCacheService listCacheService;
+    private final TaskChangeService taskChangeService;
+    private final TaskEventService taskEventService;
+
+    @Value("${task-export.timeout:1h}")
+    private Duration exportTimeout;
 
     /**
      * Creates a new task and assigns it to the authenticated user as the author.
@@ -42,7 +87,51 @@ public class TaskController {
             })
     @PostMapping
     public ResponseEntity<TaskDto> createTask(@RequestBody @Valid TaskDto taskDto, @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(taskService.createTask(taskDto, user));
+        TaggedDto<TaskDto> task = taskService.createTask(taskDto, user);
+        return ResponseEntity.ok().eTag(task.eTag()).body(task.body());
+    }
+
+    /**
+     * Creates up to 1000 tasks in one request with the authenticated user as the author.
+     *
+     * @param taskDtos the task details DTOs
+     * @param user     the authenticated user creating the tasks
+     * @return ResponseEntity containing the IDs of the created tasks in request order
+     */
+    @Operation(summary = "Создать несколько задач одним запросом")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Задачи успешно созданы"),
+                @ApiResponse(responseCode = "400", description = "Пустой или слишком большой пакет задач"),
+                @ApiResponse(responseCode = "401", description = "Пользователь не аутентифицирован")
+            })
+    @PostMapping("/batch")
+    public ResponseEntity<List<Long>> createTasks(
+            @RequestBody List<TaskDto> taskDtos, @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(taskService.createTasks(taskDtos, user));
+    }
+
+    /**
+     * Applies one patch to many tasks selected by IDs or by a filter.
+     * Users update only their own tasks; changing the assignee requires the admin role.
+     *
+     * @param request the task IDs or filter and the patch to apply
+     * @param user    the authenticated user
+     * @return ResponseEntity containing the IDs of the updated tasks
+     */
+    @Operation(summary = "Массово изменить статус, приоритет или исполнителя задач")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Задачи успешно обновлены"),
+                @ApiResponse(responseCode = "400", description = "Не указаны задачи или изменения"),
+                @ApiResponse(responseCode = "401", description = "Пользователь не аутентифицирован"),
+                @ApiResponse(responseCode = "403", description = "Доступ запрещён (чужие задачи или исполнитель)"),
+                @ApiResponse(responseCode = "404", description = "Исполнитель не найден")
+            })
+    @PatchMapping("/batch")
+    public ResponseEntity<List<Long>> updateTasks(
+            @RequestBody TaskBulkUpdateRequest request, @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(taskService.updateTasks(request, user));
     }
 
     /**
@@ -50,91 +139,388 @@ public class TaskController {
      *
      * @param taskId the ID of the task to assign
      * @param userId the ID of the user to assign the task to
-     * @return ResponseEntity containing the updated TaskDto
+     * @param ifMatch the ETag of the task version the change is based on (optional)
+     * @return ResponseEntity containing the updated TaskDto with its new ETag
      */
     @Operation(summary = "Назначить задачу пользователю (только администратор)")
     @ApiResponses(
             value = {
                 @ApiResponse(responseCode = "200", description = "Задача успешно назначена"),
                 @ApiResponse(responseCode = "403", description = "Доступ запрещён (не администратор)"),
-                @ApiResponse(responseCode = "404", description = "Задача или пользователь не найдены")
+                @ApiResponse(responseCode = "404", description = "Задача или пользователь не найдены"),
+                @ApiResponse(responseCode = "412", description = "Задача изменена другим запросом (If-Match)")
             })
     @PutMapping("/{taskId}/assign/{userId}")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
-    public ResponseEntity<TaskDto> assignTask(@PathVariable Long taskId, @PathVariable Long userId) {
-        return ResponseEntity.ok(taskService.assignTask(taskId, userId));
+    public ResponseEntity<TaskDto> assignTask(
+            @PathVariable Long taskId,
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaggedDto<TaskDto> task = taskService.assignTask(taskId, userId, ETags.parseVersion(ifMatch));
+        return ResponseEntity.ok().eTag(task.eTag()).body(task.body());
     }
 
     /**
-     * Retrieves all tasks with pagination (admin only).
+     * Retrieves all tasks with filtering and pagination (admin only).
      *
+     * @param status the task status filter (optional)
+     * @param priority the task priority filter (optional)
+     * @param authorId the task author filter (optional)
+     * @param assigneeId the task assignee filter (optional)
+     * @param sort the sort key (default ID)
+     * @param direction the sort direction (default ASC)
      * @param page the page number (default 0)
      * @param size the page size (default 10)
-     * @return ResponseEntity containing a paginated list of TaskDtos
+     * @param mode how the total is reported: EXACT count, SLICE without a total or APPROXIMATE estimate
+     * @param request the current request, answered with 304 if no task has changed since its If-None-Match tag
+     * @return ResponseEntity containing a paginated list of TaskSummaryDtos
      */
     @Operation(summary = "Получить все задачи (только администратор, с поддержкой пагинации)")
     @ApiResponses(
             value = {
                 @ApiResponse(responseCode = "200", description = "Список задач успешно получен"),
+                @ApiResponse(responseCode = "304", description = "Список задач не изменился (If-None-Match)"),
                 @ApiResponse(responseCode = "403", description = "Доступ запрещён (не администратор)")
             })
     @GetMapping("/all")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
-    public ResponseEntity<Page<TaskDto>> getAllTasks(
-            @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size) {
-        Page<TaskDto> tasks = taskService.getAllTasks(page, size);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<Slice<TaskSummaryDto>> getAllTasks(
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) Long authorId,
+            @RequestParam(required = false) Long assigneeId,
+            @RequestParam(defaultValue = "ID") TaskSortKey sort,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "EXACT") PageMode mode,
+            WebRequest request) {
+        TaskFilter filter = new TaskFilter(status, priority, authorId, assigneeId);
+        return ETags.conditionalList(
+                listGenerationService,
+                listCacheService,
+                request,
+                null,
+                () -> taskService.getAllTasks(filter, new TaskSort(sort, direction), page, size, mode));
+    }
+
+    /**
+     * Retrieves all tasks with filtering using keyset pagination (admin only).
+     * Selected when the {@code after} parameter is present; pass it empty to get the first page.
+     *
+     * @param status the task status filter (optional)
+     * @param priority the task priority filter (optional)
+     * @param authorId the task author filter (optional)
+     * @param assigneeId the task assignee filter (optional)
+     * @param sort the sort key (default ID), must not change between pages
+     * @param direction the sort direction (default ASC), must not change between pages
+     * @param after the cursor returned with the previous page
+     * @param size the page size (default 10)
+     * @param request the current request, answered with 304 if no task has changed since its If-None-Match tag
+     * @return ResponseEntity containing a page of TaskSummaryDtos with the cursor of the next page
+     */
+    @Operation(summary = "Получить все задачи (только администратор, постраничная навигация по курсору)")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Список задач успешно получен"),
+                @ApiResponse(responseCode = "304", description = "Список задач не изменился (If-None-Match)"),
+                @ApiResponse(responseCode = "400", description = "Некорректный курсор"),
+                @ApiResponse(responseCode = "403", description = "Доступ запрещён (не администратор)")
+            })
+    @GetMapping(value = "/all", params = "after")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<CursorPage<TaskSummaryDto>> getAllTasksAfter(
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) Long authorId,
+            @RequestParam(required = false) Long assigneeId,
+            @RequestParam(defaultValue = "ID") TaskSortKey sort,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @RequestParam(defaultValue = "") String after,
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
+        TaskFilter filter = new TaskFilter(status, priority, authorId, assigneeId);
+        return ETags.conditionalList(
+                listGenerationService,
+                listCacheService,
+                request,
+                null,
+                () -> taskService.getAllTasks(filter, new TaskSort(sort, direction), after, size));
+    }
+
+    /**
+     * Streams all tasks with their comments as a file (admin only).
+     * Rows are read from a database cursor and written as they arrive, so memory use does not depend on table size.
+     * The file is written asynchronously with a timeout of its own, long enough for a full export, while other
+     * asynchronous requests keep the default one.
+     *
+     * @param format the file format (default NDJSON)
+     * @param gzip whether to compress the file with gzip (default false)
+     * @param response the response the file is written to
+     * @return the task writing the export file
+     */
+    @Operation(summary = "Выгрузить все задачи с комментариями в NDJSON или CSV (только администратор)")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Выгрузка задач передаётся потоком"),
+                @ApiResponse(responseCode = "403", description = "Доступ запрещён (не администратор)")
+            })
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public WebAsyncTask<Void> exportTasks(
+            @RequestParam(defaultValue = "NDJSON") TaskFileFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) {
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("tasks." + format.getExtension() + (gzip ? ".gz" : ""))
+                .build();
+        response.setContentType(gzip ? "application/gzip" : format.getMediaType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.toString());
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            ServletOutputStream outputStream = response.getOutputStream();
+            taskExportService.exportTasks(format, gzip, outputStream);
+            outputStream.flush();
+            return null;
+        });
+    }
+
+    /**
+     * Starts importing tasks with their comments from a file in the export format (admin only).
+     * The file is parsed in the background; invalid rows are skipped and reported in the job.
+     *
+     * @param file the file to import
+     * @param format the file format (default NDJSON)
+     * @return ResponseEntity containing the queued ImportJobDto
+     * @throws IOException if the uploaded file cannot be saved
+     */
+    @Operation(summary = "Импортировать задачи с комментариями из NDJSON или CSV (только администратор)")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "202", description = "Импорт задач поставлен в очередь"),
+                @ApiResponse(responseCode = "403", description = "Доступ запрещён (не администратор)")
+            })
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ImportJobDto> importTasks(
+            @RequestParam MultipartFile file, @RequestParam(defaultValue = "NDJSON") TaskFileFormat format)
+            throws IOException {
+        return ResponseEntity.accepted().body(taskImportService.submitImport(format, file.getInputStream()));
+    }
+
+    /**
+     * Retrieves the progress and row errors of an import job (admin only).
+     *
+     * @param jobId the job ID
+     * @return ResponseEntity containing the ImportJobDto
+     */
+    @Operation(summary = "Получить ход выполнения импорта задач (только администратор)")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Состояние импорта успешно получено"),
+                @ApiResponse(responseCode = "403", description = "Доступ запрещён (не администратор)"),
+                @ApiResponse(responseCode = "404", description = "Задание импорта не найдено")
+            })
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ImportJobDto> getImportJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(taskImportService.getImportJob(jobId));
+    }
+
+    /**
+     * Searches tasks by title, description and comments, most relevant first.
+     * Admins search every task, other users the tasks they author or are assigned to.
+     *
+     * @param user the authenticated user
+     * @param q the search query, supports quoted phrases, {@code or} and {@code -} exclusions
+     * @param after the cursor returned with the previous page (optional)
+     * @param size the page size (default 10)
+     * @param request the current request, answered with 304 if no task has changed since its If-None-Match tag
+     * @return ResponseEntity containing a page of TaskSummaryDtos with the cursor of the next page
+     */
+    @Operation(summary = "Полнотекстовый поиск задач по названию, описанию и комментариям")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Результаты поиска успешно получены"),
+                @ApiResponse(responseCode = "304", description = "Результат поиска не изменился (If-None-Match)"),
+                @ApiResponse(responseCode = "400", description = "Пустой поисковый запрос или некорректный курсор"),
+                @ApiResponse(responseCode = "401", description = "Пользователь не аутентифицирован")
+            })
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<TaskSummaryDto>> searchTasks(
+            @AuthenticationPrincipal User user,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "") String after,
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
+        return ETags.conditionalList(
+                listGenerationService,
+                listCacheService,
+                request,
+                null,
+                user.getId(),
+                () -> taskService.searchTasks(user, q, after, size));
+    }
+
+    /**
+     * Retrieves the tasks created, updated, assigned or deleted after a cursor, for delta synchronization.
+     * Admins get every task, other users the tasks they author or are or were assigned to.
+     *
+     * @param since the cursor returned with the previous batch, empty to get the current position only
+     * @param size the maximum number of changes to scan (default 100, at most 1000)
+     * @param user the authenticated user
+     * @return ResponseEntity containing the latest change of each task with the cursor of the next batch
+     */
+    @Operation(summary = "Получить изменения задач после курсора (дельта-синхронизация)")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Изменения задач успешно получены"),
+                @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер пакета"),
+                @ApiResponse(responseCode = "401", description = "Пользователь не аутентифицирован"),
+                @ApiResponse(responseCode = "410", description = "Курсор устарел, нужна полная синхронизация")
+            })
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChangesDto> getChanges(
+            @RequestParam(defaultValue = "") String since,
+            @RequestParam(defaultValue = "100") int size,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(taskChangeService.getChanges(since, size, user));
+    }
+
+    /**
+     * Subscribes to task and comment changes pushed as server-sent events.
+     * Admins get every change, other users the changes of tasks they author or are or were assigned to.
+     * The event ID is a delta-sync cursor: after a reconnect, missed changes are read from {@code /changes}.
+     * The stream is closed when the access token of the request expires.
+     *
+     * @param user the authenticated user
+     * @param authentication the current authentication holding the claims of the token
+     * @return the emitter streaming the events
+     */
+    @Operation(summary = "Подписаться на изменения задач и комментариев (Server-Sent Events)")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Поток событий открыт"),
+                @ApiResponse(responseCode = "401", description = "Пользователь не аутентифицирован")
+            })
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToEvents(@AuthenticationPrincipal User user, Authentication authentication) {
+        Claims claims = (Claims) authentication.getCredentials();
+        return taskEventService.subscribe(user, claims.getExpiration().toInstant());
     }
 
     /**
      * Retrieves a single task by its ID.
      *
      * @param taskId the ID of the task to retrieve
+     * @param request the current request, answered with 304 if its If-None-Match holds the current tag
      * @return ResponseEntity containing the TaskDto
      */
     @Operation(summary = "Получить одну задачу по ID")
     @ApiResponses(
             value = {
                 @ApiResponse(responseCode = "200", description = "Задача успешно получена"),
+                @ApiResponse(responseCode = "304", description = "Задача не изменилась (If-None-Match)"),
                 @ApiResponse(responseCode = "401", description = "Пользователь не аутентифицирован"),
                 @ApiResponse(responseCode = "404", description = "Задача не найдена")
             })
     @GetMapping("/{taskId}")
-    public ResponseEntity<TaskDto> getTask(@PathVariable Long taskId) {
-        TaskDto task = taskService.getTask(taskId);
-        return ResponseEntity.ok(task);
+    public ResponseEntity<TaskDto> getTask(@PathVariable Long taskId, WebRequest request) {
+        TaggedDto<TaskDto> task = taskService.getTask(taskId);
+        return ETags.conditional(request, task.eTag(), task::body);
     }
 
     /**
-     * Retrieves the tasks of the current user with pagination.
+     * Retrieves the tasks of the current user with filtering and pagination.
      *
+     * @param user the authenticated user
+     * @param status the task status filter (optional)
+     * @param priority the task priority filter (optional)
+     * @param assigneeId the task assignee filter (optional)
+     * @param sort the sort key (default ID)
+     * @param direction the sort direction (default ASC)
      * @param page the page number (default 0)
      * @param size the page size (default 10)
-     *
-     * @param user the authenticated user
-     * @return a list of task DTOs
+     * @param request the current request, answered with 304 if no task has changed since its If-None-Match tag
+     * @return a list of task summaries
      */
     @Operation(summary = "Получить список задач текущего пользователя")
     @ApiResponses(
             value = {
                 @ApiResponse(responseCode = "200", description = "Список задач пользователя успешно получен"),
+                @ApiResponse(responseCode = "304", description = "Список задач не изменился (If-None-Match)"),
                 @ApiResponse(responseCode = "401", description = "Пользователь не аутентифицирован")
             })
     @GetMapping
-    public ResponseEntity<List<TaskDto>> getUserTasks(
+    public ResponseEntity<List<TaskSummaryDto>> getUserTasks(
             @AuthenticationPrincipal User user,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) Long assigneeId,
+            @RequestParam(defaultValue = "ID") TaskSortKey sort,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        return ResponseEntity.ok(taskService.getUserTasks(user, page, size));
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
+        TaskFilter filter = new TaskFilter(status, priority, null, assigneeId);
+        return ETags.conditionalList(
+                listGenerationService,
+                listCacheService,
+                request,
+                ListScope.user(user.getId()),
+                () -> taskService.getUserTasks(user, filter, new TaskSort(sort, direction), page, size));
+    }
+
+    /**
+     * Retrieves the tasks of the current user with filtering using keyset pagination.
+     * Selected when the {@code after} parameter is present; pass it empty to get the first page.
+     *
+     * @param user the authenticated user
+     * @param status the task status filter (optional)
+     * @param priority the task priority filter (optional)
+     * @param assigneeId the task assignee filter (optional)
+     * @param sort the sort key (default ID), must not change between pages
+     * @param direction the sort direction (default ASC), must not change between pages
+     * @param after the cursor returned with the previous page
+     * @param size the page size (default 10)
+     * @param request the current request, answered with 304 if no task has changed since its If-None-Match tag
+     * @return a page of task summaries with the cursor of the next page
+     */
+    @Operation(summary = "Получить список задач текущего пользователя (постраничная навигация по курсору)")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Список задач пользователя успешно получен"),
+                @ApiResponse(responseCode = "304", description = "Список задач не изменился (If-None-Match)"),
+                @ApiResponse(responseCode = "400", description = "Некорректный курсор"),
+                @ApiResponse(responseCode = "401", description = "Пользователь не аутентифицирован")
+            })
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPage<TaskSummaryDto>> getUserTasksAfter(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) Long assigneeId,
+            @RequestParam(defaultValue = "ID") TaskSortKey sort,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @RequestParam(defaultValue = "") String after,
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
+        TaskFilter filter = new TaskFilter(status, priority, null, assigneeId);
+        return ETags.conditionalList(
+                listGenerationService,
+                listCacheService,
+                request,
+                ListScope.user(user.getId()),
+                () -> taskService.getUserTasks(user, filter, new TaskSort(sort, direction), after, size));
     }
 
     /**
-     * Updates an existing task.
+     * Updates an existing task. With {@code If-Match} the update is applied only to the version the client has seen.
      *
      * @param taskId the ID of the task
      * @param taskDto the updated task details
+     * @param ifMatch the ETag of the task version the change is based on (optional)
      * @param user the authenticated user
-     * @return the updated task DTO
+     * @return the updated task DTO with its new ETag
      */
     @Operation(summary = "Обновить задачу")
     @ApiResponses(
@@ -143,12 +529,17 @@ public class TaskController {
                 @ApiResponse(responseCode = "400", description = "Ошибка валидации данных задачи"),
                 @ApiResponse(responseCode = "401", description = "Пользователь не аутентифицирован"),
                 @ApiResponse(responseCode = "403", description = "Доступ запрещён (не владелец задачи)"),
-                @ApiResponse(responseCode = "404", description = "Задача не найдена")
+                @ApiResponse(responseCode = "404", description = "Задача не найдена"),
+                @ApiResponse(responseCode = "412", description = "Задача изменена другим запросом (If-Match)")
             })
     @PutMapping("/{taskId}")
     public ResponseEntity<TaskDto> updateTask(
-            @PathVariable Long taskId, @RequestBody @Valid TaskDto taskDto, @AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(taskService.updateTask(taskId, taskDto, user));
+            @PathVariable Long taskId,
+            @RequestBody @Valid TaskDto taskDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @AuthenticationPrincipal User user) {
+        TaggedDto<TaskDto> task = taskService.updateTask(taskId, taskDto, ETags.parseVersion(ifMatch), user);
+        return ResponseEntity.ok().eTag(task.eTag()).body(task.body());
     }
 
     /**
@@ -171,6 +562,26 @@ public class TaskController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Restores a deleted task with its comments while the restore period lasts (admin or owner only).
+     *
+     * @param taskId the ID of the task
+     * @return ResponseEntity containing the restored TaskDto with its ETag
+     */
+    @Operation(summary = "Восстановить удалённую задачу (только администратор или владелец)")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Задача успешно восстановлена"),
+                @ApiResponse(responseCode = "401", description = "Пользователь не аутентифицирован"),
+                @ApiResponse(responseCode = "403", description = "Доступ запрещён (не владелец и не администратор)"),
+                @ApiResponse(responseCode = "404", description = "Задача не найдена или срок восстановления истёк")
+            })
+    @PostMapping("/{taskId}/restore")
+    public ResponseEntity<TaskDto> restoreTask(@PathVariable Long taskId) {
+        TaggedDto<TaskDto> task = taskService.restoreTask(taskId);
+        return ResponseEntity.ok().eTag(task.eTag()).body(task.body());
+    }
+
     /**
      * Deletes a comment from a task (admin or owner only).
      *
@@ -0,0 +1,169 @@
+package ru.kretsev.datasource;
+
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.springframework.cache.Cache;
+
+/**
+ * Records the evictions of entity caches so they can be repeated once the replica has replayed the writes behind them.
+ * An entry evicted after a write may be loaded again by a reader routed to the lagging replica, which would cache the
+ * previous state until the entry expires; evicting it again after the catch-up drops such a copy. Evictions coming
+ * from the other nodes pass the same caches and are recorded when they arrive, after the write has committed.
+ * When more evictions are pending than are kept, the caches of the dropped ones are cleared on the next catch-up.
+ */
+public class ReplicaEvictionLog {
+    private static final int MAX_PENDING_EVICTIONS = 100_000;
+
+    private final Clock clock;
+    private final Deque<Eviction> pending = new ArrayDeque<>();
+    private final Set<Cache> cachesToClear = new HashSet<>();
+
+    /**
+     * An eviction of a key, or of the whole cache when the key is null.
+     */
+    private record Eviction(long evictedAt, Cache cache, Object key) {}
+
+    /**
+     * Creates a log.
+     *
+     * @param clock the clock used to timestamp evictions, must be the one of the lag monitor
+     */
+    public ReplicaEvictionLog(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Wraps a local cache so that its evictions are recorded.
+     *
+     * @param cache the local cache
+     * @return the wrapped cache
+     */
+    public Cache decorate(Cache cache) {
+        return new RecordingCache(cache);
+    }
+
+    /**
+     * Repeats the evictions recorded up to the given time, all of whose writes the replica has replayed.
+     *
+     * @param epochMillis the time by which the replica has caught up
+     */
+    public void replicaCaughtUpTo(long epochMillis) {
+        List<Eviction> replayed = new ArrayList<>();
+        Set<Cache> cleared;
+        synchronized (pending) {
+            while (!pending.isEmpty() && pending.peekFirst().evictedAt() <= epochMillis) {
+                replayed.add(pending.removeFirst());
+            }
+            cleared = new HashSet<>(cachesToClear);
+            cachesToClear.clear();
+        }
+        cleared.forEach(Cache::clear);
+        for (Eviction eviction : replayed) {
+            if (eviction.key() == null) {
+                eviction.cache().clear();
+            } else if (!cleared.contains(eviction.cache())) {
+                eviction.cache().evict(eviction.key());
+            }
+        }
+    }
+
+    private void record(Cache cache, Object key) {
+        synchronized (pending) {
+            pending.addLast(new Eviction(clock.millis(), cache, key));
+            if (pending.size() > MAX_PENDING_EVICTIONS) {
+                cachesToClear.add(pending.removeFirst().cache());
+            }
+        }
+    }
+
+    /**
+     * Local cache recording its evictions and clears; the recorded cache is the undecorated one, so repeating an
+     * eviction is not recorded again.
+     */
+    private final class RecordingCache implements Cache {
+        private final Cache delegate;
+
+        private RecordingCache(Cache delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return delegate.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return delegate.get(key);
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return delegate.get(key, type);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return delegate.get(key, valueLoader);
+        }
+
+        @Override
+        public CompletableFuture<?> retrieve(Object key) {
+            return delegate.retrieve(key);
+        }
+
+        @Override
+        public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+            return delegate.retrieve(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            delegate.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            return delegate.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            delegate.evict(key);
+            record(delegate, key);
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            boolean evicted = delegate.evictIfPresent(key);
+            record(delegate, key);
+            return evicted;
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+            record(delegate, null);
+        }
+
+        @Override
+        public boolean invalidate() {
+            boolean invalidated = delegate.invalidate();
+            record(delegate, null);
+            return invalidated;
+        }
+    }
+}
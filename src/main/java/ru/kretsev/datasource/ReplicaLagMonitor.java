@@ -0,0 +1,114 @@
+package ru.kretsev.datasource;
+
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import ru.kretsev.service.ListGenerationService;
+import ru.kretsev.service.LoggingService;
+
+/**
+ * Tracks how far the replica has replayed the primary WAL and releases the read-your-writes guard early.
+ * On every check the current primary LSN is remembered with its time; once the replica replay LSN reaches it,
+ * every write committed before that time is visible on the replica.
+ * A list read from the lagging replica may be tagged with a generation newer than its data, so the scopes written
+ * since the previous catch-up are advanced again once the replica has replayed those writes. Likewise, an entity cache
+ * entry evicted after a write may be reloaded from the replica before it replays the write, so the evictions are
+ * repeated once it has.
+ */
+public class ReplicaLagMonitor {
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final ReplicaReadGuard readGuard;
+    private final ReplicaEvictionLog evictionLog;
+    private final Clock clock;
+    private final LoggingService loggingService;
+    private final ListGenerationService listGenerationService;
+    private final Deque<Probe> probes = new ArrayDeque<>();
+    private long replicatedGeneration;
+
+    private record Probe(long observedAt, long lsn, long generation) {}
+
+    /**
+     * Creates a monitor.
+     *
+     * @param primary the template bound to the primary
+     * @param replica the template bound to the replica
+     * @param readGuard the guard to release
+     * @param evictionLog the log of cache evictions to repeat once the replica has replayed the writes behind them
+     * @param clock the clock used to timestamp probes, must be the one of the guard
+     * @param loggingService the logging service
+     * @param listGenerationService the service whose changed scopes to advance once the replica has replayed them
+     */
+    public ReplicaLagMonitor(
+            JdbcTemplate primary,
+            JdbcTemplate replica,
+            ReplicaReadGuard readGuard,
+            ReplicaEvictionLog evictionLog,
+            Clock clock,
+            LoggingService loggingService,
+            ListGenerationService listGenerationService) {
+        this.primary = primary;
+        this.replica = replica;
+        this.readGuard = readGuard;
+        this.evictionLog = evictionLog;
+        this.clock = clock;
+        this.loggingService = loggingService;
+        this.listGenerationService = listGenerationService;
+        this.replicatedGeneration = listGenerationService.currentGeneration();
+    }
+
+    /**
+     * Probes the primary and the replica LSN and purges expired writes from the guard.
+     */
+    @Scheduled(fixedDelayString = "${replica.lag-check-interval:1000}")
+    public synchronized void check() {
+        try {
+            long observedAt = clock.millis();
+            long generation = listGenerationService.currentGeneration();
+            String current = primary.queryForObject("SELECT pg_current_wal_lsn()::text", String.class);
+            probes.addLast(new Probe(observedAt, parseLsn(current), generation));
+
+            long expiredBefore = observedAt - readGuard.getStickyWindowMillis();
+            while (!probes.isEmpty() && probes.peekFirst().observedAt() <= expiredBefore) {
+                probes.removeFirst();
+            }
+
+            String replayed = replica.queryForObject("SELECT pg_last_wal_replay_lsn()::text", String.class);
+            if (replayed != null) {
+                long replayedLsn = parseLsn(replayed);
+                long caughtUpGeneration = replicatedGeneration;
+                long caughtUpAt = -1;
+                while (!probes.isEmpty() && probes.peekFirst().lsn() <= replayedLsn) {
+                    Probe probe = probes.removeFirst();
+                    readGuard.replicaCaughtUpTo(probe.observedAt());
+                    caughtUpGeneration = Math.max(caughtUpGeneration, probe.generation());
+                    caughtUpAt = probe.observedAt();
+                }
+                if (caughtUpAt >= 0) {
+                    evictionLog.replicaCaughtUpTo(caughtUpAt);
+                }
+                if (caughtUpGeneration > replicatedGeneration) {
+                    listGenerationService.advanceChanged(replicatedGeneration, caughtUpGeneration);
+                    replicatedGeneration = caughtUpGeneration;
+                }
+            }
+        } catch (DataAccessException e) {
+            loggingService.logWarn("Не удалось проверить отставание реплики: {}", e.getMessage());
+        }
+        readGuard.purgeExpired();
+    }
+
+    /**
+     * Converts a textual {@code pg_lsn} such as {@code 16/B374D848} to a comparable number.
+     *
+     * @param lsn the textual LSN
+     * @return the LSN as a 64-bit position
+     */
+    static long parseLsn(String lsn) {
+        int slash = lsn.indexOf('/');
+        return Long.parseLong(lsn.substring(0, slash), 16) << 32 | Long.parseLong(lsn.substring(slash + 1), 16);
+    }
+}
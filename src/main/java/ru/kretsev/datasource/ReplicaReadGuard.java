@@ -0,0 +1,81 @@
+package ru.kretsev.datasource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-your-writes guard for replica routing.
+ * After a user commits a write, the reads of that user go to the primary until the sticky window passes
+ * or the replica is known to have replayed the primary WAL up to a point after the write.
+ * Only writes of authenticated users are tracked; background work such as the outbox relay and the purge jobs has no
+ * reader waiting for its writes, so it never holds reads on the primary.
+ */
+public class ReplicaReadGuard {
+    private final Clock clock;
+    private final long stickyWindowMillis;
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    private volatile long replicaCaughtUpTo;
+
+    /**
+     * Creates a guard.
+     *
+     * @param clock the clock used to timestamp writes
+     * @param stickyWindow the maximum time the reads of a user stay on the primary after a write
+     */
+    public ReplicaReadGuard(Clock clock, Duration stickyWindow) {
+        this.clock = clock;
+        this.stickyWindowMillis = stickyWindow.toMillis();
+    }
+
+    /**
+     * Records a committed write of the user; writes without an authenticated user are ignored.
+     *
+     * @param username the username of the writer, or null if not authenticated
+     */
+    public void recordWrite(String username) {
+        if (username != null) {
+            lastWriteByUser.put(username, clock.millis());
+        }
+    }
+
+    /**
+     * Checks whether the reads of the user must go to the primary.
+     *
+     * @param username the username of the reader, or null if not authenticated
+     * @return true if the user wrote recently and the replica may not have the write yet
+     */
+    public boolean mustReadFromPrimary(String username) {
+        return username != null && isPending(lastWriteByUser.get(username));
+    }
+
+    /**
+     * Marks all writes committed before the given time as visible on the replica.
+     *
+     * @param epochMillis the time by which the replica has caught up
+     */
+    public void replicaCaughtUpTo(long epochMillis) {
+        replicaCaughtUpTo = Math.max(replicaCaughtUpTo, epochMillis);
+    }
+
+    /**
+     * Forgets the writes that no longer hold any reads on the primary.
+     */
+    public void purgeExpired() {
+        lastWriteByUser.values().removeIf(writtenAt -> !isPending(writtenAt));
+    }
+
+    /**
+     * Returns the sticky window.
+     *
+     * @return the sticky window in milliseconds
+     */
+    public long getStickyWindowMillis() {
+        return stickyWindowMillis;
+    }
+
+    private boolean isPending(Long writtenAt) {
+        return writtenAt != null && writtenAt >= replicaCaughtUpTo && clock.millis() - writtenAt < stickyWindowMillis;
+    }
+}
@@ -0,0 +1,71 @@
+package ru.kretsev.datasource;
+
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.kretsev.auth.AuthenticationFacade;
+
+/**
+ * Data source that sends read-only transactions to the replica and everything else to the primary.
+ * It must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the connection is taken after the transaction has been marked read-only.
+ * Only write transactions of an authenticated user are recorded in the read-your-writes guard.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private final ReplicaReadGuard readGuard;
+    private final AuthenticationFacade authenticationFacade;
+
+    /**
+     * Route targets.
+     */
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    /**
+     * Creates a routing data source.
+     *
+     * @param primary the primary data source
+     * @param replica the replica data source
+     * @param readGuard the read-your-writes guard
+     * @param authenticationFacade the facade resolving the current user
+     */
+    public ReplicaRoutingDataSource(
+            DataSource primary,
+            DataSource replica,
+            ReplicaReadGuard readGuard,
+            AuthenticationFacade authenticationFacade) {
+        this.readGuard = readGuard;
+        this.authenticationFacade = authenticationFacade;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String username = authenticationFacade.getCurrentUserEmail();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (username != null) {
+                recordWriteOnCommit(username);
+            }
+            return Target.PRIMARY;
+        }
+        return readGuard.mustReadFromPrimary(username) ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    private void recordWriteOnCommit(String username) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readGuard.recordWrite(username);
+            }
+        });
+    }
+}
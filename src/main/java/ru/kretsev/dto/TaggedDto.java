@@ -0,0 +1,10 @@
+package ru.kretsev.dto;
+
+/**
+ * A DTO together with its strong entity tag, cached as one entry so conditional reads need no serialization.
+ *
+ * @param body the DTO
+ * @param eTag the unquoted entity tag of the DTO
+ * @param <T> the DTO type
+ */
+public record TaggedDto<T>(T body, String eTag) {}
@@ -10,5 +10,6 @@ import ru.kretsev.dto.user.UserShortDto;
  * @param content the comment text
  * @param taskShortDto the short task DTO
  * @param userShortDto the short user DTO
+ * @param version the optimistic locking version, also sent as the ETag
  */
-public record CommentDto(Long id, String content, TaskShortDto taskShortDto, UserShortDto userShortDto) {}
+public record CommentDto(Long id, String content, TaskShortDto taskShortDto, UserShortDto userShortDto, Long version) {}
@@ -0,0 +1,48 @@
+package ru.kretsev.dto.page;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset cursor pointing at the last row of a page.
+ * Clients receive it as an opaque Base64 token and pass it back unchanged.
+ *
+ * @param id the ID of the last row
+ * @param value the sort key value of the last row, or null when seeking by ID only
+ */
+public record Cursor(Long id, String value) {
+    private static final String SEPARATOR = ":";
+
+    /**
+     * Encodes the cursor into an opaque URL-safe token.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = value == null ? String.valueOf(id) : id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the encoded cursor, may be blank for the first page
+     * @return the decoded cursor, or null if the token is blank
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                return new Cursor(Long.parseLong(raw), null);
+            }
+            return new Cursor(Long.parseLong(raw.substring(0, separatorIndex)), raw.substring(separatorIndex + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Некорректный курсор: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package ru.kretsev.dto.page;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of results fetched by keyset (seek) pagination.
+ *
+ * @param content the page content
+ * @param nextCursor the cursor to request the next page with, or null on the last page
+ * @param hasNext whether more rows follow this page
+ * @param <T> the content type
+ */
+public record CursorPage<T>(List<T> content, String nextCursor, boolean hasNext) {
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code size + 1}.
+     * The extra row only signals that a next page exists and is not returned.
+     *
+     * @param rows the fetched rows in seek order
+     * @param size the requested page size
+     * @param cursorOf the function building a cursor from a row
+     * @param mapper the function mapping a row to the page content type
+     * @param <E> the row type
+     * @param <T> the content type
+     * @return the cursor page
+     */
+    public static <E, T> CursorPage<T> of(
+            List<E> rows, int size, Function<E, Cursor> cursorOf, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(pageRows.get(pageRows.size() - 1)).encode() : null;
+        return new CursorPage<>(pageRows.stream().map(mapper).toList(), nextCursor, hasNext);
+    }
+
+    /**
+     * Validates a requested page size.
+     *
+     * @param size the page size
+     * @return the fetch limit, one row larger than the page size
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public static int fetchLimit(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Размер страницы должен быть больше нуля");
+        }
+        return size + 1;
+    }
+}
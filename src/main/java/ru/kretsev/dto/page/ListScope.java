@@ -0,0 +1,46 @@
+package ru.kretsev.dto.page;
+
+/**
+ * The part of the task and comment data a list query reads, tracked by its own generation so that a change
+ * elsewhere does not invalidate the query. Queries reading all tasks have no scope.
+ *
+ * @param type the kind of data
+ * @param id the ID of the user or task owning the data
+ */
+public record ListScope(Type type, Long id) {
+
+    /**
+     * The kinds of data list queries are scoped to.
+     */
+    public enum Type {
+        /**
+         * The tasks authored by a user, with their comment counts.
+         */
+        USER,
+
+        /**
+         * The comments of a task, with the task title they embed.
+         */
+        TASK
+    }
+
+    /**
+     * Creates the scope of the tasks authored by a user.
+     *
+     * @param userId the user ID
+     * @return the scope
+     */
+    public static ListScope user(Long userId) {
+        return new ListScope(Type.USER, userId);
+    }
+
+    /**
+     * Creates the scope of the comments of a task.
+     *
+     * @param taskId the task ID
+     * @return the scope
+     */
+    public static ListScope task(Long taskId) {
+        return new ListScope(Type.TASK, taskId);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.kretsev.dto.page;
+
+/**
+ * How an offset page reports the total number of elements.
+ */
+public enum PageMode {
+    /**
+     * Runs an exact {@code count(*)} next to the data query.
+     */
+    EXACT,
+
+    /**
+     * Fetches one extra row to tell whether a next page exists and reports no total.
+     */
+    SLICE,
+
+    /**
+     * Reports the planner estimate as the total, counting exactly only when the estimate is small.
+     */
+    APPROXIMATE
+}
@@ -0,0 +1,28 @@
+package ru.kretsev.dto.page;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Factory methods for pages whose total is not counted exactly.
+ */
+public final class Pages {
+
+    private Pages() {}
+
+    /**
+     * Turns a slice into a page with an estimated total.
+     * The total is exact on the last page and never lower than the rows the slice proves to exist.
+     *
+     * @param slice the slice fetched without a count query
+     * @param estimate the estimated total number of elements
+     * @param <T> the element type
+     * @return a page with the estimated total
+     */
+    public static <T> Page<T> withEstimatedTotal(Slice<T> slice, long estimate) {
+        long seen = slice.getPageable().getOffset() + slice.getNumberOfElements();
+        long total = slice.hasNext() ? Math.max(estimate, seen + 1) : seen;
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+    }
+}
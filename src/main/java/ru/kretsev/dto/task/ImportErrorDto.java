@@ -0,0 +1,9 @@
+package ru.kretsev.dto.task;
+
+/**
+ * A rejected row of an import file.
+ *
+ * @param line the line number where the row starts
+ * @param message the reason the row was rejected
+ */
+public record ImportErrorDto(long line, String message) {}
@@ -0,0 +1,33 @@
+package ru.kretsev.dto.task;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Progress and result of a task import job.
+ *
+ * @param id the job ID
+ * @param state the job state
+ * @param format the file format
+ * @param rowsRead the number of tasks read from the file so far, including rejected ones
+ * @param tasksImported the number of tasks inserted, known once the job has completed
+ * @param commentsImported the number of comments inserted, known once the job has completed
+ * @param errorCount the total number of rejected rows
+ * @param errors the first rejected rows
+ * @param failure the reason the whole job failed, or null
+ * @param createdAt when the job was submitted
+ * @param finishedAt when the job completed or failed, or null
+ */
+public record ImportJobDto(
+        UUID id,
+        ImportJobState state,
+        TaskFileFormat format,
+        long rowsRead,
+        long tasksImported,
+        long commentsImported,
+        long errorCount,
+        List<ImportErrorDto> errors,
+        String failure,
+        Instant createdAt,
+        Instant finishedAt) {}
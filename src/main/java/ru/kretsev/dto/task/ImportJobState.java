@@ -0,0 +1,11 @@
+package ru.kretsev.dto.task;
+
+/**
+ * State of a task import job.
+ */
+public enum ImportJobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
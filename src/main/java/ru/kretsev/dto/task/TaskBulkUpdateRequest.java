@@ -0,0 +1,12 @@
+package ru.kretsev.dto.task;
+
+import java.util.List;
+
+/**
+ * Request to apply one patch to many tasks, selected either by IDs or by a filter.
+ *
+ * @param ids the task IDs
+ * @param filter the filter selecting the tasks
+ * @param patch the changes to apply
+ */
+public record TaskBulkUpdateRequest(List<Long> ids, TaskFilter filter, TaskPatch patch) {}
@@ -0,0 +1,14 @@
+package ru.kretsev.dto.task;
+
+import java.time.Instant;
+import ru.kretsev.model.task.TaskChangeType;
+
+/**
+ * Data Transfer Object for the latest change of a task in the delta-sync feed.
+ *
+ * @param taskId the task ID
+ * @param type the kind of the change
+ * @param changedAt the time of the change
+ * @param task the current state of the task, or null if it has been deleted
+ */
+public record TaskChangeDto(Long taskId, TaskChangeType type, Instant changedAt, TaskSummaryDto task) {}
@@ -0,0 +1,12 @@
+package ru.kretsev.dto.task;
+
+import java.util.List;
+
+/**
+ * A batch of the delta-sync feed.
+ *
+ * @param changes the changes, at most one per task, in the order they were committed
+ * @param nextCursor the cursor to request the following changes with, never null
+ * @param hasMore whether more changes are already available after this batch
+ */
+public record TaskChangesDto(List<TaskChangeDto> changes, String nextCursor, boolean hasMore) {}
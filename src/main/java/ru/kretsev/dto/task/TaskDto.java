@@ -15,6 +15,7 @@ import ru.kretsev.dto.user.UserShortDto;
  * @param author the task author DTO
  * @param assignee the task assignee DTO
  * @param comments the list of comment DTOs
+ * @param version the optimistic locking version, also sent as the ETag
  */
 public record TaskDto(
         Long id,
@@ -24,4 +25,5 @@ public record TaskDto(
         String priority,
         UserShortDto author,
         UserShortDto assignee,
-        List<CommentDto> comments) {}
+        List<CommentDto> comments,
+        Long version) {}
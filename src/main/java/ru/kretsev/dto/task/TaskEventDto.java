@@ -0,0 +1,15 @@
+package ru.kretsev.dto.task;
+
+import java.time.Instant;
+import ru.kretsev.model.task.TaskChangeType;
+
+/**
+ * Data Transfer Object for a task or comment change pushed to subscribers.
+ * Events carry only identifiers: clients reload what they display, conditionally with {@code If-None-Match}.
+ *
+ * @param type the kind of the change
+ * @param taskId the task ID
+ * @param commentId the comment ID of a comment change, or null
+ * @param changedAt the time of the change
+ */
+public record TaskEventDto(TaskChangeType type, Long taskId, Long commentId, Instant changedAt) {}
@@ -0,0 +1,42 @@
+package ru.kretsev.dto.task;
+
+/**
+ * File format of task exports and imports.
+ */
+public enum TaskFileFormat {
+    /**
+     * One JSON object per task with its comments nested, separated by newlines.
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * One row per comment with the task columns repeated; tasks without comments get a single row.
+     */
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extension;
+
+    TaskFileFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    /**
+     * Returns the media type of the file.
+     *
+     * @return the media type
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Returns the file name extension of the file.
+     *
+     * @return the extension without a leading dot
+     */
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,43 @@
+package ru.kretsev.dto.task;
+
+import ru.kretsev.model.task.Priority;
+import ru.kretsev.model.task.TaskStatus;
+
+/**
+ * Filter criteria for task listings. Null components are not applied.
+ *
+ * @param status the task status
+ * @param priority the task priority
+ * @param authorId the task author ID
+ * @param assigneeId the task assignee ID
+ */
+public record TaskFilter(TaskStatus status, Priority priority, Long authorId, Long assigneeId) {
+
+    /**
+     * Creates a filter that matches every task.
+     *
+     * @return the empty filter
+     */
+    public static TaskFilter empty() {
+        return new TaskFilter(null, null, null, null);
+    }
+
+    /**
+     * Checks whether the filter matches every task.
+     *
+     * @return true if every component is null
+     */
+    public boolean isEmpty() {
+        return status == null && priority == null && authorId == null && assigneeId == null;
+    }
+
+    /**
+     * Returns a copy of this filter restricted to the given author.
+     *
+     * @param authorId the task author ID
+     * @return the restricted filter
+     */
+    public TaskFilter withAuthorId(Long authorId) {
+        return new TaskFilter(status, priority, authorId, assigneeId);
+    }
+}
@@ -0,0 +1,23 @@
+package ru.kretsev.dto.task;
+
+import ru.kretsev.model.task.Priority;
+import ru.kretsev.model.task.TaskStatus;
+
+/**
+ * Changes applied to every task of a bulk update. Null components are left unchanged.
+ *
+ * @param status the new task status
+ * @param priority the new task priority
+ * @param assigneeId the ID of the new assignee
+ */
+public record TaskPatch(TaskStatus status, Priority priority, Long assigneeId) {
+
+    /**
+     * Checks whether the patch changes nothing.
+     *
+     * @return true if every component is null
+     */
+    public boolean isEmpty() {
+        return status == null && priority == null && assigneeId == null;
+    }
+}
@@ -0,0 +1,46 @@
+package ru.kretsev.dto.task;
+
+import org.springframework.data.domain.Sort;
+import ru.kretsev.dto.page.Cursor;
+import ru.kretsev.model.task.Task;
+import ru.kretsev.model.task.TaskSortKey;
+
+/**
+ * Sort order of task listings: a whitelisted key followed by the task ID in the same direction.
+ *
+ * @param key the sort key
+ * @param direction the sort direction
+ */
+public record TaskSort(TaskSortKey key, Sort.Direction direction) {
+
+    /**
+     * Creates the default order by ascending ID.
+     *
+     * @return the default sort
+     */
+    public static TaskSort byId() {
+        return new TaskSort(TaskSortKey.ID, Sort.Direction.ASC);
+    }
+
+    /**
+     * Converts this order to a Spring Data sort.
+     *
+     * @return the sort with the ID tie-breaker
+     */
+    public Sort toSort() {
+        if (key == TaskSortKey.ID) {
+            return Sort.by(direction, "id");
+        }
+        return Sort.by(direction, key.getAttribute(), "id");
+    }
+
+    /**
+     * Builds the cursor pointing at the given task.
+     *
+     * @param task the last task of a page
+     * @return the cursor
+     */
+    public Cursor cursorOf(Task task) {
+        return new Cursor(task.getId(), key.extractValue(task));
+    }
+}
@@ -0,0 +1,26 @@
+package ru.kretsev.dto.task;
+
+import java.time.Instant;
+import ru.kretsev.dto.user.UserShortDto;
+
+/**
+ * Data Transfer Object for a task in listings, built without loading its comments.
+ *
+ * @param id the task ID
+ * @param title the task title
+ * @param status the task status
+ * @param priority the task priority
+ * @param author the task author DTO
+ * @param assignee the task assignee DTO
+ * @param commentCount the number of comments
+ * @param lastActivityAt the time of the last change of the task or its comments
+ */
+public record TaskSummaryDto(
+        Long id,
+        String title,
+        String status,
+        String priority,
+        UserShortDto author,
+        UserShortDto assignee,
+        int commentCount,
+        Instant lastActivityAt) {}
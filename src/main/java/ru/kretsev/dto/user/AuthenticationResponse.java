@@ -3,6 +3,7 @@ package ru.kretsev.dto.user;
 /**
  * Data Transfer Object for authentication response.
  *
- * @param token the JWT token
+ * @param token the short-lived JWT access token
+ * @param refreshToken the single-use token renewing the access token
  */
-public record AuthenticationResponse(String token) {}
+public record AuthenticationResponse(String token, String refreshToken) {}
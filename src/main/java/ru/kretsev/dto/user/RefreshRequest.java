@@ -0,0 +1,10 @@
+package ru.kretsev.dto.user;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Data Transfer Object for a request renewing the access token.
+ *
+ * @param refreshToken the refresh token received at login or at the previous renewal
+ */
+public record RefreshRequest(@NotBlank(message = "Refresh token is required") String refreshToken) {}
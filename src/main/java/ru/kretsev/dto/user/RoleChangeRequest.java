@@ -0,0 +1,11 @@
+package ru.kretsev.dto.user;
+
+import jakarta.validation.constraints.NotNull;
+import ru.kretsev.model.user.Role;
+
+/**
+ * Data Transfer Object for a role change request.
+ *
+ * @param role the new role of the user
+ */
+public record RoleChangeRequest(@NotNull(message = "Role is required") Role role) {}
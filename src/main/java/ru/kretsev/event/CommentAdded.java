@@ -0,0 +1,10 @@
+package ru.kretsev.event;
+
+/**
+ * Event of a comment added to a task.
+ *
+ * @param commentId the comment ID
+ * @param taskId the task ID
+ * @param authorId the comment author ID
+ */
+public record CommentAdded(Long commentId, Long taskId, Long authorId) implements DomainEvent {}
@@ -0,0 +1,9 @@
+package ru.kretsev.event;
+
+/**
+ * Event of a comment deleted from a task.
+ *
+ * @param commentId the comment ID
+ * @param taskId the task ID
+ */
+public record CommentDeleted(Long commentId, Long taskId) implements DomainEvent {}
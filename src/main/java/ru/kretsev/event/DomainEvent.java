@@ -0,0 +1,16 @@
+package ru.kretsev.event;
+
+/**
+ * A change of a task or its comments, recorded in the outbox in the transaction of the change
+ * and dispatched to {@code @EventListener} methods after commit.
+ * Events carry identifiers only; listeners load the current state they need.
+ */
+public sealed interface DomainEvent
+        permits TaskCreated, TaskUpdated, TaskAssigned, TaskDeleted, TaskRestored, CommentAdded, CommentDeleted {
+    /**
+     * Returns the ID of the task the event belongs to.
+     *
+     * @return the task ID
+     */
+    Long taskId();
+}
@@ -0,0 +1,25 @@
+package ru.kretsev.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.kretsev.service.LoggingService;
+
+/**
+ * Writes every dispatched domain event to the application log as an audit trail of task changes.
+ */
+@Component
+@RequiredArgsConstructor
+public class DomainEventAuditListener {
+    private final LoggingService loggingService;
+
+    /**
+     * Logs a dispatched event.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void onDomainEvent(DomainEvent event) {
+        loggingService.logInfo("Доменное событие: {}", event);
+    }
+}
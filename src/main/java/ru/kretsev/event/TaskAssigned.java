@@ -0,0 +1,10 @@
+package ru.kretsev.event;
+
+/**
+ * Event of a task assigned to a user.
+ *
+ * @param taskId the task ID
+ * @param assigneeId the new assignee ID
+ * @param previousAssigneeId the previous assignee ID, or null if there was none or a bulk update did not read it
+ */
+public record TaskAssigned(Long taskId, Long assigneeId, Long previousAssigneeId) implements DomainEvent {}
@@ -0,0 +1,10 @@
+package ru.kretsev.event;
+
+/**
+ * Event of a created task.
+ *
+ * @param taskId the task ID
+ * @param authorId the author ID
+ * @param assigneeId the assignee ID, or null
+ */
+public record TaskCreated(Long taskId, Long authorId, Long assigneeId) implements DomainEvent {}
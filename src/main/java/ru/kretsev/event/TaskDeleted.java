@@ -0,0 +1,10 @@
+package ru.kretsev.event;
+
+/**
+ * Event of a deleted task; its comments are deleted with it without events of their own.
+ * The task can be restored until it is purged.
+ *
+ * @param taskId the task ID
+ * @param authorId the author ID
+ */
+public record TaskDeleted(Long taskId, Long authorId) implements DomainEvent {}
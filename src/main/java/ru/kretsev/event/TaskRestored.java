@@ -0,0 +1,9 @@
+package ru.kretsev.event;
+
+/**
+ * Event of a deleted task restored before it was purged, together with its comments.
+ *
+ * @param taskId the task ID
+ * @param authorId the author ID
+ */
+public record TaskRestored(Long taskId, Long authorId) implements DomainEvent {}
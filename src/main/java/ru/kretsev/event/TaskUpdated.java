@@ -0,0 +1,8 @@
+package ru.kretsev.event;
+
+/**
+ * Event of a change of the title, description, status or priority of a task.
+ *
+ * @param taskId the task ID
+ */
+public record TaskUpdated(Long taskId) implements DomainEvent {}
@@ -0,0 +1,16 @@
+package ru.kretsev.exception;
+
+/**
+ * Thrown when a change feed cursor points before changes that have already been purged.
+ */
+public class CursorExpiredException extends RuntimeException {
+
+    /**
+     * Creates the exception.
+     *
+     * @param message the detail message
+     */
+    public CursorExpiredException(String message) {
+        super(message);
+    }
+}
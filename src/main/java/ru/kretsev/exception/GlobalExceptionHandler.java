@@ -5,6 +5,8 @@ import java.util.HashMap;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -23,6 +25,8 @@ import ru.kretsev.service.LoggingService;
 @ControllerAdvice
 @RequiredArgsConstructor
 public class GlobalExceptionHandler {
+    private static final String RETRY_AFTER_SECONDS = "1";
+
     private final LoggingService loggingService;
 
     /**
@@ -94,6 +98,52 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse(e.getMessage(), HttpStatus.NOT_FOUND.value()));
     }
 
+    /**
+     * Handles conflicting concurrent changes and stale {@code If-Match} versions.
+     *
+     * @param e the optimistic locking exception
+     * @return an error message
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        loggingService.logWarn("Конфликт версий: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(new ErrorResponse(
+                        "Данные были изменены другим запросом, получите актуальную версию",
+                        HttpStatus.PRECONDITION_FAILED.value()));
+    }
+
+    /**
+     * Handles change feed cursors older than the retained changes.
+     *
+     * @param e the cursor expired exception
+     * @return an error message
+     */
+    @ExceptionHandler(CursorExpiredException.class)
+    @ResponseStatus(HttpStatus.GONE)
+    public ResponseEntity<ErrorResponse> handleCursorExpiredException(CursorExpiredException e) {
+        loggingService.logWarn("Курсор изменений устарел: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.GONE).body(new ErrorResponse(e.getMessage(), HttpStatus.GONE.value()));
+    }
+
+    /**
+     * Handles logins and registrations rejected because the password hashing pool is saturated.
+     *
+     * @param e the overload exception
+     * @return an error message with the delay after which the client may retry
+     */
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<ErrorResponse> handlePasswordHashingOverloadedException(
+            PasswordHashingOverloadedException e) {
+        loggingService.logWarn("Запрос отклонён: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(new ErrorResponse(
+                        "Сервер перегружен, повторите попытку позже", HttpStatus.SERVICE_UNAVAILABLE.value()));
+    }
+
     /**
      * Handles illegal arguments exception.
      *
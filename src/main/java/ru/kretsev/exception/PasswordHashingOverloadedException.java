@@ -0,0 +1,16 @@
+package ru.kretsev.exception;
+
+/**
+ * Thrown when a password cannot be hashed or checked because all hashing threads are busy and their queue is full.
+ */
+public class PasswordHashingOverloadedException extends RuntimeException {
+
+    /**
+     * Creates the exception.
+     *
+     * @param message the detail message
+     */
+    public PasswordHashingOverloadedException(String message) {
+        super(message);
+    }
+}
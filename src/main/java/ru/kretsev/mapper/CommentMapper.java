@@ -23,6 +23,7 @@ public interface CommentMapper {
      */
     @Mapping(source = "taskShortDto", target = "task")
     @Mapping(source = "userShortDto", target = "author")
+    @Mapping(target = "version", ignore = true)
     Comment toEntity(CommentDto commentDto);
 
     /**
@@ -5,6 +5,7 @@ import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
 import ru.kretsev.dto.task.TaskDto;
 import ru.kretsev.dto.task.TaskShortDto;
+import ru.kretsev.dto.task.TaskSummaryDto;
 import ru.kretsev.model.task.Task;
 
 /**
@@ -22,6 +23,7 @@ public interface TaskMapper {
     @Mapping(target = "author", source = "author")
     @Mapping(target = "assignee", source = "assignee")
     @Mapping(target = "comments", source = "comments")
+    @Mapping(target = "version", ignore = true)
     Task toEntity(TaskDto taskDto);
 
     /**
@@ -44,4 +46,14 @@ public interface TaskMapper {
     @Mapping(target = "id", source = "id")
     @Mapping(target = "title", source = "title")
     TaskShortDto toShortDto(Task task);
+
+    /**
+     * Converts a Task entity to a Task summary DTO without touching its comments.
+     *
+     * @param task the task entity
+     * @return the task summary DTO
+     */
+    @Mapping(target = "author", source = "author")
+    @Mapping(target = "assignee", source = "assignee")
+    TaskSummaryDto toSummaryDto(Task task);
 }
@@ -1,14 +1,17 @@
 package ru.kretsev.model.task;
 
 import jakarta.persistence.*;
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
 import ru.kretsev.model.comment.Comment;
 import ru.kretsev.model.user.User;
 
 /**
  * Entity representing a task in the system.
+ * Deleted tasks stay in the table until they are purged and are excluded from every entity query.
  */
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,11 +20,16 @@ import ru.kretsev.model.user.User;
 @Builder(toBuilder = true)
 @Entity
 @Table(name = "tasks")
+@SQLRestriction("deleted_at IS NULL")
 public class Task {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_id_seq")
+    @SequenceGenerator(name = "tasks_id_seq", sequenceName = "tasks_id_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    private Long version;
+
     @Column(nullable = false)
     private String title;
 
@@ -29,22 +37,41 @@ public class Task {
     private String description;
 
     @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
     private TaskStatus status;
 
     @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
     private Priority priority;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assignee_id")
     private User assignee;
 
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL)
     private List<Comment> comments;
 
+    /**
+     * Number of comments, maintained by database triggers.
+     */
+    @Column(insertable = false, updatable = false)
+    private int commentCount;
+
+    /**
+     * Time of the last change of the task or its comments, maintained by database triggers.
+     */
+    @Column(insertable = false, updatable = false)
+    private Instant lastActivityAt;
+
+    /**
+     * Time the task was deleted, or null for a live task.
+     */
+    private Instant deletedAt;
+
     @Override
     public String toString() {
         return "Task{" + "id="
@@ -0,0 +1,23 @@
+package ru.kretsev.model.task;
+
+/**
+ * Enum representing the kind of a recorded task change.
+ */
+public enum TaskChangeType {
+    CREATED,
+    UPDATED,
+    ASSIGNED,
+    DELETED,
+    RESTORED,
+    COMMENT_ADDED,
+    COMMENT_DELETED;
+
+    /**
+     * Checks whether the change is about a comment of the task rather than the task itself.
+     *
+     * @return true for comment changes
+     */
+    public boolean isCommentChange() {
+        return this == COMMENT_ADDED || this == COMMENT_DELETED;
+    }
+}
@@ -0,0 +1,67 @@
+package ru.kretsev.model.task;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.function.Function;
+
+/**
+ * Enum representing the whitelisted sort keys of task listings.
+ * Every key is combined with the task ID as a tie-breaker, so it can be used for keyset pagination.
+ */
+public enum TaskSortKey {
+    ID("id", task -> null, value -> null),
+    STATUS("status", task -> task.getStatus().name(), TaskStatus::valueOf),
+    PRIORITY("priority", task -> task.getPriority().name(), Priority::valueOf),
+    LAST_ACTIVITY("lastActivityAt", task -> task.getLastActivityAt().toString(), TaskSortKey::parseInstant);
+
+    private final String attribute;
+    private final Function<Task, String> valueExtractor;
+    private final Function<String, Comparable<?>> valueParser;
+
+    TaskSortKey(String attribute, Function<Task, String> valueExtractor, Function<String, Comparable<?>> valueParser) {
+        this.attribute = attribute;
+        this.valueExtractor = valueExtractor;
+        this.valueParser = valueParser;
+    }
+
+    /**
+     * Returns the name of the sorted entity attribute.
+     *
+     * @return the attribute name
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Extracts the sort key value of a task in its cursor representation.
+     *
+     * @param task the task
+     * @return the sort key value, or null for {@link #ID}
+     */
+    public String extractValue(Task task) {
+        return valueExtractor.apply(task);
+    }
+
+    /**
+     * Parses a sort key value from its cursor representation.
+     *
+     * @param value the cursor value
+     * @return the typed sort key value, or null for {@link #ID}
+     * @throws IllegalArgumentException if the value does not belong to this key
+     */
+    public Comparable<?> parseValue(String value) {
+        if (this != ID && value == null) {
+            throw new IllegalArgumentException("Курсор не соответствует сортировке: " + name());
+        }
+        return valueParser.apply(value);
+    }
+
+    private static Instant parseInstant(String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректное время в курсоре: " + value, e);
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package ru.kretsev.model.token;
 
 import jakarta.persistence.*;
+import java.time.Instant;
 import java.util.Objects;
+import java.util.UUID;
 import lombok.*;
 import ru.kretsev.model.user.User;
 
 /**
  * Entity representing a JWT token associated with a user.
+ * A revoked access token is stored by its ID (the {@code jti} claim) and a refresh token by the digest of its value,
+ * both until their expiration.
  */
 @NoArgsConstructor
 @AllArgsConstructor
@@ -31,6 +35,10 @@ public class Token {
 
     private boolean expired;
 
+    private Instant expiresAt;
+
+    private UUID sessionId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @ToString.Exclude
@@ -1,8 +1,9 @@
 package ru.kretsev.model.token;
 
 /**
- * Enum representing the type of token.
+ * Enum representing the type of token: a revoked access token or a refresh token.
  */
 public enum TokenType {
-    BEARER
+    BEARER,
+    REFRESH
 }
@@ -41,6 +41,10 @@ public class User implements UserDetails {
     @Enumerated(EnumType.STRING)
     private Role role;
 
+    @Builder.Default
+    @Column(nullable = false)
+    private long tokenEpoch = 0;
+
     @OneToMany(mappedBy = "user")
     @ToString.Exclude
     @JsonIgnore
@@ -1,16 +1,29 @@
 package ru.kretsev.repository;
 
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.kretsev.model.comment.Comment;
 
 /**
  * Repository interface for Comment entity operations.
+ * Comments of deleted tasks are not found until the task is restored.
  */
 @Repository
-public interface CommentRepository extends JpaRepository<Comment, Long> {
+public interface CommentRepository extends JpaRepository<Comment, Long>, CommentRepositoryCustom {
+
+    @Override
+    @EntityGraph(attributePaths = {"author", "task"})
+    @Query("SELECT c FROM Comment c WHERE c.id = :id AND c.task.deletedAt IS NULL")
+    Optional<Comment> findById(@Param("id") Long id);
 
     /**
      * Finds comments by task ID with pagination.
@@ -19,5 +32,32 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      * @param pageable the pagination information
      * @return a page of comments
      */
-    Page<Comment> findByTaskId(Long taskId, Pageable pageable);
+    @EntityGraph(attributePaths = {"author", "task"})
+    @Query("SELECT c FROM Comment c WHERE c.task.id = :taskId AND c.task.deletedAt IS NULL")
+    Page<Comment> findByTaskId(@Param("taskId") Long taskId, Pageable pageable);
+
+    /**
+     * Finds comments by task ID with pagination, fetching one extra row instead of counting.
+     *
+     * @param taskId the task ID
+     * @param pageable the pagination information
+     * @return a slice of comments
+     */
+    @EntityGraph(attributePaths = {"author", "task"})
+    @Query("SELECT c FROM Comment c WHERE c.task.id = :taskId AND c.task.deletedAt IS NULL")
+    Slice<Comment> findSliceByTaskId(@Param("taskId") Long taskId, Pageable pageable);
+
+    /**
+     * Finds comments of a task with an ID greater than the given one, seeking on {@code (task_id, id)}.
+     *
+     * @param taskId the task ID
+     * @param id the ID of the last comment of the previous page
+     * @param limit the maximum number of comments to return
+     * @return a list of comments ordered by ID
+     */
+    @EntityGraph(attributePaths = {"author", "task"})
+    @Query("SELECT c FROM Comment c WHERE c.task.id = :taskId AND c.id > :id AND c.task.deletedAt IS NULL "
+            + "ORDER BY c.id")
+    List<Comment> findByTaskIdAndIdGreaterThanOrderByIdAsc(
+            @Param("taskId") Long taskId, @Param("id") Long id, Limit limit);
 }
@@ -0,0 +1,15 @@
+package ru.kretsev.repository;
+
+/**
+ * Custom repository fragment for comment queries that Spring Data cannot derive.
+ */
+public interface CommentRepositoryCustom {
+
+    /**
+     * Estimates the number of comments of a task from PostgreSQL statistics.
+     *
+     * @param taskId the task ID
+     * @return the estimated number of comments
+     */
+    long estimateCountByTaskId(Long taskId);
+}
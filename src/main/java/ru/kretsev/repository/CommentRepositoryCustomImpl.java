@@ -0,0 +1,16 @@
+package ru.kretsev.repository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Implementation of the custom comment repository fragment.
+ */
+@RequiredArgsConstructor
+public class CommentRepositoryCustomImpl implements CommentRepositoryCustom {
+    private final RowCountEstimator rowCountEstimator;
+
+    @Override
+    public long estimateCountByTaskId(Long taskId) {
+        return rowCountEstimator.estimateRows("SELECT 1 FROM comments WHERE task_id = ?", taskId);
+    }
+}
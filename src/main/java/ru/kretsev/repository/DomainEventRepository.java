@@ -0,0 +1,134 @@
+package ru.kretsev.repository;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Writes domain events to the outbox and lets the relay claim, remove and park them.
+ * Claiming locks the rows until the relay transaction ends, so events are dispatched at least once.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DomainEventRepository {
+    /**
+     * Key of the advisory lock held by the active relay; relays of other nodes skip their run instead of waiting.
+     */
+    private static final long RELAY_LOCK_KEY = 0x6f7574626f78L;
+
+    private static final String APPEND =
+            "INSERT INTO domain_events (event_type, task_id, payload) VALUES (?, ?, CAST(? AS jsonb))";
+    private static final String HAS_PENDING =
+            """
+            SELECT EXISTS (SELECT 1
+                           FROM domain_events
+                           WHERE failed_at IS NULL
+                             AND txid < pg_snapshot_xmin(pg_current_snapshot()))
+            """;
+    private static final String CLAIM =
+            """
+            SELECT id, event_type, payload::text, attempts
+            FROM domain_events
+            WHERE failed_at IS NULL
+              AND txid < pg_snapshot_xmin(pg_current_snapshot())
+            ORDER BY txid, id
+            LIMIT ? FOR UPDATE SKIP LOCKED
+            """;
+    private static final String RECORD_FAILURE =
+            """
+            UPDATE domain_events
+            SET attempts   = attempts + 1,
+                last_error = ?,
+                failed_at  = CASE WHEN attempts + 1 >= ? THEN now() END
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A domain event to append.
+     *
+     * @param type the event type
+     * @param taskId the task the event belongs to
+     * @param payload the event serialized to JSON
+     */
+    public record NewDomainEvent(String type, Long taskId, String payload) {}
+
+    /**
+     * A claimed domain event.
+     *
+     * @param id the event ID
+     * @param type the event type
+     * @param payload the event serialized to JSON
+     * @param attempts the number of failed dispatches so far
+     */
+    public record DomainEventRow(long id, String type, String payload, int attempts) {}
+
+    /**
+     * Appends events in the current transaction.
+     *
+     * @param events the events in the order they happened
+     */
+    public void append(List<NewDomainEvent> events) {
+        jdbcTemplate.batchUpdate(APPEND, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.type());
+            ps.setObject(2, event.taskId());
+            ps.setString(3, event.payload());
+        });
+    }
+
+    /**
+     * Checks for events ready to be claimed without locking anything, so an idle relay opens no write transaction.
+     *
+     * @return true if the outbox has pending events visible to the relay
+     */
+    public boolean hasPending() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_PENDING, Boolean.class));
+    }
+
+    /**
+     * Takes the relay lock for the current transaction without waiting.
+     *
+     * @return true if no other relay is running
+     */
+    public boolean tryLockRelay() {
+        return Boolean.TRUE.equals(
+                jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, RELAY_LOCK_KEY));
+    }
+
+    /**
+     * Locks the oldest pending events for the current transaction, skipping events locked by another transaction.
+     *
+     * @param limit the maximum number of events
+     * @return the events in dispatch order
+     */
+    public List<DomainEventRow> claim(int limit) {
+        return jdbcTemplate.query(
+                CLAIM,
+                (rs, rowNum) -> new DomainEventRow(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getInt(4)),
+                limit);
+    }
+
+    /**
+     * Deletes dispatched events.
+     *
+     * @param ids the event IDs
+     */
+    public void delete(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM domain_events WHERE id = ANY(?)", (Object) ids.toArray(Long[]::new));
+        }
+    }
+
+    /**
+     * Records a failed dispatch and parks the event once it has failed the given number of times.
+     *
+     * @param id the event ID
+     * @param error the failure description
+     * @param maxAttempts the number of failures after which the event is parked
+     */
+    public void recordFailure(long id, String error, int maxAttempts) {
+        jdbcTemplate.update(RECORD_FAILURE, error, maxAttempts, id);
+    }
+}
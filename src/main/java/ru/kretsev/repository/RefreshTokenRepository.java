@@ -0,0 +1,112 @@
+package ru.kretsev.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+
+/**
+ * Stores refresh tokens in the {@code tokens} table by the digest of their value.
+ * A presented token is revoked and returned with its user in one statement over the unique index on
+ * {@code token_value}; the row is locked, so of two requests presenting the same token only one finds it unrevoked.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RefreshTokenRepository {
+    private static final String INSERT =
+            """
+            INSERT INTO tokens (token_value, token_type, user_id, session_id, expires_at)
+            VALUES (?, 'REFRESH', ?, ?, ?)
+            """;
+    private static final String ROTATE =
+            """
+            UPDATE tokens t
+            SET revoked = TRUE
+            FROM (SELECT id, revoked FROM tokens WHERE token_value = ? AND token_type = 'REFRESH' FOR UPDATE) o,
+                 users u
+            WHERE t.id = o.id
+              AND u.id = t.user_id
+            RETURNING o.revoked, t.session_id, t.expires_at,
+                u.id, u.email, u.firstname, u.lastname, u.role, u.token_epoch
+            """;
+    private static final String REVOKE_SESSION =
+            "UPDATE tokens SET revoked = TRUE WHERE session_id = ? AND token_type = 'REFRESH' AND NOT revoked";
+    private static final String REVOKE_USER =
+            "UPDATE tokens SET revoked = TRUE WHERE user_id = ? AND token_type = 'REFRESH' AND NOT revoked";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A refresh token revoked by its rotation.
+     *
+     * @param reused true if the token had already been revoked before
+     * @param sessionId the session of the token
+     * @param expiresAt the expiration of the token
+     * @param user the owner of the token, with everything but the password
+     */
+    public record RotatedToken(boolean reused, UUID sessionId, Instant expiresAt, User user) {}
+
+    /**
+     * Stores a refresh token.
+     *
+     * @param tokenHash the digest of the token value
+     * @param userId the ID of the token owner
+     * @param sessionId the session of the token
+     * @param expiresAt the expiration of the token
+     */
+    public void insert(String tokenHash, Long userId, UUID sessionId, Instant expiresAt) {
+        jdbcTemplate.update(INSERT, tokenHash, userId, sessionId, Timestamp.from(expiresAt));
+    }
+
+    /**
+     * Revokes a refresh token for its rotation and returns it with its owner.
+     *
+     * @param tokenHash the digest of the token value
+     * @return the revoked token, or empty if no refresh token has the digest
+     */
+    public Optional<RotatedToken> rotate(String tokenHash) {
+        return jdbcTemplate
+                .query(
+                        ROTATE,
+                        (rs, rowNum) -> new RotatedToken(
+                                rs.getBoolean(1),
+                                rs.getObject(2, UUID.class),
+                                rs.getTimestamp(3).toInstant(),
+                                User.builder()
+                                        .id(rs.getLong(4))
+                                        .email(rs.getString(5))
+                                        .firstname(rs.getString(6))
+                                        .lastname(rs.getString(7))
+                                        .role(Role.valueOf(rs.getString(8)))
+                                        .tokenEpoch(rs.getLong(9))
+                                        .build()),
+                        tokenHash)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Revokes the refresh tokens of a session.
+     *
+     * @param sessionId the session ID
+     * @return the number of revoked tokens
+     */
+    public int revokeSession(UUID sessionId) {
+        return jdbcTemplate.update(REVOKE_SESSION, sessionId);
+    }
+
+    /**
+     * Revokes the refresh tokens of a user.
+     *
+     * @param userId the user ID
+     * @return the number of revoked tokens
+     */
+    public int revokeUser(Long userId) {
+        return jdbcTemplate.update(REVOKE_USER, userId);
+    }
+}
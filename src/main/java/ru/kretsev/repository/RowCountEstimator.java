@@ -0,0 +1,31 @@
+package ru.kretsev.repository;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Estimates row counts from the PostgreSQL planner statistics instead of counting rows.
+ */
+@Component
+@RequiredArgsConstructor
+public class RowCountEstimator {
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Estimates the number of rows a query returns from the top node of its {@code EXPLAIN} plan.
+     *
+     * @param sql the query, with {@code ?} placeholders
+     * @param args the query arguments
+     * @return the estimated number of rows
+     */
+    public long estimateRows(String sql, Object... args) {
+        String topNode = jdbcTemplate.query("EXPLAIN " + sql, rs -> rs.next() ? rs.getString(1) : "", args);
+        Matcher matcher = PLAN_ROWS.matcher(topNode);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0L;
+    }
+}
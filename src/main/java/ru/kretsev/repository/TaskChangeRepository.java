@@ -0,0 +1,122 @@
+package ru.kretsev.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.kretsev.model.task.TaskChangeType;
+
+/**
+ * Reads and purges the task change log written by the triggers on {@code tasks} and {@code comments}.
+ * Changes are ordered by {@code (txid, id)} and only changes of transactions below the snapshot xmin of the reader
+ * are returned, so every change a cursor has passed is already committed or rolled back.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskChangeRepository {
+    private static final String FIND_AFTER =
+            """
+            WITH snapshot AS (SELECT pg_snapshot_xmin(pg_current_snapshot()) AS xmin)
+            SELECT s.xmin::text, h.txid::text, h.change_id,
+                   c.id, c.txid::text, c.task_id, c.change_type, c.author_id, c.assignee_id,
+                   c.previous_assignee_id, c.changed_at, c.comment_id
+            FROM snapshot s
+                     CROSS JOIN task_change_horizon h
+                     LEFT JOIN LATERAL (SELECT *
+                                        FROM task_changes
+                                        WHERE (txid, id) > (CAST(? AS xid8), ?)
+                                          AND txid < s.xmin
+                                        ORDER BY txid, id
+                                        LIMIT ?) c ON TRUE
+            ORDER BY c.txid, c.id
+            """;
+    private static final String PURGE_BEFORE =
+            """
+            WITH batch AS (SELECT id, txid, changed_at FROM task_changes ORDER BY txid, id LIMIT ?),
+                 cutoff AS (SELECT txid, id FROM batch WHERE changed_at >= ? ORDER BY txid, id LIMIT 1),
+                 purged AS (DELETE FROM task_changes t
+                     USING batch b
+                     WHERE t.id = b.id
+                       AND NOT EXISTS (SELECT 1 FROM cutoff c WHERE (b.txid, b.id) >= (c.txid, c.id))
+                     RETURNING t.txid, t.id),
+                 horizon AS (UPDATE task_change_horizon h
+                     SET txid = p.txid, change_id = p.id
+                     FROM (SELECT txid, id FROM purged ORDER BY txid DESC, id DESC LIMIT 1) p
+                     RETURNING h.change_id)
+            SELECT count(*) FROM purged
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A batch of changes read in one statement together with the bounds it was read under.
+     *
+     * @param rows the changes after the cursor, ordered by transaction and change ID
+     * @param snapshotXmin the oldest transaction still running when the batch was read
+     * @param horizonTxid the transaction of the last purged change
+     * @param horizonId the ID of the last purged change
+     */
+    public record TaskChangeBatch(List<TaskChangeRow> rows, long snapshotXmin, long horizonTxid, long horizonId) {}
+
+    /**
+     * Finds the changes committed after a cursor position.
+     *
+     * @param afterTxid the transaction ID of the cursor
+     * @param afterId the change ID of the cursor
+     * @param limit the maximum number of changes, zero to read only the bounds
+     * @return the changes with the snapshot xmin and the purge horizon
+     */
+    public TaskChangeBatch findAfter(long afterTxid, long afterId, int limit) {
+        return jdbcTemplate.query(
+                FIND_AFTER,
+                rs -> {
+                    List<TaskChangeRow> rows = new ArrayList<>();
+                    long snapshotXmin = 0;
+                    long horizonTxid = 0;
+                    long horizonId = 0;
+                    while (rs.next()) {
+                        snapshotXmin = Long.parseLong(rs.getString(1));
+                        horizonTxid = Long.parseLong(rs.getString(2));
+                        horizonId = rs.getLong(3);
+                        if (rs.getObject(4) != null) {
+                            rows.add(mapRow(rs));
+                        }
+                    }
+                    return new TaskChangeBatch(rows, snapshotXmin, horizonTxid, horizonId);
+                },
+                Long.toString(afterTxid),
+                afterId,
+                limit);
+    }
+
+    /**
+     * Deletes the oldest changes made before the given time and moves the purge horizon past them.
+     * Only a prefix of the change order is deleted, so every change after the horizon is still present.
+     *
+     * @param before the time changes must be older than
+     * @param batchSize the maximum number of changes to delete
+     * @return the number of deleted changes
+     */
+    public int purgeBefore(Instant before, int batchSize) {
+        Integer purged = jdbcTemplate.queryForObject(PURGE_BEFORE, Integer.class, batchSize, Timestamp.from(before));
+        return purged == null ? 0 : purged;
+    }
+
+    private static TaskChangeRow mapRow(ResultSet rs) throws SQLException {
+        return new TaskChangeRow(
+                rs.getLong(4),
+                Long.parseLong(rs.getString(5)),
+                rs.getLong(6),
+                TaskChangeType.valueOf(rs.getString(7)),
+                rs.getObject(12, Long.class),
+                rs.getObject(8, Long.class),
+                rs.getObject(9, Long.class),
+                rs.getObject(10, Long.class),
+                rs.getTimestamp(11).toInstant());
+    }
+}
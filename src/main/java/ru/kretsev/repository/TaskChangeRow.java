@@ -0,0 +1,39 @@
+package ru.kretsev.repository;
+
+import java.time.Instant;
+import ru.kretsev.model.task.TaskChangeType;
+
+/**
+ * One recorded change of a task.
+ *
+ * @param id the change ID, orders changes of one transaction
+ * @param txid the ID of the transaction that made the change
+ * @param taskId the task ID
+ * @param type the kind of the change
+ * @param commentId the comment ID of a comment change, or null
+ * @param authorId the task author ID
+ * @param assigneeId the task assignee ID after the change, or null
+ * @param previousAssigneeId the task assignee ID before an update, or null
+ * @param changedAt the start time of the transaction that made the change
+ */
+public record TaskChangeRow(
+        long id,
+        long txid,
+        long taskId,
+        TaskChangeType type,
+        Long commentId,
+        Long authorId,
+        Long assigneeId,
+        Long previousAssigneeId,
+        Instant changedAt) {
+
+    /**
+     * Checks whether the change concerns the user as the author or the current or previous assignee.
+     *
+     * @param userId the user ID
+     * @return true if the user may see the change
+     */
+    public boolean concerns(Long userId) {
+        return userId.equals(authorId) || userId.equals(assigneeId) || userId.equals(previousAssigneeId);
+    }
+}
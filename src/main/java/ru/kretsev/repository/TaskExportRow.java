@@ -0,0 +1,33 @@
+package ru.kretsev.repository;
+
+/**
+ * One row of the task export: a task joined with one of its comments, or with no comment.
+ *
+ * @param taskId the task ID
+ * @param title the task title
+ * @param description the task description
+ * @param status the task status
+ * @param priority the task priority
+ * @param authorId the task author ID
+ * @param authorEmail the task author email
+ * @param assigneeId the task assignee ID, or null
+ * @param assigneeEmail the task assignee email, or null
+ * @param commentId the comment ID, or null if the task has no comments
+ * @param commentContent the comment text, or null
+ * @param commentAuthorId the comment author ID, or null
+ * @param commentAuthorEmail the comment author email, or null
+ */
+public record TaskExportRow(
+        Long taskId,
+        String title,
+        String description,
+        String status,
+        String priority,
+        Long authorId,
+        String authorEmail,
+        Long assigneeId,
+        String assigneeEmail,
+        Long commentId,
+        String commentContent,
+        Long commentAuthorId,
+        String commentAuthorEmail) {}
@@ -0,0 +1,270 @@
+package ru.kretsev.repository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Bulk loads tasks and comments with PostgreSQL {@code COPY} into a staging table and merges them in one transaction.
+ * The change feed, the SSE polling, the domain event relay and the token revocation sync only read rows of
+ * transactions below the snapshot xmin, so any open transaction holding an xid stalls them all. The staging table
+ * therefore lives for the session and is loaded in chunks, each committed by its own {@code COPY}; only the final
+ * merge runs in a transaction spanning several statements, and it no longer waits for the file to be parsed.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskImportRepository {
+    /**
+     * Matches {@code allocationSize} of {@code Task.id}: IDs are taken from {@code tasks_id_seq} in the same blocks
+     * as the pooled optimizer, so imported tasks never collide with tasks created through Hibernate.
+     */
+    private static final int TASK_ID_BLOCK = 50;
+
+    private static final String CREATE_STAGING =
+            """
+            CREATE TEMPORARY TABLE task_import_rows
+            (
+                task_seq    BIGINT NOT NULL,
+                comment_seq BIGINT,
+                title       TEXT,
+                description TEXT,
+                status      VARCHAR(50),
+                priority    VARCHAR(50),
+                author_id   BIGINT NOT NULL,
+                assignee_id BIGINT,
+                content     TEXT
+            ) ON COMMIT PRESERVE ROWS
+            """;
+    private static final String DROP_STAGING = "DROP TABLE IF EXISTS task_import_rows";
+    private static final String COPY_STAGING = "COPY task_import_rows FROM STDIN (FORMAT csv)";
+    private static final String ALLOCATE_IDS =
+            """
+            CREATE TEMPORARY TABLE task_import_ids ON COMMIT DROP AS
+            WITH numbered AS (SELECT task_seq, row_number() OVER (ORDER BY task_seq) - 1 AS n
+                              FROM task_import_rows
+                              WHERE comment_seq IS NULL),
+                 blocks AS (SELECT block, nextval('tasks_id_seq') AS hi
+                            FROM generate_series(0, (SELECT (count(*) + %1$d - 1) / %1$d - 1 FROM numbered)) AS block)
+            SELECT numbered.task_seq, blocks.hi - %1$d + 1 + numbered.n %% %1$d AS id
+            FROM numbered
+                     JOIN blocks ON blocks.block = numbered.n / %1$d
+            """
+                    .formatted(TASK_ID_BLOCK);
+    /**
+     * Merges the staged tasks and writes their {@code TaskCreated} domain events in the same statement.
+     */
+    private static final String MERGE_TASKS =
+            """
+            WITH merged AS (
+                INSERT INTO tasks (id, title, description, status, priority, author_id, assignee_id)
+                    SELECT ids.id, r.title, r.description, r.status, r.priority, r.author_id, r.assignee_id
+                    FROM task_import_rows r
+                             JOIN task_import_ids ids USING (task_seq)
+                    WHERE r.comment_seq IS NULL
+                    ORDER BY ids.id
+                    RETURNING id, author_id, assignee_id)
+            INSERT INTO domain_events (event_type, task_id, payload)
+            SELECT 'TaskCreated',
+                   id,
+                   jsonb_build_object('taskId', id, 'authorId', author_id, 'assigneeId', assignee_id)
+            FROM merged
+            ORDER BY id
+            """;
+    /**
+     * Merges the staged comments and writes their {@code CommentAdded} domain events in the same statement.
+     */
+    private static final String MERGE_COMMENTS =
+            """
+            WITH merged AS (
+                INSERT INTO comments (content, task_id, author_id)
+                    SELECT r.content, ids.id, r.author_id
+                    FROM task_import_rows r
+                             JOIN task_import_ids ids USING (task_seq)
+                    WHERE r.comment_seq IS NOT NULL
+                    ORDER BY r.task_seq, r.comment_seq
+                    RETURNING id, task_id, author_id)
+            INSERT INTO domain_events (event_type, task_id, payload)
+            SELECT 'CommentAdded',
+                   task_id,
+                   jsonb_build_object('commentId', id, 'taskId', task_id, 'authorId', author_id)
+            FROM merged
+            ORDER BY id
+            """;
+
+    private final DataSource dataSource;
+
+    /**
+     * Opens a staging session on a dedicated connection in auto-commit mode, with a staging table of its own.
+     *
+     * @return the staging session, to be committed and closed by the caller
+     * @throws SQLException if the connection or the staging table cannot be set up
+     */
+    public TaskStaging openStaging() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(DROP_STAGING);
+                statement.execute(CREATE_STAGING);
+            }
+            return new TaskStaging(connection, connection.unwrap(PGConnection.class).getCopyAPI());
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Counts of rows merged into the target tables.
+     *
+     * @param tasks the number of inserted tasks
+     * @param comments the number of inserted comments
+     */
+    public record MergeResult(long tasks, long comments) {}
+
+    /**
+     * Staging session writing rows in CSV form, buffered into large chunks that are each loaded and committed by one
+     * {@code COPY}. Not thread-safe; rows of a task must be added before the rows of its comments.
+     */
+    public static final class TaskStaging implements AutoCloseable {
+        private static final int FLUSH_THRESHOLD = 256 * 1024;
+
+        private final Connection connection;
+        private final CopyManager copyManager;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(FLUSH_THRESHOLD + 4096);
+        private final StringBuilder line = new StringBuilder(512);
+
+        private TaskStaging(Connection connection, CopyManager copyManager) {
+            this.connection = connection;
+            this.copyManager = copyManager;
+        }
+
+        /**
+         * Stages a task.
+         *
+         * @param taskSeq the sequence number of the task in the file
+         * @param title the task title
+         * @param description the task description
+         * @param status the task status
+         * @param priority the task priority
+         * @param authorId the author ID
+         * @param assigneeId the assignee ID, or null
+         * @throws SQLException if writing to {@code COPY} fails
+         */
+        public void addTask(
+                long taskSeq,
+                String title,
+                String description,
+                String status,
+                String priority,
+                long authorId,
+                Long assigneeId)
+                throws SQLException {
+            writeRow(taskSeq, null, title, description, status, priority, authorId, assigneeId, null);
+        }
+
+        /**
+         * Stages a comment of a previously staged task.
+         *
+         * @param taskSeq the sequence number of the task in the file
+         * @param commentSeq the sequence number of the comment in the file
+         * @param content the comment text
+         * @param authorId the comment author ID
+         * @throws SQLException if writing to {@code COPY} fails
+         */
+        public void addComment(long taskSeq, long commentSeq, String content, long authorId) throws SQLException {
+            writeRow(taskSeq, commentSeq, null, null, null, null, authorId, null, content);
+        }
+
+        /**
+         * Loads the last chunk, then merges the staged rows into {@code tasks} and {@code comments} in one transaction.
+         *
+         * @return the number of inserted rows
+         * @throws SQLException if the merge fails
+         */
+        public MergeResult commit() throws SQLException {
+            flush();
+
+            long tasks = 0;
+            long comments = 0;
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(ALLOCATE_IDS);
+                tasks = statement.executeLargeUpdate(MERGE_TASKS);
+                if (tasks > 0) {
+                    comments = statement.executeLargeUpdate(MERGE_COMMENTS);
+                }
+            }
+            connection.commit();
+            return new MergeResult(tasks, comments);
+        }
+
+        /**
+         * Rolls back an unfinished merge and drops the staged rows; the rows of a failed import never reach the target
+         * tables, since only the merge writes them.
+         *
+         * @throws SQLException if the connection fails
+         */
+        @Override
+        public void close() throws SQLException {
+            try {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(DROP_STAGING);
+                }
+            } finally {
+                connection.close();
+            }
+        }
+
+        private void writeRow(Object... values) throws SQLException {
+            line.setLength(0);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                Object value = values[i];
+                if (value instanceof String text) {
+                    line.append('"').append(text.replace("\"", "\"\"")).append('"');
+                } else if (value != null) {
+                    line.append(value);
+                }
+            }
+            line.append('\n');
+            buffer.writeBytes(line.toString().getBytes(StandardCharsets.UTF_8));
+            if (buffer.size() >= FLUSH_THRESHOLD) {
+                flush();
+            }
+        }
+
+        /**
+         * Loads the buffered rows with one {@code COPY}, committed on its own, so no transaction stays open while the
+         * next chunk is parsed.
+         */
+        private void flush() throws SQLException {
+            if (buffer.size() > 0) {
+                CopyIn copyIn = copyManager.copyIn(COPY_STAGING);
+                try {
+                    copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+                    copyIn.endCopy();
+                } finally {
+                    if (copyIn.isActive()) {
+                        copyIn.cancelCopy();
+                    }
+                }
+                buffer.reset();
+            }
+        }
+    }
+}
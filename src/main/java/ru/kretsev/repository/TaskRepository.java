@@ -1,24 +1,104 @@
 package ru.kretsev.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.kretsev.model.task.Task;
-import ru.kretsev.model.user.User;
 
 /**
  * Repository interface for Task entity operations.
+ * Finders load the author and assignee in the same query; comments are batch-fetched
+ * per page through {@code hibernate.default_batch_fetch_size}. Listings are filtered
+ * with {@link TaskSpecifications}. Deleted tasks are excluded by the restriction of the entity,
+ * native queries exclude them explicitly.
  */
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository
+        extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskRepositoryCustom {
+
+    @Override
+    @EntityGraph(attributePaths = {"author", "assignee"})
+    @Query("SELECT t FROM Task t WHERE t.id = :id AND t.deletedAt IS NULL")
+    Optional<Task> findById(@Param("id") Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"author", "assignee"})
+    Page<Task> findAll(Specification<Task> specification, Pageable pageable);
+
+    /**
+     * Finds tasks by IDs, fetching the author and assignee in the same query.
+     *
+     * @param ids the task IDs
+     * @return a list of tasks in no particular order
+     */
+    @EntityGraph(attributePaths = {"author", "assignee"})
+    List<Task> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Finds a task deleted after the given time, which can still be restored.
+     *
+     * @param id the task ID
+     * @param deletedAfter the time the task must have been deleted after
+     * @return the deleted task, or empty if it is live, was deleted earlier or does not exist
+     */
+    @Query(value = "SELECT * FROM tasks WHERE id = :id AND deleted_at > :deletedAfter", nativeQuery = true)
+    Optional<Task> findDeletedById(@Param("id") Long id, @Param("deletedAfter") Instant deletedAfter);
 
     /**
-     * Finds tasks by author with pagination.
+     * Ranks live tasks whose title, description or comments match a web search query, among the tasks a user authors
+     * or is assigned to, or among all tasks for an admin.
+     * Matches are found through the GIN indexes on {@code search_vector}; a task is ranked by its best match.
+     * Results are ordered by {@code (rank, id)} descending and seek after the given position.
      *
-     * @param author the task author
-     * @param pageable the pagination information
-     * @return a list of tasks
+     * @param query the search query in {@code websearch_to_tsquery} syntax
+     * @param userId the ID of the user searching
+     * @param admin whether the user searches all tasks
+     * @param afterRank the rank of the last hit of the previous page
+     * @param afterId the task ID of the last hit of the previous page
+     * @param limit the maximum number of hits to return
+     * @return a list of search hits
      */
-    Page<Task> findByAuthor(User author, Pageable pageable);
+    @Query(
+            value =
+                    """
+                    WITH search AS (SELECT websearch_to_tsquery('russian', :query) AS q),
+                         hits AS (SELECT t.id, t.author_id, t.assignee_id, ts_rank(t.search_vector, search.q) AS rank
+                                  FROM tasks t, search
+                                  WHERE t.search_vector @@ search.q
+                                    AND t.deleted_at IS NULL
+                                  UNION ALL
+                                  SELECT c.task_id, t.author_id, t.assignee_id, ts_rank(c.search_vector, search.q)
+                                  FROM comments c
+                                           JOIN tasks t ON t.id = c.task_id, search
+                                  WHERE c.search_vector @@ search.q
+                                    AND t.deleted_at IS NULL),
+                         ranked AS (SELECT id, CAST(max(rank) AS double precision) AS rank
+                                    FROM hits
+                                    WHERE :admin
+                                       OR :userId IN (author_id, assignee_id)
+                                    GROUP BY id)
+                    SELECT id, rank
+                    FROM ranked
+                    WHERE (rank, id) < (:afterRank, :afterId)
+                    ORDER BY rank DESC, id DESC
+                    LIMIT :limit
+                    """,
+            nativeQuery = true)
+    List<TaskSearchHit> searchRanked(
+            @Param("query") String query,
+            @Param("userId") long userId,
+            @Param("admin") boolean admin,
+            @Param("afterRank") double afterRank,
+            @Param("afterId") long afterId,
+            @Param("limit") int limit);
 }
@@ -0,0 +1,93 @@
+package ru.kretsev.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.kretsev.dto.task.TaskFilter;
+import ru.kretsev.dto.task.TaskPatch;
+import ru.kretsev.model.task.Task;
+
+/**
+ * Custom repository fragment for task queries that Spring Data cannot derive.
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Finds at most {@code limit} tasks matching the specification, without a count query.
+     * The author and assignee are fetched in the same query.
+     *
+     * @param specification the task specification
+     * @param sort the sort order
+     * @param limit the maximum number of tasks to return
+     * @return a list of tasks
+     */
+    List<Task> findAllLimited(Specification<Task> specification, Sort sort, int limit);
+
+    /**
+     * Finds a page of tasks matching the specification, fetching one extra row instead of counting.
+     * The author and assignee are fetched in the same query.
+     *
+     * @param specification the task specification
+     * @param pageable the pagination information
+     * @return a slice of tasks
+     */
+    Slice<Task> findSlice(Specification<Task> specification, Pageable pageable);
+
+    /**
+     * Estimates the number of live tasks matching the filter from PostgreSQL statistics.
+     *
+     * @param filter the filter criteria
+     * @return the estimated number of tasks
+     */
+    long estimateCount(TaskFilter filter);
+
+    /**
+     * Applies the patch to the tasks matching the IDs and the filter with a single set-based {@code UPDATE}, at most
+     * to the given number of tasks with the lowest IDs. Null IDs and null filter components are not applied; deleted
+     * tasks are never updated.
+     *
+     * @param ids the task IDs, or null to select by the filter only
+     * @param filter the filter criteria, the author ID restricts the update to the tasks of that user
+     * @param patch the changes to apply, must not be empty
+     * @param limit the maximum number of tasks to update
+     * @return the IDs of the updated tasks
+     */
+    List<Long> updateMatching(Collection<Long> ids, TaskFilter filter, TaskPatch patch, int limit);
+
+    /**
+     * Streams every live task joined with its comments, ordered by task ID and comment ID, through a forward-only
+     * cursor. Rows are read in chunks and handed over one at a time, so no entities are loaded.
+     * Must be called inside a transaction, otherwise the driver reads the whole result at once.
+     *
+     * @param consumer the consumer of export rows
+     */
+    void streamExportRows(Consumer<TaskExportRow> consumer);
+
+    /**
+     * Deletes comments of tasks deleted before the given time, skipping rows locked by other transactions.
+     * Must be called inside a transaction, which gives up on a lock wait longer than the timeout.
+     *
+     * @param deletedBefore the time the tasks must have been deleted before
+     * @param batchSize the maximum number of comments to delete
+     * @param lockTimeout the longest wait for a lock
+     * @return the number of deleted comments
+     */
+    int purgeDeletedComments(Instant deletedBefore, int batchSize, Duration lockTimeout);
+
+    /**
+     * Deletes tasks deleted before the given time that have no comments left, skipping rows locked by other
+     * transactions. Must be called inside a transaction, which gives up on a lock wait longer than the timeout.
+     *
+     * @param deletedBefore the time the tasks must have been deleted before
+     * @param batchSize the maximum number of tasks to delete
+     * @param lockTimeout the longest wait for a lock
+     * @return the number of deleted tasks
+     */
+    int purgeDeletedTasks(Instant deletedBefore, int batchSize, Duration lockTimeout);
+}
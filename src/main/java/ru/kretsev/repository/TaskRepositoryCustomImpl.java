@@ -0,0 +1,208 @@
+package ru.kretsev.repository;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import ru.kretsev.dto.page.CursorPage;
+import ru.kretsev.dto.task.TaskFilter;
+import ru.kretsev.dto.task.TaskPatch;
+import ru.kretsev.model.task.Task;
+
+/**
+ * Implementation of the custom task repository fragment based on the Criteria API and plain JDBC.
+ */
+@RequiredArgsConstructor
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+    private static final String FETCH_GRAPH_HINT = "jakarta.persistence.fetchgraph";
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final String EXPORT_SQL =
+            """
+            SELECT t.id, t.title, t.description, t.status, t.priority,
+                   a.id, a.email, s.id, s.email,
+                   c.id, c.content, ca.id, ca.email
+            FROM tasks t
+                     JOIN users a ON a.id = t.author_id
+                     LEFT JOIN users s ON s.id = t.assignee_id
+                     LEFT JOIN comments c ON c.task_id = t.id
+                     LEFT JOIN users ca ON ca.id = c.author_id
+            WHERE t.deleted_at IS NULL
+            ORDER BY t.id, c.id
+            """;
+    private static final String NOT_DELETED = "deleted_at IS NULL";
+    private static final String PURGE_DELETED_COMMENTS =
+            """
+            DELETE FROM comments
+            WHERE id IN (SELECT c.id
+                         FROM tasks t
+                                  JOIN comments c ON c.task_id = t.id
+                         WHERE t.deleted_at < ?
+                         LIMIT ? FOR UPDATE OF c SKIP LOCKED)
+            """;
+    private static final String PURGE_DELETED_TASKS =
+            """
+            DELETE FROM tasks
+            WHERE id IN (SELECT t.id
+                         FROM tasks t
+                         WHERE t.deleted_at < ?
+                           AND NOT EXISTS (SELECT 1 FROM comments c WHERE c.task_id = t.id)
+                         LIMIT ? FOR UPDATE SKIP LOCKED)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RowCountEstimator rowCountEstimator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Task> findAllLimited(Specification<Task> specification, Sort sort, int limit) {
+        return findAll(specification, sort, 0, limit);
+    }
+
+    @Override
+    public Slice<Task> findSlice(Specification<Task> specification, Pageable pageable) {
+        List<Task> tasks = findAll(
+                specification, pageable.getSort(), pageable.getOffset(), CursorPage.fetchLimit(pageable.getPageSize()));
+        boolean hasNext = tasks.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? tasks.subList(0, pageable.getPageSize()) : tasks, pageable, hasNext);
+    }
+
+    @Override
+    public long estimateCount(TaskFilter filter) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        conditions.add(NOT_DELETED);
+        addFilterConditions(conditions, args, filter);
+        return rowCountEstimator.estimateRows(
+                "SELECT 1 FROM tasks WHERE " + String.join(" AND ", conditions), args.toArray());
+    }
+
+    @Override
+    public void streamExportRows(Consumer<TaskExportRow> consumer) {
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(EXPORT_FETCH_SIZE);
+                    return statement;
+                },
+                (RowCallbackHandler) rs -> consumer.accept(new TaskExportRow(
+                        rs.getLong(1),
+                        rs.getString(2),
+                        rs.getString(3),
+                        rs.getString(4),
+                        rs.getString(5),
+                        rs.getLong(6),
+                        rs.getString(7),
+                        rs.getObject(8, Long.class),
+                        rs.getString(9),
+                        rs.getObject(10, Long.class),
+                        rs.getString(11),
+                        rs.getObject(12, Long.class),
+                        rs.getString(13))));
+    }
+
+    private List<Task> findAll(Specification<Task> specification, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> root = query.from(Task.class);
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        EntityGraph<Task> graph = entityManager.createEntityGraph(Task.class);
+        graph.addAttributeNodes("author", "assignee");
+
+        return entityManager
+                .createQuery(query)
+                .setHint(FETCH_GRAPH_HINT, graph)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Long> updateMatching(Collection<Long> ids, TaskFilter filter, TaskPatch patch, int limit) {
+        List<String> assignments = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+
+        addClause(assignments, args, "status = ?", patch.status() == null ? null : patch.status().name());
+        addClause(assignments, args, "priority = ?", patch.priority() == null ? null : patch.priority().name());
+        addClause(assignments, args, "assignee_id = ?", patch.assigneeId());
+        if (assignments.isEmpty()) {
+            throw new IllegalArgumentException("Не указаны изменения для задач");
+        }
+        assignments.add("version = version + 1");
+
+        addClause(conditions, args, "id = ANY(?)", ids == null ? null : ids.toArray(Long[]::new));
+        addFilterConditions(conditions, args, filter);
+        if (conditions.isEmpty()) {
+            throw new IllegalArgumentException("Не указаны задачи для обновления");
+        }
+        conditions.add(NOT_DELETED);
+        args.add(limit);
+
+        String sql = "UPDATE tasks SET " + String.join(", ", assignments)
+                + " WHERE id IN (SELECT id FROM tasks WHERE " + String.join(" AND ", conditions)
+                + " ORDER BY id LIMIT ? FOR UPDATE)"
+                + " RETURNING id";
+        return jdbcTemplate.queryForList(sql, Long.class, args.toArray());
+    }
+
+    @Override
+    public int purgeDeletedComments(Instant deletedBefore, int batchSize, Duration lockTimeout) {
+        setLockTimeout(lockTimeout);
+        return jdbcTemplate.update(PURGE_DELETED_COMMENTS, Timestamp.from(deletedBefore), batchSize);
+    }
+
+    @Override
+    public int purgeDeletedTasks(Instant deletedBefore, int batchSize, Duration lockTimeout) {
+        setLockTimeout(lockTimeout);
+        return jdbcTemplate.update(PURGE_DELETED_TASKS, Timestamp.from(deletedBefore), batchSize);
+    }
+
+    private void setLockTimeout(Duration lockTimeout) {
+        jdbcTemplate.queryForObject(
+                "SELECT set_config('lock_timeout', ?, true)", String.class, lockTimeout.toMillis() + "ms");
+    }
+
+    private static void addFilterConditions(List<String> conditions, List<Object> args, TaskFilter filter) {
+        addClause(conditions, args, "status = ?", filter.status() == null ? null : filter.status().name());
+        addClause(conditions, args, "priority = ?", filter.priority() == null ? null : filter.priority().name());
+        addClause(conditions, args, "author_id = ?", filter.authorId());
+        addClause(conditions, args, "assignee_id = ?", filter.assigneeId());
+    }
+
+    private static void addClause(List<String> clauses, List<Object> args, String clause, Object value) {
+        if (value != null) {
+            clauses.add(clause);
+            args.add(value);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.kretsev.repository;
+
+/**
+ * Projection of a full-text search hit: a task ID with its relevance rank.
+ */
+public interface TaskSearchHit {
+
+    /**
+     * Returns the ID of the matched task.
+     *
+     * @return the task ID
+     */
+    Long getId();
+
+    /**
+     * Returns the best rank of the task itself or any of its comments.
+     *
+     * @return the relevance rank
+     */
+    Double getRank();
+}
@@ -0,0 +1,77 @@
+package ru.kretsev.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+import ru.kretsev.dto.page.Cursor;
+import ru.kretsev.dto.task.TaskFilter;
+import ru.kretsev.dto.task.TaskSort;
+import ru.kretsev.model.task.Task;
+import ru.kretsev.model.task.TaskSortKey;
+
+/**
+ * Factory of JPA specifications for filtering and seeking task listings.
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {}
+
+    /**
+     * Creates a specification matching the given filter.
+     *
+     * @param filter the filter criteria
+     * @return the specification
+     */
+    public static Specification<Task> matching(TaskFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.status() != null) {
+                predicates.add(cb.equal(root.get("status"), filter.status()));
+            }
+            if (filter.priority() != null) {
+                predicates.add(cb.equal(root.get("priority"), filter.priority()));
+            }
+            if (filter.authorId() != null) {
+                predicates.add(cb.equal(root.get("author").get("id"), filter.authorId()));
+            }
+            if (filter.assigneeId() != null) {
+                predicates.add(cb.equal(root.get("assignee").get("id"), filter.assigneeId()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Creates a keyset specification selecting the tasks that follow the cursor in the given order,
+     * i.e. {@code (key, id) > (value, lastId)} for ascending and {@code <} for descending order.
+     *
+     * @param sort the listing order
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @return the specification
+     */
+    public static Specification<Task> after(TaskSort sort, Cursor cursor) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return null;
+            }
+            boolean ascending = sort.direction().isAscending();
+            Predicate idAfter = compare(cb, root.get("id"), cursor.id(), ascending);
+            if (sort.key() == TaskSortKey.ID) {
+                return idAfter;
+            }
+
+            Path<?> key = root.get(sort.key().getAttribute());
+            Comparable<?> value = sort.key().parseValue(cursor.value());
+            return cb.or(compare(cb, key, value, ascending), cb.and(cb.equal(key, value), idAfter));
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate compare(CriteriaBuilder cb, Expression key, Comparable value, boolean ascending) {
+        return ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+    }
+}
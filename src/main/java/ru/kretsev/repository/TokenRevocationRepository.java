@@ -0,0 +1,110 @@
+package ru.kretsev.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Records, reads and purges revoked access tokens in the {@code tokens} table.
+ * Revocations are ordered by {@code (revoked_txid, id)} and only revocations of transactions below the snapshot xmin
+ * of the reader are returned, so every revocation a cursor has passed is already committed or rolled back.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TokenRevocationRepository {
+    private static final String REVOKE =
+            """
+            INSERT INTO tokens (token_value, token_type, revoked, user_id, expires_at, revoked_txid)
+            VALUES (?, 'BEARER', TRUE, ?, ?, pg_current_xact_id())
+            ON CONFLICT (token_value) DO NOTHING
+            """;
+    private static final String FIND_AFTER =
+            """
+            SELECT t.id, t.revoked_txid::text, t.token_value, t.expires_at
+            FROM tokens t
+            WHERE t.revoked_txid IS NOT NULL
+              AND (t.revoked_txid, t.id) > (CAST(? AS xid8), ?)
+              AND t.revoked_txid < pg_snapshot_xmin(pg_current_snapshot())
+              AND t.expires_at > now()
+            ORDER BY t.revoked_txid, t.id
+            LIMIT ?
+            """;
+    private static final String PURGE_EXPIRED =
+            """
+            WITH batch AS (SELECT id
+                           FROM tokens
+                           WHERE expires_at < ?
+                           ORDER BY expires_at
+                           LIMIT ? FOR UPDATE SKIP LOCKED)
+            DELETE
+            FROM tokens t
+                USING batch b
+            WHERE t.id = b.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * One revoked token.
+     *
+     * @param id the row ID, orders revocations of one transaction
+     * @param txid the ID of the transaction that revoked the token
+     * @param tokenId the token ID
+     * @param expiresAt the expiration of the token
+     */
+    public record RevokedToken(long id, long txid, String tokenId, Instant expiresAt) {}
+
+    /**
+     * Records a revoked token; revoking a token again changes nothing.
+     *
+     * @param tokenId the token ID
+     * @param userId the ID of the token owner, or null if unknown
+     * @param expiresAt the expiration of the token
+     * @return true if the token was not revoked before
+     */
+    public boolean revoke(String tokenId, Long userId, Instant expiresAt) {
+        return jdbcTemplate.update(REVOKE, tokenId, userId, Timestamp.from(expiresAt)) > 0;
+    }
+
+    /**
+     * Finds the unexpired revocations committed after a cursor position.
+     *
+     * @param afterTxid the transaction ID of the cursor
+     * @param afterId the row ID of the cursor
+     * @param limit the maximum number of revocations
+     * @return the revocations ordered by transaction and row ID
+     */
+    public List<RevokedToken> findAfter(long afterTxid, long afterId, int limit) {
+        return jdbcTemplate.query(
+                FIND_AFTER,
+                rs -> {
+                    List<RevokedToken> rows = new ArrayList<>();
+                    while (rs.next()) {
+                        rows.add(new RevokedToken(
+                                rs.getLong(1),
+                                Long.parseLong(rs.getString(2)),
+                                rs.getString(3),
+                                rs.getTimestamp(4).toInstant()));
+                    }
+                    return rows;
+                },
+                Long.toString(afterTxid),
+                afterId,
+                limit);
+    }
+
+    /**
+     * Deletes tokens that expired before the given time, skipping rows locked by other transactions.
+     *
+     * @param before the time tokens must have expired before
+     * @param batchSize the maximum number of tokens to delete
+     * @return the number of deleted tokens
+     */
+    public int purgeExpired(Instant before, int batchSize) {
+        return jdbcTemplate.update(PURGE_EXPIRED, Timestamp.from(before), batchSize);
+    }
+}
@@ -3,7 +3,10 @@ package ru.kretsev.repository;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.kretsev.model.user.Role;
 import ru.kretsev.model.user.User;
 
@@ -21,6 +24,39 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByEmail(String email);
 
+    /**
+     * Finds the ID of a user by email without loading the user.
+     *
+     * @param email the user's email
+     * @return an optional user ID
+     */
+    @Query("select u.id from User u where u.email = :email")
+    Optional<Long> findIdByEmail(String email);
+
+    /**
+     * Finds the token epoch of a user without loading the user.
+     * Runs in a read-write transaction so it is routed to the primary: an epoch read from a lagging replica would
+     * accept tokens that have just been revoked.
+     *
+     * @param id the user ID
+     * @return an optional token epoch
+     */
+    @Transactional
+    @Query("select u.tokenEpoch from User u where u.id = :id")
+    Optional<Long> findTokenEpochById(Long id);
+
+    /**
+     * Replaces the password hash of a user without loading the user.
+     *
+     * @param email the user's email
+     * @param password the new password hash
+     * @return the number of updated users
+     */
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :password where u.email = :email")
+    int updatePasswordByEmail(String email, String password);
+
     /**
      * Finds users by role.
      *
@@ -1,9 +1,11 @@
 package ru.kretsev.service;
 
+import java.time.Instant;
 import ru.kretsev.dto.user.AuthenticationRequest;
 import ru.kretsev.dto.user.AuthenticationResponse;
 import ru.kretsev.dto.user.RegisterRequest;
 import ru.kretsev.dto.user.UserShortDto;
+import ru.kretsev.model.user.Role;
 
 /**
  * Service interface for user authentication and registration.
@@ -26,6 +28,14 @@ public interface AuthenticationService {
      */
     AuthenticationResponse authenticate(AuthenticationRequest request);
 
+    /**
+     * Renews the access token of a session with its refresh token, without checking the password.
+     *
+     * @param refreshToken the refresh token
+     * @return the authentication response with a new JWT token and a new refresh token
+     */
+    AuthenticationResponse refresh(String refreshToken);
+
     /**
      * Retrieves a user by username (email).
      *
@@ -33,4 +43,38 @@ public interface AuthenticationService {
      * @return the short user DTO
      */
     UserShortDto getUserByUsername(String username);
+
+    /**
+     * Revokes the token a user is signed in with and the refresh and access tokens of its session, signing the user out
+     * on that device.
+     *
+     * @param tokenId the token ID
+     * @param sessionId the session ID of the token, or null for a token outside a session
+     * @param userId the user ID
+     * @param expiresAt the expiration of the token
+     */
+    void logout(String tokenId, String sessionId, Long userId, Instant expiresAt);
+
+    /**
+     * Revokes a single token by its ID.
+     *
+     * @param tokenId the token ID
+     */
+    void revokeToken(String tokenId);
+
+    /**
+     * Revokes all tokens of a user, signing the user out on every device.
+     *
+     * @param userId the user ID
+     */
+    void logoutEverywhere(Long userId);
+
+    /**
+     * Changes the role of a user and revokes the tokens carrying the previous role.
+     *
+     * @param userId the user ID
+     * @param role the new role
+     * @return the short user DTO
+     */
+    UserShortDto changeRole(Long userId, Role role);
 }
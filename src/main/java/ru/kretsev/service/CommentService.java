@@ -1,7 +1,10 @@
 package ru.kretsev.service;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import ru.kretsev.dto.TaggedDto;
 import ru.kretsev.dto.comment.CommentDto;
+import ru.kretsev.dto.page.CursorPage;
+import ru.kretsev.dto.page.PageMode;
 import ru.kretsev.model.user.User;
 
 /**
@@ -10,12 +13,12 @@ import ru.kretsev.model.user.User;
 public interface CommentService {
 
     /**
-     * Retrieves a comment by its ID.
+     * Retrieves a comment by its ID. The entity tag is cached with the DTO.
      *
      * @param commentId the comment ID
-     * @return the comment DTO
+     * @return the comment DTO with its entity tag
      */
-    CommentDto getCommentById(Long commentId);
+    TaggedDto<CommentDto> getCommentById(Long commentId);
 
     /**
      * Retrieves comments for a task with pagination.
@@ -23,9 +26,20 @@ public interface CommentService {
      * @param taskId the task ID
      * @param page the page number
      * @param size the page size
-     * @return a paginated list of comment DTOs
+     * @param mode how the total number of comments is reported
+     * @return a page of comment DTOs, or a slice without a total in {@link PageMode#SLICE} mode
      */
-    Page<CommentDto> getCommentsByTaskId(Long taskId, int page, int size);
+    Slice<CommentDto> getCommentsByTaskId(Long taskId, int page, int size, PageMode mode);
+
+    /**
+     * Retrieves comments for a task using keyset pagination.
+     *
+     * @param taskId the task ID
+     * @param after the cursor returned with the previous page, or blank for the first page
+     * @param size the page size
+     * @return a page of comment DTOs with the cursor of the next page
+     */
+    CursorPage<CommentDto> getCommentsByTaskId(Long taskId, String after, int size);
 
     /**
      * Adds a new comment to a task.
@@ -0,0 +1,33 @@
+package ru.kretsev.service;
+
+import java.util.List;
+import ru.kretsev.event.DomainEvent;
+
+/**
+ * Service interface of the transactional outbox of domain events.
+ */
+public interface DomainEventService {
+    /**
+     * Records an event in the current transaction; it is dispatched only if the transaction commits.
+     *
+     * @param event the event
+     * @throws IllegalStateException if no transaction is active
+     */
+    void publish(DomainEvent event);
+
+    /**
+     * Records events in the current transaction with one batched statement.
+     *
+     * @param events the events in the order they happened
+     * @throws IllegalStateException if no transaction is active
+     */
+    void publishAll(List<? extends DomainEvent> events);
+
+    /**
+     * Dispatches the committed events to the {@code @EventListener} methods of the application in order,
+     * batch by batch, and removes them from the outbox. Runs on the relay thread; only one node relays at a time.
+     *
+     * @return the number of dispatched events
+     */
+    int relayEvents();
+}
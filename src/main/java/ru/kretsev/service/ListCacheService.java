@@ -0,0 +1,20 @@
+package ru.kretsev.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Service interface for the cache of list query results.
+ * Results are cached under the entity tag of their query, which covers the query and the generation of the data it
+ * reads, so a change makes the results of older generations unreachable without looking for them; they expire later.
+ */
+public interface ListCacheService {
+    /**
+     * Returns the cached result of a list query, running the query on a miss.
+     *
+     * @param tag the tag of the query built by {@link ListGenerationService#tagOf} before the query runs
+     * @param query the supplier running the query
+     * @param <T> the result type
+     * @return the result
+     */
+    <T> T get(String tag, Supplier<T> query);
+}
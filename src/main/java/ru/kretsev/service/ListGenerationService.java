@@ -0,0 +1,61 @@
+package ru.kretsev.service;
+
+import java.util.List;
+import ru.kretsev.dto.page.ListScope;
+
+/**
+ * Service interface for the generation of task and comment data used to tag list responses.
+ * Any committed change of tasks or comments advances the generation, so a list tag computed before the change
+ * never matches again and a conditional list request is answered without running the query. A change also advances
+ * the generations of the scopes it touches, so queries of other scopes keep their tags.
+ */
+public interface ListGenerationService {
+    /**
+     * Returns the current generation.
+     *
+     * @return the generation, growing with every change
+     */
+    long currentGeneration();
+
+    /**
+     * Returns the current generation of a scope.
+     *
+     * @param scope the scope, or null for all data
+     * @return the generation, growing with every change in the scope
+     */
+    long currentGeneration(ListScope scope);
+
+    /**
+     * Builds the entity tag of a list query at the current generation of its scope.
+     * Must be called before the query runs, so the tag never claims data newer than the response holds.
+     *
+     * @param query the canonical description of the query, including everything its result depends on
+     * @param scope the scope the query reads, or null if it reads all data
+     * @return the unquoted entity tag
+     */
+    String tagOf(String query, ListScope scope);
+
+    /**
+     * Advances again, on this node and immediately, the scopes of the changes that took generations in the range.
+     * Used once a lagging replica has replayed those changes, so list tags computed from its older data stop matching
+     * while the tags of untouched scopes are kept.
+     *
+     * @param after the generation the changes are newer than
+     * @param upTo the newest generation of the changes, inclusive
+     */
+    void advanceChanged(long after, long upTo);
+
+    /**
+     * Advances the generation of all data on every node once the current transaction commits, or immediately
+     * outside a transaction. Used when the scopes of a change are not known.
+     */
+    void advanceAfterCommit();
+
+    /**
+     * Advances the generations of the scopes of a change on every node once the current transaction commits, or
+     * immediately outside a transaction.
+     *
+     * @param scopes the scopes the change touches
+     */
+    void advanceAfterCommit(List<ListScope> scopes);
+}
@@ -0,0 +1,55 @@
+package ru.kretsev.service;
+
+import java.util.UUID;
+import ru.kretsev.model.user.User;
+
+/**
+ * Service interface for the refresh tokens of login sessions.
+ * A refresh token is used once: renewing access returns a new refresh token of the same session and revokes the
+ * presented one. Presenting a revoked token again means it was copied, so the whole session is revoked, including the
+ * access tokens issued to it.
+ */
+public interface RefreshTokenService {
+    /**
+     * A session renewed by a refresh token.
+     *
+     * @param user the owner of the session, with everything but the password
+     * @param sessionId the session ID
+     * @param refreshToken the new refresh token
+     */
+    record RenewedSession(User user, UUID sessionId, String refreshToken) {}
+
+    /**
+     * Issues the first refresh token of a new session.
+     *
+     * @param userId the ID of the token owner
+     * @param sessionId the session ID
+     * @return the refresh token
+     */
+    String issue(Long userId, UUID sessionId);
+
+    /**
+     * Exchanges a refresh token for a new one of the same session.
+     *
+     * @param refreshToken the presented refresh token
+     * @return the renewed session
+     * @throws org.springframework.security.authentication.BadCredentialsException if the token is unknown, expired
+     *     or already used; a used token revokes its session
+     */
+    RenewedSession rotate(String refreshToken);
+
+    /**
+     * Revokes the refresh tokens and the access tokens of a session.
+     *
+     * @param sessionId the session ID
+     * @param userId the ID of the session owner
+     */
+    void revokeSession(UUID sessionId, Long userId);
+
+    /**
+     * Revokes the refresh tokens of all sessions of a user.
+     *
+     * @param userId the user ID
+     */
+    void revokeAll(Long userId);
+}
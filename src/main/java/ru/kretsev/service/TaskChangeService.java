@@ -0,0 +1,27 @@
+package ru.kretsev.service;
+
+import ru.kretsev.dto.task.TaskChangesDto;
+import ru.kretsev.model.user.User;
+
+/**
+ * Service interface for the delta-sync feed of task changes.
+ */
+public interface TaskChangeService {
+    /**
+     * Retrieves the changes of tasks visible to the user committed after a cursor.
+     * Without a cursor only the cursor of the current position is returned: a client takes it first,
+     * then loads the full task lists and follows the feed from that cursor.
+     *
+     * @param since the cursor returned with the previous batch, or blank to get the current position
+     * @param size the maximum number of changes to read
+     * @param user the user, admins see every task and other users the tasks they author or are assigned to
+     * @return the latest change of each changed task with the cursor of the next batch
+     * @throws ru.kretsev.exception.CursorExpiredException if changes after the cursor have been purged
+     */
+    TaskChangesDto getChanges(String since, int size, User user);
+
+    /**
+     * Deletes changes older than the retention period in small batches.
+     */
+    void purgeExpiredChanges();
+}
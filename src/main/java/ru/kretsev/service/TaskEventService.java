@@ -0,0 +1,39 @@
+package ru.kretsev.service;
+
+import java.time.Instant;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.kretsev.model.user.User;
+
+/**
+ * Service interface pushing task and comment changes to subscribers as server-sent events.
+ */
+public interface TaskEventService {
+    /**
+     * Subscribes the user to the changes of tasks visible to them.
+     * The ID of every event is a delta-sync feed cursor: after a reconnect the client catches up
+     * through the feed from the last event ID it has received. The stream ends no later than the access token of the
+     * request expires, so a client has to renew the token to keep receiving events.
+     *
+     * @param user the user, admins get every change and other users the changes of tasks they author or are assigned to
+     * @param tokenExpiresAt the expiration of the access token the stream is opened with
+     * @return the emitter streaming the events
+     */
+    SseEmitter subscribe(User user, Instant tokenExpiresAt);
+
+    /**
+     * Reads the changes committed since the previous run and hands them to the buffers of the subscribers.
+     */
+    void publishChanges();
+
+    /**
+     * Sends a comment to every subscriber, so proxies keep idle connections open and closed ones are detected.
+     */
+    void sendHeartbeats();
+
+    /**
+     * Counts the open subscriptions of this node.
+     *
+     * @return the number of subscriptions
+     */
+    int subscriptionCount();
+}
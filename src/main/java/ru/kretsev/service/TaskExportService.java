@@ -0,0 +1,20 @@
+package ru.kretsev.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import ru.kretsev.dto.task.TaskFileFormat;
+
+/**
+ * Service interface for exporting all tasks with their comments.
+ */
+public interface TaskExportService {
+    /**
+     * Writes every task with its comments to the stream, row by row, with memory use independent of table size.
+     *
+     * @param format the file format
+     * @param gzip whether to compress the output with gzip
+     * @param outputStream the stream to write to, left open
+     * @throws IOException if writing to the stream fails
+     */
+    void exportTasks(TaskFileFormat format, boolean gzip, OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,40 @@
+package ru.kretsev.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.UUID;
+import ru.kretsev.dto.task.ImportJobDto;
+import ru.kretsev.dto.task.TaskFileFormat;
+
+/**
+ * Service interface for bulk importing tasks with their comments.
+ */
+public interface TaskImportService {
+    /**
+     * Saves the uploaded file and starts importing it in the background.
+     *
+     * @param format the file format
+     * @param inputStream the file content, read fully before the method returns
+     * @return the queued job
+     * @throws IOException if the file cannot be saved
+     */
+    ImportJobDto submitImport(TaskFileFormat format, InputStream inputStream) throws IOException;
+
+    /**
+     * Imports a file in the calling thread.
+     *
+     * @param format the file format
+     * @param file the file to import
+     * @return the completed or failed job
+     */
+    ImportJobDto importFile(TaskFileFormat format, Path file);
+
+    /**
+     * Retrieves the progress of an import job.
+     *
+     * @param jobId the job ID
+     * @return the job
+     */
+    ImportJobDto getImportJob(UUID jobId);
+}
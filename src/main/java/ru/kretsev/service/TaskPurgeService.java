@@ -0,0 +1,13 @@
+package ru.kretsev.service;
+
+/**
+ * Service interface for purging deleted tasks after their restore period.
+ */
+public interface TaskPurgeService {
+    /**
+     * Deletes the comments and then the rows of tasks deleted before the restore period in small batches.
+     * Each batch runs in its own short transaction; a run stops early on a lock conflict and continues with the
+     * next run.
+     */
+    void purgeDeletedTasks();
+}
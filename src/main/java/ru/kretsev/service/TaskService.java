@@ -1,8 +1,15 @@
 package ru.kretsev.service;
 
 import java.util.List;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import ru.kretsev.dto.TaggedDto;
+import ru.kretsev.dto.page.CursorPage;
+import ru.kretsev.dto.page.PageMode;
+import ru.kretsev.dto.task.TaskBulkUpdateRequest;
 import ru.kretsev.dto.task.TaskDto;
+import ru.kretsev.dto.task.TaskFilter;
+import ru.kretsev.dto.task.TaskSort;
+import ru.kretsev.dto.task.TaskSummaryDto;
 import ru.kretsev.model.user.User;
 
 /**
@@ -14,61 +21,135 @@ public interface TaskService {
      *
      * @param taskDto the task details
      * @param user the user creating the task
-     * @return the created task DTO
+     * @return the created task DTO with its entity tag
      */
-    TaskDto createTask(TaskDto taskDto, User user);
+    TaggedDto<TaskDto> createTask(TaskDto taskDto, User user);
+
+    /**
+     * Creates several tasks in one transaction using JDBC batch inserts.
+     *
+     * @param taskDtos the task details
+     * @param user the user creating the tasks
+     * @return the IDs of the created tasks in request order
+     */
+    List<Long> createTasks(List<TaskDto> taskDtos, User user);
+
+    /**
+     * Applies one patch to many tasks with a single set-based update.
+     * Non-admin users can update only their own tasks and cannot change the assignee.
+     *
+     * @param request the task IDs or filter and the patch to apply
+     * @param user the user performing the update
+     * @return the IDs of the updated tasks
+     */
+    List<Long> updateTasks(TaskBulkUpdateRequest request, User user);
 
     /**
      * Assigns a task to a user.
      *
      * @param taskId the task ID
      * @param userId the user ID
-     * @return the updated task DTO
+     * @param expectedVersion the version the client has seen, or null to skip the check
+     * @return the updated task DTO with its entity tag
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the task has another version
      */
-    TaskDto assignTask(Long taskId, Long userId);
+    TaggedDto<TaskDto> assignTask(Long taskId, Long userId, Long expectedVersion);
 
     /**
-     * Retrieves all tasks with pagination.
+     * Retrieves all tasks matching the filter with pagination.
      *
+     * @param filter the filter criteria
+     * @param sort the sort order
      * @param page the page number
      * @param size the page size
-     * @return a paginated list of task DTOs
+     * @param mode how the total number of tasks is reported
+     * @return a page of task summaries, or a slice without a total in {@link PageMode#SLICE} mode
      */
-    Page<TaskDto> getAllTasks(int page, int size);
+    Slice<TaskSummaryDto> getAllTasks(TaskFilter filter, TaskSort sort, int page, int size, PageMode mode);
 
     /**
-     * Retrieves a task by its ID.
+     * Retrieves all tasks matching the filter using keyset pagination.
+     *
+     * @param filter the filter criteria
+     * @param sort the sort order, must be the same for every page
+     * @param after the cursor returned with the previous page, or blank for the first page
+     * @param size the page size
+     * @return a page of task summaries with the cursor of the next page
+     */
+    CursorPage<TaskSummaryDto> getAllTasks(TaskFilter filter, TaskSort sort, String after, int size);
+
+    /**
+     * Searches tasks by title, description and comments, most relevant first.
+     * Admins search every task, other users the tasks they author or are assigned to.
+     *
+     * @param user the user searching
+     * @param query the search query
+     * @param after the cursor returned with the previous page, or blank for the first page
+     * @param size the page size
+     * @return a page of task summaries with the cursor of the next page
+     */
+    CursorPage<TaskSummaryDto> searchTasks(User user, String query, String after, int size);
+
+    /**
+     * Retrieves a task by its ID. The entity tag is cached with the DTO, so a cache hit needs no serialization.
      *
      * @param taskId the task ID
-     * @return the task DTO
+     * @return the task DTO with its entity tag
      */
-    TaskDto getTask(Long taskId);
+    TaggedDto<TaskDto> getTask(Long taskId);
 
     /**
-     * Retrieves tasks for a user.
+     * Retrieves tasks authored by a user and matching the filter.
      *
      * @param user the user
-     * @return a list of task DTOs
+     * @param filter the filter criteria, its author is replaced with the user
+     * @param sort the sort order
+     * @param page the page number
+     * @param size the page size
+     * @return a list of task summaries
      */
-    List<TaskDto> getUserTasks(User user, int page, int size);
+    List<TaskSummaryDto> getUserTasks(User user, TaskFilter filter, TaskSort sort, int page, int size);
+
+    /**
+     * Retrieves tasks authored by a user and matching the filter using keyset pagination.
+     *
+     * @param user the user
+     * @param filter the filter criteria, its author is replaced with the user
+     * @param sort the sort order, must be the same for every page
+     * @param after the cursor returned with the previous page, or blank for the first page
+     * @param size the page size
+     * @return a page of task summaries with the cursor of the next page
+     */
+    CursorPage<TaskSummaryDto> getUserTasks(User user, TaskFilter filter, TaskSort sort, String after, int size);
 
     /**
      * Updates an existing task.
      *
      * @param taskId the task ID
      * @param taskDto the updated task details
+     * @param expectedVersion the version the client has seen, or null to skip the check
      * @param user the user updating the task
-     * @return the updated task DTO
+     * @return the updated task DTO with its entity tag
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the task has another version
      */
-    TaskDto updateTask(Long taskId, TaskDto taskDto, User user);
+    TaggedDto<TaskDto> updateTask(Long taskId, TaskDto taskDto, Long expectedVersion, User user);
 
     /**
-     * Deletes a task.
+     * Deletes a task. The task and its comments disappear at once and are purged in the background,
+     * so the task can be restored until its restore period ends.
      *
      * @param taskId the task ID
      */
     void deleteTask(Long taskId);
 
+    /**
+     * Restores a task deleted within the restore period together with its comments.
+     *
+     * @param taskId the task ID
+     * @return the restored task DTO with its entity tag
+     */
+    TaggedDto<TaskDto> restoreTask(Long taskId);
+
     /**
      * Deletes a comment from a task.
      *
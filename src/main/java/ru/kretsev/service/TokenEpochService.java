@@ -0,0 +1,28 @@
+package ru.kretsev.service;
+
+import ru.kretsev.model.user.User;
+
+/**
+ * Service interface for the token epochs of users.
+ * Every token carries the epoch of its user at issue, and only tokens of the current epoch are accepted, so advancing
+ * the epoch revokes all tokens issued before. Current epochs are kept in memory, so checking a token needs no query
+ * once the epoch of its user is known.
+ */
+public interface TokenEpochService {
+    /**
+     * Checks whether an epoch is the current epoch of a user.
+     *
+     * @param userId the user ID
+     * @param epoch the epoch carried by a token
+     * @return true if the epoch is current, false if it is stale or the user does not exist
+     */
+    boolean isCurrent(Long userId, long epoch);
+
+    /**
+     * Advances the epoch of a managed user; the change is saved with the user and takes effect on every node once the
+     * current transaction commits.
+     *
+     * @param user the managed user
+     */
+    void advance(User user);
+}
@@ -0,0 +1,63 @@
+package ru.kretsev.service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Service interface for revoking single access tokens by their ID (the {@code jti} claim) and all access tokens of a
+ * login session by its ID (the {@code sid} claim).
+ * Revocations are recorded in the database and kept in memory on every node, so checking a token needs no query.
+ * A node applies its own revocations once they commit and reads those of the other nodes incrementally.
+ */
+public interface TokenRevocationService {
+    /**
+     * Checks whether a token is revoked.
+     *
+     * @param tokenId the token ID
+     * @return true if the token is revoked
+     */
+    boolean isRevoked(String tokenId);
+
+    /**
+     * Revokes a token of a user; the revocation takes effect on this node once the current transaction commits.
+     *
+     * @param tokenId the token ID
+     * @param userId the ID of the token owner
+     * @param expiresAt the expiration of the token, after which the revocation is purged
+     */
+    void revoke(String tokenId, Long userId, Instant expiresAt);
+
+    /**
+     * Revokes a token whose owner and expiration are unknown; the revocation is kept for the longest token lifetime.
+     *
+     * @param tokenId the token ID
+     */
+    void revoke(String tokenId);
+
+    /**
+     * Checks whether a login session is revoked.
+     *
+     * @param sessionId the session ID, or null for a token issued without a session
+     * @return true if the session is revoked
+     */
+    boolean isSessionRevoked(String sessionId);
+
+    /**
+     * Revokes all access tokens of a login session; the revocation takes effect on this node once the current
+     * transaction commits and is kept for the longest token lifetime, since no token of the session is issued later.
+     *
+     * @param sessionId the session ID
+     * @param userId the ID of the session owner
+     */
+    void revokeSession(UUID sessionId, Long userId);
+
+    /**
+     * Reads the revocations committed since the last run, including those of the other nodes.
+     */
+    void syncRevocations();
+
+    /**
+     * Deletes the revocations of expired tokens in small batches and drops them from memory.
+     */
+    void purgeExpiredRevocations();
+}
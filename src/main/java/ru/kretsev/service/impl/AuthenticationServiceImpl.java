@@ -1,14 +1,22 @@
 package ru.kretsev.service.impl;
 
+import java.time.Instant;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.kretsev.auth.JwtService;
+import ru.kretsev.cache.CacheDependency;
+import ru.kretsev.cache.CacheDependencyTracker;
 import ru.kretsev.dto.user.AuthenticationRequest;
 import ru.kretsev.dto.user.AuthenticationResponse;
 import ru.kretsev.dto.user.RegisterRequest;
@@ -18,10 +26,18 @@ import ru.kretsev.model.user.Role;
 import ru.kretsev.model.user.User;
 import ru.kretsev.repository.UserRepository;
 import ru.kretsev.service.AuthenticationService;
+import ru.kretsev.service.EntityService;
+import ru.kretsev.service.ListGenerationService;
 import ru.kretsev.service.LoggingService;
+import ru.kretsev.service.RefreshTokenService;
+import ru.kretsev.service.RefreshTokenService.RenewedSession;
+import ru.kretsev.service.TokenEpochService;
+import ru.kretsev.service.TokenRevocationService;
 
 /**
  * Implementation of the AuthenticationService for user registration and authentication.
+ * Every login starts a session with a short-lived access token and a refresh token; renewing the access token takes
+ * one lookup of the refresh token instead of a password check.
  */
 @Service
 @RequiredArgsConstructor
@@ -33,9 +49,20 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final LoggingService loggingService;
     private final AuthenticationManager authenticationManager;
     private final UserMapper userMapper;
+    private final EntityService entityService;
+    private final TokenEpochService tokenEpochService;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final CacheDependencyTracker cacheDependencyTracker;
+    private final ListGenerationService listGenerationService;
+    private final PlatformTransactionManager transactionManager;
 
+    /**
+     * Runs outside a transaction, so no connection is held while the password is hashed.
+     * The user and its first session are saved in one transaction once the hash is ready.
+     */
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthenticationResponse register(RegisterRequest request) {
         loggingService.logInfo("Попытка регистрации пользователя: email={}", request.email());
 
@@ -57,30 +84,42 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 .password(passwordEncoder.encode(request.password()))
                 .role(role)
                 .build();
-        userRepository.save(user);
-
-        var jwtToken = jwtService.generateToken(user);
+        var response = new TransactionTemplate(transactionManager).execute(status -> {
+            userRepository.save(user);
+            return startSession(user);
+        });
 
         loggingService.logInfo("Пользователь успешно зарегистрирован: email={}", request.email());
-        return new AuthenticationResponse(jwtToken);
+        return response;
     }
 
+    /**
+     * Runs outside a transaction, so no connection is held while the password check waits for a hashing thread.
+     * The user loaded for the check is taken from the authentication instead of being queried again.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthenticationResponse authenticate(AuthenticationRequest request) {
         loggingService.logInfo("Попытка аутентификации пользователя: email={}", request.email());
 
-        authenticationManager.authenticate(
+        var authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.email(), request.password()));
+        var user = (User) authentication.getPrincipal();
 
-        var user = userRepository.findByEmail(request.email()).orElseThrow(() -> {
-            loggingService.logError("Пользователь с email={} не найден", request.email());
-            return new UsernameNotFoundException("User not found");
-        });
-
-        var jwtToken = jwtService.generateToken(user);
+        var response = startSession(user);
 
         loggingService.logInfo("Пользователь успешно аутентифицирован: email={}", request.email());
-        return new AuthenticationResponse(jwtToken);
+        return response;
+    }
+
+    @Override
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public AuthenticationResponse refresh(String refreshToken) {
+        RenewedSession session = refreshTokenService.rotate(refreshToken);
+        var jwtToken = jwtService.generateToken(session.user(), session.sessionId());
+
+        loggingService.logDebug("Токен доступа обновлён: userId={}", session.user().getId());
+        return new AuthenticationResponse(jwtToken, session.refreshToken());
     }
 
     @Override
@@ -90,4 +129,56 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
         return userMapper.toShortDto(user);
     }
+
+    @Override
+    @Transactional
+    public void logout(String tokenId, String sessionId, Long userId, Instant expiresAt) {
+        tokenRevocationService.revoke(tokenId, userId, expiresAt);
+        if (sessionId != null) {
+            refreshTokenService.revokeSession(UUID.fromString(sessionId), userId);
+        }
+        loggingService.logInfo("Токен пользователя отозван: userId={}", userId);
+    }
+
+    @Override
+    @Transactional
+    public void revokeToken(String tokenId) {
+        tokenRevocationService.revoke(tokenId);
+        loggingService.logInfo("Токен отозван администратором: tokenId={}", tokenId);
+    }
+
+    @Override
+    @Transactional
+    public void logoutEverywhere(Long userId) {
+        User user = entityService.findEntityOrElseThrow(userRepository, userId, "Пользователь не найден");
+        tokenEpochService.advance(user);
+        refreshTokenService.revokeAll(userId);
+        loggingService.logInfo("Все токены пользователя отозваны: userId={}", userId);
+    }
+
+    @Override
+    @Transactional
+    public UserShortDto changeRole(Long userId, Role role) {
+        loggingService.logInfo("Изменение роли пользователя: userId={}, role={}", userId, role);
+
+        User user = entityService.findEntityOrElseThrow(userRepository, userId, "Пользователь не найден");
+        if (user.getRole() != role) {
+            user.setRole(role);
+            tokenEpochService.advance(user);
+            cacheDependencyTracker.invalidateAfterCommit(CacheDependency.user(userId));
+            listGenerationService.advanceAfterCommit();
+        }
+
+        loggingService.logInfo("Роль пользователя изменена, токены отозваны: userId={}", userId);
+        return userMapper.toShortDto(user);
+    }
+
+    /**
+     * Starts a login session of a user with an access token and a refresh token.
+     */
+    private AuthenticationResponse startSession(User user) {
+        UUID sessionId = UUID.randomUUID();
+        return new AuthenticationResponse(
+                jwtService.generateToken(user, sessionId), refreshTokenService.issue(user.getId(), sessionId));
+    }
 }
@@ -1,17 +1,31 @@
 package ru.kretsev.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.kretsev.auth.AuthenticationFacade;
+import ru.kretsev.cache.CacheDependency;
+import ru.kretsev.cache.CacheDependencyTracker;
+import ru.kretsev.dto.TaggedDto;
 import ru.kretsev.dto.comment.CommentDto;
+import ru.kretsev.dto.page.Cursor;
+import ru.kretsev.dto.page.CursorPage;
+import ru.kretsev.dto.page.ListScope;
+import ru.kretsev.dto.page.PageMode;
+import ru.kretsev.dto.page.Pages;
+import ru.kretsev.event.CommentAdded;
+import ru.kretsev.event.CommentDeleted;
 import ru.kretsev.mapper.CommentMapper;
 import ru.kretsev.model.comment.Comment;
 import ru.kretsev.model.task.Task;
@@ -19,7 +33,9 @@ import ru.kretsev.model.user.User;
 import ru.kretsev.repository.CommentRepository;
 import ru.kretsev.repository.TaskRepository;
 import ru.kretsev.service.CommentService;
+import ru.kretsev.service.DomainEventService;
 import ru.kretsev.service.EntityService;
+import ru.kretsev.service.ListGenerationService;
 import ru.kretsev.service.LoggingService;
 
 /**
@@ -35,6 +51,13 @@ public class CommentServiceImpl implements CommentService {
     private final AuthenticationFacade authenticationFacade;
     private final EntityService entityService;
     private final LoggingService loggingService;
+    private final ListGenerationService listGenerationService;
+    private final DomainEventService domainEventService;
+    private final CacheDependencyTracker cacheDependencyTracker;
+    private final ObjectMapper objectMapper;
+
+    @Value("${pagination.exact-count-threshold:10000}")
+    private long exactCountThreshold;
 
     @Override
     @Transactional
@@ -47,26 +70,52 @@ public class CommentServiceImpl implements CommentService {
         comment.setTask(task);
         comment.setAuthor(user);
         commentRepository.save(comment);
+        cacheDependencyTracker.invalidateAfterCommit(CacheDependency.taskComments(taskId));
+        domainEventService.publish(new CommentAdded(comment.getId(), taskId, user.getId()));
+        listGenerationService.advanceAfterCommit(
+                List.of(ListScope.user(task.getAuthor().getId()), ListScope.task(taskId)));
 
         loggingService.logInfo("Комментарий успешно добавлен: id={}, taskId={}", comment.getId(), taskId);
         return commentMapper.toDto(comment);
     }
 
     @Override
-    @Cacheable(value = "comments", key = "#commentId")
-    public CommentDto getCommentById(Long commentId) {
+    @Cacheable(value = "comments", key = "#commentId", sync = true)
+    public TaggedDto<CommentDto> getCommentById(Long commentId) {
         loggingService.logInfo("Комментарий с id={} не найден в кэше, выполняется запрос к базе данных", commentId);
         Comment comment = entityService.findEntityOrElseThrow(commentRepository, commentId, "Комментарий не найден");
-        return commentMapper.toDto(comment);
+        return ContentTags.tag(objectMapper, comment.getVersion(), commentMapper.toDto(comment));
     }
 
     @Override
-    public Page<CommentDto> getCommentsByTaskId(Long taskId, int page, int size) {
+    public Slice<CommentDto> getCommentsByTaskId(Long taskId, int page, int size, PageMode mode) {
         Pageable pageable = PageRequest.of(page, size);
+
+        if (mode == PageMode.SLICE) {
+            return commentRepository.findSliceByTaskId(taskId, pageable).map(commentMapper::toDto);
+        }
+        if (mode == PageMode.APPROXIMATE) {
+            long estimate = commentRepository.estimateCountByTaskId(taskId);
+            if (estimate >= exactCountThreshold) {
+                Slice<Comment> slice = commentRepository.findSliceByTaskId(taskId, pageable);
+                return Pages.withEstimatedTotal(slice, estimate).map(commentMapper::toDto);
+            }
+        }
         Page<Comment> commentsPage = commentRepository.findByTaskId(taskId, pageable);
         return commentsPage.map(commentMapper::toDto);
     }
 
+    @Override
+    public CursorPage<CommentDto> getCommentsByTaskId(Long taskId, String after, int size) {
+        Cursor cursor = Cursor.decode(after);
+        Limit limit = Limit.of(CursorPage.fetchLimit(size));
+
+        Long afterId = cursor == null ? 0L : cursor.id();
+
+        List<Comment> comments = commentRepository.findByTaskIdAndIdGreaterThanOrderByIdAsc(taskId, afterId, limit);
+        return CursorPage.of(comments, size, comment -> new Cursor(comment.getId(), null), commentMapper::toDto);
+    }
+
     @Override
     @CacheEvict(value = "comments", key = "#commentId")
     @Transactional
@@ -83,6 +132,11 @@ public class CommentServiceImpl implements CommentService {
 
         if (isAdmin || isAuthor) {
             commentRepository.delete(comment);
+            cacheDependencyTracker.invalidateAfterCommit(CacheDependency.taskComments(comment.getTask().getId()));
+            domainEventService.publish(new CommentDeleted(commentId, comment.getTask().getId()));
+            listGenerationService.advanceAfterCommit(List.of(
+                    ListScope.user(comment.getTask().getAuthor().getId()),
+                    ListScope.task(comment.getTask().getId())));
             loggingService.logInfo("Комментарий успешно удален: id={}", commentId);
         } else {
             loggingService.logWarn(
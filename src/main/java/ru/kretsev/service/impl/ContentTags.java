@@ -0,0 +1,57 @@
+package ru.kretsev.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import ru.kretsev.dto.TaggedDto;
+
+/**
+ * Strong entity tags combining the entity version with a hash of the DTO content.
+ * The version keeps {@code If-Match} checks cheap; the hash changes when embedded data such as comments changes
+ * without a new version of the entity itself.
+ */
+final class ContentTags {
+    private static final int HASH_BYTES = 12;
+
+    private ContentTags() {}
+
+    /**
+     * Tags a DTO by its version and serialized content.
+     *
+     * @param objectMapper the mapper the DTO is serialized with in responses
+     * @param version the entity version
+     * @param dto the DTO
+     * @param <T> the DTO type
+     * @return the DTO with a tag of the form {@code version-hash}
+     */
+    static <T> TaggedDto<T> tag(ObjectMapper objectMapper, Long version, T dto) {
+        try {
+            return new TaggedDto<>(dto, version + "-" + hash(objectMapper.writeValueAsBytes(dto)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось вычислить ETag", e);
+        }
+    }
+
+    /**
+     * Hashes a text into a short URL-safe string.
+     *
+     * @param text the text
+     * @return the truncated SHA-256 hash
+     */
+    static String hash(String text) {
+        return hash(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, HASH_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+}
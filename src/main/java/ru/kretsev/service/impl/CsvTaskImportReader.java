@@ -0,0 +1,160 @@
+package ru.kretsev.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reads CSV in the export format: a header row, then one row per comment with the task columns repeated.
+ * Consecutive rows with the same {@code task_id} form one task; without that column every row is a task.
+ * Empty unquoted fields are read as null.
+ */
+class CsvTaskImportReader implements TaskImportReader {
+    private final BufferedReader reader;
+    private long lineNumber;
+    private Map<String, Integer> columns;
+    private Record pending;
+
+    CsvTaskImportReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        if (columns == null && !readHeader()) {
+            return null;
+        }
+        Record first = pending != null ? pending : readRecord();
+        pending = null;
+        if (first == null) {
+            return null;
+        }
+        if (first.error() != null) {
+            return ImportRow.rejected(first.line(), first.error());
+        }
+
+        String taskId = field(first, "task_id");
+        List<ImportRow.Comment> comments = new ArrayList<>();
+        addComment(first, comments);
+        if (taskId != null) {
+            Record next;
+            while ((next = readRecord()) != null
+                    && next.error() == null
+                    && Objects.equals(taskId, field(next, "task_id"))) {
+                addComment(next, comments);
+            }
+            pending = next;
+        }
+        return new ImportRow(
+                first.line(),
+                field(first, "title"),
+                field(first, "description"),
+                field(first, "status"),
+                field(first, "priority"),
+                field(first, "author_email"),
+                field(first, "assignee_email"),
+                comments,
+                null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private boolean readHeader() throws IOException {
+        Record header = readRecord();
+        if (header == null) {
+            return false;
+        }
+        if (header.error() != null) {
+            throw new IllegalArgumentException("Некорректный заголовок CSV: " + header.error());
+        }
+        columns = new HashMap<>();
+        for (int i = 0; i < header.values().size(); i++) {
+            String name = header.values().get(i);
+            columns.put(name == null ? "" : name.strip().toLowerCase(), i);
+        }
+        for (String required : List.of("title", "author_email")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("В заголовке CSV нет столбца " + required);
+            }
+        }
+        return true;
+    }
+
+    private void addComment(Record record, List<ImportRow.Comment> comments) {
+        String content = field(record, "comment_content");
+        if (content != null) {
+            comments.add(new ImportRow.Comment(content, field(record, "comment_author_email")));
+        }
+    }
+
+    private String field(Record record, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= record.values().size() ? null : record.values().get(index);
+    }
+
+    /**
+     * Reads one record, which spans several lines when a quoted field contains line breaks.
+     */
+    private Record readRecord() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isEmpty());
+
+        long startLine = lineNumber;
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        boolean inQuotes = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!inQuotes) {
+                    values.add(quoted || !value.isEmpty() ? value.toString() : null);
+                    return new Record(startLine, values, null);
+                }
+                line = reader.readLine();
+                if (line == null) {
+                    return new Record(startLine, values, "Незакрытые кавычки в строке " + startLine);
+                }
+                lineNumber++;
+                value.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (inQuotes) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i < line.length() && line.charAt(i) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    inQuotes = false;
+                }
+            } else if (c == ',') {
+                values.add(quoted || !value.isEmpty() ? value.toString() : null);
+                value.setLength(0);
+                quoted = false;
+            } else if (c == '"' && value.isEmpty() && !quoted) {
+                quoted = true;
+                inQuotes = true;
+            } else {
+                value.append(c);
+            }
+        }
+    }
+
+    private record Record(long line, List<String> values, String error) {}
+}
@@ -0,0 +1,181 @@
+package ru.kretsev.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.kretsev.event.DomainEvent;
+import ru.kretsev.repository.DomainEventRepository;
+import ru.kretsev.repository.DomainEventRepository.DomainEventRow;
+import ru.kretsev.repository.DomainEventRepository.NewDomainEvent;
+import ru.kretsev.service.DomainEventService;
+import ru.kretsev.service.LoggingService;
+
+/**
+ * Implementation of the DomainEventService relaying the outbox on a dedicated thread.
+ * A relay transaction claims a batch with {@code FOR UPDATE SKIP LOCKED}, dispatches it and deletes the dispatched
+ * events, so an event is delivered at least once. Listeners run outside the relay transaction: their own database
+ * work commits independently and cannot mark the relay transaction for rollback. A failing event stops the batch to
+ * keep the order and is retried until it has failed {@value #MAX_ATTEMPTS} times, then it is parked.
+ * The relay first checks for pending events with a plain read on the primary and opens no transaction while the
+ * outbox is empty. It runs without an authenticated user, so its writes never hold user reads on the primary.
+ */
+@Service
+@RequiredArgsConstructor
+public class DomainEventServiceImpl implements DomainEventService {
+    static final int BATCH_SIZE = 500;
+    static final int MAX_ATTEMPTS = 5;
+    private static final int MAX_ERROR_LENGTH = 2000;
+    private static final Map<String, Class<? extends DomainEvent>> EVENT_TYPES =
+            Arrays.stream(DomainEvent.class.getPermittedSubclasses())
+                    .map(type -> type.asSubclass(DomainEvent.class))
+                    .collect(Collectors.toUnmodifiableMap(Class::getSimpleName, Function.identity()));
+
+    private final DomainEventRepository domainEventRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final LoggingService loggingService;
+
+    private final ScheduledExecutorService relayExecutor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("domain-events-relay").factory());
+
+    @Value("${domain-events.poll-interval:200}")
+    private long pollInterval;
+
+    private record BatchResult(int dispatched) {}
+
+    @Override
+    public void publish(DomainEvent event) {
+        publishAll(List.of(event));
+    }
+
+    @Override
+    public void publishAll(List<? extends DomainEvent> events) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Доменные события записываются только в транзакции изменения");
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        domainEventRepository.append(events.stream()
+                .map(event -> new NewDomainEvent(event.getClass().getSimpleName(), event.taskId(), toJson(event)))
+                .toList());
+    }
+
+    @Override
+    public int relayEvents() {
+        if (!domainEventRepository.hasPending()) {
+            return 0;
+        }
+        TransactionTemplate relay = new TransactionTemplate(transactionManager);
+        TransactionTemplate dispatch = new TransactionTemplate(transactionManager);
+        dispatch.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+
+        int relayed = 0;
+        BatchResult batch;
+        do {
+            batch = relay.execute(status -> relayBatch(dispatch));
+            relayed += batch.dispatched();
+        } while (batch.dispatched() == BATCH_SIZE);
+        return relayed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void startRelay() {
+        relayExecutor.scheduleWithFixedDelay(this::relaySafely, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        relayExecutor.shutdownNow();
+    }
+
+    private void relaySafely() {
+        try {
+            relayEvents();
+        } catch (RuntimeException e) {
+            loggingService.logError("Ошибка рассылки доменных событий: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Claims and dispatches one batch; nothing is claimed while the relay of another node holds the lock.
+     */
+    private BatchResult relayBatch(TransactionTemplate dispatch) {
+        if (!domainEventRepository.tryLockRelay()) {
+            return new BatchResult(0);
+        }
+        List<DomainEventRow> rows = domainEventRepository.claim(BATCH_SIZE);
+        List<Long> dispatched = new ArrayList<>(rows.size());
+        for (DomainEventRow row : rows) {
+            try {
+                DomainEvent event = fromJson(row);
+                dispatch.executeWithoutResult(status -> applicationEventPublisher.publishEvent(event));
+            } catch (RuntimeException e) {
+                handleFailure(row, e);
+                break;
+            }
+            dispatched.add(row.id());
+        }
+        domainEventRepository.delete(dispatched);
+        return new BatchResult(dispatched.size());
+    }
+
+    private void handleFailure(DomainEventRow row, RuntimeException e) {
+        String error = String.valueOf(e);
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        domainEventRepository.recordFailure(row.id(), error, MAX_ATTEMPTS);
+        if (row.attempts() + 1 >= MAX_ATTEMPTS) {
+            loggingService.logError(
+                    "Доменное событие отложено после {} ошибок: id={}, type={}, error={}",
+                    MAX_ATTEMPTS,
+                    row.id(),
+                    row.type(),
+                    error);
+        } else {
+            loggingService.logWarn(
+                    "Ошибка обработки доменного события: id={}, type={}, error={}", row.id(), row.type(), error);
+        }
+    }
+
+    private String toJson(DomainEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать доменное событие", e);
+        }
+    }
+
+    private DomainEvent fromJson(DomainEventRow row) {
+        Class<? extends DomainEvent> type = EVENT_TYPES.get(row.type());
+        if (type == null) {
+            throw new IllegalStateException("Неизвестный тип доменного события: " + row.type());
+        }
+        try {
+            return objectMapper.readValue(row.payload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось прочитать доменное событие", e);
+        }
+    }
+}
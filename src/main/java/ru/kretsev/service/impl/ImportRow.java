@@ -0,0 +1,40 @@
+package ru.kretsev.service.impl;
+
+import java.util.List;
+
+/**
+ * A task read from an import file, not yet validated.
+ *
+ * @param line the line number where the task starts
+ * @param title the task title
+ * @param description the task description
+ * @param status the task status name
+ * @param priority the task priority name
+ * @param authorEmail the email of the task author
+ * @param assigneeEmail the email of the task assignee
+ * @param comments the task comments in file order
+ * @param error the reason the task could not be read, or null
+ */
+record ImportRow(
+        long line,
+        String title,
+        String description,
+        String status,
+        String priority,
+        String authorEmail,
+        String assigneeEmail,
+        List<Comment> comments,
+        String error) {
+
+    static ImportRow rejected(long line, String error) {
+        return new ImportRow(line, null, null, null, null, null, null, List.of(), error);
+    }
+
+    /**
+     * A comment read from an import file.
+     *
+     * @param content the comment text
+     * @param authorEmail the email of the comment author
+     */
+    record Comment(String content, String authorEmail) {}
+}
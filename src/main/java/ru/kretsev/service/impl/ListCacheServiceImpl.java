@@ -0,0 +1,45 @@
+package ru.kretsev.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.kretsev.service.ListCacheService;
+
+/**
+ * Implementation of the ListCacheService keeping results in a local Caffeine cache.
+ * Hits, misses and evictions are published as the {@code cache.*} metrics of the {@code lists} cache.
+ */
+@Service
+public class ListCacheServiceImpl implements ListCacheService {
+    private final Cache<String, Object> results;
+
+    /**
+     * Creates the service.
+     *
+     * @param maximumSize the maximum number of cached results
+     * @param ttl the time after which a cached result expires
+     * @param meterRegistry the registry of the cache metrics
+     */
+    public ListCacheServiceImpl(
+            @Value("${list-cache.maximum-size:1000}") long maximumSize,
+            @Value("${list-cache.ttl:5m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "lists");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(String tag, Supplier<T> query) {
+        return (T) results.get(tag, ignored -> query.get());
+    }
+}
@@ -0,0 +1,206 @@
+package ru.kretsev.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.kretsev.cache.CacheInvalidationBroadcaster;
+import ru.kretsev.cache.InvalidationTarget;
+import ru.kretsev.dto.page.ListScope;
+import ru.kretsev.service.ListGenerationService;
+
+/**
+ * Implementation of the ListGenerationService keeping the generations in memory.
+ * The tag also covers a random epoch of this instance, so tags of another instance or of a previous run,
+ * whose generations count independently, are never taken for current ones.
+ * A scope takes a new value of the overall generation when it changes; scopes without an entry share a floor that is
+ * raised to the value of every evicted entry, so the generation of a scope never goes back. Committed changes are
+ * broadcast to the other nodes when invalidation across nodes is enabled.
+ * The scopes of the latest changes are remembered by generation, so they can be advanced again once a lagging replica
+ * has replayed them; when more changes happen than are remembered, all data is advanced instead.
+ */
+@Service
+public class ListGenerationServiceImpl implements ListGenerationService {
+    private static final String ALL_DATA = "list-generation";
+    private static final long ALL_DATA_KEY = 0L;
+    private static final long MAX_SCOPES = 100_000;
+    private static final Duration SCOPE_IDLE_TIME = Duration.ofHours(1);
+    private static final int MAX_RECENT_CHANGES = 10_000;
+    private static final List<ListScope> ALL_SCOPES = List.of();
+
+    private final String epoch = UUID.randomUUID().toString();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong floor = new AtomicLong();
+    private final Cache<ListScope, Long> scopeGenerations = Caffeine.newBuilder()
+            .maximumSize(MAX_SCOPES)
+            .expireAfterAccess(SCOPE_IDLE_TIME)
+            .<ListScope, Long>evictionListener((scope, value, cause) -> floor.accumulateAndGet(value, Math::max))
+            .build();
+    private final Deque<Change> recentChanges = new ArrayDeque<>();
+    private final CacheInvalidationBroadcaster broadcaster;
+    private long forgottenUpTo;
+
+    /**
+     * A change remembered with the generation it took; an empty list of scopes stands for all data.
+     */
+    private record Change(long generation, List<ListScope> scopes) {}
+
+    /**
+     * Creates the service.
+     *
+     * @param broadcaster the broadcaster of changes to the other nodes, if enabled
+     */
+    public ListGenerationServiceImpl(ObjectProvider<CacheInvalidationBroadcaster> broadcaster) {
+        this.broadcaster = broadcaster.getIfAvailable();
+        if (this.broadcaster != null) {
+            this.broadcaster.register(ALL_DATA, new RemoteChanges(null));
+            for (ListScope.Type type : ListScope.Type.values()) {
+                this.broadcaster.register(targetName(type), new RemoteChanges(type));
+            }
+        }
+    }
+
+    @Override
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    @Override
+    public long currentGeneration(ListScope scope) {
+        if (scope == null) {
+            return generation.get();
+        }
+        Long scopeGeneration = scopeGenerations.getIfPresent(scope);
+        long floorGeneration = floor.get();
+        return scopeGeneration == null ? floorGeneration : Math.max(scopeGeneration, floorGeneration);
+    }
+
+    @Override
+    public String tagOf(String query, ListScope scope) {
+        long current = currentGeneration(scope);
+        return current + "-" + ContentTags.hash(epoch + '|' + current + '|' + scope + '|' + query);
+    }
+
+    @Override
+    public void advanceChanged(long after, long upTo) {
+        boolean all;
+        Set<ListScope> scopes = new HashSet<>();
+        synchronized (recentChanges) {
+            all = forgottenUpTo > after;
+            for (Iterator<Change> changes = recentChanges.iterator(); changes.hasNext(); ) {
+                Change change = changes.next();
+                if (change.generation() > upTo) {
+                    continue;
+                }
+                changes.remove();
+                if (change.generation() > after) {
+                    all |= change.scopes().isEmpty();
+                    scopes.addAll(change.scopes());
+                }
+            }
+        }
+        if (all) {
+            advanceAll();
+        } else if (!scopes.isEmpty()) {
+            advanceScopes(scopes);
+        }
+    }
+
+    @Override
+    public void advanceAfterCommit() {
+        afterCommit(() -> {
+            advance(ALL_SCOPES);
+            if (broadcaster != null) {
+                broadcaster.keyChanged(ALL_DATA, ALL_DATA_KEY);
+            }
+        });
+    }
+
+    @Override
+    public void advanceAfterCommit(List<ListScope> scopes) {
+        afterCommit(() -> {
+            advance(scopes);
+            if (broadcaster != null) {
+                scopes.forEach(scope -> broadcaster.keyChanged(targetName(scope.type()), scope.id()));
+            }
+        });
+    }
+
+    /**
+     * Advances the scopes of a change, or all data for an empty list, and remembers the change.
+     */
+    private void advance(List<ListScope> scopes) {
+        long advanced = scopes.isEmpty() ? advanceAll() : advanceScopes(scopes);
+        synchronized (recentChanges) {
+            recentChanges.addLast(new Change(advanced, scopes));
+            if (recentChanges.size() > MAX_RECENT_CHANGES) {
+                forgottenUpTo = Math.max(forgottenUpTo, recentChanges.removeFirst().generation());
+            }
+        }
+    }
+
+    private long advanceAll() {
+        return floor.accumulateAndGet(generation.incrementAndGet(), Math::max);
+    }
+
+    private long advanceScopes(Collection<ListScope> scopes) {
+        long advanced = generation.incrementAndGet();
+        scopes.forEach(scope -> scopeGenerations.put(scope, advanced));
+        return advanced;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String targetName(ListScope.Type type) {
+        return ALL_DATA + "-" + type.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Applies the changes of the other nodes to the scopes of a type, or to all data when the type is null.
+     */
+    private final class RemoteChanges implements InvalidationTarget {
+        private final ListScope.Type type;
+
+        private RemoteChanges(ListScope.Type type) {
+            this.type = type;
+        }
+
+        @Override
+        public void evictLocally(Object key) {
+            if (type == null) {
+                advance(ALL_SCOPES);
+            } else {
+                advance(List.of(new ListScope(type, (Long) key)));
+            }
+        }
+
+        @Override
+        public void clearLocally() {
+            advance(ALL_SCOPES);
+        }
+    }
+}
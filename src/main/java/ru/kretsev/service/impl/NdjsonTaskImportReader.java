@@ -0,0 +1,78 @@
+package ru.kretsev.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads NDJSON in the export format: one task object per line with its comments nested.
+ * Users may be given as {@code {"email": ...}} objects or as plain email strings.
+ */
+class NdjsonTaskImportReader implements TaskImportReader {
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long lineNumber;
+
+    NdjsonTaskImportReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            return ImportRow.rejected(lineNumber, "Некорректный JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return ImportRow.rejected(lineNumber, "Ожидался JSON-объект задачи");
+        }
+
+        List<ImportRow.Comment> comments = new ArrayList<>();
+        for (JsonNode comment : node.path("comments")) {
+            comments.add(new ImportRow.Comment(text(comment, "content"), email(comment.get("author"))));
+        }
+        return new ImportRow(
+                lineNumber,
+                text(node, "title"),
+                text(node, "description"),
+                text(node, "status"),
+                text(node, "priority"),
+                email(node.get("author")),
+                email(node.get("assignee")),
+                comments,
+                null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String email(JsonNode user) {
+        if (user == null || user.isNull()) {
+            return null;
+        }
+        return user.isObject() ? text(user, "email") : user.asText();
+    }
+}
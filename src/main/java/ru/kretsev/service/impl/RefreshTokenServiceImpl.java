@@ -0,0 +1,104 @@
+package ru.kretsev.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import ru.kretsev.repository.RefreshTokenRepository;
+import ru.kretsev.repository.RefreshTokenRepository.RotatedToken;
+import ru.kretsev.service.LoggingService;
+import ru.kretsev.service.RefreshTokenService;
+import ru.kretsev.service.TokenRevocationService;
+
+/**
+ * Implementation of the RefreshTokenService storing the SHA-256 digest of each token.
+ * Tokens are 256 random bits, so a single unsalted digest is enough to protect them at rest and a presented token is
+ * found by an indexed equality lookup, without a BCrypt round.
+ */
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoggingService loggingService;
+    private final Duration lifetime;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Creates the service.
+     *
+     * @param refreshTokenRepository the repository of refresh tokens
+     * @param tokenRevocationService the service revoking the access tokens of a session
+     * @param loggingService the logging service
+     * @param lifetime the lifetime of a refresh token
+     */
+    public RefreshTokenServiceImpl(
+            RefreshTokenRepository refreshTokenRepository,
+            TokenRevocationService tokenRevocationService,
+            LoggingService loggingService,
+            @Value("${jwt.refresh-expiration:P30D}") Duration lifetime) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokenRevocationService = tokenRevocationService;
+        this.loggingService = loggingService;
+        this.lifetime = lifetime;
+    }
+
+    @Override
+    public String issue(Long userId, UUID sessionId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.insert(digest(refreshToken), userId, sessionId, Instant.now().plus(lifetime));
+        return refreshToken;
+    }
+
+    @Override
+    public RenewedSession rotate(String refreshToken) {
+        RotatedToken rotated = refreshTokenRepository
+                .rotate(digest(refreshToken))
+                .orElseThrow(() -> new BadCredentialsException("Недействительный токен обновления"));
+        Long userId = rotated.user().getId();
+        if (rotated.reused()) {
+            int revoked = refreshTokenRepository.revokeSession(rotated.sessionId());
+            tokenRevocationService.revokeSession(rotated.sessionId(), userId);
+            loggingService.logWarn(
+                    "Повторное использование токена обновления, сессия отозвана: userId={}, sessionId={}, revoked={}",
+                    userId,
+                    rotated.sessionId(),
+                    revoked);
+            throw new BadCredentialsException("Недействительный токен обновления");
+        }
+        if (!rotated.expiresAt().isAfter(Instant.now())) {
+            throw new BadCredentialsException("Токен обновления истёк");
+        }
+        return new RenewedSession(rotated.user(), rotated.sessionId(), issue(userId, rotated.sessionId()));
+    }
+
+    @Override
+    public void revokeSession(UUID sessionId, Long userId) {
+        refreshTokenRepository.revokeSession(sessionId);
+        tokenRevocationService.revokeSession(sessionId, userId);
+    }
+
+    @Override
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.revokeUser(userId);
+    }
+
+    private static String digest(String refreshToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package ru.kretsev.service.impl;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The revoked token IDs a node checks every request against.
+ * A Bloom filter answers the checks of tokens never revoked, nearly all of them, with a few bit reads; only IDs the
+ * filter may contain are looked up in the exact map, which also keeps the expiration of each token so that expired
+ * entries can be dropped. Checks take no lock; changes are serialized.
+ */
+final class RevokedTokens {
+    private static final int BITS_PER_TOKEN = 10;
+    private static final int HASH_FUNCTIONS = 7;
+
+    private final Map<String, Instant> expirations = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+
+    /**
+     * Creates an empty set.
+     *
+     * @param expectedTokens the number of tokens the filter is sized for; it is rebuilt twice as large when exceeded
+     */
+    RevokedTokens(int expectedTokens) {
+        this.filter = new BloomFilter(Math.max(expectedTokens, 1));
+    }
+
+    /**
+     * Checks whether a token is revoked.
+     *
+     * @param tokenId the token ID
+     * @return true if the token is revoked
+     */
+    boolean contains(String tokenId) {
+        return filter.mightContain(tokenId) && expirations.containsKey(tokenId);
+    }
+
+    /**
+     * Adds a revoked token; adding a token again changes nothing.
+     *
+     * @param tokenId the token ID
+     * @param expiresAt the expiration of the token
+     */
+    synchronized void add(String tokenId, Instant expiresAt) {
+        if (expirations.size() >= filter.capacity) {
+            filter = rebuild(filter.capacity * 2);
+        }
+        filter.put(tokenId);
+        expirations.put(tokenId, expiresAt);
+    }
+
+    /**
+     * Drops the tokens expired by the given time and rebuilds the filter without them.
+     *
+     * @param now the current time
+     * @return the number of dropped tokens
+     */
+    synchronized int removeExpired(Instant now) {
+        int before = expirations.size();
+        expirations.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        int removed = before - expirations.size();
+        if (removed > 0) {
+            filter = rebuild(filter.capacity);
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the number of revoked tokens.
+     *
+     * @return the number of tokens
+     */
+    int size() {
+        return expirations.size();
+    }
+
+    /**
+     * Builds a filter of the tokens in the map; checks use the previous filter until it is replaced.
+     */
+    private BloomFilter rebuild(int capacity) {
+        BloomFilter rebuilt = new BloomFilter(capacity);
+        expirations.keySet().forEach(rebuilt::put);
+        return rebuilt;
+    }
+
+    /**
+     * A Bloom filter of {@value #BITS_PER_TOKEN} bits and {@value #HASH_FUNCTIONS} hash functions per token, which
+     * gives about one false positive per hundred checks at capacity. The bit positions are derived from two 64-bit
+     * hashes of the token ID.
+     */
+    private static final class BloomFilter {
+        private final int capacity;
+        private final long bitCount;
+        private final AtomicLongArray words;
+
+        BloomFilter(int capacity) {
+            this.capacity = capacity;
+            int wordCount = (int) Math.max(1, ((long) capacity * BITS_PER_TOKEN + Long.SIZE - 1) / Long.SIZE);
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = (long) wordCount * Long.SIZE;
+        }
+
+        void put(String tokenId) {
+            long hash1 = hash(tokenId);
+            long hash2 = mix(hash1) | 1;
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+                int word = (int) (bit >>> 6);
+                words.set(word, words.get(word) | (1L << bit));
+            }
+        }
+
+        boolean mightContain(String tokenId) {
+            long hash1 = hash(tokenId);
+            long hash2 = mix(hash1) | 1;
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * FNV-1a over the characters of the ID, finished with a mix so that similar IDs spread over the filter.
+         */
+        private static long hash(String tokenId) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < tokenId.length(); i++) {
+                hash = (hash ^ tokenId.charAt(i)) * 0x100000001b3L;
+            }
+            return mix(hash);
+        }
+
+        /**
+         * The SplitMix64 finalizer.
+         */
+        private static long mix(long value) {
+            long z = value + 0x9e3779b97f4a7c15L;
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
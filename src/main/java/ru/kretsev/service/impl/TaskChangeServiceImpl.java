@@ -0,0 +1,147 @@
+package ru.kretsev.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.kretsev.dto.page.Cursor;
+import ru.kretsev.dto.task.TaskChangeDto;
+import ru.kretsev.dto.task.TaskChangesDto;
+import ru.kretsev.dto.task.TaskSummaryDto;
+import ru.kretsev.exception.CursorExpiredException;
+import ru.kretsev.mapper.TaskMapper;
+import ru.kretsev.model.task.Task;
+import ru.kretsev.model.task.TaskChangeType;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+import ru.kretsev.repository.TaskChangeRepository;
+import ru.kretsev.repository.TaskChangeRepository.TaskChangeBatch;
+import ru.kretsev.repository.TaskChangeRow;
+import ru.kretsev.repository.TaskRepository;
+import ru.kretsev.service.LoggingService;
+import ru.kretsev.service.TaskChangeService;
+
+/**
+ * Implementation of the TaskChangeService reading the change log written by database triggers.
+ * A batch scans at most {@code size} changes after the cursor and the cursor moves past all of them, even those
+ * filtered out for the user, so reading stays proportional to recent writes and never to the size of the log.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskChangeServiceImpl implements TaskChangeService {
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final TaskChangeRepository taskChangeRepository;
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final LoggingService loggingService;
+
+    @Value("${task-changes.retention:P7D}")
+    private Duration retention;
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskChangesDto getChanges(String since, int size, User user) {
+        if (size < 1 || size > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Размер пакета изменений должен быть от 1 до " + MAX_BATCH_SIZE);
+        }
+        Cursor cursor = Cursor.decode(since);
+        long afterTxid = cursor == null ? 0 : parseTxid(cursor.value());
+        long afterId = cursor == null ? 0 : cursor.id();
+
+        TaskChangeBatch batch = taskChangeRepository.findAfter(afterTxid, afterId, cursor == null ? 0 : size);
+        if (cursor == null) {
+            return new TaskChangesDto(List.of(), encode(batch.snapshotXmin(), 0), false);
+        }
+        if (isBefore(afterTxid, afterId, batch.horizonTxid(), batch.horizonId())) {
+            throw new CursorExpiredException("Изменения после курсора удалены, выполните полную синхронизацию");
+        }
+
+        List<TaskChangeRow> rows = batch.rows();
+        boolean hasMore = rows.size() == size;
+        String nextCursor;
+        if (hasMore) {
+            TaskChangeRow last = rows.get(rows.size() - 1);
+            nextCursor = encode(last.txid(), last.id());
+        } else if (isBefore(afterTxid, afterId, batch.snapshotXmin(), 0)) {
+            nextCursor = encode(batch.snapshotXmin(), 0);
+        } else {
+            nextCursor = since;
+        }
+        return new TaskChangesDto(toChanges(rows, user), nextCursor, hasMore);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${task-changes.purge-interval:3600000}")
+    public void purgeExpiredChanges() {
+        Instant before = Instant.now().minus(retention);
+        long purged = 0;
+        int batchPurged;
+        do {
+            batchPurged = taskChangeRepository.purgeBefore(before, PURGE_BATCH_SIZE);
+            purged += batchPurged;
+        } while (batchPurged == PURGE_BATCH_SIZE);
+        if (purged > 0) {
+            loggingService.logInfo("Удалены устаревшие изменения задач: count={}, before={}", purged, before);
+        }
+    }
+
+    /**
+     * Keeps the latest visible change of each task and attaches the current state of the tasks that still exist.
+     * Comment changes are skipped: the comment counter update records an update of the task in the same transaction.
+     */
+    private List<TaskChangeDto> toChanges(List<TaskChangeRow> rows, User user) {
+        boolean isAdmin = user.getRole().equals(Role.ROLE_ADMIN);
+        Map<Long, TaskChangeRow> latest = new LinkedHashMap<>();
+        for (TaskChangeRow row : rows) {
+            if (!row.type().isCommentChange() && (isAdmin || row.concerns(user.getId()))) {
+                latest.remove(row.taskId());
+                latest.put(row.taskId(), row);
+            }
+        }
+        List<Long> existingIds = latest.values().stream()
+                .filter(row -> row.type() != TaskChangeType.DELETED)
+                .map(TaskChangeRow::taskId)
+                .toList();
+        Map<Long, Task> tasksById = existingIds.isEmpty()
+                ? Map.of()
+                : taskRepository.findByIdIn(existingIds).stream()
+                        .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        return latest.values().stream()
+                .map(row -> {
+                    Task task = tasksById.get(row.taskId());
+                    if (task == null) {
+                        return new TaskChangeDto(row.taskId(), TaskChangeType.DELETED, row.changedAt(), null);
+                    }
+                    TaskSummaryDto summary = taskMapper.toSummaryDto(task);
+                    return new TaskChangeDto(row.taskId(), row.type(), row.changedAt(), summary);
+                })
+                .toList();
+    }
+
+    private static boolean isBefore(long txid, long id, long otherTxid, long otherId) {
+        return txid < otherTxid || txid == otherTxid && id < otherId;
+    }
+
+    private static String encode(long txid, long id) {
+        return new Cursor(id, Long.toString(txid)).encode();
+    }
+
+    private static long parseTxid(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Курсор не соответствует ленте изменений", e);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package ru.kretsev.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.kretsev.dto.page.Cursor;
+import ru.kretsev.dto.task.TaskEventDto;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+import ru.kretsev.repository.TaskChangeRepository;
+import ru.kretsev.repository.TaskChangeRepository.TaskChangeBatch;
+import ru.kretsev.repository.TaskChangeRow;
+import ru.kretsev.service.LoggingService;
+import ru.kretsev.service.TaskEventService;
+
+/**
+ * Implementation of the TaskEventService following the task change log, so changes made on any node and by bulk
+ * updates or imports are pushed the same way.
+ * One polling job per node reads the log and serializes each change once; fan-out only offers the event to bounded
+ * buffers of the subscribers it concerns and never writes to a connection. Each buffer is drained on its own virtual
+ * thread, so a client that stops reading blocks only its own sends. A subscriber whose buffer overflows or whose send
+ * runs longer than the send timeout is disconnected and catches up through the delta-sync feed.
+ * Idle subscriptions hold no request thread and no buffered events.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskEventServiceImpl implements TaskEventService {
+    static final int BUFFER_CAPACITY = 1024;
+    static final int MAX_SUBSCRIPTIONS_PER_USER = 5;
+    static final int BATCH_SIZE = 1000;
+    private static final int MAX_BATCHES_PER_POLL = 10;
+    private static final int MAX_SENDS_PER_DRAIN = 64;
+    private static final long NOT_SENDING = Long.MIN_VALUE;
+    private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+    private final TaskChangeRepository taskChangeRepository;
+    private final ObjectMapper objectMapper;
+    private final LoggingService loggingService;
+
+    private final Map<Long, Queue<Subscription>> subscriptionsByUser = new ConcurrentHashMap<>();
+    private final Set<Subscription> adminSubscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriptionCount = new AtomicInteger();
+    private final ExecutorService senderExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-events-", 0).factory());
+
+    @Value("${task-events.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${task-events.send-timeout:10s}")
+    private Duration sendTimeout;
+
+    /**
+     * The position of the polling job in the change log, only touched by that job; negative until the first poll.
+     */
+    private long cursorTxid = -1;
+
+    private long cursorId;
+
+    /**
+     * A subscribed connection with its buffer of serialized events.
+     */
+    private static final class Subscription {
+        private final Long userId;
+        private final boolean admin;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> buffer = new LinkedBlockingQueue<>(BUFFER_CAPACITY);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        /**
+         * The {@link System#nanoTime()} at which the current send started, or {@code NOT_SENDING}.
+         */
+        private volatile long sendStartedAt = NOT_SENDING;
+
+        private Subscription(Long userId, boolean admin, SseEmitter emitter) {
+            this.userId = userId;
+            this.admin = admin;
+            this.emitter = emitter;
+        }
+    }
+
+    @Override
+    public SseEmitter subscribe(User user, Instant tokenExpiresAt) {
+        long tokenLifetimeMillis = Duration.between(Instant.now(), tokenExpiresAt).toMillis();
+        SseEmitter emitter = new SseEmitter(Math.max(1, Math.min(timeout.toMillis(), tokenLifetimeMillis)));
+        Subscription subscription = new Subscription(user.getId(), user.getRole().equals(Role.ROLE_ADMIN), emitter);
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(e -> remove(subscription));
+        try {
+            emitter.send(SseEmitter.event().reconnectTime(RECONNECT_DELAY_MILLIS).comment("subscribed"));
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось открыть поток событий", e);
+        }
+
+        List<Subscription> displaced = new ArrayList<>();
+        subscriptionCount.incrementAndGet();
+        subscriptionsByUser.compute(user.getId(), (id, subscriptions) -> {
+            Queue<Subscription> queue = subscriptions == null ? new ConcurrentLinkedQueue<>() : subscriptions;
+            queue.add(subscription);
+            while (queue.size() > MAX_SUBSCRIPTIONS_PER_USER) {
+                displaced.add(queue.poll());
+            }
+            return queue;
+        });
+        if (subscription.admin) {
+            adminSubscriptions.add(subscription);
+        }
+        displaced.forEach(old -> evict(old, "превышено число подключений пользователя"));
+        loggingService.logInfo("Открыта подписка на события задач: userId={}", user.getId());
+        return emitter;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${task-events.poll-interval:500}")
+    public void publishChanges() {
+        if (cursorTxid < 0 || subscriptionCount.get() == 0) {
+            moveToHead(taskChangeRepository.findAfter(Math.max(cursorTxid, 0), cursorId, 0));
+            return;
+        }
+        for (int i = 0; i < MAX_BATCHES_PER_POLL; i++) {
+            TaskChangeBatch batch = taskChangeRepository.findAfter(cursorTxid, cursorId, BATCH_SIZE);
+            if (isBefore(cursorTxid, cursorId, batch.horizonTxid(), batch.horizonId())) {
+                loggingService.logWarn("Изменения задач удалены до рассылки, события пропущены");
+                moveToHead(batch);
+                return;
+            }
+            batch.rows().forEach(this::publish);
+            if (batch.rows().size() < BATCH_SIZE) {
+                moveToHead(batch);
+                return;
+            }
+            TaskChangeRow last = batch.rows().get(batch.rows().size() - 1);
+            cursorTxid = last.txid();
+            cursorId = last.id();
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${task-events.heartbeat-interval:30000}")
+    public void sendHeartbeats() {
+        if (subscriptionCount.get() == 0) {
+            return;
+        }
+        Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        subscriptionsByUser.values().forEach(subscriptions -> subscriptions.forEach(s -> enqueue(s, heartbeat)));
+    }
+
+    @Override
+    public int subscriptionCount() {
+        return subscriptionCount.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senderExecutor.shutdownNow();
+    }
+
+    /**
+     * Moves the cursor to the snapshot xmin of the batch; every change before it has been read or skipped.
+     */
+    private void moveToHead(TaskChangeBatch batch) {
+        if (isBefore(cursorTxid, cursorId, batch.snapshotXmin(), 0)) {
+            cursorTxid = batch.snapshotXmin();
+            cursorId = 0;
+        }
+    }
+
+    private void publish(TaskChangeRow row) {
+        Set<Subscription> targets = new HashSet<>(adminSubscriptions);
+        addSubscriptions(targets, row.authorId());
+        addSubscriptions(targets, row.assigneeId());
+        addSubscriptions(targets, row.previousAssigneeId());
+        if (targets.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> event = toEvent(row);
+        targets.forEach(subscription -> enqueue(subscription, event));
+    }
+
+    private void addSubscriptions(Set<Subscription> targets, Long userId) {
+        if (userId != null) {
+            Queue<Subscription> subscriptions = subscriptionsByUser.get(userId);
+            if (subscriptions != null) {
+                targets.addAll(subscriptions);
+            }
+        }
+    }
+
+    private Set<DataWithMediaType> toEvent(TaskChangeRow row) {
+        TaskEventDto event = new TaskEventDto(row.type(), row.taskId(), row.commentId(), row.changedAt());
+        try {
+            return SseEmitter.event()
+                    .id(new Cursor(row.id(), Long.toString(row.txid())).encode())
+                    .name(row.type().name())
+                    .data(objectMapper.writeValueAsString(event))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие задачи", e);
+        }
+    }
+
+    /**
+     * Offers the event without blocking and schedules a drain unless one is already scheduled. Heartbeats pass here
+     * too, so a stalled send is detected within a heartbeat interval even without changes.
+     */
+    private void enqueue(Subscription subscription, Set<DataWithMediaType> event) {
+        if (isStalled(subscription)) {
+            evict(subscription, "отправка события не завершилась за " + sendTimeout);
+            return;
+        }
+        if (!subscription.buffer.offer(event)) {
+            evict(subscription, "переполнен буфер событий");
+            return;
+        }
+        scheduleDrain(subscription);
+    }
+
+    private void scheduleDrain(Subscription subscription) {
+        if (subscription.draining.compareAndSet(false, true)) {
+            try {
+                senderExecutor.execute(() -> drain(subscription));
+            } catch (RejectedExecutionException e) {
+                subscription.draining.set(false);
+            }
+        }
+    }
+
+    /**
+     * Sends a limited number of buffered events, then yields the sender thread to other subscribers.
+     */
+    private void drain(Subscription subscription) {
+        try {
+            Set<DataWithMediaType> event;
+            for (int sent = 0; sent < MAX_SENDS_PER_DRAIN && (event = subscription.buffer.poll()) != null; sent++) {
+                subscription.sendStartedAt = System.nanoTime();
+                subscription.emitter.send(event);
+                subscription.sendStartedAt = NOT_SENDING;
+            }
+        } catch (IOException | IllegalStateException e) {
+            remove(subscription);
+            return;
+        } finally {
+            subscription.sendStartedAt = NOT_SENDING;
+            subscription.draining.set(false);
+        }
+        if (!subscription.buffer.isEmpty()) {
+            scheduleDrain(subscription);
+        }
+    }
+
+    private boolean isStalled(Subscription subscription) {
+        long sendStartedAt = subscription.sendStartedAt;
+        return sendStartedAt != NOT_SENDING && System.nanoTime() - sendStartedAt > sendTimeout.toNanos();
+    }
+
+    /**
+     * Disconnects a subscriber; completing the emitter may wait for a blocked send, so it runs on a sender thread.
+     */
+    private void evict(Subscription subscription, String reason) {
+        if (remove(subscription)) {
+            loggingService.logWarn(
+                    "Подписка на события задач отключена: userId={}, причина={}", subscription.userId, reason);
+            try {
+                senderExecutor.execute(subscription.emitter::complete);
+            } catch (RejectedExecutionException e) {
+                // the node is shutting down and closes the connection itself
+            }
+        }
+    }
+
+    private boolean remove(Subscription subscription) {
+        if (!subscription.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        subscriptionsByUser.computeIfPresent(subscription.userId, (id, subscriptions) -> {
+            subscriptions.remove(subscription);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+        adminSubscriptions.remove(subscription);
+        subscription.buffer.clear();
+        subscriptionCount.decrementAndGet();
+        return true;
+    }
+
+    private static boolean isBefore(long txid, long id, long otherTxid, long otherId) {
+        return txid < otherTxid || txid == otherTxid && id < otherId;
+    }
+}
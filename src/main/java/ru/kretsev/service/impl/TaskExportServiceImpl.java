@@ -0,0 +1,181 @@
+package ru.kretsev.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.kretsev.dto.task.TaskFileFormat;
+import ru.kretsev.repository.TaskExportRow;
+import ru.kretsev.repository.TaskRepository;
+import ru.kretsev.service.LoggingService;
+import ru.kretsev.service.TaskExportService;
+
+/**
+ * Implementation of the TaskExportService streaming rows from a JDBC cursor straight to the output.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TaskExportServiceImpl implements TaskExportService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "task_id,title,description,status,priority,author_id,author_email,"
+            + "assignee_id,assignee_email,comment_id,comment_content,comment_author_id,comment_author_email";
+
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+    private final LoggingService loggingService;
+
+    @Override
+    public void exportTasks(TaskFileFormat format, boolean gzip, OutputStream outputStream) throws IOException {
+        loggingService.logInfo("Начало выгрузки задач: format={}, gzip={}", format, gzip);
+
+        // writers close their target when done; closing finishes gzip but must not close the response stream
+        OutputStream target = nonClosing(outputStream);
+        if (gzip) {
+            target = new GZIPOutputStream(target, BUFFER_SIZE);
+        }
+        try {
+            long rows = format == TaskFileFormat.CSV ? writeCsv(target) : writeNdjson(target);
+            loggingService.logInfo("Выгрузка задач завершена: format={}, rows={}", format, rows);
+        } catch (UncheckedIOException e) {
+            loggingService.logError("Ошибка записи выгрузки задач: {}", e.getMessage());
+            throw e.getCause();
+        }
+    }
+
+    private long writeNdjson(OutputStream target) throws IOException {
+        long[] rows = {0};
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(target)) {
+            Long[] currentTaskId = {null};
+            taskRepository.streamExportRows(row -> {
+                try {
+                    if (!Objects.equals(currentTaskId[0], row.taskId())) {
+                        if (currentTaskId[0] != null) {
+                            endTask(generator);
+                        }
+                        startTask(generator, row);
+                        currentTaskId[0] = row.taskId();
+                    }
+                    if (row.commentId() != null) {
+                        generator.writeStartObject();
+                        generator.writeNumberField("id", row.commentId());
+                        generator.writeStringField("content", row.commentContent());
+                        writeUser(generator, "author", row.commentAuthorId(), row.commentAuthorEmail());
+                        generator.writeEndObject();
+                    }
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (currentTaskId[0] != null) {
+                endTask(generator);
+            }
+        }
+        return rows[0];
+    }
+
+    private static void startTask(JsonGenerator generator, TaskExportRow row) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", row.taskId());
+        generator.writeStringField("title", row.title());
+        generator.writeStringField("description", row.description());
+        generator.writeStringField("status", row.status());
+        generator.writeStringField("priority", row.priority());
+        writeUser(generator, "author", row.authorId(), row.authorEmail());
+        writeUser(generator, "assignee", row.assigneeId(), row.assigneeEmail());
+        generator.writeArrayFieldStart("comments");
+    }
+
+    private static void endTask(JsonGenerator generator) throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static void writeUser(JsonGenerator generator, String field, Long id, String email) throws IOException {
+        if (id == null) {
+            generator.writeNullField(field);
+            return;
+        }
+        generator.writeObjectFieldStart(field);
+        generator.writeNumberField("id", id);
+        generator.writeStringField("email", email);
+        generator.writeEndObject();
+    }
+
+    private long writeCsv(OutputStream target) throws IOException {
+        long[] rows = {0};
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            writer.write(CSV_HEADER);
+            writer.write("\r\n");
+            taskRepository.streamExportRows(row -> {
+                try {
+                    writeCsvRow(
+                            writer,
+                            row.taskId(),
+                            row.title(),
+                            row.description(),
+                            row.status(),
+                            row.priority(),
+                            row.authorId(),
+                            row.authorEmail(),
+                            row.assigneeId(),
+                            row.assigneeEmail(),
+                            row.commentId(),
+                            row.commentContent(),
+                            row.commentAuthorId(),
+                            row.commentAuthorEmail());
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        return rows[0];
+    }
+
+    private static void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escapeCsv(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static OutputStream nonClosing(OutputStream outputStream) {
+        return new FilterOutputStream(outputStream) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package ru.kretsev.service.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Incremental reader of an import file, returning one task with its comments at a time.
+ */
+interface TaskImportReader extends Closeable {
+    /**
+     * Reads the next task. A task that cannot be read is returned with an error so the import can go on.
+     *
+     * @return the next task, or null at the end of the file
+     * @throws IOException if reading the file fails
+     */
+    ImportRow next() throws IOException;
+}
@@ -0,0 +1,290 @@
+package ru.kretsev.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.kretsev.dto.task.ImportErrorDto;
+import ru.kretsev.dto.task.ImportJobDto;
+import ru.kretsev.dto.task.ImportJobState;
+import ru.kretsev.dto.task.TaskFileFormat;
+import ru.kretsev.model.task.Priority;
+import ru.kretsev.model.task.TaskStatus;
+import ru.kretsev.repository.TaskImportRepository;
+import ru.kretsev.repository.TaskImportRepository.MergeResult;
+import ru.kretsev.repository.TaskImportRepository.TaskStaging;
+import ru.kretsev.repository.UserRepository;
+import ru.kretsev.service.ListGenerationService;
+import ru.kretsev.service.LoggingService;
+import ru.kretsev.service.TaskImportService;
+
+/**
+ * Implementation of the TaskImportService streaming parsed rows into a {@code COPY} staging table.
+ * Valid rows are merged in one transaction when the whole file has been read; invalid rows are reported and skipped.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskImportServiceImpl implements TaskImportService {
+    static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_CONCURRENT_JOBS = 2;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Duration JOB_RETENTION = Duration.ofHours(24);
+
+    private final TaskImportRepository taskImportRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final LoggingService loggingService;
+    private final ListGenerationService listGenerationService;
+
+    private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(
+            MAX_CONCURRENT_JOBS, Thread.ofPlatform().name("task-import-", 0).factory());
+
+    @Override
+    public ImportJobDto submitImport(TaskFileFormat format, InputStream inputStream) throws IOException {
+        purgeFinishedJobs();
+
+        Path file = Files.createTempFile("task-import-", "." + format.getExtension());
+        try {
+            Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        ImportJob job = new ImportJob(format);
+        jobs.put(job.id, job);
+        loggingService.logInfo("Импорт задач поставлен в очередь: jobId={}, format={}", job.id, format);
+        executor.execute(() -> {
+            try {
+                run(job, file);
+            } finally {
+                deleteQuietly(file);
+            }
+        });
+        return job.toDto();
+    }
+
+    @Override
+    public ImportJobDto importFile(TaskFileFormat format, Path file) {
+        ImportJob job = new ImportJob(format);
+        run(job, file);
+        return job.toDto();
+    }
+
+    @Override
+    public ImportJobDto getImportJob(UUID jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new EntityNotFoundException("Задание импорта не найдено");
+        }
+        return job.toDto();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(ImportJob job, Path file) {
+        job.state = ImportJobState.RUNNING;
+        loggingService.logInfo("Начало импорта задач: jobId={}, format={}", job.id, job.format);
+
+        Map<String, Optional<Long>> userIds = new HashMap<>();
+        try (TaskImportReader reader = openReader(job.format, file);
+                TaskStaging staging = taskImportRepository.openStaging()) {
+            long taskSeq = 0;
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                String error = row.error() != null ? row.error() : stage(row, ++taskSeq, staging, userIds);
+                if (error != null) {
+                    job.reject(row.line(), error);
+                }
+                job.rowsRead++;
+            }
+            MergeResult result = staging.commit();
+            listGenerationService.advanceAfterCommit();
+            job.complete(result);
+            loggingService.logInfo(
+                    "Импорт задач завершён: jobId={}, tasks={}, comments={}, rejected={}",
+                    job.id,
+                    result.tasks(),
+                    result.comments(),
+                    job.errorCount);
+        } catch (Exception e) {
+            job.fail(e.getMessage());
+            loggingService.logError("Ошибка импорта задач: jobId={}, error={}", job.id, e.getMessage());
+        }
+    }
+
+    private TaskImportReader openReader(TaskFileFormat format, Path file) throws IOException {
+        InputStreamReader decoder = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8);
+        BufferedReader reader = new BufferedReader(decoder, BUFFER_SIZE);
+        return format == TaskFileFormat.CSV
+                ? new CsvTaskImportReader(reader)
+                : new NdjsonTaskImportReader(reader, objectMapper);
+    }
+
+    /**
+     * Validates a task with its comments and stages it, or returns why it was rejected without staging anything.
+     */
+    private String stage(ImportRow row, long taskSeq, TaskStaging staging, Map<String, Optional<Long>> userIds)
+            throws SQLException {
+        if (row.title() == null || row.title().isBlank()) {
+            return "Не указано название задачи";
+        }
+        if (row.title().length() > MAX_TITLE_LENGTH) {
+            return "Название задачи длиннее " + MAX_TITLE_LENGTH + " символов";
+        }
+        TaskStatus status = parseEnum(TaskStatus.class, row.status(), TaskStatus.PENDING);
+        if (status == null) {
+            return "Неизвестный статус задачи: " + row.status();
+        }
+        Priority priority = parseEnum(Priority.class, row.priority(), Priority.MEDIUM);
+        if (priority == null) {
+            return "Неизвестный приоритет задачи: " + row.priority();
+        }
+        if (row.authorEmail() == null) {
+            return "Не указан автор задачи";
+        }
+        Long authorId = findUserId(row.authorEmail(), userIds);
+        if (authorId == null) {
+            return "Пользователь не найден: " + row.authorEmail();
+        }
+        Long assigneeId = null;
+        if (row.assigneeEmail() != null) {
+            assigneeId = findUserId(row.assigneeEmail(), userIds);
+            if (assigneeId == null) {
+                return "Пользователь не найден: " + row.assigneeEmail();
+            }
+        }
+
+        List<Long> commentAuthorIds = new ArrayList<>(row.comments().size());
+        for (ImportRow.Comment comment : row.comments()) {
+            if (comment.content() == null || comment.content().isBlank()) {
+                return "Пустой комментарий";
+            }
+            if (comment.authorEmail() == null) {
+                return "Не указан автор комментария";
+            }
+            Long commentAuthorId = findUserId(comment.authorEmail(), userIds);
+            if (commentAuthorId == null) {
+                return "Пользователь не найден: " + comment.authorEmail();
+            }
+            commentAuthorIds.add(commentAuthorId);
+        }
+
+        String description = row.description() == null ? "" : row.description();
+        staging.addTask(taskSeq, row.title(), description, status.name(), priority.name(), authorId, assigneeId);
+        for (int i = 0; i < row.comments().size(); i++) {
+            staging.addComment(taskSeq, i + 1L, row.comments().get(i).content(), commentAuthorIds.get(i));
+        }
+        return null;
+    }
+
+    private Long findUserId(String email, Map<String, Optional<Long>> userIds) {
+        return userIds.computeIfAbsent(email.strip(), userRepository::findIdByEmail).orElse(null);
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, E defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.strip().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void purgeFinishedJobs() {
+        Instant threshold = Instant.now().minus(JOB_RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            loggingService.logWarn("Не удалось удалить временный файл импорта {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Mutable state of a job, written by the thread running it and read by progress requests.
+     */
+    private static final class ImportJob {
+        private final UUID id = UUID.randomUUID();
+        private final TaskFileFormat format;
+        private final Instant createdAt = Instant.now();
+        private final List<ImportErrorDto> errors = new ArrayList<>();
+        private volatile ImportJobState state = ImportJobState.QUEUED;
+        private volatile long rowsRead;
+        private volatile long errorCount;
+        private volatile long tasksImported;
+        private volatile long commentsImported;
+        private volatile String failure;
+        private volatile Instant finishedAt;
+
+        private ImportJob(TaskFileFormat format) {
+            this.format = format;
+        }
+
+        private synchronized void reject(long line, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportErrorDto(line, message));
+            }
+            errorCount++;
+        }
+
+        private void complete(MergeResult result) {
+            tasksImported = result.tasks();
+            commentsImported = result.comments();
+            finishedAt = Instant.now();
+            state = ImportJobState.COMPLETED;
+        }
+
+        private void fail(String message) {
+            failure = message;
+            finishedAt = Instant.now();
+            state = ImportJobState.FAILED;
+        }
+
+        private synchronized ImportJobDto toDto() {
+            return new ImportJobDto(
+                    id,
+                    state,
+                    format,
+                    rowsRead,
+                    tasksImported,
+                    commentsImported,
+                    errorCount,
+                    List.copyOf(errors),
+                    failure,
+                    createdAt,
+                    finishedAt);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ru.kretsev.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.kretsev.repository.TaskRepository;
+import ru.kretsev.service.LoggingService;
+import ru.kretsev.service.TaskPurgeService;
+
+/**
+ * Implementation of the TaskPurgeService removing deleted tasks without long transactions.
+ * Comments are deleted first, a limited number per transaction, and a task row is deleted once it has no comments
+ * left, so the {@code ON DELETE CASCADE} never runs over a large number of comments. Batches skip rows locked by
+ * other transactions and give up on lock waits after {@value #LOCK_TIMEOUT_MILLIS} ms, so the purge never blocks
+ * requests for longer; several nodes can purge at the same time.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskPurgeServiceImpl implements TaskPurgeService {
+    static final int COMMENT_BATCH_SIZE = 1000;
+    static final int TASK_BATCH_SIZE = 100;
+    static final int MAX_BATCHES_PER_RUN = 100;
+    private static final long LOCK_TIMEOUT_MILLIS = 500;
+    private static final Duration LOCK_TIMEOUT = Duration.ofMillis(LOCK_TIMEOUT_MILLIS);
+
+    private final TaskRepository taskRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final LoggingService loggingService;
+
+    @Value("${task-deletion.restore-period:P7D}")
+    private Duration restorePeriod;
+
+    /**
+     * A purge statement of the repository.
+     */
+    @FunctionalInterface
+    private interface PurgeBatch {
+        int purge(Instant deletedBefore, int batchSize, Duration lockTimeout);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${task-deletion.purge-interval:600000}")
+    public void purgeDeletedTasks() {
+        Instant deletedBefore = Instant.now().minus(restorePeriod);
+        long comments = 0;
+        long tasks = 0;
+        try {
+            comments = purge(taskRepository::purgeDeletedComments, deletedBefore, COMMENT_BATCH_SIZE);
+            tasks = purge(taskRepository::purgeDeletedTasks, deletedBefore, TASK_BATCH_SIZE);
+        } catch (PessimisticLockingFailureException e) {
+            loggingService.logWarn("Очистка удалённых задач прервана конфликтом блокировок: {}", e.getMessage());
+        }
+        if (comments > 0 || tasks > 0) {
+            loggingService.logInfo(
+                    "Удалённые задачи очищены: tasks={}, comments={}, deletedBefore={}",
+                    tasks,
+                    comments,
+                    deletedBefore);
+        }
+    }
+
+    /**
+     * Runs batches in separate transactions until one is not full or the batch limit of the run is reached.
+     */
+    private long purge(PurgeBatch batch, Instant deletedBefore, int batchSize) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long purged = 0;
+        int batchPurged = batchSize;
+        for (int i = 0; i < MAX_BATCHES_PER_RUN && batchPurged == batchSize; i++) {
+            Integer result = transaction.execute(status -> batch.purge(deletedBefore, batchSize, LOCK_TIMEOUT));
+            batchPurged = result == null ? 0 : result;
+            purged += batchPurged;
+        }
+        return purged;
+    }
+}
@@ -1,19 +1,55 @@
 package ru.kretsev.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.kretsev.auth.AuthenticationFacade;
+import ru.kretsev.cache.CacheDependency;
+import ru.kretsev.cache.CacheDependencyTracker;
+import ru.kretsev.dto.TaggedDto;
+import ru.kretsev.dto.page.Cursor;
+import ru.kretsev.dto.page.CursorPage;
+import ru.kretsev.dto.page.ListScope;
+import ru.kretsev.dto.page.PageMode;
+import ru.kretsev.dto.page.Pages;
+import ru.kretsev.dto.task.TaskBulkUpdateRequest;
 import ru.kretsev.dto.task.TaskDto;
+import ru.kretsev.dto.task.TaskFilter;
+import ru.kretsev.dto.task.TaskPatch;
+import ru.kretsev.dto.task.TaskSort;
+import ru.kretsev.dto.task.TaskSummaryDto;
+import ru.kretsev.event.CommentDeleted;
+import ru.kretsev.event.DomainEvent;
+import ru.kretsev.event.TaskAssigned;
+import ru.kretsev.event.TaskCreated;
+import ru.kretsev.event.TaskDeleted;
+import ru.kretsev.event.TaskRestored;
+import ru.kretsev.event.TaskUpdated;
 import ru.kretsev.mapper.TaskMapper;
 import ru.kretsev.model.comment.Comment;
 import ru.kretsev.model.task.Priority;
@@ -23,8 +59,12 @@ import ru.kretsev.model.user.Role;
 import ru.kretsev.model.user.User;
 import ru.kretsev.repository.CommentRepository;
 import ru.kretsev.repository.TaskRepository;
+import ru.kretsev.repository.TaskSearchHit;
+import ru.kretsev.repository.TaskSpecifications;
 import ru.kretsev.repository.UserRepository;
+import ru.kretsev.service.DomainEventService;
 import ru.kretsev.service.EntityService;
+import ru.kretsev.service.ListGenerationService;
 import ru.kretsev.service.LoggingService;
 import ru.kretsev.service.TaskService;
 
@@ -35,6 +75,8 @@ import ru.kretsev.service.TaskService;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class TaskServiceImpl implements TaskService {
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final TaskRepository taskRepository;
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
@@ -42,71 +84,202 @@ public class TaskServiceImpl implements TaskService {
     private final AuthenticationFacade authenticationFacade;
     private final EntityService entityService;
     private final LoggingService loggingService;
+    private final CacheManager cacheManager;
+    private final CacheDependencyTracker cacheDependencyTracker;
+    private final ListGenerationService listGenerationService;
+    private final DomainEventService domainEventService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${pagination.exact-count-threshold:10000}")
+    private long exactCountThreshold;
+
+    @Value("${task-deletion.restore-period:P7D}")
+    private Duration restorePeriod;
 
     @Override
     @Transactional
-    public TaskDto createTask(TaskDto taskDto, User user) {
+    public TaggedDto<TaskDto> createTask(TaskDto taskDto, User user) {
         loggingService.logInfo("Попытка создания задачи: title={}, author={}", taskDto.title(), user.getEmail());
 
-        Task task = taskMapper.toEntity(taskDto);
-        task.setAuthor(user);
-        task.setStatus(TaskStatus.PENDING);
-        taskRepository.save(task);
+        Task task = taskRepository.save(newTask(taskDto, user));
+        domainEventService.publish(created(task, user));
+        listGenerationService.advanceAfterCommit(List.of(ListScope.user(user.getId())));
 
         loggingService.logInfo("Задача успешно создана: id={}, title={}", task.getId(), task.getTitle());
-        return taskMapper.toDto(task);
+        return tag(task);
     }
 
     @Override
     @Transactional
-    public TaskDto assignTask(Long taskId, Long userId) {
+    public List<Long> createTasks(List<TaskDto> taskDtos, User user) {
+        if (taskDtos == null || taskDtos.isEmpty() || taskDtos.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Количество задач в пакете должно быть от 1 до " + MAX_BATCH_SIZE);
+        }
+        loggingService.logInfo(
+                "Попытка пакетного создания задач: count={}, author={}", taskDtos.size(), user.getEmail());
+
+        List<Task> tasks = taskRepository.saveAll(taskDtos.stream().map(taskDto -> newTask(taskDto, user)).toList());
+        domainEventService.publishAll(tasks.stream().map(task -> created(task, user)).toList());
+        listGenerationService.advanceAfterCommit(List.of(ListScope.user(user.getId())));
+
+        loggingService.logInfo("Задачи успешно созданы: count={}", tasks.size());
+        return tasks.stream().map(Task::getId).toList();
+    }
+
+    @Override
+    @Transactional
+    public List<Long> updateTasks(TaskBulkUpdateRequest request, User user) {
+        TaskPatch patch = request.patch();
+        TaskFilter filter = request.filter() == null ? TaskFilter.empty() : request.filter();
+        List<Long> ids = request.ids() == null || request.ids().isEmpty() ? null : request.ids();
+        if (patch == null || patch.isEmpty()) {
+            throw new IllegalArgumentException("Не указаны изменения для задач");
+        }
+        if ((ids == null) == filter.isEmpty()) {
+            throw new IllegalArgumentException("Задачи выбираются либо по списку ID, либо по фильтру");
+        }
+        if (ids != null && ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Количество задач в пакете должно быть от 1 до " + MAX_BATCH_SIZE);
+        }
+        loggingService.logInfo(
+                "Попытка массового обновления задач: ids={}, filter={}, patch={}, user={}",
+                ids,
+                filter,
+                patch,
+                user.getEmail());
+
+        boolean isAdmin = user.getRole().equals(Role.ROLE_ADMIN);
+        if (!isAdmin && (patch.assigneeId() != null || !isOwnOrAny(filter.authorId(), user))) {
+            loggingService.logWarn("Попытка массового обновления задач без прав: user={}", user.getEmail());
+            throw new AccessDeniedException("Нет прав для такого изменения задач");
+        }
+        if (patch.assigneeId() != null) {
+            entityService.findEntityOrElseThrow(userRepository, patch.assigneeId(), "Пользователь не найден");
+        }
+
+        TaskFilter scope = isAdmin ? filter : filter.withAuthorId(user.getId());
+        List<Long> updatedIds = taskRepository.updateMatching(ids, scope, patch, MAX_BATCH_SIZE + 1);
+        if (updatedIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    "Фильтру соответствует больше " + MAX_BATCH_SIZE + " задач, уточните фильтр");
+        }
+        domainEventService.publishAll(updatedIds.stream().map(id -> bulkUpdated(id, patch)).toList());
+        evictTasksAfterCompletion(updatedIds);
+        if (isAdmin) {
+            listGenerationService.advanceAfterCommit();
+        } else {
+            listGenerationService.advanceAfterCommit(List.of(ListScope.user(user.getId())));
+        }
+
+        loggingService.logInfo("Задачи успешно обновлены: count={}", updatedIds.size());
+        return updatedIds;
+    }
+
+    @Override
+    @CachePut(value = "tasks", key = "#taskId")
+    @Transactional
+    public TaggedDto<TaskDto> assignTask(Long taskId, Long userId, Long expectedVersion) {
         loggingService.logInfo("Попытка назначения задачи пользователю задачи: id={}, userId={}", taskId, userId);
 
         Task task = takeTask(taskId);
+        checkVersion(task, expectedVersion);
         User user = entityService.findEntityOrElseThrow(userRepository, userId, "Пользователь не найден");
+        Long previousAssigneeId = task.getAssignee() == null ? null : task.getAssignee().getId();
         task.setAssignee(user);
-        taskRepository.save(task);
+        saveChecked(task);
+        domainEventService.publish(new TaskAssigned(taskId, userId, previousAssigneeId));
+        listGenerationService.advanceAfterCommit(List.of(ListScope.user(task.getAuthor().getId())));
 
         loggingService.logInfo(
                 "Задача успешно назначена пользователю: id={}, title={}, assignee={}",
                 task.getId(),
                 task.getTitle(),
                 user.getEmail());
-        return taskMapper.toDto(task);
+        return tag(task);
+    }
+
+    @Override
+    public Slice<TaskSummaryDto> getAllTasks(TaskFilter filter, TaskSort sort, int page, int size, PageMode mode) {
+        Pageable pageable = PageRequest.of(page, size, sort.toSort());
+        Specification<Task> specification = TaskSpecifications.matching(filter);
+
+        if (mode == PageMode.SLICE) {
+            return taskRepository.findSlice(specification, pageable).map(taskMapper::toSummaryDto);
+        }
+        if (mode == PageMode.APPROXIMATE) {
+            long estimate = taskRepository.estimateCount(filter);
+            if (estimate >= exactCountThreshold) {
+                Slice<Task> slice = taskRepository.findSlice(specification, pageable);
+                return Pages.withEstimatedTotal(slice, estimate).map(taskMapper::toSummaryDto);
+            }
+        }
+        return taskRepository.findAll(specification, pageable).map(taskMapper::toSummaryDto);
     }
 
     @Override
-    public Page<TaskDto> getAllTasks(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
+    public CursorPage<TaskSummaryDto> getAllTasks(TaskFilter filter, TaskSort sort, String after, int size) {
+        return findTasksAfter(filter, sort, after, size);
+    }
 
-        return taskRepository.findAll(pageable).map(taskMapper::toDto);
+    @Override
+    public CursorPage<TaskSummaryDto> searchTasks(User user, String query, String after, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Поисковый запрос не должен быть пустым");
+        }
+        Cursor cursor = Cursor.decode(after);
+        double afterRank = cursor == null ? Double.MAX_VALUE : parseRank(cursor.value());
+        long afterId = cursor == null ? Long.MAX_VALUE : cursor.id();
+
+        boolean isAdmin = user.getRole().equals(Role.ROLE_ADMIN);
+        List<TaskSearchHit> hits = taskRepository.searchRanked(
+                query, user.getId(), isAdmin, afterRank, afterId, CursorPage.fetchLimit(size));
+        Map<Long, Task> tasksById = taskRepository.findByIdIn(hits.stream().map(TaskSearchHit::getId).toList()).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<TaskSearchHit> foundHits = hits.stream()
+                .filter(hit -> tasksById.containsKey(hit.getId()))
+                .toList();
+
+        return CursorPage.of(
+                foundHits,
+                size,
+                hit -> new Cursor(hit.getId(), Double.toString(hit.getRank())),
+                hit -> taskMapper.toSummaryDto(tasksById.get(hit.getId())));
     }
 
     @Override
-    @Cacheable(value = "tasks", key = "#taskId")
-    public TaskDto getTask(Long taskId) {
+    @Cacheable(value = "tasks", key = "#taskId", sync = true)
+    public TaggedDto<TaskDto> getTask(Long taskId) {
         loggingService.logInfo("Задача с id={} не найдена в кэше, выполняется запрос к базе данных", taskId);
         Task task = takeTask(taskId);
 
-        return taskMapper.toDto(task);
+        return tag(task);
     }
 
     @Override
-    public List<TaskDto> getUserTasks(User user, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
+    public List<TaskSummaryDto> getUserTasks(User user, TaskFilter filter, TaskSort sort, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, sort.toSort());
 
-        return taskRepository.findByAuthor(user, pageable).stream()
-                .map(taskMapper::toDto)
+        return taskRepository
+                .findSlice(TaskSpecifications.matching(filter.withAuthorId(user.getId())), pageable)
+                .stream()
+                .map(taskMapper::toSummaryDto)
                 .toList();
     }
 
+    @Override
+    public CursorPage<TaskSummaryDto> getUserTasks(
+            User user, TaskFilter filter, TaskSort sort, String after, int size) {
+        return findTasksAfter(filter.withAuthorId(user.getId()), sort, after, size);
+    }
+
     @Override
     @CachePut(value = "tasks", key = "#taskId")
     @Transactional
-    public TaskDto updateTask(Long taskId, TaskDto taskDto, User user) {
+    public TaggedDto<TaskDto> updateTask(Long taskId, TaskDto taskDto, Long expectedVersion, User user) {
         loggingService.logInfo("Обновление задачи: id={}, user={}, обновление кэша", taskId, user.getEmail());
 
         Task task = takeTask(taskId);
+        checkVersion(task, expectedVersion);
 
         if (!task.getAuthor().equals(user) && !user.getRole().equals(Role.ROLE_ADMIN)) {
             loggingService.logWarn("Попытка обновления задачи без прав: taskId={}, user={}", taskId, user.getEmail());
@@ -117,10 +290,14 @@ public class TaskServiceImpl implements TaskService {
         task.setDescription(taskDto.description());
         task.setStatus(TaskStatus.valueOf(taskDto.status()));
         task.setPriority(Priority.valueOf(taskDto.priority()));
-        taskRepository.save(task);
+        saveChecked(task);
+        cacheDependencyTracker.invalidateAfterCommit(CacheDependency.task(taskId));
+        domainEventService.publish(new TaskUpdated(taskId));
+        listGenerationService.advanceAfterCommit(
+                List.of(ListScope.user(task.getAuthor().getId()), ListScope.task(taskId)));
 
         loggingService.logInfo("Задача успешно обновлена: id={}, title={}", taskId, task.getTitle());
-        return taskMapper.toDto(task);
+        return tag(task);
     }
 
     @Override
@@ -137,7 +314,42 @@ public class TaskServiceImpl implements TaskService {
             throw new AccessDeniedException("Вы можете удалить только свою задачу.");
         }
 
-        taskRepository.deleteById(taskId);
+        task.setDeletedAt(Instant.now());
+        saveChecked(task);
+        cacheDependencyTracker.invalidateAfterCommit(CacheDependency.task(taskId));
+        domainEventService.publish(new TaskDeleted(taskId, task.getAuthor().getId()));
+        listGenerationService.advanceAfterCommit(
+                List.of(ListScope.user(task.getAuthor().getId()), ListScope.task(taskId)));
+    }
+
+    @Override
+    @CachePut(value = "tasks", key = "#taskId")
+    @Transactional
+    public TaggedDto<TaskDto> restoreTask(Long taskId) {
+        loggingService.logInfo("Восстановление удалённой задачи: id={}", taskId);
+
+        Task task = taskRepository
+                .findDeletedById(taskId, Instant.now().minus(restorePeriod))
+                .orElseThrow(() -> {
+                    loggingService.logError("Удалённая задача не найдена: id={}", taskId);
+                    return new EntityNotFoundException("Удалённая задача не найдена или срок восстановления истёк");
+                });
+        String currentUserEmail = authenticationFacade.getCurrentUserEmail();
+        boolean isAdmin = authenticationFacade.getCurrentUserRoles().contains("ROLE_ADMIN");
+        if (!isAdmin && !task.getAuthor().getEmail().equals(currentUserEmail)) {
+            loggingService.logWarn(
+                    "Попытка восстановления задачи без прав: taskId={}, user={}", taskId, currentUserEmail);
+            throw new AccessDeniedException("Вы можете восстановить только свою задачу.");
+        }
+
+        task.setDeletedAt(null);
+        saveChecked(task);
+        domainEventService.publish(new TaskRestored(taskId, task.getAuthor().getId()));
+        listGenerationService.advanceAfterCommit(
+                List.of(ListScope.user(task.getAuthor().getId()), ListScope.task(taskId)));
+
+        loggingService.logInfo("Задача успешно восстановлена: id={}, title={}", taskId, task.getTitle());
+        return tag(task);
     }
 
     @Override
@@ -162,6 +374,112 @@ public class TaskServiceImpl implements TaskService {
         }
 
         commentRepository.delete(comment);
+        cacheDependencyTracker.invalidateAfterCommit(CacheDependency.taskComments(taskId));
+        domainEventService.publish(new CommentDeleted(commentId, taskId));
+        listGenerationService.advanceAfterCommit(
+                List.of(ListScope.user(comment.getTask().getAuthor().getId()), ListScope.task(taskId)));
+    }
+
+    private CursorPage<TaskSummaryDto> findTasksAfter(TaskFilter filter, TaskSort sort, String after, int size) {
+        Cursor cursor = Cursor.decode(after);
+        int limit = CursorPage.fetchLimit(size);
+
+        Specification<Task> specification =
+                TaskSpecifications.matching(filter).and(TaskSpecifications.after(sort, cursor));
+        List<Task> tasks = taskRepository.findAllLimited(specification, sort.toSort(), limit);
+        return CursorPage.of(tasks, size, sort::cursorOf, taskMapper::toSummaryDto);
+    }
+
+    private static double parseRank(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NullPointerException | NumberFormatException e) {
+            throw new IllegalArgumentException("Курсор не соответствует поисковому запросу", e);
+        }
+    }
+
+    /**
+     * Rejects a change based on a stale version. The cached DTO is evicted, since a concurrent
+     * {@code @CachePut} may have left an older state there, so the client re-reads the current one.
+     */
+    private void checkVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            loggingService.logWarn(
+                    "Конфликт версий задачи: id={}, expected={}, actual={}",
+                    task.getId(),
+                    expectedVersion,
+                    task.getVersion());
+            evictTasksAfterCompletion(List.of(task.getId()));
+            throw new ObjectOptimisticLockingFailureException(Task.class, task.getId());
+        }
+    }
+
+    /**
+     * Maps the task and tags the DTO by content, since its comments change without a new task version.
+     */
+    private TaggedDto<TaskDto> tag(Task task) {
+        return ContentTags.tag(objectMapper, task.getVersion(), taskMapper.toDto(task));
+    }
+
+    /**
+     * Flushes the change so a concurrent update is detected by the version check before the result is cached.
+     */
+    private void saveChecked(Task task) {
+        try {
+            taskRepository.saveAndFlush(task);
+        } catch (OptimisticLockingFailureException e) {
+            loggingService.logWarn("Задача изменена параллельным запросом: id={}", task.getId());
+            evictTasksAfterCompletion(List.of(task.getId()));
+            throw e;
+        }
+    }
+
+    private static boolean isOwnOrAny(Long authorId, User user) {
+        return authorId == null || authorId.equals(user.getId());
+    }
+
+    /**
+     * Evicts the tasks once the transaction completes, whether it commits or rolls back, or at once without one.
+     */
+    private void evictTasksAfterCompletion(Collection<Long> taskIds) {
+        Cache cache = cacheManager.getCache("tasks");
+        if (cache == null || taskIds.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    taskIds.forEach(cache::evict);
+                }
+            });
+        } else {
+            taskIds.forEach(cache::evict);
+        }
+    }
+
+    private static TaskCreated created(Task task, User author) {
+        Long assigneeId = task.getAssignee() == null ? null : task.getAssignee().getId();
+        return new TaskCreated(task.getId(), author.getId(), assigneeId);
+    }
+
+    /**
+     * Builds the event of a bulk update, which does not read the previous assignees.
+     */
+    private static DomainEvent bulkUpdated(Long taskId, TaskPatch patch) {
+        return patch.assigneeId() == null
+                ? new TaskUpdated(taskId)
+                : new TaskAssigned(taskId, patch.assigneeId(), null);
+    }
+
+    private Task newTask(TaskDto taskDto, User user) {
+        Task task = taskMapper.toEntity(taskDto);
+        task.setAuthor(user);
+        task.setStatus(TaskStatus.PENDING);
+        if (task.getPriority() == null) {
+            task.setPriority(Priority.MEDIUM);
+        }
+        return task;
     }
 
     private Task takeTask(Long taskId) {
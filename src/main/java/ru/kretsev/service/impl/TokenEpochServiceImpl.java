@@ -0,0 +1,92 @@
+package ru.kretsev.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.kretsev.cache.CacheInvalidationBroadcaster;
+import ru.kretsev.cache.InvalidationTarget;
+import ru.kretsev.model.user.User;
+import ru.kretsev.repository.UserRepository;
+import ru.kretsev.service.TokenEpochService;
+
+/**
+ * Implementation of the TokenEpochService keeping the epochs of active users in a local Caffeine cache.
+ * An epoch is loaded once per user and node and kept for a short time, which bounds how long a missed change keeps
+ * revoked tokens valid. An advanced epoch is also dropped from the cache after commit, locally and on the other nodes
+ * when invalidation across nodes is enabled, so the next check loads the new value.
+ */
+@Service
+public class TokenEpochServiceImpl implements TokenEpochService {
+    private static final String TOKEN_EPOCHS = "token-epochs";
+
+    private final UserRepository userRepository;
+    private final CacheInvalidationBroadcaster broadcaster;
+    private final Cache<Long, Long> epochs;
+
+    /**
+     * Creates the service.
+     *
+     * @param userRepository the repository the epochs are loaded from
+     * @param broadcaster the broadcaster of changes to the other nodes, if enabled
+     * @param maximumSize the maximum number of users whose epochs are kept
+     * @param ttl the time after which a kept epoch is loaded again
+     */
+    public TokenEpochServiceImpl(
+            UserRepository userRepository,
+            ObjectProvider<CacheInvalidationBroadcaster> broadcaster,
+            @Value("${token-epochs.maximum-size:100000}") long maximumSize,
+            @Value("${token-epochs.ttl:30s}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.broadcaster = broadcaster.getIfAvailable();
+        this.epochs = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        if (this.broadcaster != null) {
+            this.broadcaster.register(TOKEN_EPOCHS, new InvalidationTarget() {
+                @Override
+                public void evictLocally(Object key) {
+                    epochs.invalidate(key);
+                }
+
+                @Override
+                public void clearLocally() {
+                    epochs.invalidateAll();
+                }
+            });
+        }
+    }
+
+    @Override
+    public boolean isCurrent(Long userId, long epoch) {
+        Long current = epochs.get(userId, id -> userRepository.findTokenEpochById(id).orElse(null));
+        return current != null && current == epoch;
+    }
+
+    @Override
+    public void advance(User user) {
+        user.setTokenEpoch(user.getTokenEpoch() + 1);
+        Long userId = user.getId();
+        Runnable refresh = () -> {
+            epochs.invalidate(userId);
+            if (broadcaster != null) {
+                broadcaster.keyChanged(TOKEN_EPOCHS, userId);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh.run();
+                }
+            });
+        } else {
+            refresh.run();
+        }
+    }
+}
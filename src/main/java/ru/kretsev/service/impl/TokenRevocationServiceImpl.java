@@ -0,0 +1,124 @@
+package ru.kretsev.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.kretsev.repository.TokenRevocationRepository;
+import ru.kretsev.repository.TokenRevocationRepository.RevokedToken;
+import ru.kretsev.service.LoggingService;
+import ru.kretsev.service.TokenRevocationService;
+
+/**
+ * Implementation of the TokenRevocationService keeping the revoked tokens in a Bloom filter backed by an exact set.
+ * The set is synced from the {@code tokens} table by a cursor over {@code (revoked_txid, id)}, so each run reads only
+ * the revocations committed since the previous one, and the first run after a start loads all unexpired revocations.
+ * A revoked session is kept in the same set under its ID with a prefix, which no token ID has.
+ */
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+    static final int SYNC_BATCH_SIZE = 1000;
+    static final int PURGE_BATCH_SIZE = 1000;
+    private static final String SESSION_PREFIX = "sid:";
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final LoggingService loggingService;
+    private final Duration tokenLifetime;
+    private final RevokedTokens revokedTokens;
+    private long cursorTxid;
+    private long cursorId;
+
+    /**
+     * Creates the service.
+     *
+     * @param tokenRevocationRepository the repository of revocations
+     * @param loggingService the logging service
+     * @param expirationInSeconds the lifetime of access tokens
+     * @param expectedTokens the number of revoked tokens the Bloom filter is sized for
+     */
+    public TokenRevocationServiceImpl(
+            TokenRevocationRepository tokenRevocationRepository,
+            LoggingService loggingService,
+            @Value("${jwt.expiration}") long expirationInSeconds,
+            @Value("${token-revocation.expected-tokens:100000}") int expectedTokens) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.loggingService = loggingService;
+        this.tokenLifetime = Duration.ofSeconds(expirationInSeconds);
+        this.revokedTokens = new RevokedTokens(expectedTokens);
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revokedTokens.contains(tokenId);
+    }
+
+    @Override
+    public void revoke(String tokenId, Long userId, Instant expiresAt) {
+        tokenRevocationRepository.revoke(tokenId, userId, expiresAt);
+        Runnable apply = () -> revokedTokens.add(tokenId, expiresAt);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    @Override
+    public void revoke(String tokenId) {
+        revoke(tokenId, null, Instant.now().plus(tokenLifetime));
+    }
+
+    @Override
+    public boolean isSessionRevoked(String sessionId) {
+        return sessionId != null && revokedTokens.contains(SESSION_PREFIX + sessionId);
+    }
+
+    @Override
+    public void revokeSession(UUID sessionId, Long userId) {
+        revoke(SESSION_PREFIX + sessionId, userId, Instant.now().plus(tokenLifetime));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${token-revocation.sync-interval:1000}")
+    public synchronized void syncRevocations() {
+        List<RevokedToken> batch;
+        do {
+            batch = tokenRevocationRepository.findAfter(cursorTxid, cursorId, SYNC_BATCH_SIZE);
+            for (RevokedToken token : batch) {
+                revokedTokens.add(token.tokenId(), token.expiresAt());
+                cursorTxid = token.txid();
+                cursorId = token.id();
+            }
+        } while (batch.size() == SYNC_BATCH_SIZE);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${token-revocation.purge-interval:600000}")
+    public void purgeExpiredRevocations() {
+        Instant now = Instant.now();
+        long purged = 0;
+        int batchPurged;
+        do {
+            batchPurged = tokenRevocationRepository.purgeExpired(now, PURGE_BATCH_SIZE);
+            purged += batchPurged;
+        } while (batchPurged == PURGE_BATCH_SIZE);
+        int dropped = revokedTokens.removeExpired(now);
+        if (purged > 0 || dropped > 0) {
+            loggingService.logInfo(
+                    "Отзывы истёкших токенов удалены: purged={}, dropped={}, revoked={}",
+                    purged,
+                    dropped,
+                    revokedTokens.size());
+        }
+    }
+}
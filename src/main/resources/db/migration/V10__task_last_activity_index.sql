@@ -0,0 +1,2 @@
+-- Sort and seek by (last_activity_at, id); CONCURRENTLY keeps writes going while the index is built.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_last_activity_at_id ON tasks (last_activity_at, id);
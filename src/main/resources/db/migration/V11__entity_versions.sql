@@ -0,0 +1,3 @@
+-- Optimistic locking versions; constant defaults are added without rewriting the tables.
+ALTER TABLE tasks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE comments ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,87 @@
+-- Change log of tasks read by the delta-sync feed. Rows are written by triggers in the transaction of the change,
+-- so bulk updates, imports and comment counters are recorded the same way as single updates.
+-- The feed is ordered by the writing transaction ID: once a transaction ID is below the snapshot xmin of a reader,
+-- no row with a smaller ID can still commit, so a cursor never skips rows of transactions committed late.
+CREATE TABLE task_changes
+(
+    id                   BIGSERIAL PRIMARY KEY,
+    txid                 XID8                     NOT NULL DEFAULT pg_current_xact_id(),
+    task_id              BIGINT                   NOT NULL,
+    change_type          VARCHAR(20)              NOT NULL,
+    author_id            BIGINT,
+    assignee_id          BIGINT,
+    previous_assignee_id BIGINT,
+    changed_at           TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_task_changes_txid_id ON task_changes (txid, id);
+
+-- The last change removed by the retention purge; cursors before it can no longer be served.
+CREATE TABLE task_change_horizon
+(
+    singleton BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (singleton),
+    txid      XID8   NOT NULL,
+    change_id BIGINT NOT NULL
+);
+
+INSERT INTO task_change_horizon (txid, change_id)
+VALUES ('0', 0);
+
+CREATE FUNCTION tasks_inserted_changes() RETURNS trigger AS
+$$
+BEGIN
+    INSERT INTO task_changes (task_id, change_type, author_id, assignee_id)
+    SELECT id, 'CREATED', author_id, assignee_id
+    FROM inserted_tasks
+    ORDER BY id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION tasks_updated_changes() RETURNS trigger AS
+$$
+BEGIN
+    INSERT INTO task_changes (task_id, change_type, author_id, assignee_id, previous_assignee_id)
+    SELECT n.id,
+           CASE WHEN n.assignee_id IS DISTINCT FROM o.assignee_id THEN 'ASSIGNED' ELSE 'UPDATED' END,
+           n.author_id,
+           n.assignee_id,
+           o.assignee_id
+    FROM updated_tasks n
+             JOIN previous_tasks o ON o.id = n.id
+    ORDER BY n.id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION tasks_deleted_changes() RETURNS trigger AS
+$$
+BEGIN
+    INSERT INTO task_changes (task_id, change_type, author_id, assignee_id)
+    SELECT id, 'DELETED', author_id, assignee_id
+    FROM deleted_tasks
+    ORDER BY id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_tasks_inserted_changes
+    AFTER INSERT
+    ON tasks
+    REFERENCING NEW TABLE AS inserted_tasks
+    FOR EACH STATEMENT
+EXECUTE FUNCTION tasks_inserted_changes();
+
+CREATE TRIGGER trg_tasks_updated_changes
+    AFTER UPDATE
+    ON tasks
+    REFERENCING OLD TABLE AS previous_tasks NEW TABLE AS updated_tasks
+    FOR EACH STATEMENT
+EXECUTE FUNCTION tasks_updated_changes();
+
+CREATE TRIGGER trg_tasks_deleted_changes
+    AFTER DELETE
+    ON tasks
+    REFERENCING OLD TABLE AS deleted_tasks
+    FOR EACH STATEMENT
+EXECUTE FUNCTION tasks_deleted_changes();
@@ -0,0 +1,43 @@
+-- Comment changes are recorded in the task change log, so pushed events cover comments written on any node.
+-- Comments removed by the cascade of a task deletion are not recorded: the task row is already gone when the cascade
+-- runs, and the DELETED change of the task covers them.
+ALTER TABLE task_changes
+    ADD COLUMN comment_id BIGINT;
+
+CREATE FUNCTION comments_inserted_changes() RETURNS trigger AS
+$$
+BEGIN
+    INSERT INTO task_changes (task_id, change_type, author_id, assignee_id, comment_id)
+    SELECT c.task_id, 'COMMENT_ADDED', t.author_id, t.assignee_id, c.id
+    FROM inserted_comments c
+             JOIN tasks t ON t.id = c.task_id
+    ORDER BY c.id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION comments_deleted_changes() RETURNS trigger AS
+$$
+BEGIN
+    INSERT INTO task_changes (task_id, change_type, author_id, assignee_id, comment_id)
+    SELECT c.task_id, 'COMMENT_DELETED', t.author_id, t.assignee_id, c.id
+    FROM deleted_comments c
+             JOIN tasks t ON t.id = c.task_id
+    ORDER BY c.id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_comments_inserted_changes
+    AFTER INSERT
+    ON comments
+    REFERENCING NEW TABLE AS inserted_comments
+    FOR EACH STATEMENT
+EXECUTE FUNCTION comments_inserted_changes();
+
+CREATE TRIGGER trg_comments_deleted_changes
+    AFTER DELETE
+    ON comments
+    REFERENCING OLD TABLE AS deleted_comments
+    FOR EACH STATEMENT
+EXECUTE FUNCTION comments_deleted_changes();
@@ -0,0 +1,18 @@
+-- Outbox of domain events, written in the transaction of the change and deleted once the relay has dispatched them.
+-- The relay reads events in the order of the writing transaction and only below the snapshot xmin, like the task
+-- change feed, so an event of a transaction committed late is never dispatched after later events.
+CREATE TABLE domain_events
+(
+    id         BIGSERIAL PRIMARY KEY,
+    txid       XID8                     NOT NULL DEFAULT pg_current_xact_id(),
+    event_type VARCHAR(50)              NOT NULL,
+    task_id    BIGINT,
+    payload    JSONB                    NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    attempts   INTEGER                  NOT NULL DEFAULT 0,
+    last_error TEXT,
+    failed_at  TIMESTAMP WITH TIME ZONE
+);
+
+-- Events whose listeners keep failing are parked with failed_at and stay out of the relay order.
+CREATE INDEX idx_domain_events_pending ON domain_events (txid, id) WHERE failed_at IS NULL;
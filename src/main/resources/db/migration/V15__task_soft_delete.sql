@@ -0,0 +1,84 @@
+-- Deleted tasks are only marked, so a request never cascades over thousands of comments; the purge job removes them
+-- in small batches once the restore period has passed. The column has no default, so it is added without a rewrite.
+ALTER TABLE tasks
+    ADD COLUMN deleted_at TIMESTAMP WITH TIME ZONE;
+
+CREATE INDEX idx_tasks_deleted_at ON tasks (deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- The purge deletes the comments of deleted tasks without rewriting the task rows for their counters.
+CREATE OR REPLACE FUNCTION comments_deleted_count_update() RETURNS trigger AS
+$$
+BEGIN
+    UPDATE tasks t
+    SET comment_count    = t.comment_count - c.n,
+        last_activity_at = now()
+    FROM (SELECT task_id, count(*) AS n FROM deleted_comments GROUP BY task_id) c
+    WHERE t.id = c.task_id
+      AND t.deleted_at IS NULL;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+-- Marking a task deleted is recorded as its deletion and clearing the mark as its restoration. Updates of a deleted
+-- task are not recorded.
+CREATE OR REPLACE FUNCTION tasks_updated_changes() RETURNS trigger AS
+$$
+BEGIN
+    INSERT INTO task_changes (task_id, change_type, author_id, assignee_id, previous_assignee_id)
+    SELECT n.id,
+           CASE
+               WHEN n.deleted_at IS NOT NULL THEN 'DELETED'
+               WHEN o.deleted_at IS NOT NULL THEN 'RESTORED'
+               WHEN n.assignee_id IS DISTINCT FROM o.assignee_id THEN 'ASSIGNED'
+               ELSE 'UPDATED'
+               END,
+           n.author_id,
+           n.assignee_id,
+           o.assignee_id
+    FROM updated_tasks n
+             JOIN previous_tasks o ON o.id = n.id
+    WHERE n.deleted_at IS NULL
+       OR o.deleted_at IS NULL
+    ORDER BY n.id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+-- The purge of a deleted task is not recorded again.
+CREATE OR REPLACE FUNCTION tasks_deleted_changes() RETURNS trigger AS
+$$
+BEGIN
+    INSERT INTO task_changes (task_id, change_type, author_id, assignee_id)
+    SELECT id, 'DELETED', author_id, assignee_id
+    FROM deleted_tasks
+    WHERE deleted_at IS NULL
+    ORDER BY id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION comments_inserted_changes() RETURNS trigger AS
+$$
+BEGIN
+    INSERT INTO task_changes (task_id, change_type, author_id, assignee_id, comment_id)
+    SELECT c.task_id, 'COMMENT_ADDED', t.author_id, t.assignee_id, c.id
+    FROM inserted_comments c
+             JOIN tasks t ON t.id = c.task_id
+    WHERE t.deleted_at IS NULL
+    ORDER BY c.id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION comments_deleted_changes() RETURNS trigger AS
+$$
+BEGIN
+    INSERT INTO task_changes (task_id, change_type, author_id, assignee_id, comment_id)
+    SELECT c.task_id, 'COMMENT_DELETED', t.author_id, t.assignee_id, c.id
+    FROM deleted_comments c
+             JOIN tasks t ON t.id = c.task_id
+    WHERE t.deleted_at IS NULL
+    ORDER BY c.id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,4 @@
+-- Every token carries the epoch of its user at issue, and a token of an older epoch is rejected. Advancing the epoch
+-- revokes all tokens of the user at once, such as after a role change. The constant default is added without a rewrite.
+ALTER TABLE users
+    ADD COLUMN token_epoch BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,10 @@
+-- Revoked access tokens are recorded by their ID (the jti claim) in token_value. A row keeps its token's expiration,
+-- after which the token is rejected anyway and the row is purged. revoked_txid is the transaction that revoked the
+-- token; every node reads revocations ordered by (revoked_txid, id) below its snapshot xmin, so a revocation committed
+-- late is never skipped. The columns have no default, so they are added without a rewrite.
+ALTER TABLE tokens
+    ADD COLUMN expires_at   TIMESTAMP WITH TIME ZONE,
+    ADD COLUMN revoked_txid XID8;
+
+CREATE INDEX idx_tokens_revoked_txid ON tokens (revoked_txid, id) WHERE revoked_txid IS NOT NULL;
+CREATE INDEX idx_tokens_expires_at ON tokens (expires_at) WHERE expires_at IS NOT NULL;
@@ -0,0 +1,11 @@
+-- Refresh tokens are stored by the SHA-256 digest of their value in token_value, so the unique index on it finds a
+-- presented token in one lookup and a leaked table does not reveal usable tokens. A token is revoked when it is
+-- rotated and kept until it expires, so presenting it again is detected as reuse. All refresh tokens and access
+-- tokens issued from one login share its session_id, by which the whole session is revoked.
+ALTER TABLE tokens
+    DROP CONSTRAINT tokens_token_type_check,
+    ADD CONSTRAINT tokens_token_type_check CHECK (token_type IN ('BEARER', 'REFRESH')),
+    ADD COLUMN session_id UUID;
+
+CREATE INDEX idx_tokens_session_id ON tokens (session_id) WHERE session_id IS NOT NULL;
+CREATE INDEX idx_tokens_refresh_user_id ON tokens (user_id) WHERE token_type = 'REFRESH' AND NOT revoked;
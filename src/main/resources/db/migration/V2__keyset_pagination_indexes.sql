@@ -0,0 +1,5 @@
+-- Seek by (author_id, id) and (task_id, id); CONCURRENTLY builds the indexes without blocking writes, and Flyway runs
+-- this script outside a transaction.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_author_id_id ON tasks (author_id, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_task_id_id ON comments (task_id, id);
@@ -0,0 +1,23 @@
+-- Runs outside a transaction (see the .conf file), so each statement commits on its own and no lock is held across
+-- the backfill and the table scan.
+UPDATE tasks SET status = 'PENDING' WHERE status IS NULL;
+UPDATE tasks SET priority = 'MEDIUM' WHERE priority IS NULL;
+
+-- SET NOT NULL scans the whole table under an ACCESS EXCLUSIVE lock unless a valid CHECK constraint already proves
+-- the column has no nulls. NOT VALID adds the constraints without a scan, and VALIDATE scans while reads and writes
+-- go on; the constraints are redundant once the columns are NOT NULL.
+ALTER TABLE tasks DROP CONSTRAINT IF EXISTS tasks_status_not_null;
+ALTER TABLE tasks DROP CONSTRAINT IF EXISTS tasks_priority_not_null;
+ALTER TABLE tasks ADD CONSTRAINT tasks_status_not_null CHECK (status IS NOT NULL) NOT VALID;
+ALTER TABLE tasks ADD CONSTRAINT tasks_priority_not_null CHECK (priority IS NOT NULL) NOT VALID;
+
+ALTER TABLE tasks VALIDATE CONSTRAINT tasks_status_not_null;
+ALTER TABLE tasks VALIDATE CONSTRAINT tasks_priority_not_null;
+
+ALTER TABLE tasks
+    ALTER COLUMN status SET NOT NULL,
+    ALTER COLUMN priority SET NOT NULL;
+
+ALTER TABLE tasks
+    DROP CONSTRAINT tasks_status_not_null,
+    DROP CONSTRAINT tasks_priority_not_null;
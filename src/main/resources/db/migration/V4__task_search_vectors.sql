@@ -0,0 +1,34 @@
+-- Nullable columns without a default are added without rewriting the tables.
+ALTER TABLE tasks ADD COLUMN search_vector tsvector;
+ALTER TABLE comments ADD COLUMN search_vector tsvector;
+
+CREATE FUNCTION tasks_search_vector_update() RETURNS trigger AS
+$$
+BEGIN
+    NEW.search_vector :=
+            setweight(to_tsvector('russian', coalesce(NEW.title, '')), 'A') ||
+            setweight(to_tsvector('russian', coalesce(NEW.description, '')), 'B');
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION comments_search_vector_update() RETURNS trigger AS
+$$
+BEGIN
+    NEW.search_vector := setweight(to_tsvector('russian', coalesce(NEW.content, '')), 'C');
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+-- Vectors are maintained in the writing transaction; existing rows are backfilled by V5.
+CREATE TRIGGER trg_tasks_search_vector
+    BEFORE INSERT OR UPDATE OF title, description
+    ON tasks
+    FOR EACH ROW
+EXECUTE FUNCTION tasks_search_vector_update();
+
+CREATE TRIGGER trg_comments_search_vector
+    BEFORE INSERT OR UPDATE OF content
+    ON comments
+    FOR EACH ROW
+EXECUTE FUNCTION comments_search_vector_update();
@@ -0,0 +1,13 @@
+-- Task filter indexes; CONCURRENTLY builds them without blocking writes, and Flyway runs this script outside a
+-- transaction.
+
+-- status / status + priority filters, seek by (status, priority, id)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_status_priority_id ON tasks (status, priority, id);
+
+-- priority filter and sort
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_priority_id ON tasks (priority, id);
+
+-- assignee / assignee + status filters
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_assignee_id_status ON tasks (assignee_id, status);
+
+-- author filters are served by idx_tasks_author_id_id (V2)
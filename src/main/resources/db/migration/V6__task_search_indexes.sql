@@ -0,0 +1,4 @@
+-- CONCURRENTLY builds the indexes without blocking writes; Flyway runs this script outside a transaction.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_search_vector ON tasks USING gin (search_vector);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_search_vector ON comments USING gin (search_vector);
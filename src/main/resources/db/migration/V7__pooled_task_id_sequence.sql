@@ -0,0 +1,3 @@
+-- Task IDs are allocated by Hibernate's pooled optimizer in blocks of 50 so inserts can be batched.
+-- The increment must match allocationSize on Task.id; the column default keeps working for plain SQL inserts.
+ALTER SEQUENCE tasks_id_seq INCREMENT BY 50;
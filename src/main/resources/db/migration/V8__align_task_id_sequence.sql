@@ -0,0 +1,6 @@
+-- Every nextval() result is used as the last ID of a 50-ID block, both by Hibernate's pooled optimizer
+-- and by task imports. A fresh sequence would first return 1, so start it at the end of the first block.
+SELECT setval('tasks_id_seq', 50, false)
+FROM tasks_id_seq
+WHERE NOT is_called
+  AND last_value < 50;
@@ -0,0 +1,68 @@
+-- Constant defaults are stored in the catalog, so the columns are added without rewriting the table.
+-- Existing tasks get the migration time as their last activity.
+ALTER TABLE tasks
+    ADD COLUMN comment_count    INTEGER                  NOT NULL DEFAULT 0,
+    ADD COLUMN last_activity_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now();
+
+UPDATE tasks t
+SET comment_count = c.n
+FROM (SELECT task_id, count(*) AS n FROM comments GROUP BY task_id) c
+WHERE t.id = c.task_id;
+
+-- Any change of the visible task fields counts as activity; comment_count updates set the time themselves.
+CREATE FUNCTION tasks_last_activity_update() RETURNS trigger AS
+$$
+BEGIN
+    IF (NEW.title, NEW.description, NEW.status, NEW.priority, NEW.assignee_id)
+        IS DISTINCT FROM (OLD.title, OLD.description, OLD.status, OLD.priority, OLD.assignee_id) THEN
+        NEW.last_activity_at := now();
+    END IF;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+-- Statement-level triggers update each task once per statement, so bulk inserts and cascading deletes
+-- of many comments do not rewrite the task row per comment.
+CREATE FUNCTION comments_inserted_count_update() RETURNS trigger AS
+$$
+BEGIN
+    UPDATE tasks t
+    SET comment_count    = t.comment_count + c.n,
+        last_activity_at = now()
+    FROM (SELECT task_id, count(*) AS n FROM inserted_comments GROUP BY task_id) c
+    WHERE t.id = c.task_id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION comments_deleted_count_update() RETURNS trigger AS
+$$
+BEGIN
+    UPDATE tasks t
+    SET comment_count    = t.comment_count - c.n,
+        last_activity_at = now()
+    FROM (SELECT task_id, count(*) AS n FROM deleted_comments GROUP BY task_id) c
+    WHERE t.id = c.task_id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_tasks_last_activity
+    BEFORE UPDATE OF title, description, status, priority, assignee_id
+    ON tasks
+    FOR EACH ROW
+EXECUTE FUNCTION tasks_last_activity_update();
+
+CREATE TRIGGER trg_comments_inserted_count
+    AFTER INSERT
+    ON comments
+    REFERENCING NEW TABLE AS inserted_comments
+    FOR EACH STATEMENT
+EXECUTE FUNCTION comments_inserted_count_update();
+
+CREATE TRIGGER trg_comments_deleted_count
+    AFTER DELETE
+    ON comments
+    REFERENCING OLD TABLE AS deleted_comments
+    FOR EACH STATEMENT
+EXECUTE FUNCTION comments_deleted_count_update();
@@ -0,0 +1,81 @@
+package ru.kretsev;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+import ru.kretsev.repository.UserRepository;
+
+/**
+ * Base class for integration tests running against a real PostgreSQL instance.
+ * The container is started once and shared by all subclasses so the cached Spring context stays valid;
+ * tests are skipped when Docker is not available.
+ * Users saved with {@link #saveUser(Role)} are deleted after each test, together with their tasks, comments and
+ * tokens.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    @ServiceConnection
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    static {
+        POSTGRES.start();
+    }
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    private final List<Long> savedUserIds = new ArrayList<>();
+
+    /**
+     * Saves a user with a unique email, to be deleted after the test.
+     *
+     * @param role the user role
+     * @return the saved user
+     */
+    protected User saveUser(Role role) {
+        return saveUser(role, "encoded");
+    }
+
+    /**
+     * Saves a user with a unique email and the given password hash, to be deleted after the test.
+     *
+     * @param role the user role
+     * @param encodedPassword the password hash
+     * @return the saved user
+     */
+    protected User saveUser(Role role, String encodedPassword) {
+        User user = userRepository.save(User.builder()
+                .firstname("Иван")
+                .lastname("Иванов")
+                .email(UUID.randomUUID() + "@example.com")
+                .password(encodedPassword)
+                .role(role)
+                .build());
+        savedUserIds.add(user.getId());
+        return user;
+    }
+
+    /**
+     * Deletes the users saved by the test; their tasks, comments and tokens go with them through the foreign key
+     * cascades. Runs after the {@code @AfterEach} methods of the subclass.
+     */
+    @AfterEach
+    protected void deleteSavedUsers() {
+        if (!savedUserIds.isEmpty()) {
+            userRepository.deleteAllByIdInBatch(savedUserIds);
+            savedUserIds.clear();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ru.kretsev.auth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.kretsev.exception.PasswordHashingOverloadedException;
+
+/**
+ * Unit tests for the BoundedPasswordEncoder.
+ */
+class BoundedPasswordEncoderTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    @DisplayName("Хэширование пароля - хэш проверяется, время каждой операции попадает в метрики")
+    void encodeShouldHashOnPoolAndRecordLatency() {
+        encoder = new BoundedPasswordEncoder(4, 2, 4, meterRegistry);
+
+        String hash = encoder.encode("password123");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(encoder.matches("password123", hash));
+        assertFalse(encoder.matches("wrong-password", hash));
+        assertEquals(1, meterRegistry.get("password.hashing").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("password.hashing").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    @DisplayName("Смена стоимости BCrypt - хэши другой стоимости требуют перехэширования")
+    void upgradeEncodingShouldDetectChangedCost() {
+        encoder = new BoundedPasswordEncoder(5, 1, 1, meterRegistry);
+
+        assertFalse(encoder.upgradeEncoding(encoder.encode("password123")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password123")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password123")));
+        assertFalse(encoder.upgradeEncoding("not-a-bcrypt-hash"));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+
+    @Test
+    @DisplayName("Переполнение очереди - запрос отклоняется сразу, глубина очереди и отказы попадают в метрики")
+    void encodeShouldRejectWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(release), 10, 1, 1, meterRegistry);
+        Thread running = Thread.ofPlatform().start(() -> encoder.encode("running"));
+        Thread queued = Thread.ofPlatform().start(() -> encoder.encode("queued"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queueDepth() < 1 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        assertEquals(1, queueDepth());
+        assertThrows(PasswordHashingOverloadedException.class, () -> encoder.encode("rejected"));
+        assertEquals(1, meterRegistry.get("password.hashing.rejected").counter().count());
+
+        release.countDown();
+        running.join();
+        queued.join();
+        assertEquals(0, queueDepth());
+    }
+
+    private double queueDepth() {
+        return meterRegistry.get("executor.queued").tag("name", "password-hashing").gauge().value();
+    }
+
+    /**
+     * An encoder whose hashing waits until it is released.
+     */
+    private record BlockingEncoder(CountDownLatch release) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
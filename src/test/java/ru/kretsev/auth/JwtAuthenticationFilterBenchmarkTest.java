@@ -0,0 +1,180 @@
+package ru.kretsev.auth;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+import ru.kretsev.repository.TokenRevocationRepository;
+import ru.kretsev.service.TokenEpochService;
+import ru.kretsev.service.TokenRevocationService;
+import ru.kretsev.service.impl.LoggingServiceImpl;
+import ru.kretsev.service.impl.TokenRevocationServiceImpl;
+
+/**
+ * JMH benchmark of the JWT filter with the verification it did before (three parses, each building the key and the
+ * parser), with a single verification, and with the cache of verified tokens.
+ * Excluded from the regular test run; start it with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(0)
+public class JwtAuthenticationFilterBenchmarkTest {
+    private static final User USER = User.builder().id(1L).email("user@example.com").role(Role.ROLE_USER).build();
+    private static final FilterChain CHAIN = (request, response) -> {};
+    private static final TokenEpochService CURRENT_EPOCHS = new TokenEpochService() {
+        @Override
+        public boolean isCurrent(Long userId, long epoch) {
+            return true;
+        }
+
+        @Override
+        public void advance(User user) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private static final TokenRevocationService REVOCATIONS =
+            new TokenRevocationServiceImpl(mock(TokenRevocationRepository.class), new LoggingServiceImpl(), 3600, 1000);
+
+    private JwtAuthenticationFilter perParseFilter;
+    private JwtAuthenticationFilter singleParseFilter;
+    private JwtAuthenticationFilter cachedFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    /**
+     * Verification as the filter did it before: the subject, the validity and the expiration each parsed the token
+     * with a newly decoded key.
+     */
+    static final class PerParseJwtService extends JwtService {
+        PerParseJwtService() {
+            super(JwtServiceTest.SECRET, 3600, 0);
+        }
+
+        @Override
+        public Claims verify(String token) {
+            Claims claims = parse(token);
+            parse(token).getSubject();
+            parse(token).getExpiration();
+            return claims;
+        }
+
+        private static Claims parse(String token) {
+            return Jwts.parser()
+                    .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(JwtServiceTest.SECRET)))
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+        }
+    }
+
+    /**
+     * Verification with the key and the parser built once, without the cache of verified tokens.
+     */
+    static final class SingleParseJwtService extends JwtService {
+        private final JwtParser parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(JwtServiceTest.SECRET)))
+                .build();
+
+        SingleParseJwtService() {
+            super(JwtServiceTest.SECRET, 3600, 0);
+        }
+
+        @Override
+        public Claims verify(String token) {
+            return parser.parseSignedClaims(token).getPayload();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService(JwtServiceTest.SECRET, 3600, 1000);
+        perParseFilter = filter(new PerParseJwtService());
+        singleParseFilter = filter(new SingleParseJwtService());
+        cachedFilter = filter(jwtService);
+        request = new MockHttpServletRequest("GET", "/api/v1/tasks/1");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateToken(USER));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication perParse() throws Exception {
+        return authenticate(perParseFilter);
+    }
+
+    @Benchmark
+    public Authentication singleParse() throws Exception {
+        return authenticate(singleParseFilter);
+    }
+
+    @Benchmark
+    public Authentication cached() throws Exception {
+        return authenticate(cachedFilter);
+    }
+
+    @Test
+    @DisplayName("Фильтр JWT - одна проверка быстрее трёх разборов, кэш проверенных токенов быстрее одной проверки")
+    void filterShouldVerifyTokenOnce() throws RunnerException {
+        Collection<RunResult> results =
+                new Runner(new OptionsBuilder().include(getClass().getName()).build()).run();
+        Map<String, Double> microsPerRequest = results.stream()
+                .collect(Collectors.toMap(
+                        result -> result.getParams().getBenchmark().replaceAll(".*\\.", ""),
+                        result -> result.getPrimaryResult().getScore()));
+
+        new LoggingServiceImpl().logInfo("Фильтр JWT, мкс на запрос: {}", microsPerRequest);
+        assertTrue(microsPerRequest.get("singleParse") < microsPerRequest.get("perParse"));
+        assertTrue(microsPerRequest.get("cached") < microsPerRequest.get("singleParse"));
+    }
+
+    private Authentication authenticate(JwtAuthenticationFilter filter) throws Exception {
+        try {
+            filter.doFilterInternal(request, response, CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static JwtAuthenticationFilter filter(JwtService jwtService) {
+        return new JwtAuthenticationFilter(
+                jwtService, CURRENT_EPOCHS, REVOCATIONS, new LoggingServiceImpl(), new ObjectMapper());
+    }
+}
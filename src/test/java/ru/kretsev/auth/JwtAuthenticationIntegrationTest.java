@@ -0,0 +1,155 @@
+package ru.kretsev.auth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import jakarta.persistence.EntityManagerFactory;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Instant;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.kretsev.PostgresIntegrationTest;
+import ru.kretsev.dto.task.TaskDto;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+import ru.kretsev.repository.TokenRevocationRepository;
+import ru.kretsev.service.AuthenticationService;
+import ru.kretsev.service.LoggingService;
+import ru.kretsev.service.TaskService;
+import ru.kretsev.service.impl.TokenRevocationServiceImpl;
+
+/**
+ * Integration tests of requests authenticated by the claims of their token.
+ */
+class JwtAuthenticationIntegrationTest extends PostgresIntegrationTest {
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Autowired
+    private LoggingService loggingService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        user = saveUser(Role.ROLE_USER);
+        taskId = taskService
+                .createTask(new TaskDto(null, "Задача", "Описание", null, "LOW", null, null, List.of(), null), user)
+                .body()
+                .id();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("DELETE FROM tasks");
+        jdbcTemplate.update("DELETE FROM tokens");
+    }
+
+    @Test
+    @DisplayName("Запрос с токеном - пользователь берётся из токена, кэшированная задача читается без запросов к базе")
+    void cachedReadShouldNeedNoQueries() throws Exception {
+        String token = jwtService.generateToken(user);
+        assertEquals(HttpServletResponse.SC_OK, getTask(token).getStatus());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        MockHttpServletResponse response = getTask(token);
+
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertEquals(0, statistics.getPrepareStatementCount(), "Повторный запрос не должен обращаться к базе");
+    }
+
+    @Test
+    @DisplayName("Выход на всех устройствах - выданные ранее токены отклоняются, новый токен принимается")
+    void logoutEverywhereShouldRevokeIssuedTokens() throws Exception {
+        String token = jwtService.generateToken(user);
+        assertEquals(HttpServletResponse.SC_OK, getTask(token).getStatus());
+
+        authenticationService.logoutEverywhere(user.getId());
+
+        MockHttpServletResponse revoked = getTask(token);
+        assertEquals(HttpServletResponse.SC_UNAUTHORIZED, revoked.getStatus());
+        assertTrue(revoked.getContentAsString().contains("Токен отозван"));
+        User current = userRepository.findById(user.getId()).orElseThrow();
+        assertEquals(HttpServletResponse.SC_OK, getTask(jwtService.generateToken(current)).getStatus());
+    }
+
+    @Test
+    @DisplayName("Выход из системы - отклоняется только токен запроса, другие токены пользователя принимаются")
+    void logoutShouldRevokeOnlyCurrentToken() throws Exception {
+        String token = jwtService.generateToken(user);
+        String otherToken = jwtService.generateToken(user);
+        Claims claims = jwtService.verify(token);
+
+        authenticationService.logout(claims.getId(), null, user.getId(), claims.getExpiration().toInstant());
+
+        MockHttpServletResponse revoked = getTask(token);
+        assertEquals(HttpServletResponse.SC_UNAUTHORIZED, revoked.getStatus());
+        assertTrue(revoked.getContentAsString().contains("Токен отозван"));
+        assertEquals(HttpServletResponse.SC_OK, getTask(otherToken).getStatus());
+    }
+
+    @Test
+    @DisplayName("Отзыв на другом узле - отзыв читается синхронизацией, истёкшие отзывы удаляются очисткой")
+    void revocationsShouldSyncAcrossNodesAndPurge() {
+        TokenRevocationServiceImpl otherNode =
+                new TokenRevocationServiceImpl(tokenRevocationRepository, loggingService, 3600, 100);
+        String tokenId = jwtService.verify(jwtService.generateToken(user)).getId();
+        tokenRevocationRepository.revoke(tokenId, user.getId(), Instant.now().plusSeconds(3600));
+        tokenRevocationRepository.revoke("expired", user.getId(), Instant.now().minusSeconds(1));
+        assertFalse(otherNode.isRevoked(tokenId));
+
+        otherNode.syncRevocations();
+
+        assertTrue(otherNode.isRevoked(tokenId));
+        assertFalse(otherNode.isRevoked("expired"), "Истёкший отзыв не должен загружаться");
+        otherNode.purgeExpiredRevocations();
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM tokens", Integer.class));
+    }
+
+    private MockHttpServletResponse getTask(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks/" + taskId);
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            jwtAuthenticationFilter.doFilter(request, response, (filteredRequest, filteredResponse) -> {
+                User principal = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+                assertEquals(user.getId(), principal.getId());
+                taskService.getTask(taskId);
+            });
+            return response;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package ru.kretsev.auth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import java.util.Date;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+
+/**
+ * Unit tests for the JwtService.
+ */
+class JwtServiceTest {
+    static final String SECRET = "dGVzdC1vbmx5LWp3dC1zZWNyZXQta2V5LWZvci10YXNrLW1hbmFnZW1lbnQtYXBw";
+    private static final String OTHER_SECRET = "b3RoZXItdGVzdC1qd3Qtc2VjcmV0LWtleS1mb3ItdGFzay1tYW5hZ2VtZW50";
+
+    private final JwtService jwtService = new JwtService(SECRET, 3600, 100);
+    private final User user = User.builder()
+            .id(7L)
+            .firstname("Иван")
+            .lastname("Иванов")
+            .email("user@example.com")
+            .role(Role.ROLE_USER)
+            .tokenEpoch(3)
+            .build();
+
+    @Test
+    @DisplayName("Проверка токена - подпись и срок проверяются один раз, повторный токен берётся из кэша")
+    void verifyShouldReturnClaimsAndCacheVerifiedToken() {
+        String token = jwtService.generateToken(user);
+
+        Claims claims = jwtService.verify(token);
+
+        assertEquals("user@example.com", claims.getSubject());
+        assertTrue(claims.getExpiration().after(new Date()), "Срок действия должен быть в будущем");
+        assertSame(claims, jwtService.verify(token), "Проверенный токен должен браться из кэша");
+    }
+
+    @Test
+    @DisplayName("Пользователь из токена - ID, имя, роль и эпоха токена берутся из утверждений без обращения к базе")
+    void principalOfShouldRestoreUserFromClaims() {
+        User principal = jwtService.principalOf(jwtService.verify(jwtService.generateToken(user)));
+
+        assertEquals(7L, principal.getId());
+        assertEquals("user@example.com", principal.getUsername());
+        assertEquals("Иван", principal.getFirstname());
+        assertEquals("Иванов", principal.getLastname());
+        assertEquals(Role.ROLE_USER, principal.getRole());
+        assertEquals(3L, principal.getTokenEpoch());
+    }
+
+    @Test
+    @DisplayName("Генерация токена - каждый токен получает свой ID, по которому его можно отозвать")
+    void generateTokenShouldAssignUniqueId() {
+        String first = jwtService.verify(jwtService.generateToken(user)).getId();
+        String second = jwtService.verify(jwtService.generateToken(user)).getId();
+
+        assertNotNull(first);
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    @DisplayName("Пользователь из токена - токен без данных пользователя отклоняется")
+    void principalOfShouldRejectTokenWithoutUserClaims() {
+        String token = jwtService.generateToken(Map.of(), user);
+
+        Claims claims = jwtService.verify(token);
+
+        assertThrows(MalformedJwtException.class, () -> jwtService.principalOf(claims));
+    }
+
+    @Test
+    @DisplayName("Проверка токена - изменённый токен и токен с чужой подписью отклоняются")
+    void verifyShouldRejectForeignSignature() {
+        String token = jwtService.generateToken(user);
+        String foreign = new JwtService(OTHER_SECRET, 3600, 100).generateToken(user);
+        String tampered = token.substring(0, token.lastIndexOf('.')) + foreign.substring(foreign.lastIndexOf('.'));
+
+        jwtService.verify(token);
+
+        assertThrows(SignatureException.class, () -> jwtService.verify(foreign));
+        assertThrows(SignatureException.class, () -> jwtService.verify(tampered));
+    }
+
+    @Test
+    @DisplayName("Проверка токена - истёкший токен отклоняется")
+    void verifyShouldRejectExpiredToken() {
+        String expired = Jwts.builder()
+                .subject(user.getUsername())
+                .expiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), Jwts.SIG.HS256)
+                .compact();
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verify(expired));
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verify(expired), "Отклонённый токен не кэшируется");
+    }
+}
@@ -0,0 +1,75 @@
+package ru.kretsev.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+/**
+ * Unit tests for the CacheDependencyTracker.
+ */
+class CacheDependencyTrackerTest {
+    private CacheInvalidationBroadcaster broadcaster;
+    private CacheDependencyTracker tracker;
+    private Cache comments;
+
+    /**
+     * A cached value standing in for a comment of a task.
+     */
+    private record CommentValue(Long taskId) {}
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = mock(CacheInvalidationBroadcaster.class);
+        tracker = new CacheDependencyTracker(Duration.ofMinutes(10), broadcaster);
+        comments = tracker.track(
+                new ConcurrentMapCache("comments"),
+                value -> List.of(CacheDependency.task(((CommentValue) value).taskId())));
+    }
+
+    @Test
+    @DisplayName("Зависимости кэша - изменение задачи удаляет только зависящие от неё записи")
+    void invalidateShouldEvictOnlyDependentEntries() {
+        comments.put(1L, new CommentValue(5L));
+        comments.get(2L, () -> new CommentValue(5L));
+        comments.put(3L, new CommentValue(6L));
+
+        tracker.invalidate(CacheDependency.task(5L));
+
+        assertNull(comments.get(1L));
+        assertNull(comments.get(2L), "Загруженные при промахе записи тоже должны отслеживаться");
+        assertNotNull(comments.get(3L), "Записи других задач должны остаться в кэше");
+        verify(broadcaster).keyChanged("depends-on-task", 5L);
+    }
+
+    @Test
+    @DisplayName("Зависимости кэша - запись, перенесённая в другую задачу, удаляется при изменении любой из них")
+    void invalidateShouldEvictEntryRecordedUnderEarlierDependency() {
+        comments.put(1L, new CommentValue(5L));
+        comments.put(1L, new CommentValue(6L));
+
+        tracker.invalidate(CacheDependency.task(5L));
+
+        assertNull(comments.get(1L), "Лишнее удаление допустимо, устаревшая запись - нет");
+    }
+
+    @Test
+    @DisplayName("Зависимости кэша - изменение на другом узле удаляет зависящие записи без повторной рассылки")
+    void changeOnOtherNodeShouldEvictDependentEntries() {
+        ArgumentCaptor<InvalidationTarget> target = ArgumentCaptor.forClass(InvalidationTarget.class);
+        verify(broadcaster).register(eq("depends-on-task"), target.capture());
+        comments.put(1L, new CommentValue(5L));
+
+        target.getValue().evictLocally(5L);
+
+        assertNull(comments.get(1L));
+        verify(broadcaster, never()).keyChanged(any(), any());
+    }
+}
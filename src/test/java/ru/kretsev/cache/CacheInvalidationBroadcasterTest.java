@@ -0,0 +1,129 @@
+package ru.kretsev.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import ru.kretsev.service.LoggingService;
+
+/**
+ * Unit tests for the CacheInvalidationBroadcaster.
+ */
+class CacheInvalidationBroadcasterTest {
+    private final List<String> sent = new ArrayList<>();
+    private CacheInvalidationTransport transport;
+    private CacheInvalidationBroadcaster sender;
+    private CacheInvalidationBroadcaster receiver;
+    private Cache senderCache;
+    private Cache receiverCache;
+
+    @BeforeEach
+    void setUp() {
+        transport = mock(CacheInvalidationTransport.class);
+        doAnswer(invocation -> sent.addAll(invocation.getArgument(0)))
+                .when(transport)
+                .send(anyList());
+        LoggingService loggingService = mock(LoggingService.class);
+        sender = new CacheInvalidationBroadcaster(transport, Duration.ofMillis(50), loggingService);
+        receiver = new CacheInvalidationBroadcaster(transport, Duration.ofMillis(50), loggingService);
+        senderCache = sender.decorate(new ConcurrentMapCache("tasks"));
+        receiverCache = receiver.decorate(new ConcurrentMapCache("tasks"));
+    }
+
+    @Test
+    @DisplayName("Инвалидация кэша - изменённые ключи отправляются одним сообщением и удаляются на другом узле")
+    void changedKeysShouldBeBatchedAndEvictedOnOtherNode() {
+        receiverCache.put(1L, "задача 1");
+        receiverCache.put(2L, "задача 2");
+        receiverCache.put(3L, "задача 3");
+
+        senderCache.put(1L, "задача 1 изменена");
+        senderCache.evict(2L);
+        senderCache.evict(1L);
+        sender.flush();
+
+        assertEquals(1, sent.size(), "Изменения одного кэша должны уходить одним сообщением");
+        sent.forEach(receiver::receive);
+        assertNull(receiverCache.get(1L));
+        assertNull(receiverCache.get(2L));
+        assertNotNull(receiverCache.get(3L), "Неизменённые ключи должны остаться в кэше");
+    }
+
+    @Test
+    @DisplayName("Инвалидация кэша - собственные сообщения узла не применяются")
+    void ownMessagesShouldBeIgnored() {
+        senderCache.put(1L, "задача 1");
+        sender.flush();
+
+        sent.forEach(sender::receive);
+
+        assertNotNull(senderCache.get(1L));
+    }
+
+    @Test
+    @DisplayName("Инвалидация кэша - длинный пакет ключей разбивается на сообщения допустимой длины")
+    void largeBatchShouldBeSplitIntoMessages() {
+        for (long id = 1_000_000L; id < 1_002_000L; id++) {
+            senderCache.evict(id);
+        }
+        sender.flush();
+
+        assertTrue(sent.size() > 1);
+        assertTrue(sent.stream()
+                .allMatch(message -> message.length() <= CacheInvalidationBroadcaster.MAX_MESSAGE_LENGTH));
+        receiverCache.put(1_001_999L, "задача");
+        sent.forEach(receiver::receive);
+        assertNull(receiverCache.get(1_001_999L));
+    }
+
+    @Test
+    @DisplayName("Инвалидация кэша - очистка и нечисловые ключи очищают кэш на другом узле")
+    void clearShouldClearCacheOnOtherNode() {
+        receiverCache.put(1L, "задача 1");
+
+        senderCache.evict("key");
+        sender.flush();
+        sent.forEach(receiver::receive);
+
+        assertNull(receiverCache.get(1L));
+    }
+
+    @Test
+    @DisplayName("Инвалидация кэша - после ошибки отправки другие узлы очищают затронутый кэш")
+    void failedSendShouldClearCacheWithNextBatch() {
+        doThrow(new IllegalStateException("соединение закрыто"))
+                .doAnswer(invocation -> sent.addAll(invocation.getArgument(0)))
+                .when(transport)
+                .send(anyList());
+        receiverCache.put(1L, "задача 1");
+        receiverCache.put(2L, "задача 2");
+
+        senderCache.evict(1L);
+        sender.flush();
+        sender.flush();
+        sent.forEach(receiver::receive);
+
+        assertNull(receiverCache.get(2L), "Кэш должен быть очищен целиком");
+    }
+
+    @Test
+    @DisplayName("Инвалидация кэша - после подписки локальные кэши очищаются")
+    void subscriptionShouldClearLocalCaches() {
+        receiverCache.put(1L, "задача 1");
+        receiver.flush();
+        sent.clear();
+
+        receiver.clearLocalCaches();
+        receiver.flush();
+
+        assertNull(receiverCache.get(1L));
+        assertTrue(sent.isEmpty(), "Очистка после подписки не должна рассылаться");
+    }
+}
@@ -0,0 +1,68 @@
+package ru.kretsev.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.kretsev.PostgresIntegrationTest;
+import ru.kretsev.service.LoggingService;
+
+/**
+ * Integration tests of the cache invalidation over PostgreSQL {@code LISTEN/NOTIFY}, with a second transport
+ * standing in for another node.
+ */
+class CacheInvalidationIntegrationTest extends PostgresIntegrationTest {
+    private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private PostgresCacheInvalidationTransport otherNode;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        otherNode = new PostgresCacheInvalidationTransport(
+                jdbcTemplate,
+                POSTGRES.getJdbcUrl(),
+                POSTGRES.getUsername(),
+                POSTGRES.getPassword(),
+                "cache_invalidation",
+                Duration.ofSeconds(30),
+                mock(LoggingService.class));
+        CountDownLatch subscribed = new CountDownLatch(1);
+        otherNode.subscribe(received::add, subscribed::countDown);
+        assertTrue(subscribed.await(10, TimeUnit.SECONDS), "Подписка на канал должна быть установлена");
+    }
+
+    @AfterEach
+    void tearDown() {
+        otherNode.close();
+    }
+
+    @Test
+    @DisplayName("Инвалидация кэша - удаление ключа из кэша доставляется другому узлу")
+    void evictionShouldBeDeliveredToOtherNode() throws InterruptedException {
+        cacheManager.getCache("tasks").evict(-42L);
+
+        String message;
+        do {
+            message = received.poll(10, TimeUnit.SECONDS);
+        } while (message != null && !message.endsWith(" tasks -42"));
+
+        assertNotNull(message, "Сообщение об удалении ключа должно быть доставлено");
+    }
+}
@@ -0,0 +1,80 @@
+package ru.kretsev.datasource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+/**
+ * Unit tests for the ReplicaEvictionLog.
+ */
+class ReplicaEvictionLogTest {
+    private Clock clock;
+    private ReplicaEvictionLog evictionLog;
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(1_000L);
+        evictionLog = new ReplicaEvictionLog(clock);
+        cache = evictionLog.decorate(new ConcurrentMapCache("tasks"));
+    }
+
+    @Test
+    @DisplayName("Повтор удалений - запись, загруженная с реплики до её догона, удаляется повторно")
+    void replicaCaughtUpToShouldEvictEntryReloadedFromReplica() {
+        cache.put(1L, "новая");
+        cache.evict(1L);
+        cache.put(1L, "устаревшая");
+
+        evictionLog.replicaCaughtUpTo(1_000L);
+
+        assertNull(cache.get(1L), "Запись, загруженная до догона реплики, должна быть удалена");
+    }
+
+    @Test
+    @DisplayName("Повтор удалений - удаления после момента догона не повторяются")
+    void replicaCaughtUpToShouldKeepLaterEvictionsPending() {
+        cache.evict(1L);
+        cache.put(1L, "загружена с основной базы");
+
+        evictionLog.replicaCaughtUpTo(999L);
+
+        assertNotNull(cache.get(1L), "Удаление после момента догона не должно повторяться");
+
+        evictionLog.replicaCaughtUpTo(1_000L);
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    @DisplayName("Повтор удалений - каждое удаление повторяется один раз")
+    void replicaCaughtUpToShouldReplayEvictionOnce() {
+        cache.evict(1L);
+        evictionLog.replicaCaughtUpTo(1_000L);
+        cache.put(1L, "загружена после догона");
+
+        evictionLog.replicaCaughtUpTo(2_000L);
+
+        assertNotNull(cache.get(1L), "Повторенное удаление не должно записываться снова");
+    }
+
+    @Test
+    @DisplayName("Повтор удалений - очистка кэша повторяется целиком")
+    void replicaCaughtUpToShouldReplayClear() {
+        cache.clear();
+        cache.put(1L, "устаревшая");
+        cache.put(2L, "устаревшая");
+
+        evictionLog.replicaCaughtUpTo(1_000L);
+
+        assertNull(cache.get(1L));
+        assertNull(cache.get(2L));
+    }
+}
@@ -0,0 +1,68 @@
+package ru.kretsev.datasource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the ReplicaReadGuard.
+ */
+class ReplicaReadGuardTest {
+    private Clock clock;
+    private ReplicaReadGuard readGuard;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(1_000L);
+        readGuard = new ReplicaReadGuard(clock, Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Чтение после записи - только автор записи читает с основной базы")
+    void mustReadFromPrimaryShouldStickOnlyWriter() {
+        readGuard.recordWrite("writer@example.com");
+
+        assertTrue(readGuard.mustReadFromPrimary("writer@example.com"), "Автор записи должен читать с основной базы");
+        assertFalse(readGuard.mustReadFromPrimary("reader@example.com"), "Другие пользователи читают с реплики");
+    }
+
+    @Test
+    @DisplayName("Чтение после записи - окно привязки к основной базе истекает")
+    void mustReadFromPrimaryShouldExpireAfterWindow() {
+        readGuard.recordWrite("writer@example.com");
+        when(clock.millis()).thenReturn(6_000L);
+
+        assertFalse(readGuard.mustReadFromPrimary("writer@example.com"));
+    }
+
+    @Test
+    @DisplayName("Чтение после записи - реплика догнала основную базу до истечения окна")
+    void mustReadFromPrimaryShouldReleaseWhenReplicaCaughtUp() {
+        readGuard.recordWrite("writer@example.com");
+        readGuard.replicaCaughtUpTo(1_500L);
+
+        assertFalse(readGuard.mustReadFromPrimary("writer@example.com"));
+    }
+
+    @Test
+    @DisplayName("Чтение после записи - запись без аутентификации не переводит чтения на основную базу")
+    void mustReadFromPrimaryShouldIgnoreAnonymousWrite() {
+        readGuard.recordWrite(null);
+
+        assertFalse(readGuard.mustReadFromPrimary("reader@example.com"));
+        assertFalse(readGuard.mustReadFromPrimary(null));
+    }
+
+    @Test
+    @DisplayName("Разбор LSN - старшая и младшая части")
+    void parseLsnShouldCombineHighAndLowParts() {
+        assertEquals(0x16_B374D848L, ReplicaLagMonitor.parseLsn("16/B374D848"));
+        assertTrue(ReplicaLagMonitor.parseLsn("1/0") > ReplicaLagMonitor.parseLsn("0/FFFFFFFF"));
+    }
+}
@@ -0,0 +1,113 @@
+package ru.kretsev.datasource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import ru.kretsev.PostgresIntegrationTest;
+import ru.kretsev.service.DomainEventService;
+
+/**
+ * Integration tests for replica routing against two independent PostgreSQL instances.
+ * The replica has the same schema but a different database name, which tells where a query ran.
+ */
+class ReplicaRoutingTest extends PostgresIntegrationTest {
+    private static final PostgreSQLContainer<?> REPLICA =
+            new PostgreSQLContainer<>("postgres:15").withDatabaseName("replica");
+
+    static {
+        REPLICA.start();
+        Flyway.configure()
+                .dataSource(REPLICA.getJdbcUrl(), REPLICA.getUsername(), REPLICA.getPassword())
+                .load()
+                .migrate();
+    }
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("replica.url", REPLICA::getJdbcUrl);
+        registry.add("replica.username", REPLICA::getUsername);
+        registry.add("replica.password", REPLICA::getPassword);
+        registry.add("replica.sticky-window", () -> "1m");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DomainEventService domainEventService;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Маршрутизация - транзакция только для чтения выполняется на реплике")
+    void readOnlyTransactionShouldUseReplica() {
+        authenticate("reader@example.com");
+
+        assertEquals("replica", currentDatabase(true));
+    }
+
+    @Test
+    @DisplayName("Маршрутизация - пишущая транзакция выполняется на основной базе")
+    void readWriteTransactionShouldUsePrimary() {
+        authenticate("reader@example.com");
+
+        assertEquals(POSTGRES.getDatabaseName(), currentDatabase(false));
+    }
+
+    @Test
+    @DisplayName("Маршрутизация - после записи автор читает с основной базы, остальные с реплики")
+    void readsAfterWriteShouldStickToPrimaryForWriter() {
+        authenticate("writer@example.com");
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> jdbcTemplate.queryForObject("SELECT txid_current()", Long.class));
+
+        assertEquals(POSTGRES.getDatabaseName(), currentDatabase(true), "Автор записи должен читать свои изменения");
+
+        authenticate("reader@example.com");
+        assertEquals("replica", currentDatabase(true), "Другие пользователи продолжают читать с реплики");
+    }
+
+    @Test
+    @DisplayName("Маршрутизация - фоновая запись без пользователя не переводит чтения на основную базу")
+    void backgroundWritesShouldKeepReadsOnReplica() {
+        SecurityContextHolder.clearContext();
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> jdbcTemplate.queryForObject("SELECT txid_current()", Long.class));
+        domainEventService.relayEvents();
+
+        authenticate("reader@example.com");
+        assertEquals("replica", currentDatabase(true), "Фоновые задачи не должны закреплять чтения за основной базой");
+    }
+
+    private String currentDatabase(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT current_database()", String.class));
+    }
+
+    private static void authenticate(String username) {
+        User user = new User(username, "password", List.of());
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
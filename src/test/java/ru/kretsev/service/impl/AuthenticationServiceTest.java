@@ -4,13 +4,15 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static ru.kretsev.model.user.Role.*;
 
+import java.time.Instant;
 import java.util.List;
-import java.util.Optional;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -20,12 +22,23 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
 import ru.kretsev.auth.JwtService;
+import ru.kretsev.cache.CacheDependency;
+import ru.kretsev.cache.CacheDependencyTracker;
 import ru.kretsev.dto.user.AuthenticationRequest;
 import ru.kretsev.dto.user.AuthenticationResponse;
 import ru.kretsev.dto.user.RegisterRequest;
+import ru.kretsev.dto.user.UserShortDto;
+import ru.kretsev.mapper.UserMapper;
 import ru.kretsev.model.user.User;
 import ru.kretsev.repository.UserRepository;
+import ru.kretsev.service.EntityService;
+import ru.kretsev.service.ListGenerationService;
+import ru.kretsev.service.RefreshTokenService;
+import ru.kretsev.service.RefreshTokenService.RenewedSession;
+import ru.kretsev.service.TokenEpochService;
+import ru.kretsev.service.TokenRevocationService;
 
 /**
  * Unit tests for the AuthenticationServiceImpl.
@@ -48,10 +61,35 @@ class AuthenticationServiceImplTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private EntityService entityService;
+
+    @Mock
+    private TokenEpochService tokenEpochService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private CacheDependencyTracker cacheDependencyTracker;
+
+    @Mock
+    private ListGenerationService listGenerationService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private AuthenticationServiceImpl authenticationService;
 
     private static final String MOCK_JWT_TOKEN = "mocked-jwt-token";
+    private static final String MOCK_REFRESH_TOKEN = "mocked-refresh-token";
     private static final String EMAIL = "john@example.com";
     private static final String PASSWORD = "password123";
     private static final String ENCODED_PASSWORD = "encodedPassword";
@@ -80,13 +118,16 @@ class AuthenticationServiceImplTest {
 
         when(passwordEncoder.encode(request.password())).thenReturn(ENCODED_PASSWORD);
         when(userRepository.save(any(User.class))).thenReturn(user);
-        when(jwtService.generateToken(any(User.class))).thenReturn(MOCK_JWT_TOKEN);
+        when(jwtService.generateToken(any(User.class), any(UUID.class))).thenReturn(MOCK_JWT_TOKEN);
 
         AuthenticationResponse response = authenticationService.register(request);
 
         assertNotNull(response);
         assertEquals(MOCK_JWT_TOKEN, response.token());
         verify(userRepository, times(1)).save(any(User.class));
+        InOrder inOrder = inOrder(passwordEncoder, transactionManager);
+        inOrder.verify(passwordEncoder).encode(PASSWORD);
+        inOrder.verify(transactionManager).getTransaction(any());
 
         ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
         verify(userRepository).save(userCaptor.capture());
@@ -100,8 +141,8 @@ class AuthenticationServiceImplTest {
         AuthenticationRequest request = new AuthenticationRequest(EMAIL, PASSWORD);
         User user = createTestUser();
 
-        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
-        when(jwtService.generateToken(user)).thenReturn(MOCK_JWT_TOKEN);
+        when(jwtService.generateToken(eq(user), any(UUID.class))).thenReturn(MOCK_JWT_TOKEN);
+        when(refreshTokenService.issue(eq(1L), any(UUID.class))).thenReturn(MOCK_REFRESH_TOKEN);
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(new UsernamePasswordAuthenticationToken(user, PASSWORD, user.getAuthorities()));
 
@@ -109,8 +150,10 @@ class AuthenticationServiceImplTest {
 
         assertNotNull(response);
         assertEquals(MOCK_JWT_TOKEN, response.token());
+        assertEquals(MOCK_REFRESH_TOKEN, response.refreshToken());
 
         verify(authenticationManager).authenticate(new UsernamePasswordAuthenticationToken(EMAIL, PASSWORD));
+        verify(userRepository, never()).findByEmail(EMAIL);
     }
 
     @Test
@@ -129,7 +172,7 @@ class AuthenticationServiceImplTest {
 
         when(passwordEncoder.encode(request.password())).thenReturn(ENCODED_PASSWORD);
         when(userRepository.save(any(User.class))).thenReturn(admin);
-        when(jwtService.generateToken(any(User.class))).thenReturn(MOCK_JWT_TOKEN);
+        when(jwtService.generateToken(any(User.class), any(UUID.class))).thenReturn(MOCK_JWT_TOKEN);
 
         Authentication authentication = new UsernamePasswordAuthenticationToken(
                 "admin@example.com", // principal
@@ -161,4 +204,65 @@ class AuthenticationServiceImplTest {
         Exception exception = assertThrows(RuntimeException.class, () -> authenticationService.authenticate(request));
         assertEquals("Invalid credentials", exception.getMessage());
     }
+
+    @Test
+    @DisplayName("Изменение роли - роль сохраняется, токены пользователя отзываются, кэши с его ролью сбрасываются")
+    void changeRoleShouldRevokeTokens() {
+        User user = createTestUser();
+        UserShortDto userDto = new UserShortDto(1L, "John", "Doe", ROLE_ADMIN.name());
+
+        when(entityService.findEntityOrElseThrow(userRepository, 1L, "Пользователь не найден"))
+                .thenReturn(user);
+        when(userMapper.toShortDto(user)).thenReturn(userDto);
+
+        UserShortDto result = authenticationService.changeRole(1L, ROLE_ADMIN);
+
+        assertEquals(userDto, result);
+        assertEquals(ROLE_ADMIN, user.getRole());
+        verify(tokenEpochService).advance(user);
+        verify(cacheDependencyTracker).invalidateAfterCommit(CacheDependency.user(1L));
+        verify(listGenerationService).advanceAfterCommit();
+    }
+
+    @Test
+    @DisplayName("Изменение роли - та же роль не отзывает токены")
+    void changeRoleShouldKeepTokensForSameRole() {
+        User user = createTestUser();
+
+        when(entityService.findEntityOrElseThrow(userRepository, 1L, "Пользователь не найден"))
+                .thenReturn(user);
+
+        authenticationService.changeRole(1L, ROLE_USER);
+
+        verifyNoInteractions(tokenEpochService, cacheDependencyTracker, listGenerationService);
+    }
+
+    @Test
+    @DisplayName("Выход из системы - отзываются токен запроса и его сессия, эпоха пользователя не меняется")
+    void logoutShouldRevokeCurrentToken() {
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        UUID sessionId = UUID.randomUUID();
+
+        authenticationService.logout("token-id", sessionId.toString(), 1L, expiresAt);
+
+        verify(tokenRevocationService).revoke("token-id", 1L, expiresAt);
+        verify(refreshTokenService).revokeSession(sessionId, 1L);
+        verifyNoInteractions(tokenEpochService);
+    }
+
+    @Test
+    @DisplayName("Обновление токена - новый токен доступа выдаётся в той же сессии без проверки пароля")
+    void refreshShouldIssueTokensOfSameSession() {
+        User user = createTestUser();
+        UUID sessionId = UUID.randomUUID();
+        when(refreshTokenService.rotate(MOCK_REFRESH_TOKEN))
+                .thenReturn(new RenewedSession(user, sessionId, "next-refresh-token"));
+        when(jwtService.generateToken(user, sessionId)).thenReturn(MOCK_JWT_TOKEN);
+
+        AuthenticationResponse response = authenticationService.refresh(MOCK_REFRESH_TOKEN);
+
+        assertEquals(MOCK_JWT_TOKEN, response.token());
+        assertEquals("next-refresh-token", response.refreshToken());
+        verifyNoInteractions(authenticationManager, passwordEncoder, userRepository);
+    }
 }
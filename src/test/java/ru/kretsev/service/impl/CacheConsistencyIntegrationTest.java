@@ -0,0 +1,187 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import jakarta.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.kretsev.PostgresIntegrationTest;
+import ru.kretsev.dto.comment.CommentDto;
+import ru.kretsev.dto.task.TaskBulkUpdateRequest;
+import ru.kretsev.dto.task.TaskDto;
+import ru.kretsev.dto.task.TaskPatch;
+import ru.kretsev.mapper.CommentMapper;
+import ru.kretsev.mapper.TaskMapper;
+import ru.kretsev.model.task.TaskStatus;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+import ru.kretsev.repository.CommentRepository;
+import ru.kretsev.repository.TaskRepository;
+import ru.kretsev.service.CommentService;
+import ru.kretsev.service.TaskService;
+
+/**
+ * Randomized test comparing cached task and comment reads with the database after every change.
+ */
+class CacheConsistencyIntegrationTest extends PostgresIntegrationTest {
+    private static final int TASKS = 3;
+    private static final int STEPS = 300;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private TaskMapper taskMapper;
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final List<Long> taskIds = new ArrayList<>();
+    private final Set<Long> deletedTaskIds = new HashSet<>();
+    private final Map<Long, List<Long>> commentIds = new HashMap<>();
+    private User admin;
+    private List<User> assignees;
+
+    @BeforeEach
+    void setUp() {
+        admin = saveUser(Role.ROLE_ADMIN);
+        assignees = List.of(saveUser(Role.ROLE_USER), saveUser(Role.ROLE_USER));
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("DELETE FROM tasks");
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    @DisplayName("Кэш - после случайных изменений задач и комментариев чтения из кэша совпадают с базой")
+    void cachedReadsShouldMatchDatabaseAfterRandomChanges() {
+        long seed = System.nanoTime();
+        Random random = new Random(seed);
+        for (int i = 0; i < TASKS; i++) {
+            Long taskId = taskService.createTask(newTaskDto("Задача " + i), admin).body().id();
+            taskIds.add(taskId);
+            commentIds.put(taskId, new ArrayList<>());
+        }
+
+        for (int step = 0; step < STEPS; step++) {
+            String change = "seed=" + seed + ", шаг " + step + ": " + applyRandomChange(random);
+            for (Long taskId : taskIds) {
+                assertEquals(readTask(taskId), cached(() -> taskService.getTask(taskId).body()), change);
+                for (Long commentId : commentIds.get(taskId)) {
+                    assertEquals(
+                            readComment(commentId),
+                            cached(() -> commentService.getCommentById(commentId).body()),
+                            change);
+                }
+            }
+        }
+    }
+
+    private String applyRandomChange(Random random) {
+        Long taskId = taskIds.get(random.nextInt(taskIds.size()));
+        List<Long> comments = commentIds.get(taskId);
+        if (deletedTaskIds.remove(taskId)) {
+            taskService.restoreTask(taskId);
+            return "восстановление задачи " + taskId;
+        }
+        switch (random.nextInt(8)) {
+            case 0 -> {
+                String title = "Задача " + random.nextInt(1000);
+                taskService.updateTask(taskId, newTaskDto(title), null, admin);
+                return "изменение задачи " + taskId + ": " + title;
+            }
+            case 1 -> {
+                Long assigneeId = assignees.get(random.nextInt(assignees.size())).getId();
+                taskService.assignTask(taskId, assigneeId, null);
+                return "назначение задачи " + taskId + " пользователю " + assigneeId;
+            }
+            case 2 -> {
+                TaskStatus status = TaskStatus.values()[random.nextInt(TaskStatus.values().length)];
+                TaskPatch patch = new TaskPatch(status, null, null);
+                taskService.updateTasks(new TaskBulkUpdateRequest(List.of(taskId), null, patch), admin);
+                return "массовое изменение задачи " + taskId + ": " + status;
+            }
+            case 3 -> {
+                deletedTaskIds.add(taskId);
+                taskService.deleteTask(taskId);
+                return "удаление задачи " + taskId;
+            }
+            case 4, 5 -> {
+                if (!comments.isEmpty()) {
+                    Long commentId = comments.remove(random.nextInt(comments.size()));
+                    if (random.nextBoolean()) {
+                        commentService.deleteComment(commentId);
+                    } else {
+                        taskService.deleteComment(taskId, commentId);
+                    }
+                    return "удаление комментария " + commentId + " задачи " + taskId;
+                }
+            }
+            default -> {}
+        }
+        CommentDto comment = commentService.addComment(
+                taskId, new CommentDto(null, "Комментарий " + random.nextInt(1000), null, null, null), admin);
+        comments.add(comment.id());
+        return "добавление комментария " + comment.id() + " к задаче " + taskId;
+    }
+
+    private Optional<TaskDto> readTask(Long taskId) {
+        return transactionTemplate.execute(status -> taskRepository.findById(taskId).map(taskMapper::toDto));
+    }
+
+    private Optional<CommentDto> readComment(Long commentId) {
+        return transactionTemplate.execute(status -> commentRepository.findById(commentId).map(commentMapper::toDto));
+    }
+
+    private static <T> Optional<T> cached(Supplier<T> read) {
+        try {
+            return Optional.of(read.get());
+        } catch (EntityNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static TaskDto newTaskDto(String title) {
+        return new TaskDto(null, title, "Описание", "PENDING", "LOW", null, null, List.of(), null);
+    }
+}
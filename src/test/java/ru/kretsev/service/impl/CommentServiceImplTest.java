@@ -10,16 +10,26 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import ru.kretsev.auth.AuthenticationFacade;
+import ru.kretsev.cache.CacheDependency;
+import ru.kretsev.cache.CacheDependencyTracker;
 import ru.kretsev.dto.comment.CommentDto;
+import ru.kretsev.dto.page.Cursor;
+import ru.kretsev.dto.page.CursorPage;
+import ru.kretsev.dto.page.ListScope;
+import ru.kretsev.event.CommentAdded;
+import ru.kretsev.event.CommentDeleted;
 import ru.kretsev.mapper.CommentMapper;
 import ru.kretsev.model.comment.Comment;
 import ru.kretsev.model.task.Task;
 import ru.kretsev.model.user.User;
 import ru.kretsev.repository.CommentRepository;
 import ru.kretsev.repository.TaskRepository;
+import ru.kretsev.service.DomainEventService;
 import ru.kretsev.service.EntityService;
+import ru.kretsev.service.ListGenerationService;
 
 /**
  * Unit tests for the CommentServiceImpl.
@@ -44,6 +54,15 @@ class CommentServiceImplTest {
     @Mock
     private AuthenticationFacade authenticationFacade;
 
+    @Mock
+    private ListGenerationService listGenerationService;
+
+    @Mock
+    private DomainEventService domainEventService;
+
+    @Mock
+    private CacheDependencyTracker cacheDependencyTracker;
+
     @InjectMocks
     private CommentServiceImpl commentService;
 
@@ -51,12 +70,13 @@ class CommentServiceImplTest {
     @DisplayName("Добавление комментария - успешный сценарий")
     void addCommentShouldReturnCommentDto() {
         Long taskId = 1L;
-        CommentDto commentDto = new CommentDto(1L, "Комментарий", null, null);
+        CommentDto commentDto = new CommentDto(1L, "Комментарий", null, null, 0L);
         User user = new User();
         user.setEmail("user@example.com");
 
         Task task = new Task();
         task.setId(taskId);
+        task.setAuthor(User.builder().id(3L).build());
 
         Comment comment = new Comment();
         comment.setId(1L);
@@ -74,6 +94,9 @@ class CommentServiceImplTest {
         assertNotNull(result, "Результат не должен быть null");
         assertEquals(commentDto.content(), result.content(), "Содержание комментария должно совпадать");
         verify(commentRepository, times(1)).save(comment);
+        verify(domainEventService).publish(new CommentAdded(1L, taskId, null));
+        verify(cacheDependencyTracker).invalidateAfterCommit(CacheDependency.taskComments(taskId));
+        verify(listGenerationService).advanceAfterCommit(List.of(ListScope.user(3L), ListScope.task(taskId)));
     }
 
     @Test
@@ -83,6 +106,7 @@ class CommentServiceImplTest {
         Comment comment = new Comment();
         comment.setId(commentId);
         comment.setContent("Комментарий");
+        comment.setTask(Task.builder().id(5L).author(User.builder().id(3L).build()).build());
 
         User user = new User();
         user.setEmail("user@example.com");
@@ -96,6 +120,9 @@ class CommentServiceImplTest {
         commentService.deleteComment(commentId);
 
         verify(commentRepository, times(1)).delete(comment);
+        verify(domainEventService).publish(new CommentDeleted(commentId, 5L));
+        verify(cacheDependencyTracker).invalidateAfterCommit(CacheDependency.taskComments(5L));
+        verify(listGenerationService).advanceAfterCommit(List.of(ListScope.user(3L), ListScope.task(5L)));
     }
 
     @Test
@@ -116,5 +143,25 @@ class CommentServiceImplTest {
         when(authenticationFacade.getCurrentUserRoles()).thenReturn(List.of("ROLE_USER"));
 
         assertThrows(AccessDeniedException.class, () -> commentService.deleteComment(commentId));
+        verifyNoInteractions(cacheDependencyTracker);
+    }
+
+    @Test
+    @DisplayName("Получение комментариев по курсору - поиск начинается после курсора")
+    void getCommentsByTaskIdAfterShouldSeekFromCursor() {
+        Long taskId = 1L;
+        Comment first = Comment.builder().id(21L).content("Первый").build();
+        Comment extra = Comment.builder().id(22L).content("Второй").build();
+        CommentDto firstDto = new CommentDto(21L, "Первый", null, null, 0L);
+
+        when(commentRepository.findByTaskIdAndIdGreaterThanOrderByIdAsc(taskId, 20L, Limit.of(2)))
+                .thenReturn(List.of(first, extra));
+        when(commentMapper.toDto(first)).thenReturn(firstDto);
+
+        CursorPage<CommentDto> result = commentService.getCommentsByTaskId(taskId, new Cursor(20L, null).encode(), 1);
+
+        assertEquals(List.of(firstDto), result.content());
+        assertTrue(result.hasNext(), "Должна существовать следующая страница");
+        assertEquals(21L, Cursor.decode(result.nextCursor()).id());
     }
 }
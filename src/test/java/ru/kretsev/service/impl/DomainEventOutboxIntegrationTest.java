@@ -0,0 +1,92 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.kretsev.PostgresIntegrationTest;
+import ru.kretsev.dto.task.TaskDto;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+import ru.kretsev.repository.TaskRepository;
+import ru.kretsev.service.DomainEventService;
+import ru.kretsev.service.TaskService;
+
+/**
+ * Integration tests of the domain event outbox and its relay.
+ */
+class DomainEventOutboxIntegrationTest extends PostgresIntegrationTest {
+    private static final long RELAY_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private DomainEventService domainEventService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        author = saveUser(Role.ROLE_USER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Outbox - событие записано в транзакции изменения и откатывается вместе с ней")
+    void eventShouldBeRolledBackWithChange() {
+        Long taskId = transactionTemplate.execute(status -> {
+            TaskDto task = taskService.createTask(newTaskDto(), author).body();
+            assertEquals(1, countEvents(task.id()), "Событие должно быть записано в той же транзакции");
+            status.setRollbackOnly();
+            return task.id();
+        });
+
+        assertEquals(0, countEvents(taskId));
+        assertFalse(taskRepository.existsById(taskId));
+    }
+
+    @Test
+    @DisplayName("Outbox - событие зафиксированного изменения передано обработчикам и удалено")
+    void committedEventShouldBeRelayedAndDeleted() throws InterruptedException {
+        TaskDto task = taskService.createTask(newTaskDto(), author).body();
+
+        long deadline = System.nanoTime() + RELAY_TIMEOUT_NANOS;
+        while (countEvents(task.id()) > 0 && System.nanoTime() < deadline) {
+            domainEventService.relayEvents();
+            Thread.sleep(50);
+        }
+
+        assertEquals(0, countEvents(task.id()), "Событие должно быть обработано и удалено");
+    }
+
+    private int countEvents(Long taskId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM domain_events WHERE task_id = ?", Integer.class, taskId);
+        return count == null ? 0 : count;
+    }
+
+    private static TaskDto newTaskDto() {
+        return new TaskDto(null, "Задача", "Описание", null, "LOW", null, null, List.of(), null);
+    }
+}
@@ -0,0 +1,140 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.kretsev.event.CommentAdded;
+import ru.kretsev.event.TaskCreated;
+import ru.kretsev.event.TaskUpdated;
+import ru.kretsev.repository.DomainEventRepository;
+import ru.kretsev.repository.DomainEventRepository.DomainEventRow;
+import ru.kretsev.repository.DomainEventRepository.NewDomainEvent;
+
+/**
+ * Unit tests for the DomainEventServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class DomainEventServiceImplTest {
+    @Mock
+    private DomainEventRepository domainEventRepository;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private LoggingServiceImpl loggingService;
+
+    @InjectMocks
+    private DomainEventServiceImpl domainEventService;
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    @DisplayName("Запись событий - тип и JSON каждого события одним пакетом в текущей транзакции")
+    void publishAllShouldAppendSerializedEvents() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        domainEventService.publishAll(List.of(new TaskCreated(1L, 2L, null), new CommentAdded(3L, 1L, 2L)));
+
+        verify(domainEventRepository)
+                .append(List.of(
+                        new NewDomainEvent("TaskCreated", 1L, "{\"taskId\":1,\"authorId\":2,\"assigneeId\":null}"),
+                        new NewDomainEvent("CommentAdded", 1L, "{\"commentId\":3,\"taskId\":1,\"authorId\":2}")));
+    }
+
+    @Test
+    @DisplayName("Запись события вне транзакции - ошибка, событие не записано")
+    void publishShouldRequireTransaction() {
+        TaskUpdated event = new TaskUpdated(1L);
+
+        assertThrows(IllegalStateException.class, () -> domainEventService.publish(event));
+        verifyNoInteractions(domainEventRepository);
+    }
+
+    @Test
+    @DisplayName("Рассылка событий - обработчики получают события по порядку, события удаляются")
+    void relayEventsShouldDispatchInOrderAndDelete() {
+        when(domainEventRepository.hasPending()).thenReturn(true);
+        when(domainEventRepository.tryLockRelay()).thenReturn(true);
+        when(domainEventRepository.claim(DomainEventServiceImpl.BATCH_SIZE))
+                .thenReturn(List.of(
+                        new DomainEventRow(1, "TaskCreated", "{\"taskId\":10,\"authorId\":2}", 0),
+                        new DomainEventRow(2, "TaskUpdated", "{\"taskId\":10}", 0)));
+
+        int relayed = domainEventService.relayEvents();
+
+        assertEquals(2, relayed);
+        InOrder inOrder = inOrder(applicationEventPublisher, domainEventRepository);
+        inOrder.verify(applicationEventPublisher).publishEvent(new TaskCreated(10L, 2L, null));
+        inOrder.verify(applicationEventPublisher).publishEvent(new TaskUpdated(10L));
+        inOrder.verify(domainEventRepository).delete(List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Ошибка обработчика - пакет остановлен на событии, ошибка записана, следующие события ждут")
+    void relayEventsShouldStopAtFailingEvent() {
+        when(domainEventRepository.hasPending()).thenReturn(true);
+        when(domainEventRepository.tryLockRelay()).thenReturn(true);
+        when(domainEventRepository.claim(DomainEventServiceImpl.BATCH_SIZE))
+                .thenReturn(List.of(
+                        new DomainEventRow(1, "TaskUpdated", "{\"taskId\":10}", 0),
+                        new DomainEventRow(2, "TaskUpdated", "{\"taskId\":11}", 0),
+                        new DomainEventRow(3, "TaskUpdated", "{\"taskId\":12}", 0)));
+        lenient()
+                .doThrow(new IllegalStateException("сбой обработчика"))
+                .when(applicationEventPublisher)
+                .publishEvent(new TaskUpdated(11L));
+
+        int relayed = domainEventService.relayEvents();
+
+        assertEquals(1, relayed);
+        verify(domainEventRepository)
+                .recordFailure(eq(2L), contains("сбой обработчика"), eq(DomainEventServiceImpl.MAX_ATTEMPTS));
+        verify(domainEventRepository).delete(List.of(1L));
+        verify(applicationEventPublisher, never()).publishEvent(new TaskUpdated(12L));
+    }
+
+    @Test
+    @DisplayName("Рассылка на другом узле - события не забираются")
+    void relayEventsShouldSkipWhileAnotherRelayRuns() {
+        when(domainEventRepository.hasPending()).thenReturn(true);
+        when(domainEventRepository.tryLockRelay()).thenReturn(false);
+
+        assertEquals(0, domainEventService.relayEvents());
+        verify(domainEventRepository, never()).claim(anyInt());
+    }
+
+    @Test
+    @DisplayName("Пустой outbox - транзакция рассылки не открывается")
+    void relayEventsShouldNotOpenTransactionWithoutPendingEvents() {
+        when(domainEventRepository.hasPending()).thenReturn(false);
+
+        assertEquals(0, domainEventService.relayEvents());
+        verify(domainEventRepository, never()).tryLockRelay();
+        verifyNoInteractions(transactionManager);
+    }
+}
@@ -0,0 +1,47 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the ListCacheServiceImpl.
+ */
+class ListCacheServiceImplTest {
+    @Test
+    @DisplayName("Кэш списков - повтор тега не выполняет запрос, новый тег выполняет, попадания учитываются в метриках")
+    void getShouldRunQueryOncePerTag() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ListCacheServiceImpl service = new ListCacheServiceImpl(100, Duration.ofMinutes(5), meterRegistry);
+        AtomicInteger queries = new AtomicInteger();
+
+        List<Integer> first = service.get("1-abc", () -> List.of(queries.incrementAndGet()));
+        List<Integer> repeated = service.get("1-abc", () -> List.of(queries.incrementAndGet()));
+        List<Integer> advanced = service.get("2-abc", () -> List.of(queries.incrementAndGet()));
+
+        assertEquals(List.of(1), first);
+        assertEquals(first, repeated, "Повторный запрос с тем же тегом должен браться из кэша");
+        assertEquals(List.of(2), advanced, "Запрос с новым тегом должен выполняться");
+        assertEquals(
+                1.0,
+                meterRegistry
+                        .get("cache.gets")
+                        .tag("cache", "lists")
+                        .tag("result", "hit")
+                        .functionCounter()
+                        .count());
+        assertEquals(
+                2.0,
+                meterRegistry
+                        .get("cache.gets")
+                        .tag("cache", "lists")
+                        .tag("result", "miss")
+                        .functionCounter()
+                        .count());
+    }
+}
@@ -0,0 +1,124 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.kretsev.cache.CacheInvalidationBroadcaster;
+import ru.kretsev.cache.InvalidationTarget;
+import ru.kretsev.dto.page.ListScope;
+
+/**
+ * Unit tests for the ListGenerationServiceImpl.
+ */
+class ListGenerationServiceImplTest {
+    private static final String QUERY = "uri=/api/v1/tasks?page=0";
+
+    @Test
+    @DisplayName("Изменение области - меняются теги её списков и общих списков, остальные области сохраняют теги")
+    void scopedAdvanceShouldChangeOnlyTagsReadingTheScope() {
+        ListGenerationServiceImpl service = new ListGenerationServiceImpl(provider(null));
+        String allTasks = service.tagOf(QUERY, null);
+        String firstUser = service.tagOf(QUERY, ListScope.user(1L));
+        String secondUser = service.tagOf(QUERY, ListScope.user(2L));
+        String firstTask = service.tagOf(QUERY, ListScope.task(1L));
+
+        service.advanceAfterCommit(List.of(ListScope.user(1L)));
+
+        assertNotEquals(allTasks, service.tagOf(QUERY, null), "Общие списки читают все данные");
+        assertNotEquals(firstUser, service.tagOf(QUERY, ListScope.user(1L)));
+        assertEquals(secondUser, service.tagOf(QUERY, ListScope.user(2L)), "Списки другого автора не изменились");
+        assertEquals(firstTask, service.tagOf(QUERY, ListScope.task(1L)), "Области разных типов независимы");
+    }
+
+    @Test
+    @DisplayName("Изменение всех данных - меняются теги всех областей")
+    void advanceShouldChangeAllTags() {
+        ListGenerationServiceImpl service = new ListGenerationServiceImpl(provider(null));
+        service.advanceAfterCommit(List.of(ListScope.user(1L)));
+        String firstUser = service.tagOf(QUERY, ListScope.user(1L));
+        String secondUser = service.tagOf(QUERY, ListScope.user(2L));
+
+        service.advanceAfterCommit();
+
+        assertNotEquals(firstUser, service.tagOf(QUERY, ListScope.user(1L)));
+        assertNotEquals(secondUser, service.tagOf(QUERY, ListScope.user(2L)));
+        assertEquals(
+                service.currentGeneration(),
+                service.currentGeneration(ListScope.user(1L)),
+                "Поколение области не должно отставать от поколения всех данных");
+    }
+
+    @Test
+    @DisplayName("Догнавшая реплика - повторно меняются только теги областей, изменённых в диапазоне поколений")
+    void advanceChangedShouldChangeOnlyScopesChangedInRange() {
+        ListGenerationServiceImpl service = new ListGenerationServiceImpl(provider(null));
+        service.advanceAfterCommit(List.of(ListScope.user(1L)));
+        long replicated = service.currentGeneration();
+        service.advanceAfterCommit(List.of(ListScope.user(2L)));
+        long caughtUp = service.currentGeneration();
+        service.advanceAfterCommit(List.of(ListScope.user(3L)));
+        String firstUser = service.tagOf(QUERY, ListScope.user(1L));
+        String secondUser = service.tagOf(QUERY, ListScope.user(2L));
+        String thirdUser = service.tagOf(QUERY, ListScope.user(3L));
+
+        service.advanceChanged(replicated, caughtUp);
+
+        assertEquals(firstUser, service.tagOf(QUERY, ListScope.user(1L)), "Изменение уже было на реплике");
+        assertNotEquals(secondUser, service.tagOf(QUERY, ListScope.user(2L)));
+        assertEquals(thirdUser, service.tagOf(QUERY, ListScope.user(3L)), "Реплика ещё не получила изменение");
+
+        String againSecondUser = service.tagOf(QUERY, ListScope.user(2L));
+        service.advanceChanged(replicated, caughtUp);
+        assertEquals(againSecondUser, service.tagOf(QUERY, ListScope.user(2L)), "Изменение обрабатывается один раз");
+    }
+
+    @Test
+    @DisplayName("Тег - зависит от запроса и одинаков для повторного запроса")
+    void tagShouldDependOnQuery() {
+        ListGenerationServiceImpl service = new ListGenerationServiceImpl(provider(null));
+
+        assertEquals(service.tagOf(QUERY, null), service.tagOf(QUERY, null));
+        assertNotEquals(service.tagOf(QUERY, null), service.tagOf(QUERY + "&size=5", null));
+    }
+
+    @Test
+    @DisplayName("Рассылка - изменения областей передаются узлам и применяются при получении")
+    void changesShouldBeBroadcastAndAppliedByTarget() {
+        CacheInvalidationBroadcaster broadcaster = mock(CacheInvalidationBroadcaster.class);
+        ListGenerationServiceImpl service = new ListGenerationServiceImpl(provider(broadcaster));
+
+        service.advanceAfterCommit(List.of(ListScope.user(1L), ListScope.task(5L)));
+        service.advanceAfterCommit();
+
+        verify(broadcaster).keyChanged("list-generation-user", 1L);
+        verify(broadcaster).keyChanged("list-generation-task", 5L);
+        verify(broadcaster).keyChanged("list-generation", 0L);
+
+        InvalidationTarget userTarget = registeredTarget(broadcaster, "list-generation-user");
+        String firstUser = service.tagOf(QUERY, ListScope.user(1L));
+        String secondUser = service.tagOf(QUERY, ListScope.user(2L));
+
+        userTarget.evictLocally(2L);
+
+        assertEquals(firstUser, service.tagOf(QUERY, ListScope.user(1L)));
+        assertNotEquals(secondUser, service.tagOf(QUERY, ListScope.user(2L)), "Изменение другого узла применяется");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<CacheInvalidationBroadcaster> provider(CacheInvalidationBroadcaster broadcaster) {
+        ObjectProvider<CacheInvalidationBroadcaster> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(broadcaster);
+        return provider;
+    }
+
+    private static InvalidationTarget registeredTarget(CacheInvalidationBroadcaster broadcaster, String name) {
+        ArgumentCaptor<InvalidationTarget> captor = ArgumentCaptor.forClass(InvalidationTarget.class);
+        verify(broadcaster).register(eq(name), captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,198 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.kretsev.dto.page.PageMode.EXACT;
+import static ru.kretsev.dto.page.PageMode.SLICE;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.kretsev.PostgresIntegrationTest;
+import ru.kretsev.dto.task.TaskFilter;
+import ru.kretsev.dto.task.TaskSort;
+import ru.kretsev.dto.task.TaskSummaryDto;
+import ru.kretsev.model.comment.Comment;
+import ru.kretsev.model.task.Priority;
+import ru.kretsev.model.task.Task;
+import ru.kretsev.model.task.TaskSortKey;
+import ru.kretsev.model.task.TaskStatus;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+import ru.kretsev.repository.CommentRepository;
+import ru.kretsev.repository.TaskRepository;
+import ru.kretsev.service.CommentService;
+import ru.kretsev.service.TaskService;
+
+/**
+ * Integration tests asserting that list endpoints load a page with a bounded number of SQL statements.
+ */
+class ListQueryCountTest extends PostgresIntegrationTest {
+    private static final int TASK_COUNT = 30;
+    private static final int COMMENTS_PER_TASK = 3;
+    private static final int PAGE_SIZE = 50;
+    private static final TaskFilter ALL = TaskFilter.empty();
+    private static final TaskSort BY_ID = TaskSort.byId();
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User author;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            author = saveUser(Role.ROLE_USER);
+            User assignee = saveUser(Role.ROLE_USER);
+            User commenter = saveUser(Role.ROLE_USER);
+
+            List<Task> tasks = new ArrayList<>();
+            for (int i = 0; i < TASK_COUNT; i++) {
+                tasks.add(Task.builder()
+                        .title("Задача " + i)
+                        .description("Описание " + i)
+                        .status(TaskStatus.PENDING)
+                        .priority(Priority.MEDIUM)
+                        .author(author)
+                        .assignee(i % 2 == 0 ? assignee : null)
+                        .build());
+            }
+            taskRepository.saveAll(tasks);
+
+            for (Task task : tasks) {
+                for (int j = 0; j < COMMENTS_PER_TASK; j++) {
+                    commentRepository.save(Comment.builder()
+                            .content("Комментарий " + j + " к задаче " + task.getId())
+                            .task(task)
+                            .author(j % 2 == 0 ? author : commenter)
+                            .build());
+                }
+            }
+            taskId = tasks.get(0).getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            commentRepository.deleteAllInBatch();
+            taskRepository.deleteAllInBatch();
+        });
+    }
+
+    @Test
+    @DisplayName("Все задачи с пагинацией - ограниченное число запросов")
+    void getAllTasksShouldUseBoundedQueries() {
+        long statements = countStatements(() -> taskService.getAllTasks(ALL, BY_ID, 0, PAGE_SIZE, EXACT));
+
+        // tasks with author and assignee, count; summaries never load comments
+        assertTrue(statements <= 2, "Выполнено запросов: " + statements);
+    }
+
+    @Test
+    @DisplayName("Все задачи без подсчёта - ограниченное число запросов")
+    void getAllTasksSliceShouldSkipCountQuery() {
+        long statements = countStatements(() -> taskService.getAllTasks(ALL, BY_ID, 0, PAGE_SIZE, SLICE));
+
+        assertTrue(statements <= 1, "Выполнено запросов: " + statements);
+    }
+
+    @Test
+    @DisplayName("Все задачи по курсору - ограниченное число запросов")
+    void getAllTasksAfterShouldUseBoundedQueries() {
+        long statements = countStatements(() -> taskService.getAllTasks(ALL, BY_ID, "", PAGE_SIZE));
+
+        assertTrue(statements <= 1, "Выполнено запросов: " + statements);
+    }
+
+    @Test
+    @DisplayName("Задачи пользователя - ограниченное число запросов")
+    void getUserTasksShouldUseBoundedQueries() {
+        long statements = countStatements(() -> taskService.getUserTasks(author, ALL, BY_ID, 0, PAGE_SIZE));
+
+        // the list response has no total, so no count query is needed
+        assertTrue(statements <= 1, "Выполнено запросов: " + statements);
+    }
+
+    @Test
+    @DisplayName("Задачи пользователя по курсору - ограниченное число запросов")
+    void getUserTasksAfterShouldUseBoundedQueries() {
+        long statements = countStatements(() -> taskService.getUserTasks(author, ALL, BY_ID, "", PAGE_SIZE));
+
+        assertTrue(statements <= 1, "Выполнено запросов: " + statements);
+    }
+
+    @Test
+    @DisplayName("Комментарии задачи - ограниченное число запросов")
+    void getCommentsByTaskIdShouldUseBoundedQueries() {
+        long statements = countStatements(() -> commentService.getCommentsByTaskId(taskId, 0, PAGE_SIZE, EXACT));
+
+        // comments with author and task, count
+        assertTrue(statements <= 2, "Выполнено запросов: " + statements);
+    }
+
+    @Test
+    @DisplayName("Комментарии задачи без подсчёта - ограниченное число запросов")
+    void getCommentsByTaskIdSliceShouldSkipCountQuery() {
+        long statements = countStatements(() -> commentService.getCommentsByTaskId(taskId, 0, PAGE_SIZE, SLICE));
+
+        assertTrue(statements <= 1, "Выполнено запросов: " + statements);
+    }
+
+    @Test
+    @DisplayName("Комментарии задачи по курсору - ограниченное число запросов")
+    void getCommentsByTaskIdAfterShouldUseBoundedQueries() {
+        long statements = countStatements(() -> commentService.getCommentsByTaskId(taskId, "", PAGE_SIZE));
+
+        assertTrue(statements <= 1, "Выполнено запросов: " + statements);
+    }
+
+    @Test
+    @DisplayName("Сводка задач - число комментариев и последняя активность поддерживаются триггерами")
+    void taskSummariesShouldReflectCommentChanges() {
+        transactionTemplate.executeWithoutResult(status -> commentRepository.delete(commentRepository
+                .findSliceByTaskId(taskId, PageRequest.of(0, 1))
+                .getContent()
+                .get(0)));
+        TaskSort byLastActivity = new TaskSort(TaskSortKey.LAST_ACTIVITY, Sort.Direction.DESC);
+
+        List<TaskSummaryDto> tasks = taskService.getUserTasks(author, ALL, byLastActivity, 0, PAGE_SIZE);
+
+        assertEquals(taskId, tasks.get(0).id(), "Задача с удалённым комментарием должна быть первой");
+        assertEquals(COMMENTS_PER_TASK - 1, tasks.get(0).commentCount());
+        assertEquals(COMMENTS_PER_TASK, tasks.get(1).commentCount());
+        assertTrue(tasks.get(0).lastActivityAt().isAfter(tasks.get(1).lastActivityAt()));
+    }
+
+    private long countStatements(Runnable call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,52 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.kretsev.PostgresIntegrationTest;
+import ru.kretsev.dto.user.AuthenticationRequest;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+import ru.kretsev.service.AuthenticationService;
+
+/**
+ * Integration tests of re-hashing stored passwords after a change of the BCrypt cost factor.
+ */
+class PasswordRehashIntegrationTest extends PostgresIntegrationTest {
+    private static final String PASSWORD = "password123";
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tokens");
+    }
+
+    @Test
+    @DisplayName("Вход с хэшем другой стоимости - пароль перехэшируется с текущей стоимостью")
+    void authenticateShouldRehashPasswordOfOtherCost() {
+        String oldHash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        User user = saveUser(Role.ROLE_USER, oldHash);
+
+        authenticationService.authenticate(new AuthenticationRequest(user.getEmail(), PASSWORD));
+
+        String newHash = userRepository.findById(user.getId()).orElseThrow().getPassword();
+        assertNotEquals(oldHash, newHash);
+        assertFalse(passwordEncoder.upgradeEncoding(newHash), "Новый хэш должен иметь текущую стоимость");
+        assertTrue(passwordEncoder.matches(PASSWORD, newHash));
+        assertNotNull(authenticationService.authenticate(new AuthenticationRequest(user.getEmail(), PASSWORD)));
+    }
+}
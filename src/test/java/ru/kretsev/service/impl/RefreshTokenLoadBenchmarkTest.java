@@ -0,0 +1,135 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.kretsev.PostgresIntegrationTest;
+import ru.kretsev.dto.user.AuthenticationRequest;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+import ru.kretsev.service.AuthenticationService;
+import ru.kretsev.service.LoggingService;
+
+/**
+ * Load test comparing concurrent renewals with refresh tokens to the same number of logins with a password.
+ * Every worker thread renews its own session, like a client renewing its access token before it expires.
+ * Excluded from the regular test run; start it with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class RefreshTokenLoadBenchmarkTest extends PostgresIntegrationTest {
+    private static final String PASSWORD = "password123";
+    private static final int THREADS = Runtime.getRuntime().availableProcessors() * 2;
+    private static final int REQUESTS_PER_THREAD = 25;
+    private static final int WARMUP_REQUESTS = 5;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LoggingService loggingService;
+
+    private AuthenticationRequest credentials;
+
+    @BeforeEach
+    void setUp() {
+        User user = saveUser(Role.ROLE_USER, passwordEncoder.encode(PASSWORD));
+        credentials = new AuthenticationRequest(user.getEmail(), PASSWORD);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tokens");
+    }
+
+    @Test
+    @DisplayName("Обновление токена под нагрузкой быстрее повторного входа по паролю")
+    void refreshShouldOutperformLogin() throws Exception {
+        UnaryOperator<String> login = refreshToken -> authenticationService.authenticate(credentials).refreshToken();
+        UnaryOperator<String> refresh = refreshToken -> authenticationService.refresh(refreshToken).refreshToken();
+        run(login, WARMUP_REQUESTS);
+        run(refresh, WARMUP_REQUESTS);
+
+        long[] loginNanos = run(login, REQUESTS_PER_THREAD);
+        long[] refreshNanos = run(refresh, REQUESTS_PER_THREAD);
+
+        loggingService.logInfo(
+                "{} потоков: вход - {} запросов/с, p99 {} мс; обновление - {} запросов/с, p99 {} мс",
+                THREADS,
+                throughput(loginNanos),
+                percentileMillis(loginNanos, 0.99),
+                throughput(refreshNanos),
+                percentileMillis(refreshNanos, 0.99));
+        assertTrue(throughput(refreshNanos) > throughput(loginNanos), "Обновление токена должно быть быстрее входа");
+    }
+
+    /**
+     * Runs the requests on all threads, each thread starting from its own session once all threads have logged in,
+     * and returns the latency of every request with the total wall time as the last element.
+     */
+    private long[] run(UnaryOperator<String> request, int requestsPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch started = new CountDownLatch(1);
+        try {
+            Callable<long[]> worker = () -> {
+                String refreshToken = authenticationService.authenticate(credentials).refreshToken();
+                ready.countDown();
+                started.await();
+                long[] latencies = new long[requestsPerThread];
+                for (int i = 0; i < requestsPerThread; i++) {
+                    long start = System.nanoTime();
+                    refreshToken = request.apply(refreshToken);
+                    latencies[i] = System.nanoTime() - start;
+                }
+                return latencies;
+            };
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(worker));
+            }
+            ready.await();
+            long start = System.nanoTime();
+            started.countDown();
+            long[] nanos = new long[THREADS * requestsPerThread + 1];
+            for (int i = 0; i < THREADS; i++) {
+                System.arraycopy(futures.get(i).get(), 0, nanos, i * requestsPerThread, requestsPerThread);
+            }
+            nanos[nanos.length - 1] = System.nanoTime() - start;
+            return nanos;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long throughput(long[] nanos) {
+        return (nanos.length - 1) * 1_000_000_000L / Math.max(nanos[nanos.length - 1], 1);
+    }
+
+    private static long percentileMillis(long[] nanos, double percentile) {
+        long[] latencies = Arrays.copyOf(nanos, nanos.length - 1);
+        Arrays.sort(latencies);
+        return latencies[(int) Math.ceil(percentile * latencies.length) - 1] / 1_000_000;
+    }
+}
@@ -0,0 +1,117 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.kretsev.PostgresIntegrationTest;
+import ru.kretsev.auth.JwtService;
+import ru.kretsev.dto.user.AuthenticationRequest;
+import ru.kretsev.dto.user.AuthenticationResponse;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+import ru.kretsev.service.AuthenticationService;
+import ru.kretsev.service.TokenRevocationService;
+
+/**
+ * Integration tests of the refresh token rotation against PostgreSQL.
+ */
+class RefreshTokenRotationIntegrationTest extends PostgresIntegrationTest {
+    private static final String PASSWORD = "password123";
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = saveUser(Role.ROLE_USER, passwordEncoder.encode(PASSWORD));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tokens");
+    }
+
+    @Test
+    @DisplayName("Обновление токена - выдаются новые токены той же сессии, хэш токена хранится вместо значения")
+    void refreshShouldRotateTokens() {
+        AuthenticationResponse login = login();
+
+        AuthenticationResponse renewed = authenticationService.refresh(login.refreshToken());
+
+        Claims loginClaims = jwtService.verify(login.token());
+        Claims renewedClaims = jwtService.verify(renewed.token());
+        assertEquals(user.getId(), jwtService.principalOf(renewedClaims).getId());
+        assertEquals(
+                loginClaims.get(JwtService.SESSION_ID, String.class),
+                renewedClaims.get(JwtService.SESSION_ID, String.class));
+        assertNotEquals(login.refreshToken(), renewed.refreshToken());
+        assertEquals(
+                0,
+                jdbcTemplate.queryForObject(
+                        "SELECT count(*) FROM tokens WHERE token_value IN (?, ?)",
+                        Integer.class,
+                        login.refreshToken(),
+                        renewed.refreshToken()));
+    }
+
+    @Test
+    @DisplayName("Повторное использование токена обновления - отклоняется, вся сессия отзывается")
+    void reusedRefreshTokenShouldRevokeSession() {
+        AuthenticationResponse login = login();
+        AuthenticationResponse renewed = authenticationService.refresh(login.refreshToken());
+
+        assertThrows(BadCredentialsException.class, () -> authenticationService.refresh(login.refreshToken()));
+
+        assertThrows(
+                BadCredentialsException.class,
+                () -> authenticationService.refresh(renewed.refreshToken()),
+                "Последний токен сессии должен быть отозван");
+        assertTrue(
+                tokenRevocationService.isSessionRevoked(
+                        jwtService.verify(renewed.token()).get(JwtService.SESSION_ID, String.class)),
+                "Токены доступа сессии должны быть отозваны");
+        assertNotNull(authenticationService.refresh(login().refreshToken()), "Другие сессии должны работать");
+    }
+
+    @Test
+    @DisplayName("Выход из системы - токены обновления и доступа сессии отзываются")
+    void logoutShouldRevokeSessionRefreshTokens() {
+        AuthenticationResponse login = login();
+        Claims claims = jwtService.verify(login.token());
+
+        authenticationService.logout(
+                claims.getId(),
+                claims.get(JwtService.SESSION_ID, String.class),
+                user.getId(),
+                claims.getExpiration().toInstant());
+
+        assertThrows(BadCredentialsException.class, () -> authenticationService.refresh(login.refreshToken()));
+        assertTrue(tokenRevocationService.isSessionRevoked(claims.get(JwtService.SESSION_ID, String.class)));
+    }
+
+    private AuthenticationResponse login() {
+        return authenticationService.authenticate(new AuthenticationRequest(user.getEmail(), PASSWORD));
+    }
+}
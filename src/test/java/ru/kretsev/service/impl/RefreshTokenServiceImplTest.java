@@ -0,0 +1,103 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import ru.kretsev.model.user.User;
+import ru.kretsev.repository.RefreshTokenRepository;
+import ru.kretsev.repository.RefreshTokenRepository.RotatedToken;
+import ru.kretsev.service.LoggingService;
+import ru.kretsev.service.RefreshTokenService.RenewedSession;
+import ru.kretsev.service.TokenRevocationService;
+
+/**
+ * Unit tests for the RefreshTokenServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceImplTest {
+    private static final UUID SESSION_ID = UUID.randomUUID();
+    private static final User USER = User.builder().id(1L).email("user@example.com").build();
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private LoggingService loggingService;
+
+    private RefreshTokenServiceImpl refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenServiceImpl(
+                refreshTokenRepository, tokenRevocationService, loggingService, Duration.ofDays(30));
+    }
+
+    @Test
+    @DisplayName("Выдача токена обновления - в базе хранится только хэш токена")
+    void issueShouldStoreDigestOnly() {
+        String refreshToken = refreshTokenService.issue(1L, SESSION_ID);
+
+        ArgumentCaptor<String> digest = ArgumentCaptor.forClass(String.class);
+        verify(refreshTokenRepository).insert(digest.capture(), eq(1L), eq(SESSION_ID), any(Instant.class));
+        assertNotEquals(refreshToken, digest.getValue());
+        assertNotEquals(refreshToken, refreshTokenService.issue(1L, SESSION_ID), "Токены должны быть случайными");
+    }
+
+    @Test
+    @DisplayName("Обновление - предъявленный токен заменяется новым токеном той же сессии")
+    void rotateShouldIssueNextTokenOfSession() {
+        String refreshToken = refreshTokenService.issue(1L, SESSION_ID);
+        ArgumentCaptor<String> digest = ArgumentCaptor.forClass(String.class);
+        verify(refreshTokenRepository).insert(digest.capture(), eq(1L), eq(SESSION_ID), any(Instant.class));
+        when(refreshTokenRepository.rotate(digest.getValue()))
+                .thenReturn(Optional.of(new RotatedToken(false, SESSION_ID, Instant.now().plusSeconds(60), USER)));
+
+        RenewedSession session = refreshTokenService.rotate(refreshToken);
+
+        assertSame(USER, session.user());
+        assertEquals(SESSION_ID, session.sessionId());
+        assertNotEquals(refreshToken, session.refreshToken());
+        verify(refreshTokenRepository, times(2)).insert(anyString(), eq(1L), eq(SESSION_ID), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Повторное использование токена обновления - вся сессия отзывается, запрос отклоняется")
+    void rotateShouldRevokeSessionOnReuse() {
+        when(refreshTokenRepository.rotate(anyString()))
+                .thenReturn(Optional.of(new RotatedToken(true, SESSION_ID, Instant.now().plusSeconds(60), USER)));
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("used-token"));
+
+        verify(refreshTokenRepository).revokeSession(SESSION_ID);
+        verify(tokenRevocationService).revokeSession(SESSION_ID, 1L);
+        verify(refreshTokenRepository, never()).insert(anyString(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Обновление - неизвестный и истёкший токены отклоняются")
+    void rotateShouldRejectUnknownAndExpiredTokens() {
+        when(refreshTokenRepository.rotate(anyString()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new RotatedToken(false, SESSION_ID, Instant.now().minusSeconds(1), USER)));
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("unknown-token"));
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("expired-token"));
+
+        verify(refreshTokenRepository, never()).insert(anyString(), any(), any(), any());
+    }
+}
@@ -0,0 +1,58 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the RevokedTokens.
+ */
+class RevokedTokensTest {
+    private static final Instant EXPIRES_AT = Instant.parse("2030-01-01T00:00:00Z");
+
+    @Test
+    @DisplayName("Отозванные токены - добавленные токены находятся, остальные нет")
+    void containsShouldFindOnlyAddedTokens() {
+        RevokedTokens revokedTokens = new RevokedTokens(100);
+        revokedTokens.add("revoked", EXPIRES_AT);
+
+        assertTrue(revokedTokens.contains("revoked"));
+        assertFalse(revokedTokens.contains("active"));
+    }
+
+    @Test
+    @DisplayName("Отозванные токены - при переполнении фильтр перестраивается без потери токенов")
+    void addShouldKeepTokensWhenFilterGrows() {
+        RevokedTokens revokedTokens = new RevokedTokens(10);
+        String[] tokenIds = new String[1000];
+        for (int i = 0; i < tokenIds.length; i++) {
+            tokenIds[i] = UUID.randomUUID().toString();
+            revokedTokens.add(tokenIds[i], EXPIRES_AT);
+        }
+
+        for (String tokenId : tokenIds) {
+            assertTrue(revokedTokens.contains(tokenId));
+        }
+        assertEquals(1000, revokedTokens.size());
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(revokedTokens.contains(UUID.randomUUID().toString()));
+        }
+    }
+
+    @Test
+    @DisplayName("Отозванные токены - истёкшие токены удаляются, действующие остаются")
+    void removeExpiredShouldDropOnlyExpiredTokens() {
+        RevokedTokens revokedTokens = new RevokedTokens(100);
+        Instant now = Instant.now();
+        revokedTokens.add("expired", now.minusSeconds(1));
+        revokedTokens.add("active", now.plusSeconds(60));
+
+        assertEquals(1, revokedTokens.removeExpired(now));
+
+        assertFalse(revokedTokens.contains("expired"));
+        assertTrue(revokedTokens.contains("active"));
+    }
+}
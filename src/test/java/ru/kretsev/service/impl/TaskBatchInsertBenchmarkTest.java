@@ -0,0 +1,83 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.kretsev.PostgresIntegrationTest;
+import ru.kretsev.dto.task.TaskDto;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+import ru.kretsev.repository.TaskRepository;
+import ru.kretsev.service.LoggingService;
+import ru.kretsev.service.TaskService;
+
+/**
+ * Benchmark comparing batch task creation with the same number of single {@code createTask} calls.
+ * Excluded from the regular test run; start it with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class TaskBatchInsertBenchmarkTest extends PostgresIntegrationTest {
+    private static final int TASK_COUNT = 1000;
+    private static final int WARMUP_ROUNDS = 2;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private LoggingService loggingService;
+
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        author = saveUser(Role.ROLE_USER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Пакетное создание задач быстрее одиночных вызовов createTask")
+    void createTasksShouldOutperformSingleInserts() {
+        List<TaskDto> taskDtos = IntStream.range(0, TASK_COUNT)
+                .mapToObj(i -> new TaskDto(
+                        null, "Задача " + i, "Описание " + i, null, "LOW", null, null, List.of(), null))
+                .toList();
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            taskDtos.forEach(taskDto -> taskService.createTask(taskDto, author));
+            taskService.createTasks(taskDtos, author);
+        }
+
+        long singleStart = System.nanoTime();
+        taskDtos.forEach(taskDto -> taskService.createTask(taskDto, author));
+        long singleNanos = System.nanoTime() - singleStart;
+
+        long batchStart = System.nanoTime();
+        List<Long> ids = taskService.createTasks(taskDtos, author);
+        long batchNanos = System.nanoTime() - batchStart;
+
+        loggingService.logInfo(
+                "Создание {} задач: по одной - {} задач/с, пакетом - {} задач/с",
+                TASK_COUNT,
+                throughput(singleNanos),
+                throughput(batchNanos));
+        assertEquals(TASK_COUNT, ids.stream().distinct().count(), "Каждая задача должна получить свой ID");
+        assertTrue(batchNanos < singleNanos, "Пакетное создание должно быть быстрее одиночных вызовов");
+    }
+
+    private static long throughput(long nanos) {
+        return TASK_COUNT * 1_000_000_000L / Math.max(nanos, 1);
+    }
+}
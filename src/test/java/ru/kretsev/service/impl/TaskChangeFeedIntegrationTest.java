@@ -0,0 +1,158 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.kretsev.PostgresIntegrationTest;
+import ru.kretsev.dto.page.Cursor;
+import ru.kretsev.dto.task.TaskChangeDto;
+import ru.kretsev.dto.task.TaskChangesDto;
+import ru.kretsev.exception.CursorExpiredException;
+import ru.kretsev.model.comment.Comment;
+import ru.kretsev.model.task.Priority;
+import ru.kretsev.model.task.Task;
+import ru.kretsev.model.task.TaskChangeType;
+import ru.kretsev.model.task.TaskStatus;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+import ru.kretsev.repository.CommentRepository;
+import ru.kretsev.repository.TaskChangeRepository;
+import ru.kretsev.repository.TaskChangeRow;
+import ru.kretsev.repository.TaskRepository;
+import ru.kretsev.service.TaskChangeService;
+import ru.kretsev.service.TaskService;
+
+/**
+ * Integration tests of the task change feed written by database triggers.
+ */
+class TaskChangeFeedIntegrationTest extends PostgresIntegrationTest {
+    private static final User ADMIN = User.builder().id(-1L).role(Role.ROLE_ADMIN).build();
+
+    @Autowired
+    private TaskChangeService taskChangeService;
+
+    @Autowired
+    private TaskChangeRepository taskChangeRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private User author;
+    private User assignee;
+
+    @BeforeEach
+    void setUp() {
+        author = saveUser(Role.ROLE_USER);
+        assignee = saveUser(Role.ROLE_USER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Лента изменений - создание, изменение, назначение и удаление задач после курсора")
+    void getChangesShouldReturnChangesAfterCursor() {
+        String start = taskChangeService.getChanges("", 100, ADMIN).nextCursor();
+
+        Task first = taskRepository.save(newTask("Первая"));
+        Task second = taskRepository.save(newTask("Вторая"));
+        first.setTitle("Первая, изменённая");
+        taskRepository.save(first);
+        taskRepository.deleteById(second.getId());
+        taskService.assignTask(first.getId(), assignee.getId(), null);
+
+        TaskChangesDto all = taskChangeService.getChanges(start, 100, ADMIN);
+        assertEquals(
+                List.of(TaskChangeType.DELETED, TaskChangeType.ASSIGNED),
+                all.changes().stream().map(TaskChangeDto::type).toList());
+        assertEquals(assignee.getId(), all.changes().get(1).task().assignee().id());
+        assertFalse(all.hasMore());
+
+        TaskChangesDto ofAssignee = taskChangeService.getChanges(start, 100, assignee);
+        assertEquals(List.of(first.getId()), ofAssignee.changes().stream().map(TaskChangeDto::taskId).toList());
+
+        List<Long> taskIds = new ArrayList<>();
+        String cursor = start;
+        TaskChangesDto batch;
+        do {
+            batch = taskChangeService.getChanges(cursor, 1, ADMIN);
+            batch.changes().forEach(change -> taskIds.add(change.taskId()));
+            cursor = batch.nextCursor();
+        } while (batch.hasMore());
+        assertEquals(List.of(first.getId(), second.getId(), first.getId(), second.getId(), first.getId()), taskIds);
+        assertTrue(taskChangeService.getChanges(cursor, 100, ADMIN).changes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Лента изменений - курсор до удалённых по сроку хранения изменений устарел")
+    void getChangesShouldRejectCursorBeforePurgedChanges() {
+        String start = taskChangeService.getChanges("", 100, ADMIN).nextCursor();
+        taskRepository.save(newTask("Задача"));
+
+        int purged;
+        do {
+            purged = taskChangeRepository.purgeBefore(Instant.now().plusSeconds(60), 100);
+        } while (purged > 0);
+
+        assertThrows(CursorExpiredException.class, () -> taskChangeService.getChanges(start, 100, ADMIN));
+        String current = taskChangeService.getChanges("", 100, ADMIN).nextCursor();
+        assertTrue(taskChangeService.getChanges(current, 100, ADMIN).changes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Журнал изменений - комментарии записаны с ID, каскадное удаление не записано, в ленте только задачи")
+    void commentChangesShouldBeRecordedWithoutCascadeAndSkippedByFeed() {
+        String start = taskChangeService.getChanges("", 100, ADMIN).nextCursor();
+
+        Task task = taskRepository.save(newTask("Задача"));
+        Comment removed = commentRepository.save(newComment(task));
+        commentRepository.deleteById(removed.getId());
+        Comment kept = commentRepository.save(newComment(task));
+        taskRepository.deleteById(task.getId());
+
+        Cursor cursor = Cursor.decode(start);
+        List<TaskChangeRow> commentRows =
+                taskChangeRepository.findAfter(Long.parseLong(cursor.value()), cursor.id(), 100).rows().stream()
+                        .filter(row -> row.type().isCommentChange())
+                        .toList();
+        assertEquals(
+                List.of(TaskChangeType.COMMENT_ADDED, TaskChangeType.COMMENT_DELETED, TaskChangeType.COMMENT_ADDED),
+                commentRows.stream().map(TaskChangeRow::type).toList());
+        assertEquals(
+                List.of(removed.getId(), removed.getId(), kept.getId()),
+                commentRows.stream().map(TaskChangeRow::commentId).toList());
+        assertTrue(commentRows.stream().allMatch(row -> author.getId().equals(row.authorId())));
+
+        TaskChangesDto changes = taskChangeService.getChanges(start, 100, ADMIN);
+        assertEquals(List.of(TaskChangeType.DELETED), changes.changes().stream().map(TaskChangeDto::type).toList());
+    }
+
+    private Comment newComment(Task task) {
+        return Comment.builder().content("Комментарий").task(task).author(author).build();
+    }
+
+    private Task newTask(String title) {
+        return Task.builder()
+                .title(title)
+                .description("Описание")
+                .status(TaskStatus.PENDING)
+                .priority(Priority.MEDIUM)
+                .author(author)
+                .build();
+    }
+}
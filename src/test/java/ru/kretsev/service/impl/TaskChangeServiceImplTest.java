@@ -0,0 +1,119 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.kretsev.dto.page.Cursor;
+import ru.kretsev.dto.task.TaskChangeDto;
+import ru.kretsev.dto.task.TaskChangesDto;
+import ru.kretsev.dto.task.TaskSummaryDto;
+import ru.kretsev.exception.CursorExpiredException;
+import ru.kretsev.mapper.TaskMapper;
+import ru.kretsev.model.task.Task;
+import ru.kretsev.model.task.TaskChangeType;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+import ru.kretsev.repository.TaskChangeRepository;
+import ru.kretsev.repository.TaskChangeRepository.TaskChangeBatch;
+import ru.kretsev.repository.TaskChangeRow;
+import ru.kretsev.repository.TaskRepository;
+
+/**
+ * Unit tests for the TaskChangeServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskChangeServiceImplTest {
+    private static final Instant CHANGED_AT = Instant.parse("2025-01-01T00:00:00Z");
+    private static final User USER =
+            User.builder().id(1L).email("user@example.com").role(Role.ROLE_USER).build();
+
+    @Mock
+    private TaskChangeRepository taskChangeRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskMapper taskMapper;
+
+    @Mock
+    private LoggingServiceImpl loggingService;
+
+    @InjectMocks
+    private TaskChangeServiceImpl taskChangeService;
+
+    @Test
+    @DisplayName("Лента изменений без курсора - только курсор текущей позиции")
+    void getChangesWithoutCursorShouldReturnCurrentPosition() {
+        when(taskChangeRepository.findAfter(0, 0, 0)).thenReturn(new TaskChangeBatch(List.of(), 500, 0, 0));
+
+        TaskChangesDto result = taskChangeService.getChanges("", 100, USER);
+
+        assertTrue(result.changes().isEmpty());
+        assertFalse(result.hasMore());
+        assertEquals(new Cursor(0L, "500"), Cursor.decode(result.nextCursor()));
+    }
+
+    @Test
+    @DisplayName("Лента изменений - последнее изменение каждой задачи пользователя, удалённые без состояния")
+    void getChangesShouldKeepLatestVisibleChangePerTask() {
+        List<TaskChangeRow> rows = List.of(
+                row(1, 10, TaskChangeType.CREATED, 2L, 1L, null),
+                row(2, 11, TaskChangeType.UPDATED, 2L, null, null),
+                row(3, 10, TaskChangeType.ASSIGNED, 2L, 3L, 1L),
+                row(4, 12, TaskChangeType.DELETED, 1L, null, null));
+        when(taskChangeRepository.findAfter(100, 0, 10)).thenReturn(new TaskChangeBatch(rows, 200, 0, 0));
+        Task task = Task.builder().id(10L).build();
+        TaskSummaryDto summary = new TaskSummaryDto(10L, "Задача", "PENDING", "LOW", null, null, 0, CHANGED_AT);
+        when(taskRepository.findByIdIn(List.of(10L))).thenReturn(List.of(task));
+        when(taskMapper.toSummaryDto(task)).thenReturn(summary);
+
+        TaskChangesDto result = taskChangeService.getChanges(new Cursor(0L, "100").encode(), 10, USER);
+
+        assertEquals(
+                List.of(
+                        new TaskChangeDto(10L, TaskChangeType.ASSIGNED, CHANGED_AT, summary),
+                        new TaskChangeDto(12L, TaskChangeType.DELETED, CHANGED_AT, null)),
+                result.changes());
+        assertFalse(result.hasMore());
+        assertEquals(new Cursor(0L, "200"), Cursor.decode(result.nextCursor()), "Курсор переходит к xmin снимка");
+    }
+
+    @Test
+    @DisplayName("Лента изменений - полный пакет продолжается с последнего прочитанного изменения")
+    void getChangesFullBatchShouldContinueAfterLastRow() {
+        List<TaskChangeRow> rows = List.of(
+                row(7, 20, TaskChangeType.UPDATED, 2L, null, null), row(8, 21, TaskChangeType.UPDATED, 2L, null, null));
+        when(taskChangeRepository.findAfter(100, 6, 2)).thenReturn(new TaskChangeBatch(rows, 300, 0, 0));
+
+        TaskChangesDto result = taskChangeService.getChanges(new Cursor(6L, "100").encode(), 2, USER);
+
+        assertTrue(result.changes().isEmpty(), "Чужие задачи не должны попадать в ленту");
+        assertTrue(result.hasMore());
+        assertEquals(new Cursor(8L, "150"), Cursor.decode(result.nextCursor()));
+        verify(taskRepository, never()).findByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Лента изменений - курсор до удалённых изменений устарел")
+    void getChangesShouldRejectCursorBeforeHorizon() {
+        when(taskChangeRepository.findAfter(100, 5, 10)).thenReturn(new TaskChangeBatch(List.of(), 300, 120, 9));
+        String since = new Cursor(5L, "100").encode();
+
+        assertThrows(CursorExpiredException.class, () -> taskChangeService.getChanges(since, 10, USER));
+    }
+
+    private static TaskChangeRow row(
+            long id, long taskId, TaskChangeType type, Long authorId, Long assigneeId, Long previousAssigneeId) {
+        return new TaskChangeRow(id, 150, taskId, type, null, authorId, assigneeId, previousAssigneeId, CHANGED_AT);
+    }
+}
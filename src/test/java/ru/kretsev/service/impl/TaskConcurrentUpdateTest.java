@@ -0,0 +1,105 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import ru.kretsev.PostgresIntegrationTest;
+import ru.kretsev.dto.task.TaskDto;
+import ru.kretsev.model.task.Task;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+import ru.kretsev.repository.TaskRepository;
+import ru.kretsev.service.TaskService;
+
+/**
+ * Stress test updating one task from many threads with {@code If-Match} versions and retries on conflict.
+ */
+class TaskConcurrentUpdateTest extends PostgresIntegrationTest {
+    private static final int THREADS = 8;
+    private static final int UPDATES_PER_THREAD = 25;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        admin = saveUser(Role.ROLE_ADMIN);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Параллельные обновления одной задачи - ни одно обновление не потеряно")
+    void concurrentUpdatesShouldNotLoseChanges() throws Exception {
+        TaskDto counter = new TaskDto(null, "Счётчик", "0", null, "LOW", null, null, List.of(), null);
+        Long taskId = taskService.createTask(counter, admin).body().id();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                int done = 0;
+                while (done < UPDATES_PER_THREAD) {
+                    TaskDto current = taskService.getTask(taskId).body();
+                    String next = String.valueOf(Integer.parseInt(current.description()) + 1);
+                    TaskDto update = new TaskDto(
+                            taskId,
+                            current.title(),
+                            next,
+                            current.status(),
+                            current.priority(),
+                            null,
+                            null,
+                            null,
+                            null);
+                    try {
+                        taskService.updateTask(taskId, update, current.version(), admin);
+                        done++;
+                    } catch (OptimisticLockingFailureException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int expected = THREADS * UPDATES_PER_THREAD;
+        Task task = taskRepository.findById(taskId).orElseThrow();
+        assertEquals(expected, Integer.parseInt(task.getDescription()), "Конфликтов: " + conflicts.get());
+        assertEquals(expected, task.getVersion(), "Каждое успешное обновление должно увеличивать версию");
+        TaskDto cached = taskService.getTask(taskId).body();
+        assertEquals(task.getVersion(), cached.version(), "Кэш должен содержать последнюю версию");
+    }
+}
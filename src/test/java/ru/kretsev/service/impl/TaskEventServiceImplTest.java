@@ -0,0 +1,214 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedConstruction;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.kretsev.model.task.TaskChangeType;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+import ru.kretsev.repository.TaskChangeRepository;
+import ru.kretsev.repository.TaskChangeRepository.TaskChangeBatch;
+import ru.kretsev.repository.TaskChangeRow;
+
+/**
+ * Unit tests for the TaskEventServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskEventServiceImplTest {
+    private static final long HEAD_TXID = 100;
+    private static final User AUTHOR =
+            User.builder().id(1L).email("author@example.com").role(Role.ROLE_USER).build();
+    private static final User OTHER =
+            User.builder().id(2L).email("other@example.com").role(Role.ROLE_USER).build();
+    private static final Instant TOKEN_EXPIRES_AT = Instant.now().plus(Duration.ofHours(1));
+
+    @Mock
+    private TaskChangeRepository taskChangeRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Mock
+    private LoggingServiceImpl loggingService;
+
+    @Mock
+    private ExecutorService senderExecutor;
+
+    @InjectMocks
+    private TaskEventServiceImpl taskEventService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(taskEventService, "senderExecutor", senderExecutor);
+        ReflectionTestUtils.setField(taskEventService, "timeout", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(taskEventService, "sendTimeout", Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("Нет подписчиков - курсор переходит в начало журнала без чтения изменений")
+    void publishChangesWithoutSubscribersShouldOnlyMoveCursor() {
+        when(taskChangeRepository.findAfter(0, 0, 0)).thenReturn(new TaskChangeBatch(List.of(), HEAD_TXID, 0, 0));
+        when(taskChangeRepository.findAfter(HEAD_TXID, 0, 0))
+                .thenReturn(new TaskChangeBatch(List.of(), HEAD_TXID + 5, 0, 0));
+
+        taskEventService.publishChanges();
+        taskEventService.publishChanges();
+
+        verify(taskChangeRepository, never()).findAfter(anyLong(), anyLong(), eq(TaskEventServiceImpl.BATCH_SIZE));
+        verifyNoInteractions(senderExecutor);
+    }
+
+    @Test
+    @DisplayName("Рассылка изменений - событие получает автор задачи, но не посторонний пользователь")
+    void publishChangesShouldDeliverOnlyToConcernedSubscribers() {
+        startAtHead();
+        taskEventService.subscribe(AUTHOR, TOKEN_EXPIRES_AT);
+        taskEventService.subscribe(OTHER, TOKEN_EXPIRES_AT);
+        when(taskChangeRepository.findAfter(HEAD_TXID, 0, TaskEventServiceImpl.BATCH_SIZE))
+                .thenReturn(new TaskChangeBatch(List.of(row(1, 10L)), HEAD_TXID + 1, 0, 0));
+
+        taskEventService.publishChanges();
+
+        ArgumentCaptor<Runnable> drain = ArgumentCaptor.forClass(Runnable.class);
+        verify(senderExecutor).execute(drain.capture());
+        drain.getValue().run();
+        assertEquals(2, taskEventService.subscriptionCount());
+    }
+
+    @Test
+    @DisplayName("Медленный подписчик - отключается при переполнении буфера, остальные не затронуты")
+    void publishChangesShouldEvictSubscriberWithFullBuffer() {
+        startAtHead();
+        taskEventService.subscribe(AUTHOR, TOKEN_EXPIRES_AT);
+        taskEventService.subscribe(OTHER, TOKEN_EXPIRES_AT);
+        List<TaskChangeRow> rows = new ArrayList<>();
+        for (int i = 1; i <= TaskEventServiceImpl.BUFFER_CAPACITY + 1; i++) {
+            rows.add(row(i, 10L));
+        }
+        when(taskChangeRepository.findAfter(HEAD_TXID, 0, TaskEventServiceImpl.BATCH_SIZE))
+                .thenReturn(new TaskChangeBatch(rows, HEAD_TXID + 1, 0, 0));
+
+        taskEventService.publishChanges();
+
+        assertEquals(1, taskEventService.subscriptionCount());
+        verify(loggingService).logWarn(anyString(), eq(AUTHOR.getId()), anyString());
+    }
+
+    @Test
+    @DisplayName("Зависшая отправка - подписчик отключается, остальные продолжают получать события")
+    void publishChangesShouldEvictStalledSubscriberAndKeepDeliveringToOthers() throws Exception {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        ReflectionTestUtils.setField(taskEventService, "senderExecutor", executor);
+        ReflectionTestUtils.setField(taskEventService, "sendTimeout", Duration.ofMillis(100));
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        startAtHead();
+        when(taskChangeRepository.findAfter(HEAD_TXID, 0, TaskEventServiceImpl.BATCH_SIZE))
+                .thenReturn(new TaskChangeBatch(List.of(assignedRow(1)), HEAD_TXID + 1, 0, 0));
+        when(taskChangeRepository.findAfter(HEAD_TXID + 1, 0, TaskEventServiceImpl.BATCH_SIZE))
+                .thenReturn(new TaskChangeBatch(List.of(assignedRow(2)), HEAD_TXID + 2, 0, 0));
+
+        try (MockedConstruction<SseEmitter> emitters = mockConstruction(SseEmitter.class, (emitter, context) -> {
+            if (context.getCount() == 1) {
+                doAnswer(invocation -> {
+                            stalled.countDown();
+                            release.await();
+                            return null;
+                        })
+                        .when(emitter)
+                        .send(anySet());
+            }
+        })) {
+            taskEventService.subscribe(AUTHOR, TOKEN_EXPIRES_AT);
+            taskEventService.subscribe(OTHER, TOKEN_EXPIRES_AT);
+            SseEmitter otherEmitter = emitters.constructed().get(1);
+
+            taskEventService.publishChanges();
+            assertTrue(stalled.await(1, TimeUnit.SECONDS), "Отправка первому подписчику должна зависнуть");
+            verify(otherEmitter, timeout(1000)).send(anySet());
+            Thread.sleep(200);
+
+            taskEventService.publishChanges();
+
+            verify(otherEmitter, timeout(1000).times(2)).send(anySet());
+            assertEquals(1, taskEventService.subscriptionCount());
+            verify(loggingService).logWarn(anyString(), eq(AUTHOR.getId()), anyString());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Подключения пользователя сверх лимита - старейшее отключается")
+    void subscribeShouldDisplaceOldestSubscriptionOverLimit() {
+        for (int i = 0; i <= TaskEventServiceImpl.MAX_SUBSCRIPTIONS_PER_USER; i++) {
+            taskEventService.subscribe(AUTHOR, TOKEN_EXPIRES_AT);
+        }
+
+        assertEquals(TaskEventServiceImpl.MAX_SUBSCRIPTIONS_PER_USER, taskEventService.subscriptionCount());
+        verify(senderExecutor).execute(any());
+    }
+
+    @Test
+    @DisplayName("Подписка - поток закрывается не позже истечения токена доступа")
+    void subscribeShouldNotOutliveAccessToken() {
+        SseEmitter emitter = taskEventService.subscribe(AUTHOR, Instant.now().plusSeconds(60));
+
+        assertTrue(emitter.getTimeout() <= 60_000, "Тайм-аут потока: " + emitter.getTimeout());
+        assertTrue(emitter.getTimeout() > 0);
+    }
+
+    private void startAtHead() {
+        when(taskChangeRepository.findAfter(0, 0, 0)).thenReturn(new TaskChangeBatch(List.of(), HEAD_TXID, 0, 0));
+        taskEventService.publishChanges();
+    }
+
+    private static TaskChangeRow assignedRow(long id) {
+        return new TaskChangeRow(
+                id,
+                HEAD_TXID,
+                10L,
+                TaskChangeType.ASSIGNED,
+                null,
+                AUTHOR.getId(),
+                OTHER.getId(),
+                null,
+                Instant.parse("2025-01-01T00:00:00Z"));
+    }
+
+    private static TaskChangeRow row(long id, Long taskId) {
+        return new TaskChangeRow(
+                id,
+                HEAD_TXID,
+                taskId,
+                TaskChangeType.UPDATED,
+                null,
+                AUTHOR.getId(),
+                null,
+                null,
+                Instant.parse("2025-01-01T00:00:00Z"));
+    }
+}
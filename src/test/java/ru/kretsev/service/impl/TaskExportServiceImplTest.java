@@ -0,0 +1,105 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.kretsev.dto.task.TaskFileFormat;
+import ru.kretsev.repository.TaskExportRow;
+import ru.kretsev.repository.TaskRepository;
+
+/**
+ * Unit tests for the TaskExportServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskExportServiceImplTest {
+    private static final List<TaskExportRow> ROWS = List.of(
+            new TaskExportRow(
+                    1L, "Отчёт", "Описание, с запятой", "PENDING", "HIGH", 10L, "a@example.com", null, null, 100L,
+                    "Первый \"комментарий\"", 11L, "b@example.com"),
+            new TaskExportRow(
+                    1L, "Отчёт", "Описание, с запятой", "PENDING", "HIGH", 10L, "a@example.com", null, null, 101L,
+                    "Второй", 10L, "a@example.com"),
+            new TaskExportRow(
+                    2L, "Релиз", "Без комментариев", "COMPLETE", "LOW", 10L, "a@example.com", 11L, "b@example.com",
+                    null, null, null, null));
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private LoggingServiceImpl loggingService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private TaskExportServiceImpl taskExportService;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+                    Consumer<TaskExportRow> consumer = invocation.getArgument(0);
+                    ROWS.forEach(consumer);
+                    return null;
+                })
+                .when(taskRepository)
+                .streamExportRows(any());
+    }
+
+    @Test
+    @DisplayName("Выгрузка NDJSON - одна строка на задачу с вложенными комментариями")
+    void exportTasksNdjsonShouldNestCommentsPerTask() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        taskExportService.exportTasks(TaskFileFormat.NDJSON, false, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length, "Должна быть одна строка на задачу");
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(2, first.get("comments").size());
+        assertEquals("b@example.com", first.get("comments").get(0).get("author").get("email").asText());
+        assertTrue(first.get("assignee").isNull(), "Исполнитель не назначен");
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals(0, second.get("comments").size());
+        assertEquals(11L, second.get("assignee").get("id").asLong());
+    }
+
+    @Test
+    @DisplayName("Выгрузка CSV в gzip - экранирование полей и строка на каждый комментарий")
+    void exportTasksCsvGzipShouldEscapeFields() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        taskExportService.exportTasks(TaskFileFormat.CSV, true, output);
+
+        String csv;
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            csv = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String[] lines = csv.split("\r\n");
+        assertEquals(4, lines.length, "Заголовок и строка на каждый комментарий или задачу без комментариев");
+        assertTrue(lines[0].startsWith("task_id,title,"));
+        assertEquals(
+                "1,Отчёт,\"Описание, с запятой\",PENDING,HIGH,10,a@example.com,,,100,"
+                        + "\"Первый \"\"комментарий\"\"\",11,b@example.com",
+                lines[1]);
+        assertEquals("2,Релиз,Без комментариев,COMPLETE,LOW,10,a@example.com,11,b@example.com,,,,", lines[3]);
+    }
+}
@@ -0,0 +1,100 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.kretsev.PostgresIntegrationTest;
+import ru.kretsev.dto.task.ImportJobDto;
+import ru.kretsev.dto.task.ImportJobState;
+import ru.kretsev.dto.task.TaskFileFormat;
+import ru.kretsev.model.task.Priority;
+import ru.kretsev.model.task.Task;
+import ru.kretsev.model.task.TaskStatus;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+import ru.kretsev.repository.CommentRepository;
+import ru.kretsev.repository.TaskRepository;
+import ru.kretsev.service.TaskImportService;
+
+/**
+ * Integration tests loading an import file through {@code COPY} into PostgreSQL.
+ */
+class TaskImportIntegrationTest extends PostgresIntegrationTest {
+    private static final int TASK_COUNT = 120;
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @TempDir
+    private Path tempDir;
+
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        author = saveUser(Role.ROLE_USER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            commentRepository.deleteAllInBatch();
+            taskRepository.deleteAllInBatch();
+        });
+    }
+
+    @Test
+    @DisplayName("Импорт файла - задачи и комментарии записаны, ID не пересекаются с задачами Hibernate")
+    void importFileShouldMergeRowsWithoutIdCollisions() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < TASK_COUNT; i++) {
+            content.append("{\"title\":\"Задача ")
+                    .append(i)
+                    .append("\",\"author\":\"")
+                    .append(author.getEmail())
+                    .append("\",\"comments\":[{\"content\":\"Комментарий\",\"author\":\"")
+                    .append(author.getEmail())
+                    .append("\"}]}\n");
+        }
+        content.append("{\"title\":\"Неизвестный автор\",\"author\":\"nobody@example.com\"}\n");
+        Path file = Files.writeString(tempDir.resolve("tasks.ndjson"), content);
+
+        ImportJobDto job = taskImportService.importFile(TaskFileFormat.NDJSON, file);
+        Task created = taskRepository.save(Task.builder()
+                .title("После импорта")
+                .description("Описание")
+                .status(TaskStatus.PENDING)
+                .priority(Priority.LOW)
+                .author(author)
+                .build());
+
+        assertEquals(ImportJobState.COMPLETED, job.state(), job.failure());
+        assertEquals(TASK_COUNT, job.tasksImported());
+        assertEquals(TASK_COUNT, job.commentsImported());
+        assertEquals(1, job.errorCount());
+        List<Task> tasks = taskRepository.findAll();
+        assertEquals(TASK_COUNT + 1, tasks.size());
+        assertTrue(tasks.stream().allMatch(task -> task.getId() > 0), "ID задач должны быть положительными");
+        assertNotNull(created.getId());
+        assertEquals(TASK_COUNT, commentRepository.count());
+    }
+}
@@ -0,0 +1,181 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.kretsev.dto.task.ImportErrorDto;
+import ru.kretsev.dto.task.ImportJobDto;
+import ru.kretsev.dto.task.ImportJobState;
+import ru.kretsev.dto.task.TaskFileFormat;
+import ru.kretsev.repository.TaskImportRepository;
+import ru.kretsev.repository.TaskImportRepository.MergeResult;
+import ru.kretsev.repository.TaskImportRepository.TaskStaging;
+import ru.kretsev.repository.UserRepository;
+import ru.kretsev.service.ListGenerationService;
+
+/**
+ * Unit tests for the TaskImportServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskImportServiceImplTest {
+    private static final Map<String, Long> USER_IDS = Map.of("a@example.com", 10L, "b@example.com", 11L);
+
+    @Mock
+    private TaskImportRepository taskImportRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private LoggingServiceImpl loggingService;
+
+    @Mock
+    private ListGenerationService listGenerationService;
+
+    @Mock
+    private TaskStaging staging;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private TaskImportServiceImpl taskImportService;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    @DisplayName("Импорт NDJSON - задачи и комментарии передаются в COPY, пользователи ищутся один раз")
+    void importFileNdjsonShouldStageTasksAndComments() throws Exception {
+        Path file = write(
+                "tasks.ndjson",
+                """
+                {"title":"Отчёт","description":"Описание","status":"IN_PROGRESS","priority":"HIGH",\
+                "author":{"id":1,"email":"a@example.com"},"assignee":"b@example.com",\
+                "comments":[{"content":"Готово","author":{"email":"b@example.com"}}]}
+
+                {"title":"Релиз","author":"a@example.com"}
+                """);
+        givenStagingAndUsers();
+
+        ImportJobDto job = taskImportService.importFile(TaskFileFormat.NDJSON, file);
+
+        assertEquals(ImportJobState.COMPLETED, job.state());
+        assertEquals(2, job.rowsRead());
+        assertEquals(0, job.errorCount());
+        assertEquals(2, job.tasksImported());
+        assertEquals(1, job.commentsImported());
+        verify(staging).addTask(1L, "Отчёт", "Описание", "IN_PROGRESS", "HIGH", 10L, 11L);
+        verify(staging).addComment(1L, 1L, "Готово", 11L);
+        verify(staging).addTask(2L, "Релиз", "", "PENDING", "MEDIUM", 10L, null);
+        verify(userRepository, times(1)).findIdByEmail("a@example.com");
+        verify(staging).close();
+        verify(listGenerationService).advanceAfterCommit();
+    }
+
+    @Test
+    @DisplayName("Импорт NDJSON - некорректные строки отклоняются с номером строки")
+    void importFileNdjsonShouldRejectInvalidRows() throws Exception {
+        Path file = write(
+                "tasks.ndjson",
+                """
+                {"title":"Без автора"}
+                {"title":"Статус","status":"DONE","author":"a@example.com"}
+                не json
+                {"title":"Чужой","author":"c@example.com"}
+                {"title":"Комментарий","author":"a@example.com","comments":[{"content":" ","author":"a@example.com"}]}
+                {"title":"Верная","author":"a@example.com"}
+                """);
+        givenStagingAndUsers();
+
+        ImportJobDto job = taskImportService.importFile(TaskFileFormat.NDJSON, file);
+
+        assertEquals(ImportJobState.COMPLETED, job.state());
+        assertEquals(6, job.rowsRead());
+        assertEquals(5, job.errorCount());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), job.errors().stream().map(ImportErrorDto::line).toList());
+        assertEquals("Пользователь не найден: c@example.com", job.errors().get(3).message());
+        verify(staging, times(1))
+                .addTask(anyLong(), anyString(), anyString(), anyString(), anyString(), anyLong(), any());
+        verify(staging, never()).addComment(anyLong(), anyLong(), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Импорт CSV - строки одной задачи объединяются, кавычки и переносы строк сохраняются")
+    void importFileCsvShouldGroupRowsByTaskId() throws Exception {
+        Path file = write(
+                "tasks.csv",
+                """
+                task_id,title,description,status,priority,author_id,author_email,assignee_id,assignee_email,\
+                comment_id,comment_content,comment_author_id,comment_author_email\r
+                1,Отчёт,"Описание, с запятой",PENDING,HIGH,10,a@example.com,,,100,"Первый ""комментарий""
+                вторая строка",11,b@example.com\r
+                1,Отчёт,"Описание, с запятой",PENDING,HIGH,10,a@example.com,,,101,Второй,10,a@example.com\r
+                2,Релиз,,COMPLETE,LOW,10,a@example.com,11,b@example.com,,,,\r
+                """);
+        givenStagingAndUsers();
+
+        ImportJobDto job = taskImportService.importFile(TaskFileFormat.CSV, file);
+
+        assertEquals(ImportJobState.COMPLETED, job.state());
+        assertEquals(2, job.rowsRead());
+        assertEquals(0, job.errorCount());
+        verify(staging).addTask(1L, "Отчёт", "Описание, с запятой", "PENDING", "HIGH", 10L, null);
+        verify(staging).addComment(1L, 1L, "Первый \"комментарий\"\nвторая строка", 11L);
+        verify(staging).addComment(1L, 2L, "Второй", 10L);
+        verify(staging).addTask(2L, "Релиз", "", "COMPLETE", "LOW", 10L, 11L);
+    }
+
+    @Test
+    @DisplayName("Импорт CSV без обязательного столбца - задание завершается ошибкой без записи")
+    void importFileCsvWithoutRequiredColumnShouldFail() throws Exception {
+        Path file = write("tasks.csv", "task_id,title\n1,Отчёт\n");
+        when(taskImportRepository.openStaging()).thenReturn(staging);
+
+        ImportJobDto job = taskImportService.importFile(TaskFileFormat.CSV, file);
+
+        assertEquals(ImportJobState.FAILED, job.state());
+        assertEquals("В заголовке CSV нет столбца author_email", job.failure());
+        verify(staging, never()).commit();
+        verify(staging).close();
+    }
+
+    @Test
+    @DisplayName("Получение несуществующего задания импорта - исключение")
+    void getImportJobShouldThrowWhenJobIsUnknown() {
+        UUID jobId = UUID.randomUUID();
+
+        assertThrows(EntityNotFoundException.class, () -> taskImportService.getImportJob(jobId));
+    }
+
+    private void givenStagingAndUsers() throws SQLException {
+        when(taskImportRepository.openStaging()).thenReturn(staging);
+        when(staging.commit()).thenReturn(new MergeResult(2, 1));
+        when(userRepository.findIdByEmail(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(USER_IDS.get(invocation.<String>getArgument(0))));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(tempDir.resolve(name), content, StandardCharsets.UTF_8);
+    }
+}
@@ -3,22 +3,65 @@ package ru.kretsev.service.impl;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.kretsev.auth.AuthenticationFacade;
+import ru.kretsev.cache.CacheDependency;
+import ru.kretsev.cache.CacheDependencyTracker;
+import ru.kretsev.dto.TaggedDto;
+import ru.kretsev.dto.comment.CommentDto;
+import ru.kretsev.dto.page.Cursor;
+import ru.kretsev.dto.page.CursorPage;
+import ru.kretsev.dto.page.ListScope;
+import ru.kretsev.dto.page.PageMode;
+import ru.kretsev.dto.task.TaskBulkUpdateRequest;
 import ru.kretsev.dto.task.TaskDto;
+import ru.kretsev.dto.task.TaskFilter;
+import ru.kretsev.dto.task.TaskPatch;
+import ru.kretsev.dto.task.TaskSort;
+import ru.kretsev.dto.task.TaskSummaryDto;
+import ru.kretsev.event.TaskAssigned;
+import ru.kretsev.event.TaskCreated;
+import ru.kretsev.event.TaskDeleted;
+import ru.kretsev.event.TaskRestored;
+import ru.kretsev.event.TaskUpdated;
 import ru.kretsev.mapper.TaskMapper;
+import ru.kretsev.model.task.Priority;
 import ru.kretsev.model.task.Task;
+import ru.kretsev.model.task.TaskSortKey;
+import ru.kretsev.model.task.TaskStatus;
 import ru.kretsev.model.user.Role;
 import ru.kretsev.model.user.User;
 import ru.kretsev.repository.TaskRepository;
+import ru.kretsev.repository.TaskSearchHit;
 import ru.kretsev.repository.UserRepository;
+import ru.kretsev.service.DomainEventService;
 import ru.kretsev.service.EntityService;
+import ru.kretsev.service.ListGenerationService;
 
 /**
  * Unit tests for the TaskServiceImpl.
@@ -40,14 +83,33 @@ class TaskServiceImplTest {
     @Mock
     private LoggingServiceImpl loggingService;
 
+    @Mock
+    private ListGenerationService listGenerationService;
+
+    @Mock
+    private DomainEventService domainEventService;
+
+    @Mock
+    private AuthenticationFacade authenticationFacade;
+
+    @Mock
+    private CacheDependencyTracker cacheDependencyTracker;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager("tasks");
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
     @Test
     @DisplayName("Создание задачи - успешный сценарий")
     void createTaskShouldReturnTaskDto() {
-        TaskDto taskDto = new TaskDto(1L, "Новая задача", "Описание", "PENDING", "HIGH", null, null, List.of());
+        TaskDto taskDto = new TaskDto(1L, "Новая задача", "Описание", "PENDING", "HIGH", null, null, List.of(), 0L);
         User user = new User();
+        user.setId(3L);
         user.setEmail("user@example.com");
 
         Task task = new Task();
@@ -58,11 +120,108 @@ class TaskServiceImplTest {
         when(taskRepository.save(task)).thenReturn(task);
         when(taskMapper.toDto(task)).thenReturn(taskDto);
 
-        TaskDto result = taskService.createTask(taskDto, user);
+        TaggedDto<TaskDto> result = taskService.createTask(taskDto, user);
 
         assertNotNull(result, "Результат не должен быть null");
-        assertEquals(taskDto.title(), result.title(), "Название задачи должно совпадать");
+        assertEquals(taskDto.title(), result.body().title(), "Название задачи должно совпадать");
+        assertEquals(
+                ContentTags.tag(objectMapper, task.getVersion(), taskDto).eTag(),
+                result.eTag(),
+                "ETag созданной задачи должен совпадать с ETag при её чтении");
         verify(taskRepository, times(1)).save(task);
+        verify(domainEventService).publish(new TaskCreated(1L, 3L, null));
+        verify(listGenerationService).advanceAfterCommit(List.of(ListScope.user(3L)));
+    }
+
+    @Test
+    @DisplayName("Пакетное создание задач - возвращаются ID в порядке запроса")
+    void createTasksShouldReturnIdsInRequestOrder() {
+        TaskDto firstDto = new TaskDto(null, "Первая", "Описание", null, null, null, null, List.of(), null);
+        TaskDto secondDto = new TaskDto(null, "Вторая", "Описание", null, "LOW", null, null, List.of(), null);
+        User user = User.builder().id(1L).email("user@example.com").build();
+        Task first = Task.builder().title("Первая").build();
+        Task second = Task.builder().title("Вторая").priority(Priority.LOW).build();
+
+        when(taskMapper.toEntity(firstDto)).thenReturn(first);
+        when(taskMapper.toEntity(secondDto)).thenReturn(second);
+        when(taskRepository.saveAll(List.of(first, second)))
+                .thenReturn(List.of(
+                        first.toBuilder().id(51L).build(), second.toBuilder().id(52L).build()));
+
+        List<Long> ids = taskService.createTasks(List.of(firstDto, secondDto), user);
+
+        assertEquals(List.of(51L, 52L), ids);
+        verify(domainEventService).publishAll(List.of(new TaskCreated(51L, 1L, null), new TaskCreated(52L, 1L, null)));
+        assertEquals(Priority.MEDIUM, first.getPriority(), "Приоритет по умолчанию должен быть MEDIUM");
+        assertSame(user, second.getAuthor(), "Автором должен быть текущий пользователь");
+    }
+
+    @Test
+    @DisplayName("Пакетное создание задач - ошибка при пустом пакете")
+    void createTasksShouldRejectEmptyBatch() {
+        User user = new User();
+        List<TaskDto> taskDtos = List.of();
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.createTasks(taskDtos, user));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("Массовое обновление задач - проверка автора в запросе и очистка кэша")
+    void updateTasksShouldRestrictToAuthorAndEvictCache() {
+        User user = User.builder().id(3L).email("user@example.com").role(Role.ROLE_USER).build();
+        TaskPatch patch = new TaskPatch(TaskStatus.COMPLETE, null, null);
+        TaskBulkUpdateRequest request = new TaskBulkUpdateRequest(List.of(1L, 2L), null, patch);
+        cacheManager.getCache("tasks").put(1L, "задача 1");
+        cacheManager.getCache("tasks").put(7L, "задача 7");
+
+        when(taskRepository.updateMatching(List.of(1L, 2L), new TaskFilter(null, null, 3L, null), patch, 1001))
+                .thenReturn(List.of(1L));
+
+        List<Long> ids = taskService.updateTasks(request, user);
+
+        assertEquals(List.of(1L), ids, "Должны вернуться только задачи пользователя");
+        assertNull(cacheManager.getCache("tasks").get(1L), "Обновлённая задача должна быть удалена из кэша");
+        assertNotNull(cacheManager.getCache("tasks").get(7L), "Остальные задачи должны остаться в кэше");
+        verify(domainEventService).publishAll(List.of(new TaskUpdated(1L)));
+        verify(listGenerationService).advanceAfterCommit(List.of(ListScope.user(3L)));
+    }
+
+    @Test
+    @DisplayName("Массовое обновление задач - ошибка, если фильтру соответствует больше задач, чем в пакете")
+    void updateTasksShouldRejectFilterMatchingTooManyTasks() {
+        User user = User.builder().id(1L).email("admin@example.com").role(Role.ROLE_ADMIN).build();
+        TaskFilter filter = new TaskFilter(TaskStatus.PENDING, null, null, null);
+        TaskPatch patch = new TaskPatch(TaskStatus.COMPLETE, null, null);
+        List<Long> matched = LongStream.rangeClosed(1, 1001).boxed().toList();
+
+        when(taskRepository.updateMatching(null, filter, patch, 1001)).thenReturn(matched);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> taskService.updateTasks(new TaskBulkUpdateRequest(null, filter, patch), user));
+        verifyNoInteractions(domainEventService);
+    }
+
+    @Test
+    @DisplayName("Массовое обновление задач - смена исполнителя доступна только администратору")
+    void updateTasksShouldRejectAssigneeChangeByUser() {
+        User user = User.builder().id(3L).email("user@example.com").role(Role.ROLE_USER).build();
+        TaskBulkUpdateRequest request = new TaskBulkUpdateRequest(List.of(1L), null, new TaskPatch(null, null, 5L));
+
+        assertThrows(AccessDeniedException.class, () -> taskService.updateTasks(request, user));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("Массовое обновление задач - ошибка при указании и ID, и фильтра")
+    void updateTasksShouldRejectIdsWithFilter() {
+        User user = User.builder().id(1L).email("admin@example.com").role(Role.ROLE_ADMIN).build();
+        TaskFilter filter = new TaskFilter(TaskStatus.PENDING, null, null, null);
+        TaskBulkUpdateRequest request =
+                new TaskBulkUpdateRequest(List.of(1L), filter, new TaskPatch(TaskStatus.COMPLETE, null, null));
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.updateTasks(request, user));
     }
 
     @Test
@@ -74,6 +233,7 @@ class TaskServiceImplTest {
         Task task = new Task();
         task.setId(taskId);
         task.setTitle("Новая задача");
+        task.setAuthor(User.builder().id(3L).build());
 
         User user = new User();
         user.setId(userId);
@@ -84,15 +244,37 @@ class TaskServiceImplTest {
         when(entityService.findEntityOrElseThrow(userRepository, userId, "Пользователь не найден"))
                 .thenReturn(user);
 
-        when(taskRepository.save(task)).thenReturn(task);
+        when(taskRepository.saveAndFlush(task)).thenReturn(task);
         when(taskMapper.toDto(task))
-                .thenReturn(new TaskDto(taskId, "Новая задача", "Описание", "PENDING", "HIGH", null, null, List.of()));
+                .thenReturn(new TaskDto(
+                        taskId, "Новая задача", "Описание", "PENDING", "HIGH", null, null, List.of(), 0L));
 
-        TaskDto result = taskService.assignTask(taskId, userId);
+        TaggedDto<TaskDto> result = taskService.assignTask(taskId, userId, null);
 
-        assertNotNull(result, "Результат не должен быть null");
+        assertNotNull(result.body(), "Результат не должен быть null");
         assertEquals(userId, task.getAssignee().getId(), "ID исполнителя должно совпадать");
-        verify(taskRepository, times(1)).save(task);
+        verify(taskRepository, times(1)).saveAndFlush(task);
+        verify(domainEventService).publish(new TaskAssigned(taskId, userId, null));
+        verify(listGenerationService).advanceAfterCommit(List.of(ListScope.user(3L)));
+    }
+
+    @Test
+    @DisplayName("Обновление задачи - конфликт версий (If-Match) и удаление задачи из кэша")
+    void updateTaskShouldRejectStaleVersion() {
+        Long taskId = 1L;
+        TaskDto taskDto = new TaskDto(taskId, "Новая задача", "Описание", "PENDING", "HIGH", null, null, List.of(), 3L);
+        User user = User.builder().email("user@example.com").role(Role.ROLE_ADMIN).build();
+        Task task = Task.builder().id(taskId).version(4L).build();
+        cacheManager.getCache("tasks").put(taskId, taskDto);
+
+        when(entityService.findEntityOrElseThrow(taskRepository, taskId, "Задача не найдена"))
+                .thenReturn(task);
+
+        assertThrows(
+                ObjectOptimisticLockingFailureException.class,
+                () -> taskService.updateTask(taskId, taskDto, 3L, user));
+        assertNull(cacheManager.getCache("tasks").get(taskId), "Устаревшая задача должна быть удалена из кэша");
+        verify(taskRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -103,24 +285,48 @@ class TaskServiceImplTest {
         task.setId(taskId);
         task.setTitle("Новая задача");
 
-        TaskDto taskDto = new TaskDto(taskId, "Новая задача", "Описание", "PENDING", "HIGH", null, null, List.of());
+        TaskDto taskDto = new TaskDto(taskId, "Новая задача", "Описание", "PENDING", "HIGH", null, null, List.of(), 0L);
 
         when(entityService.findEntityOrElseThrow(taskRepository, taskId, "Задача не найдена"))
                 .thenReturn(task);
         when(taskMapper.toDto(task)).thenReturn(taskDto);
 
-        TaskDto result = taskService.getTask(taskId);
+        TaskDto result = taskService.getTask(taskId).body();
 
         assertNotNull(result, "Результат не должен быть null");
         assertEquals(taskId, result.id(), "ID задачи должно совпадать");
         assertEquals("Новая задача", result.title(), "Название задачи должно совпадать");
     }
 
+    @Test
+    @DisplayName("Получение задачи - ETag содержит версию и меняется вместе с комментариями")
+    void getTaskShouldTagContentWithVersion() {
+        Long taskId = 1L;
+        Task task = Task.builder().id(taskId).version(7L).build();
+        TaskDto withoutComments =
+                new TaskDto(taskId, "Новая задача", "Описание", "PENDING", "HIGH", null, null, List.of(), 7L);
+        CommentDto comment = new CommentDto(5L, "Комментарий", null, null, 0L);
+        TaskDto withComment =
+                new TaskDto(taskId, "Новая задача", "Описание", "PENDING", "HIGH", null, null, List.of(comment), 7L);
+
+        when(entityService.findEntityOrElseThrow(taskRepository, taskId, "Задача не найдена"))
+                .thenReturn(task);
+        when(taskMapper.toDto(task)).thenReturn(withoutComments, withoutComments, withComment);
+
+        String first = taskService.getTask(taskId).eTag();
+        String repeated = taskService.getTask(taskId).eTag();
+        String commented = taskService.getTask(taskId).eTag();
+
+        assertTrue(first.startsWith("7-"), "ETag должен начинаться с версии задачи");
+        assertEquals(first, repeated, "ETag одинакового содержимого должен совпадать");
+        assertNotEquals(first, commented, "Новый комментарий должен менять ETag при той же версии");
+    }
+
     @Test
     @DisplayName("Обновление задачи - ошибка доступа (пользователь не автор и не админ)")
     void updateTask_ShouldThrowAccessDeniedException() {
         Long taskId = 1L;
-        TaskDto taskDto = new TaskDto(taskId, "Новая задача", "Описание", "PENDING", "HIGH", null, null, List.of());
+        TaskDto taskDto = new TaskDto(taskId, "Новая задача", "Описание", "PENDING", "HIGH", null, null, List.of(), 0L);
         User user =
                 User.builder().email("user@example.com").role(Role.ROLE_USER).build();
 
@@ -133,7 +339,241 @@ class TaskServiceImplTest {
 
         assertThrows(
                 AccessDeniedException.class,
-                () -> taskService.updateTask(taskId, taskDto, user),
+                () -> taskService.updateTask(taskId, taskDto, null, user),
                 "Должно быть выброшено исключение AccessDeniedException");
     }
+
+    @Test
+    @DisplayName("Удаление задачи - задача помечена удалённой, строка и комментарии остаются до очистки")
+    void deleteTaskShouldMarkTaskDeleted() {
+        Long taskId = 1L;
+        User author = User.builder().id(2L).email("user@example.com").build();
+        Task task = Task.builder().id(taskId).author(author).build();
+
+        when(entityService.findEntityOrElseThrow(taskRepository, taskId, "Задача не найдена"))
+                .thenReturn(task);
+        when(authenticationFacade.getCurrentUserEmail()).thenReturn("user@example.com");
+        when(authenticationFacade.getCurrentUserRoles()).thenReturn(List.of("ROLE_USER"));
+
+        taskService.deleteTask(taskId);
+
+        assertNotNull(task.getDeletedAt(), "Задача должна быть помечена удалённой");
+        verify(taskRepository).saveAndFlush(task);
+        verify(taskRepository, never()).deleteById(any());
+        verify(domainEventService).publish(new TaskDeleted(taskId, 2L));
+        verify(cacheDependencyTracker).invalidateAfterCommit(CacheDependency.task(taskId));
+        verify(listGenerationService).advanceAfterCommit(List.of(ListScope.user(2L), ListScope.task(taskId)));
+    }
+
+    @Test
+    @DisplayName("Восстановление задачи - отметка удаления снята в пределах срока восстановления")
+    void restoreTaskShouldClearDeletedMark() {
+        Long taskId = 1L;
+        ReflectionTestUtils.setField(taskService, "restorePeriod", Duration.ofDays(7));
+        User author = User.builder().id(2L).email("user@example.com").build();
+        Task task = Task.builder()
+                .id(taskId)
+                .version(3L)
+                .author(author)
+                .deletedAt(Instant.now())
+                .build();
+        TaskDto taskDto = new TaskDto(taskId, "Задача", "Описание", "PENDING", "HIGH", null, null, List.of(), 3L);
+
+        when(taskRepository.findDeletedById(eq(taskId), any(Instant.class))).thenReturn(Optional.of(task));
+        when(authenticationFacade.getCurrentUserEmail()).thenReturn("admin@example.com");
+        when(authenticationFacade.getCurrentUserRoles()).thenReturn(List.of("ROLE_ADMIN"));
+        when(taskMapper.toDto(task)).thenReturn(taskDto);
+
+        TaggedDto<TaskDto> result = taskService.restoreTask(taskId);
+
+        assertNull(task.getDeletedAt(), "Отметка удаления должна быть снята");
+        assertEquals(taskDto, result.body());
+        verify(taskRepository).saveAndFlush(task);
+        verify(domainEventService).publish(new TaskRestored(taskId, 2L));
+    }
+
+    @Test
+    @DisplayName("Восстановление задачи - срок восстановления истёк или задача не удалена")
+    void restoreTaskShouldRejectTaskOutsideRestorePeriod() {
+        Long taskId = 1L;
+        ReflectionTestUtils.setField(taskService, "restorePeriod", Duration.ofDays(7));
+
+        when(taskRepository.findDeletedById(eq(taskId), any(Instant.class))).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> taskService.restoreTask(taskId));
+        verify(taskRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(domainEventService);
+    }
+
+    @Test
+    @DisplayName("Приблизительная пагинация - оценка вместо подсчёта на большой таблице")
+    void getAllTasksApproximateShouldUseEstimateAboveThreshold() {
+        ReflectionTestUtils.setField(taskService, "exactCountThreshold", 1000L);
+        Task task = Task.builder().id(1L).title("Первая").build();
+        TaskSummaryDto taskDto = new TaskSummaryDto(1L, "Первая", "PENDING", "HIGH", null, null, 0, null);
+        PageRequest pageable = PageRequest.of(0, 1, TaskSort.byId().toSort());
+
+        when(taskRepository.estimateCount(TaskFilter.empty())).thenReturn(50_000L);
+        when(taskRepository.findSlice(any(), eq(pageable))).thenReturn(new SliceImpl<>(List.of(task), pageable, true));
+        when(taskMapper.toSummaryDto(task)).thenReturn(taskDto);
+
+        Slice<TaskSummaryDto> result =
+                taskService.getAllTasks(TaskFilter.empty(), TaskSort.byId(), 0, 1, PageMode.APPROXIMATE);
+
+        Page<TaskSummaryDto> page = assertInstanceOf(Page.class, result);
+        assertEquals(50_000L, page.getTotalElements(), "Общее число задач должно браться из оценки");
+        verify(taskRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Приблизительная пагинация - точный подсчёт на небольшой выборке")
+    void getAllTasksApproximateShouldCountExactlyBelowThreshold() {
+        ReflectionTestUtils.setField(taskService, "exactCountThreshold", 1000L);
+        PageRequest pageable = PageRequest.of(0, 10, TaskSort.byId().toSort());
+
+        when(taskRepository.estimateCount(TaskFilter.empty())).thenReturn(20L);
+        when(taskRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(Page.empty(pageable));
+
+        taskService.getAllTasks(TaskFilter.empty(), TaskSort.byId(), 0, 10, PageMode.APPROXIMATE);
+
+        verify(taskRepository, never()).findSlice(any(), any());
+    }
+
+    @Test
+    @DisplayName("Получение задач по курсору - возвращается курсор следующей страницы")
+    void getAllTasksAfterShouldReturnNextCursor() {
+        Task first = Task.builder().id(11L).title("Первая").build();
+        Task second = Task.builder().id(12L).title("Вторая").build();
+        Task extra = Task.builder().id(13L).title("Третья").build();
+        TaskSummaryDto firstDto = new TaskSummaryDto(11L, "Первая", "PENDING", "HIGH", null, null, 0, null);
+        TaskSummaryDto secondDto = new TaskSummaryDto(12L, "Вторая", "PENDING", "HIGH", null, null, 0, null);
+        TaskSort sort = TaskSort.byId();
+
+        when(taskRepository.findAllLimited(any(), eq(sort.toSort()), eq(3))).thenReturn(List.of(first, second, extra));
+        when(taskMapper.toSummaryDto(first)).thenReturn(firstDto);
+        when(taskMapper.toSummaryDto(second)).thenReturn(secondDto);
+
+        String after = new Cursor(10L, null).encode();
+
+        CursorPage<TaskSummaryDto> result = taskService.getAllTasks(TaskFilter.empty(), sort, after, 2);
+
+        assertEquals(List.of(firstDto, secondDto), result.content(), "Лишняя строка не должна попадать в страницу");
+        assertTrue(result.hasNext(), "Должна существовать следующая страница");
+        assertEquals(12L, Cursor.decode(result.nextCursor()).id(), "Курсор должен указывать на последнюю задачу");
+    }
+
+    @Test
+    @DisplayName("Получение задач по курсору - курсор содержит значение ключа сортировки")
+    void getUserTasksAfterShouldEncodeSortKeyValue() {
+        User user = User.builder().id(1L).email("user@example.com").build();
+        Task task = Task.builder().id(5L).title("Первая").priority(Priority.HIGH).build();
+        Task extra = Task.builder().id(6L).title("Вторая").priority(Priority.LOW).build();
+        TaskSummaryDto taskDto = new TaskSummaryDto(5L, "Первая", "PENDING", "HIGH", null, null, 0, null);
+        TaskSort sort = new TaskSort(TaskSortKey.PRIORITY, Sort.Direction.DESC);
+
+        when(taskRepository.findAllLimited(any(), eq(sort.toSort()), eq(2))).thenReturn(List.of(task, extra));
+        when(taskMapper.toSummaryDto(task)).thenReturn(taskDto);
+
+        CursorPage<TaskSummaryDto> result = taskService.getUserTasks(user, TaskFilter.empty(), sort, "", 1);
+
+        assertEquals(List.of(taskDto), result.content());
+        assertEquals(new Cursor(5L, "HIGH"), Cursor.decode(result.nextCursor()));
+    }
+
+    @Test
+    @DisplayName("Получение задач по курсору - последняя страница без курсора")
+    void getAllTasksAfterShouldReturnLastPage() {
+        Task task = Task.builder().id(5L).title("Единственная").build();
+        TaskSummaryDto taskDto = new TaskSummaryDto(5L, "Единственная", "PENDING", "LOW", null, null, 0, null);
+
+        when(taskRepository.findAllLimited(any(), any(), eq(11))).thenReturn(List.of(task));
+        when(taskMapper.toSummaryDto(task)).thenReturn(taskDto);
+
+        CursorPage<TaskSummaryDto> result = taskService.getAllTasks(TaskFilter.empty(), TaskSort.byId(), "", 10);
+
+        assertEquals(List.of(taskDto), result.content());
+        assertFalse(result.hasNext(), "Следующей страницы быть не должно");
+        assertNull(result.nextCursor(), "Курсор последней страницы должен быть null");
+    }
+
+    @Test
+    @DisplayName("Получение задач по курсору - ошибка при некорректном курсоре")
+    void getAllTasksAfterShouldRejectMalformedCursor() {
+        TaskFilter filter = TaskFilter.empty();
+        TaskSort sort = TaskSort.byId();
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.getAllTasks(filter, sort, "не-курсор", 10));
+    }
+
+    @Test
+    @DisplayName("Получение задач по курсору - курсор по последней активности содержит время")
+    void getAllTasksAfterShouldEncodeLastActivity() {
+        Instant lastActivityAt = Instant.parse("2025-03-01T10:15:30.123456Z");
+        Task task = Task.builder().id(5L).title("Первая").lastActivityAt(lastActivityAt).build();
+        Task extra = Task.builder().id(6L).title("Вторая").lastActivityAt(lastActivityAt).build();
+        TaskSort sort = new TaskSort(TaskSortKey.LAST_ACTIVITY, Sort.Direction.DESC);
+
+        when(taskRepository.findAllLimited(any(), eq(sort.toSort()), eq(2))).thenReturn(List.of(task, extra));
+
+        CursorPage<TaskSummaryDto> result = taskService.getAllTasks(TaskFilter.empty(), sort, "", 1);
+
+        Cursor cursor = Cursor.decode(result.nextCursor());
+        assertEquals(lastActivityAt, TaskSortKey.LAST_ACTIVITY.parseValue(cursor.value()));
+        assertThrows(IllegalArgumentException.class, () -> TaskSortKey.LAST_ACTIVITY.parseValue("вчера"));
+    }
+
+    @Test
+    @DisplayName("Поиск задач - результаты в порядке релевантности с курсором по рангу")
+    void searchTasksShouldKeepRankOrderAndEncodeRank() {
+        TaskSearchHit best = searchHit(7L, 0.9);
+        TaskSearchHit next = searchHit(3L, 0.4);
+        Task bestTask = Task.builder().id(7L).title("Отчёт").build();
+        Task nextTask = Task.builder().id(3L).title("Отчётность").build();
+        TaskSummaryDto bestDto = new TaskSummaryDto(7L, "Отчёт", "PENDING", "HIGH", null, null, 0, null);
+        User admin = User.builder().id(1L).email("admin@example.com").role(Role.ROLE_ADMIN).build();
+
+        when(taskRepository.searchRanked("отчёт", 1L, true, Double.MAX_VALUE, Long.MAX_VALUE, 2))
+                .thenReturn(List.of(best, next));
+        when(taskRepository.findByIdIn(List.of(7L, 3L))).thenReturn(List.of(nextTask, bestTask));
+        when(taskMapper.toSummaryDto(bestTask)).thenReturn(bestDto);
+
+        CursorPage<TaskSummaryDto> result = taskService.searchTasks(admin, "отчёт", "", 1);
+
+        assertEquals(List.of(bestDto), result.content(), "Первой должна идти самая релевантная задача");
+        assertEquals(new Cursor(7L, "0.9"), Cursor.decode(result.nextCursor()));
+    }
+
+    @Test
+    @DisplayName("Поиск задач - пользователь ищет только среди своих и назначенных ему задач")
+    void searchTasksShouldLimitNonAdminToOwnAndAssignedTasks() {
+        User user = User.builder().id(3L).email("user@example.com").role(Role.ROLE_USER).build();
+
+        CursorPage<TaskSummaryDto> result = taskService.searchTasks(user, "отчёт", "", 10);
+
+        assertTrue(result.content().isEmpty());
+        verify(taskRepository).searchRanked("отчёт", 3L, false, Double.MAX_VALUE, Long.MAX_VALUE, 11);
+    }
+
+    @Test
+    @DisplayName("Поиск задач - ошибка при пустом запросе")
+    void searchTasksShouldRejectBlankQuery() {
+        User user = User.builder().id(3L).email("user@example.com").role(Role.ROLE_USER).build();
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.searchTasks(user, " ", "", 10));
+        verifyNoInteractions(taskRepository);
+    }
+
+    private static TaskSearchHit searchHit(Long id, Double rank) {
+        return new TaskSearchHit() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Double getRank() {
+                return rank;
+            }
+        };
+    }
 }
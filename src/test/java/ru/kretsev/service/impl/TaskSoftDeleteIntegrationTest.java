@@ -0,0 +1,166 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import jakarta.persistence.EntityNotFoundException;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.kretsev.PostgresIntegrationTest;
+import ru.kretsev.dto.page.Cursor;
+import ru.kretsev.dto.page.PageMode;
+import ru.kretsev.dto.task.TaskChangeDto;
+import ru.kretsev.dto.task.TaskDto;
+import ru.kretsev.dto.task.TaskFilter;
+import ru.kretsev.dto.task.TaskSort;
+import ru.kretsev.dto.task.TaskSummaryDto;
+import ru.kretsev.model.comment.Comment;
+import ru.kretsev.model.task.Task;
+import ru.kretsev.model.task.TaskChangeType;
+import ru.kretsev.model.user.Role;
+import ru.kretsev.model.user.User;
+import ru.kretsev.repository.CommentRepository;
+import ru.kretsev.repository.TaskChangeRepository;
+import ru.kretsev.repository.TaskChangeRow;
+import ru.kretsev.repository.TaskRepository;
+import ru.kretsev.service.TaskChangeService;
+import ru.kretsev.service.TaskPurgeService;
+import ru.kretsev.service.TaskService;
+
+/**
+ * Integration tests of soft deletion, restoration and the purge of deleted tasks.
+ */
+class TaskSoftDeleteIntegrationTest extends PostgresIntegrationTest {
+    private static final User ADMIN = User.builder().id(-1L).role(Role.ROLE_ADMIN).build();
+    private static final int COMMENTS = 5;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskPurgeService taskPurgeService;
+
+    @Autowired
+    private TaskChangeService taskChangeService;
+
+    @Autowired
+    private TaskChangeRepository taskChangeRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        author = saveUser(Role.ROLE_USER);
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(author, null, author.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("DELETE FROM tasks");
+    }
+
+    @Test
+    @DisplayName("Удаление задачи - задача и комментарии скрыты из выборок и возвращаются при восстановлении")
+    void deletedTaskShouldBeHiddenUntilRestored() {
+        String start = taskChangeService.getChanges("", 100, ADMIN).nextCursor();
+        Long taskId = createTaskWithComments();
+
+        taskService.deleteTask(taskId);
+
+        assertTrue(taskRepository.findById(taskId).isEmpty(), "Удалённая задача не должна находиться по ID");
+        assertTrue(listAuthorTasks().isEmpty(), "Удалённая задача не должна попадать в списки");
+        assertTrue(commentRepository.findByTaskId(taskId, PageRequest.of(0, 10)).isEmpty());
+        assertEquals(COMMENTS, countComments(taskId), "Комментарии остаются в таблице до очистки");
+        assertEquals(
+                List.of(TaskChangeType.DELETED),
+                taskChangeService.getChanges(start, 100, ADMIN).changes().stream()
+                        .map(TaskChangeDto::type)
+                        .toList());
+
+        TaskDto restored = taskService.restoreTask(taskId).body();
+
+        assertEquals(taskId, restored.id());
+        assertEquals(List.of(taskId), listAuthorTasks());
+        assertEquals(COMMENTS, commentRepository.findByTaskId(taskId, PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(
+                List.of(TaskChangeType.RESTORED),
+                taskChangeService.getChanges(start, 100, ADMIN).changes().stream()
+                        .map(TaskChangeDto::type)
+                        .toList());
+    }
+
+    @Test
+    @DisplayName("Очистка - задачи, удалённые до срока восстановления, удаляются с комментариями без записей в журнале")
+    void purgeShouldRemoveTasksDeletedBeforeRestorePeriod() {
+        Long expiredId = createTaskWithComments();
+        Long recentId = createTaskWithComments();
+        taskService.deleteTask(expiredId);
+        taskService.deleteTask(recentId);
+        jdbcTemplate.update("UPDATE tasks SET deleted_at = now() - INTERVAL '30 days' WHERE id = ?", expiredId);
+        Cursor start = Cursor.decode(taskChangeService.getChanges("", 100, ADMIN).nextCursor());
+
+        assertThrows(EntityNotFoundException.class, () -> taskService.restoreTask(expiredId));
+
+        taskPurgeService.purgeDeletedTasks();
+
+        assertEquals(0, countTasks(expiredId), "Задача после срока восстановления должна быть удалена");
+        assertEquals(0, countComments(expiredId), "Комментарии задачи должны быть удалены");
+        assertEquals(1, countTasks(recentId), "Задача в пределах срока восстановления остаётся");
+        assertEquals(COMMENTS, countComments(recentId));
+        List<TaskChangeRow> purgeRows = taskChangeRepository
+                .findAfter(Long.parseLong(start.value()), start.id(), 100)
+                .rows();
+        assertTrue(purgeRows.isEmpty(), "Очистка не должна записывать изменения");
+    }
+
+    private Long createTaskWithComments() {
+        TaskDto task = taskService
+                .createTask(new TaskDto(null, "Задача", "Описание", null, "LOW", null, null, List.of(), null), author)
+                .body();
+        Task reference = taskRepository.getReferenceById(task.id());
+        for (int i = 0; i < COMMENTS; i++) {
+            commentRepository.save(Comment.builder()
+                    .content("Комментарий " + i)
+                    .task(reference)
+                    .author(author)
+                    .build());
+        }
+        return task.id();
+    }
+
+    private List<Long> listAuthorTasks() {
+        TaskFilter filter = TaskFilter.empty().withAuthorId(author.getId());
+        return taskService.getAllTasks(filter, TaskSort.byId(), 0, 10, PageMode.EXACT).stream()
+                .map(TaskSummaryDto::id)
+                .toList();
+    }
+
+    private int countTasks(Long taskId) {
+        Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM tasks WHERE id = ?", Integer.class, taskId);
+        return count == null ? 0 : count;
+    }
+
+    private int countComments(Long taskId) {
+        Integer count =
+                jdbcTemplate.queryForObject("SELECT count(*) FROM comments WHERE task_id = ?", Integer.class, taskId);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,91 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.kretsev.cache.CacheInvalidationBroadcaster;
+import ru.kretsev.cache.InvalidationTarget;
+import ru.kretsev.model.user.User;
+import ru.kretsev.repository.UserRepository;
+
+/**
+ * Unit tests for the TokenEpochServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenEpochServiceImplTest {
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ObjectProvider<CacheInvalidationBroadcaster> broadcasterProvider;
+
+    @Mock
+    private CacheInvalidationBroadcaster broadcaster;
+
+    private TokenEpochServiceImpl tokenEpochService;
+
+    @BeforeEach
+    void setUp() {
+        when(broadcasterProvider.getIfAvailable()).thenReturn(broadcaster);
+        tokenEpochService = new TokenEpochServiceImpl(userRepository, broadcasterProvider, 100, Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("Проверка эпохи - эпоха загружается один раз, дальше проверяется в памяти")
+    void isCurrentShouldLoadEpochOnce() {
+        when(userRepository.findTokenEpochById(1L)).thenReturn(Optional.of(2L));
+
+        assertTrue(tokenEpochService.isCurrent(1L, 2L));
+        assertFalse(tokenEpochService.isCurrent(1L, 1L), "Токен прошлой эпохи должен отклоняться");
+        assertTrue(tokenEpochService.isCurrent(1L, 2L));
+
+        verify(userRepository, times(1)).findTokenEpochById(1L);
+    }
+
+    @Test
+    @DisplayName("Проверка эпохи - токен несуществующего пользователя отклоняется")
+    void isCurrentShouldRejectUnknownUser() {
+        when(userRepository.findTokenEpochById(9L)).thenReturn(Optional.empty());
+
+        assertFalse(tokenEpochService.isCurrent(9L, 0L));
+    }
+
+    @Test
+    @DisplayName("Смена эпохи - прежние токены отклоняются, изменение рассылается остальным узлам")
+    void advanceShouldRejectPreviousTokens() {
+        User user = User.builder().id(1L).tokenEpoch(2).build();
+        when(userRepository.findTokenEpochById(1L)).thenReturn(Optional.of(2L), Optional.of(3L));
+        assertTrue(tokenEpochService.isCurrent(1L, 2L));
+
+        tokenEpochService.advance(user);
+
+        assertEquals(3L, user.getTokenEpoch());
+        assertFalse(tokenEpochService.isCurrent(1L, 2L));
+        assertTrue(tokenEpochService.isCurrent(1L, 3L));
+        verify(broadcaster).keyChanged("token-epochs", 1L);
+    }
+
+    @Test
+    @DisplayName("Смена эпохи на другом узле - эпоха пользователя загружается заново")
+    void remoteChangeShouldReloadEpoch() {
+        ArgumentCaptor<InvalidationTarget> target = ArgumentCaptor.forClass(InvalidationTarget.class);
+        verify(broadcaster).register(eq("token-epochs"), target.capture());
+        when(userRepository.findTokenEpochById(1L)).thenReturn(Optional.of(2L), Optional.of(3L));
+        assertTrue(tokenEpochService.isCurrent(1L, 2L));
+
+        target.getValue().evictLocally(1L);
+
+        assertFalse(tokenEpochService.isCurrent(1L, 2L));
+        verify(userRepository, times(2)).findTokenEpochById(1L);
+    }
+}
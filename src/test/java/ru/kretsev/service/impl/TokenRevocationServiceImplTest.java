@@ -0,0 +1,96 @@
+package ru.kretsev.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.kretsev.repository.TokenRevocationRepository;
+import ru.kretsev.repository.TokenRevocationRepository.RevokedToken;
+import ru.kretsev.service.LoggingService;
+
+/**
+ * Unit tests for the TokenRevocationServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceImplTest {
+    private static final Instant EXPIRES_AT = Instant.parse("2030-01-01T00:00:00Z");
+
+    @Mock
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Mock
+    private LoggingService loggingService;
+
+    private TokenRevocationServiceImpl tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocationService = new TokenRevocationServiceImpl(tokenRevocationRepository, loggingService, 3600, 100);
+    }
+
+    @Test
+    @DisplayName("Отзыв токена - отзыв записывается в базу и сразу действует на этом узле")
+    void revokeShouldRecordAndApplyRevocation() {
+        tokenRevocationService.revoke("token-id", 1L, EXPIRES_AT);
+
+        verify(tokenRevocationRepository).revoke("token-id", 1L, EXPIRES_AT);
+        assertTrue(tokenRevocationService.isRevoked("token-id"));
+        assertFalse(tokenRevocationService.isRevoked("other-id"));
+        assertFalse(tokenRevocationService.isRevoked(null));
+    }
+
+    @Test
+    @DisplayName("Отзыв сессии - отклоняются все токены сессии, но не токен с тем же идентификатором")
+    void revokeSessionShouldRevokeSessionOnly() {
+        UUID sessionId = UUID.randomUUID();
+
+        tokenRevocationService.revokeSession(sessionId, 1L);
+
+        verify(tokenRevocationRepository).revoke(eq("sid:" + sessionId), eq(1L), any(Instant.class));
+        assertTrue(tokenRevocationService.isSessionRevoked(sessionId.toString()));
+        assertFalse(tokenRevocationService.isRevoked(sessionId.toString()));
+        assertFalse(tokenRevocationService.isSessionRevoked(null));
+    }
+
+    @Test
+    @DisplayName("Синхронизация - читаются только отзывы после курсора, полный пакет дочитывается")
+    void syncShouldReadRevocationsAfterCursor() {
+        int batchSize = TokenRevocationServiceImpl.SYNC_BATCH_SIZE;
+        List<RevokedToken> full = new ArrayList<>();
+        for (int i = 1; i <= batchSize; i++) {
+            full.add(new RevokedToken(i, 10, "token-" + i, EXPIRES_AT));
+        }
+        when(tokenRevocationRepository.findAfter(0, 0, batchSize)).thenReturn(full);
+        when(tokenRevocationRepository.findAfter(10, batchSize, batchSize))
+                .thenReturn(List.of(new RevokedToken(2000, 11, "remote", EXPIRES_AT)));
+        when(tokenRevocationRepository.findAfter(11, 2000, batchSize)).thenReturn(List.of());
+
+        tokenRevocationService.syncRevocations();
+        tokenRevocationService.syncRevocations();
+
+        assertTrue(tokenRevocationService.isRevoked("token-1"));
+        assertTrue(tokenRevocationService.isRevoked("remote"));
+        verify(tokenRevocationRepository).findAfter(11, 2000, batchSize);
+    }
+
+    @Test
+    @DisplayName("Очистка - истёкшие отзывы удаляются пакетами, пока пакет полный")
+    void purgeShouldDeleteExpiredRevocationsInBatches() {
+        when(tokenRevocationRepository.purgeExpired(any(), eq(TokenRevocationServiceImpl.PURGE_BATCH_SIZE)))
+                .thenReturn(TokenRevocationServiceImpl.PURGE_BATCH_SIZE, 5);
+
+        tokenRevocationService.purgeExpiredRevocations();
+
+        verify(tokenRevocationRepository, times(2)).purgeExpired(any(), anyInt());
+        verify(loggingService).logInfo(anyString(), eq(1005L), eq(0), eq(0));
+    }
+}